@@ -0,0 +1,84 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roda_project.commons_ip.utils.IPException;
+import org.roda_project.commons_ip2.cli.model.enums.WriteStrategyEnum;
+import org.roda_project.commons_ip2.utils.Utils;
+
+/**
+ * {@code EARKSIP.build} of a synthetic package with each write strategy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BuildBenchmark {
+  @Param({"ZIP", "PARALLEL_ZIP", "FOLDER"})
+  public WriteStrategyEnum writeStrategy;
+
+  @Param({"2"})
+  public int representations;
+
+  @Param({"100"})
+  public int filesPerRepresentation;
+
+  @Param({"65536"})
+  public int fileSize;
+
+  private Path workDir;
+  private Path outputDir;
+  private SyntheticPackageGenerator generator;
+
+  @Setup(Level.Trial)
+  public void writeSources() throws IOException {
+    workDir = Files.createTempDirectory("commons-ip2-build-benchmark");
+    generator = new SyntheticPackageGenerator(representations, filesPerRepresentation, fileSize);
+    generator.writeSources(workDir.resolve("sources"));
+  }
+
+  @Setup(Level.Invocation)
+  public void createOutputDir() throws IOException {
+    outputDir = Files.createTempDirectory(workDir, "build");
+  }
+
+  @Benchmark
+  public Path build() throws IPException, InterruptedException {
+    return generator.build(writeStrategy, outputDir);
+  }
+
+  @TearDown(Level.Invocation)
+  public void deleteOutputDir() throws IOException {
+    Utils.deletePath(outputDir);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteWorkDir() throws IOException {
+    Utils.deletePath(workDir);
+  }
+}
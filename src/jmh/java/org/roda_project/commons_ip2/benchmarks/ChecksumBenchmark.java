@@ -0,0 +1,93 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roda_project.commons_ip2.utils.DigestPipeline;
+import org.roda_project.commons_ip2.utils.ZIPUtils;
+
+/**
+ * Checksums of some content: {@code ZIPUtils.calculateChecksums} of an
+ * in-memory stream, and {@link DigestPipeline} reading a file through a
+ * channel versus {@link DigestPipeline#digestFile(Path, Set)}, which maps the
+ * files of at least {@link DigestPipeline#MAPPED_THRESHOLD} bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ChecksumBenchmark {
+  /**
+   * Algorithms separated by {@code ;}.
+   */
+  @Param({"SHA-256", "SHA-256;MD5"})
+  public String algorithms;
+
+  @Param({"65536", "16777216"})
+  public int size;
+
+  private Set<String> checksumAlgorithms;
+  private byte[] content;
+  private Path file;
+
+  @Setup(Level.Trial)
+  public void writeContent() throws IOException {
+    checksumAlgorithms = new LinkedHashSet<>(Arrays.asList(algorithms.split(";")));
+    content = new byte[size];
+    new Random(0).nextBytes(content);
+    file = Files.createTempFile("commons-ip2-checksum-benchmark", ".bin");
+    Files.write(file, content);
+  }
+
+  @Benchmark
+  public Map<String, String> calculateChecksums() throws NoSuchAlgorithmException, IOException {
+    return ZIPUtils.calculateChecksums(Optional.empty(), new ByteArrayInputStream(content), checksumAlgorithms);
+  }
+
+  @Benchmark
+  public Map<String, String> digestRead() throws NoSuchAlgorithmException, IOException {
+    return DigestPipeline.digest(file, checksumAlgorithms, null, false).getChecksums();
+  }
+
+  @Benchmark
+  public Map<String, String> digestFile() throws NoSuchAlgorithmException, IOException {
+    return DigestPipeline.digestFile(file, checksumAlgorithms).getChecksums();
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+}
@@ -0,0 +1,96 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roda_project.commons_ip.utils.IPException;
+import org.roda_project.commons_ip2.cli.model.enums.WriteStrategyEnum;
+import org.roda_project.commons_ip2.cli.model.exception.UnmarshallerException;
+import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
+import org.roda_project.commons_ip2.model.IPConstants;
+import org.roda_project.commons_ip2.utils.METSUtils;
+import org.roda_project.commons_ip2.utils.Utils;
+import org.roda_project.commons_ip2.validator.common.InstatiateMets;
+import org.xml.sax.SAXException;
+
+import jakarta.xml.bind.JAXBException;
+
+/**
+ * {@code METSUtils.marshallMETS} and {@link InstatiateMets} of the root METS
+ * or of the first representation METS (whose size grows with the number of
+ * files) of a synthetic package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MetsBenchmark {
+  @Param({"true", "false"})
+  public boolean rootMets;
+
+  @Param({"2"})
+  public int representations;
+
+  @Param({"1000"})
+  public int filesPerRepresentation;
+
+  private Path workDir;
+  private byte[] metsBytes;
+  private Mets mets;
+
+  @Setup(Level.Trial)
+  public void buildPackage() throws IOException, IPException, InterruptedException, JAXBException, SAXException {
+    workDir = Files.createTempDirectory("commons-ip2-mets-benchmark");
+    final SyntheticPackageGenerator generator = new SyntheticPackageGenerator(representations,
+      filesPerRepresentation, 16);
+    generator.writeSources(workDir.resolve("sources"));
+    final Path sip = generator.build(WriteStrategyEnum.FOLDER, Files.createDirectories(workDir.resolve("package")));
+    final Path metsFile = rootMets ? sip.resolve(IPConstants.METS_FILE)
+      : sip.resolve(IPConstants.REPRESENTATIONS_FOLDER).resolve("rep1").resolve(IPConstants.METS_FILE);
+    metsBytes = Files.readAllBytes(metsFile);
+    mets = METSUtils.instantiateMETSFromFile(metsFile);
+  }
+
+  @Benchmark
+  public byte[] marshallMETS() throws JAXBException, IOException, IPException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(metsBytes.length);
+    METSUtils.marshallMETS(mets, outputStream, rootMets);
+    return outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public Mets instantiateMets() throws UnmarshallerException {
+    return new InstatiateMets(new ByteArrayInputStream(metsBytes)).instatiateMetsFile(IPConstants.METS_FILE);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteWorkDir() throws IOException {
+    Utils.deletePath(workDir);
+  }
+}
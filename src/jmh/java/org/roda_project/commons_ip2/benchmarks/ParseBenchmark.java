@@ -0,0 +1,100 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roda_project.commons_ip.model.ParseException;
+import org.roda_project.commons_ip.utils.IPException;
+import org.roda_project.commons_ip2.cli.model.enums.WriteStrategyEnum;
+import org.roda_project.commons_ip2.model.SIP;
+import org.roda_project.commons_ip2.model.impl.eark.EARKSIP;
+import org.roda_project.commons_ip2.utils.Utils;
+import org.roda_project.commons_ip2.utils.ZIPUtils;
+
+/**
+ * {@code EARKSIP.parse} of a synthetic ZIP package, with and without streaming
+ * parse, extracting it or reading it straight from the archive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ParseBenchmark {
+  @Param({"false", "true"})
+  public boolean streamingParse;
+
+  @Param({"false", "true"})
+  public boolean parseFromArchive;
+
+  @Param({"2"})
+  public int representations;
+
+  @Param({"100"})
+  public int filesPerRepresentation;
+
+  @Param({"65536"})
+  public int fileSize;
+
+  private Path workDir;
+  private Path zipSIP;
+  private Path parseDir;
+  private SIP parsedSIP;
+
+  @Setup(Level.Trial)
+  public void buildPackage() throws IOException, IPException, InterruptedException {
+    workDir = Files.createTempDirectory("commons-ip2-parse-benchmark");
+    final SyntheticPackageGenerator generator = new SyntheticPackageGenerator(representations,
+      filesPerRepresentation, fileSize);
+    generator.writeSources(workDir.resolve("sources"));
+    zipSIP = generator.build(WriteStrategyEnum.ZIP, Files.createDirectories(workDir.resolve("package")));
+  }
+
+  @Setup(Level.Invocation)
+  public void createParseDir() throws IOException {
+    parseDir = Files.createTempDirectory(workDir, "parse");
+  }
+
+  @Benchmark
+  public SIP parse() throws ParseException {
+    final EARKSIP parser = new EARKSIP();
+    parser.setStreamingParse(streamingParse);
+    parser.setParseFromArchive(parseFromArchive);
+    parsedSIP = parser.parse(zipSIP, parseDir);
+    return parsedSIP;
+  }
+
+  @TearDown(Level.Invocation)
+  public void deleteParseDir() throws IOException {
+    ZIPUtils.closeIPInZipFormat(parsedSIP.getBasePath());
+    Utils.deletePath(parseDir);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteWorkDir() throws IOException {
+    Utils.deletePath(workDir);
+  }
+}
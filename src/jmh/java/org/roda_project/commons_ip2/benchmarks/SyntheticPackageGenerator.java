@@ -0,0 +1,164 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.roda_project.commons_ip.utils.IPException;
+import org.roda_project.commons_ip2.cli.model.enums.WriteStrategyEnum;
+import org.roda_project.commons_ip2.cli.utils.SIPBuilderUtils;
+import org.roda_project.commons_ip2.model.IPContentInformationType;
+import org.roda_project.commons_ip2.model.IPContentType;
+import org.roda_project.commons_ip2.model.IPDescriptiveMetadata;
+import org.roda_project.commons_ip2.model.IPFile;
+import org.roda_project.commons_ip2.model.IPRepresentation;
+import org.roda_project.commons_ip2.model.MetadataType;
+import org.roda_project.commons_ip2.model.MetadataType.MetadataTypeEnum;
+import org.roda_project.commons_ip2.model.impl.eark.EARKSIP;
+
+/**
+ * Generates E-ARK SIPs with a configurable number of representations, files
+ * per representation and file size, to be used by the benchmarks.
+ * <p>
+ * The source files are written once by {@link #writeSources(Path)} with
+ * pseudo-random (so hardly compressible) but reproducible content, and can
+ * then be built as many times as needed with
+ * {@link #build(WriteStrategyEnum, Path)}.
+ * </p>
+ */
+public final class SyntheticPackageGenerator {
+  public static final String DEFAULT_VERSION = "2.2.0";
+
+  private static final String DESCRIPTIVE_METADATA = """
+    <?xml version="1.0"?>
+    <simpledc>
+      <title>Synthetic package</title>
+      <identifier>synthetic-package</identifier>
+    </simpledc>
+    """;
+
+  private final int representations;
+  private final int filesPerRepresentation;
+  private final int fileSize;
+  private String version = DEFAULT_VERSION;
+  private long seed = 0;
+
+  private Path descriptiveMetadata = null;
+  private final List<List<Path>> dataFiles = new ArrayList<>();
+
+  public SyntheticPackageGenerator(final int representations, final int filesPerRepresentation, final int fileSize) {
+    this.representations = representations;
+    this.filesPerRepresentation = filesPerRepresentation;
+    this.fileSize = fileSize;
+  }
+
+  public SyntheticPackageGenerator setVersion(final String version) {
+    this.version = version;
+    return this;
+  }
+
+  public SyntheticPackageGenerator setSeed(final long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * Writes the descriptive metadata and the data files of every representation
+   * to {@code sourcesDir}, which is created if needed.
+   */
+  public void writeSources(final Path sourcesDir) throws IOException {
+    Files.createDirectories(sourcesDir);
+    descriptiveMetadata = Files.writeString(sourcesDir.resolve("metadata_descriptive_dc.xml"), DESCRIPTIVE_METADATA,
+      StandardCharsets.UTF_8);
+
+    final Random random = new Random(seed);
+    final byte[] buffer = new byte[Math.min(Math.max(fileSize, 1), 1024 * 1024)];
+    dataFiles.clear();
+    for (int r = 1; r <= representations; r++) {
+      final Path representationDir = Files.createDirectories(sourcesDir.resolve("rep" + r));
+      final List<Path> files = new ArrayList<>(filesPerRepresentation);
+      for (int f = 1; f <= filesPerRepresentation; f++) {
+        final Path file = representationDir.resolve("file" + f + ".bin");
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+          int remaining = fileSize;
+          while (remaining > 0) {
+            final int length = Math.min(remaining, buffer.length);
+            random.nextBytes(buffer);
+            outputStream.write(buffer, 0, length);
+            remaining -= length;
+          }
+        }
+        files.add(file);
+      }
+      dataFiles.add(files);
+    }
+  }
+
+  /**
+   * Creates a new {@link EARKSIP} with the sources written by
+   * {@link #writeSources(Path)}.
+   */
+  public EARKSIP createSIP() throws IPException {
+    if (descriptiveMetadata == null) {
+      throw new IllegalStateException("The sources were not written yet");
+    }
+    final EARKSIP sip = new EARKSIP("SIP_SYNTHETIC", IPContentType.getMIXED(), IPContentInformationType.getMIXED(),
+      version);
+    sip.addCreatorSoftwareAgent("RODA Commons IP", "2.0.0");
+    sip.setDescription("A synthetic E-ARK SIP with " + representations + " representations of "
+      + filesPerRepresentation + " files of " + fileSize + " bytes");
+    sip.addDescriptiveMetadata(
+      new IPDescriptiveMetadata(new IPFile(descriptiveMetadata), new MetadataType(MetadataTypeEnum.DC), null));
+
+    for (int r = 0; r < dataFiles.size(); r++) {
+      final IPRepresentation representation = new IPRepresentation("rep" + (r + 1));
+      for (Path file : dataFiles.get(r)) {
+        representation.addFile(new IPFile(file));
+      }
+      sip.addRepresentation(representation);
+    }
+    return sip;
+  }
+
+  /**
+   * Builds a new package with the given write strategy.
+   *
+   * @return the path of the ZIP file or of the folder of the package
+   */
+  public Path build(final WriteStrategyEnum writeStrategy, final Path outputDir)
+    throws IPException, InterruptedException {
+    return createSIP().build(SIPBuilderUtils.getWriteStrategy(writeStrategy, outputDir));
+  }
+
+  /**
+   * Generates a package from the command line: {@code <outputDir>
+   * <representations> <filesPerRepresentation> <fileSize> [ZIP|FOLDER]}.
+   */
+  public static void main(final String[] args) throws IOException, IPException, InterruptedException {
+    if (args.length < 4) {
+      System.err.println("Usage: SyntheticPackageGenerator <outputDir> <representations> <filesPerRepresentation> "
+        + "<fileSize> [ZIP|PARALLEL_ZIP|FOLDER]");
+      System.exit(1);
+    }
+    final Path outputDir = Files.createDirectories(Paths.get(args[0]));
+    final SyntheticPackageGenerator generator = new SyntheticPackageGenerator(Integer.parseInt(args[1]),
+      Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+    generator.writeSources(outputDir.resolve("sources"));
+    final WriteStrategyEnum writeStrategy = args.length > 4 ? WriteStrategyEnum.valueOf(args[4])
+      : WriteStrategyEnum.ZIP;
+    System.out.println(generator.build(writeStrategy, outputDir));
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roda_project.commons_ip.utils.IPException;
+import org.roda_project.commons_ip2.cli.model.enums.WriteStrategyEnum;
+import org.roda_project.commons_ip2.utils.Utils;
+import org.roda_project.commons_ip2.validator.EARKSIPValidator;
+import org.roda_project.commons_ip2.validator.reporter.ValidationReportOutputJson;
+import org.xml.sax.SAXException;
+
+/**
+ * {@code EARKSIPValidator.validate} of a synthetic package, as a ZIP file and
+ * as a folder. The report is discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ValidateBenchmark {
+  @Param({"ZIP", "FOLDER"})
+  public WriteStrategyEnum writeStrategy;
+
+  @Param({"2"})
+  public int representations;
+
+  @Param({"100"})
+  public int filesPerRepresentation;
+
+  @Param({"65536"})
+  public int fileSize;
+
+  private Path workDir;
+  private Path sip;
+
+  @Setup(Level.Trial)
+  public void buildPackage() throws IOException, IPException, InterruptedException {
+    workDir = Files.createTempDirectory("commons-ip2-validate-benchmark");
+    final SyntheticPackageGenerator generator = new SyntheticPackageGenerator(representations,
+      filesPerRepresentation, fileSize);
+    generator.writeSources(workDir.resolve("sources"));
+    sip = generator.build(writeStrategy, Files.createDirectories(workDir.resolve("package")));
+  }
+
+  @Benchmark
+  public boolean validate() throws IOException, ParserConfigurationException, SAXException {
+    final ValidationReportOutputJson reportOutputJson = new ValidationReportOutputJson(sip,
+      OutputStream.nullOutputStream());
+    final EARKSIPValidator validator = new EARKSIPValidator(reportOutputJson,
+      SyntheticPackageGenerator.DEFAULT_VERSION);
+    return validator.validate(SyntheticPackageGenerator.DEFAULT_VERSION);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteWorkDir() throws IOException {
+    Utils.deletePath(workDir);
+  }
+}
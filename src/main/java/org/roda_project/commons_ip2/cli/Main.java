@@ -11,7 +11,7 @@ import picocli.CommandLine;
  * @author Miguel Guimarães <mguimaraes@keep.pt>
  */
 @CommandLine.Command(name = "commons-ip", subcommands = {Create.class,
-  Validate.class}, mixinStandardHelpOptions = true, versionProvider = VersionProvider.class)
+  Validate.class, ValidateBatch.class}, mixinStandardHelpOptions = true, versionProvider = VersionProvider.class)
 public class Main implements Runnable {
   public static void main(String... args) {
     System.setProperty(Constants.PROPERTY_KEY_HOME, System.getProperty("user.dir"));
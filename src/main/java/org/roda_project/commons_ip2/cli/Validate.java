@@ -60,6 +60,12 @@ public class Validate implements Callable<Integer> {
   @CommandLine.Option(names = {"--specification-version"}, description = "E-ARK CSIP version")
   String version = "2.2.0";
 
+  @CommandLine.Option(names = {"--threads"}, paramLabel = "<number>", description = "Number of representation METS files validated concurrently")
+  int threads = 1;
+
+  @CommandLine.Option(names = {"--skip-package-checksum"}, description = "Do not calculate the checksum of the IP for the pyip report")
+  boolean skipPackageChecksum;
+
   @Override
   public Integer call() throws ValidationException, CLIException {
     for (String sip : sipPaths) {
@@ -91,6 +97,7 @@ public class Validate implements Callable<Integer> {
       if (outputStream != null) {
         final ValidationReportOutputJson jsonReporter = new ValidationReportOutputJson(sipPath, outputStream);
         final EARKSIPValidator earksipValidator = new EARKSIPValidator(jsonReporter, version);
+        earksipValidator.setSubMetsThreads(threads);
         if (verbose) {
           earksipValidator.addObserver(new ProgressValidationLoggerObserver());
         }
@@ -99,6 +106,7 @@ public class Validate implements Callable<Integer> {
     } else if (reportType.equals(PYIP)) {
       final ValidationReportOutputJSONPyIP jsonReporter = new ValidationReportOutputJSONPyIP(reportPath, sipPath);
       final EARKPyIPValidator earkPyIPValidator = new EARKPyIPValidator(jsonReporter, version);
+      earkPyIPValidator.setPackageChecksumEnabled(!skipPackageChecksum);
       if (verbose) {
         earkPyIPValidator.addObserver(new ProgressValidationLoggerObserver());
       }
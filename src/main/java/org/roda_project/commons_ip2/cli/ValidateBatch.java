@@ -0,0 +1,123 @@
+package org.roda_project.commons_ip2.cli;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.roda_project.commons_ip2.cli.model.ExitCodes;
+import org.roda_project.commons_ip2.cli.model.exception.CLIException;
+import org.roda_project.commons_ip2.cli.model.exception.ValidationException;
+import org.roda_project.commons_ip2.cli.utils.CLI.ValidateCommandUtils;
+import org.roda_project.commons_ip2.utils.LogSystem;
+import org.roda_project.commons_ip2.validator.BatchValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import picocli.CommandLine;
+
+/**
+ * Validates many E-ARK IP packages with the same warm validation components.
+ */
+@CommandLine.Command(name = "validate-batch", showDefaultValues = true, description = "Validates a batch of E-ARK IP packages, several at the same time, writing one report per package and a summary")
+public class ValidateBatch implements Callable<Integer> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ValidateBatch.class);
+  private static final String SUMMARY_FILE_NAME = "validation-summary.json";
+
+  @CommandLine.Spec
+  CommandLine.Model.CommandSpec spec;
+  @CommandLine.Option(names = {"-h", "--help"}, usageHelp = true, description = "display this help and exit")
+  boolean help;
+
+  @CommandLine.Option(names = {"-i",
+    "--inputs"}, split = ",", description = "Paths to the SIPs archive file or files", paramLabel = "<path>")
+  List<String> sipPaths = new ArrayList<>();
+
+  @CommandLine.Option(names = {"-d",
+    "--input-dir"}, paramLabel = "<path>", description = "Directory whose ZIP files and folders are validated")
+  String inputDir;
+
+  @CommandLine.Option(names = {"-o",
+    "--output-report-dir"}, paramLabel = "<path>", description = "Path to save the validation reports and the summary. If not set the reports will be generated in the same folder as each IP package.")
+  String reportPathDir = System.getProperty("user.dir");
+
+  @CommandLine.Option(names = {"--specification-version"}, description = "E-ARK CSIP version")
+  String version = "2.2.0";
+
+  @CommandLine.Option(names = {"-p",
+    "--parallelism"}, paramLabel = "<number>", description = "Number of packages validated at the same time")
+  int parallelism = Runtime.getRuntime().availableProcessors();
+
+  @CommandLine.Option(names = {"--threads"}, paramLabel = "<number>", description = "Number of representation METS files of each package validated concurrently")
+  int threads = 1;
+
+  @Override
+  public Integer call() throws ValidationException, CLIException {
+    final List<Path> packages = obtainPackages();
+    LogSystem.logOperatingSystemInfo();
+    LOGGER.debug("command executed: {}", String.join(" ", spec.commandLine().getParseResult().originalArgs()));
+
+    final List<BatchValidator.Outcome> outcomes = new ArrayList<>();
+    try (BatchValidator batchValidator = new BatchValidator(version, parallelism)) {
+      batchValidator.setSubMetsThreads(threads);
+      final List<Future<BatchValidator.Outcome>> futures = new ArrayList<>();
+      for (Path sipPath : packages) {
+        futures.add(batchValidator.submit(sipPath, ValidateCommandUtils.obtainReportPath(sipPath, reportPathDir)));
+      }
+      for (Future<BatchValidator.Outcome> future : futures) {
+        final BatchValidator.Outcome outcome = future.get();
+        outcomes.add(outcome);
+        new CommandLine(this).getOut().printf("%s: %s (report at '%s')%n", outcome.getSipPath(),
+          outcome.getError() != null ? "FAILED" : outcome.isValid() ? "VALID" : "INVALID",
+          outcome.getReportPath().normalize().toAbsolutePath());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ValidationException("Batch validation interrupted");
+    } catch (ExecutionException e) {
+      throw new ValidationException("Failed to validate");
+    }
+
+    final Path summaryPath = obtainSummaryPath();
+    try (OutputStream outputStream = Files.newOutputStream(summaryPath)) {
+      BatchValidator.writeSummary(outcomes, outputStream);
+    } catch (IOException e) {
+      throw new ValidationException("Unable to create the validation summary");
+    }
+    new CommandLine(this).getOut().printf("E-ARK SIP validation summary at '%s'%n",
+      summaryPath.normalize().toAbsolutePath());
+    return ExitCodes.EXIT_CODE_OK;
+  }
+
+  private List<Path> obtainPackages() throws CLIException {
+    final List<Path> packages = new ArrayList<>();
+    sipPaths.forEach(sip -> packages.add(Paths.get(sip)));
+    if (inputDir != null) {
+      try (Stream<Path> entries = Files.list(Paths.get(inputDir))) {
+        entries.filter(entry -> Files.isDirectory(entry) || entry.getFileName().toString().endsWith(".zip")).sorted()
+          .forEach(packages::add);
+      } catch (IOException e) {
+        throw new CLIException("Unable to list the packages in " + inputDir);
+      }
+    }
+    if (packages.isEmpty()) {
+      throw new CLIException("No packages to validate, use --inputs or --input-dir");
+    }
+    return packages;
+  }
+
+  private Path obtainSummaryPath() {
+    final Path path = Paths.get(reportPathDir);
+    if (Files.isDirectory(path)) {
+      return path.resolve(SUMMARY_FILE_NAME);
+    }
+    return Paths.get(System.getProperty("user.dir")).resolve(SUMMARY_FILE_NAME);
+  }
+}
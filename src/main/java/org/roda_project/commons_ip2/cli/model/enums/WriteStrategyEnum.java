@@ -4,7 +4,7 @@ package org.roda_project.commons_ip2.cli.model.enums;
  * @author Miguel Guimarães <mguimaraes@keep.pt>
  */
 public enum WriteStrategyEnum {
-  ZIP("Zip"), FOLDER("Folder");
+  ZIP("Zip"), PARALLEL_ZIP("ParallelZip"), FOLDER("Folder");
 
   private final String type;
 
@@ -24,6 +24,7 @@ import org.roda_project.commons_ip2.model.MetadataType;
 import org.roda_project.commons_ip2.model.RepresentationStatus;
 import org.roda_project.commons_ip2.model.SIP;
 import org.roda_project.commons_ip2.model.impl.eark.out.writers.factory.FolderWriteStrategyFactory;
+import org.roda_project.commons_ip2.model.impl.eark.out.writers.factory.ParallelZipWriteStrategyFactory;
 import org.roda_project.commons_ip2.model.impl.eark.out.writers.factory.ZipWriteStrategyFactory;
 import org.roda_project.commons_ip2.model.impl.eark.out.writers.strategy.WriteStrategy;
 import org.roda_project.commons_ip2.utils.Utils;
@@ -248,6 +249,10 @@ public class SIPBuilderUtils {
         ZipWriteStrategyFactory zipWriteStrategyFactory = new ZipWriteStrategyFactory();
         return zipWriteStrategyFactory.create(buildPath);
       }
+      case PARALLEL_ZIP -> {
+        ParallelZipWriteStrategyFactory parallelZipWriteStrategyFactory = new ParallelZipWriteStrategyFactory();
+        return parallelZipWriteStrategyFactory.create(buildPath);
+      }
       case FOLDER -> {
         FolderWriteStrategyFactory folderWriteStrategyFactory = new FolderWriteStrategyFactory();
         return folderWriteStrategyFactory.create(buildPath);
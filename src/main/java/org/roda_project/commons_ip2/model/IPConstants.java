@@ -112,7 +112,14 @@ public final class IPConstants {
   public static final String HUNGARIAN_DOCUMENTATION_TAG = "documentation";
 
   // FIXME 20190625 hsilva: this "fix" might introduce strange behaviors in
-  // multi-threaded/multi-package type processing
+  // multi-threaded/multi-package type processing. It is no longer read: E-ARK
+  // builds and parses use the setting of their IPOperationContext, and the
+  // METSUtils/Utils href methods without an explicit setting use
+  // IPOperationContext.DEFAULT
+  /**
+   * @deprecated not read anymore, use an {@link IPOperationContext}
+   */
+  @Deprecated
   public static boolean METS_ENCODE_AND_DECODE_HREF = true;
 
   // XML SChemas
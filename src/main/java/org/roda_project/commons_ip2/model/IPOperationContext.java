@@ -0,0 +1,60 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.model;
+
+import org.roda_project.commons_ip2.mets_v1_12.beans.FileType.FLocat;
+import org.roda_project.commons_ip2.utils.METSUtils;
+import org.roda_project.commons_ip2.utils.Utils;
+
+/**
+ * Settings of an IP build or parse that used to live in global state (see
+ * {@link IPConstants#METS_ENCODE_AND_DECODE_HREF}).
+ * <p>
+ * A context is immutable, so the same one can be used by any number of builds
+ * and parses running at the same time, each with its own settings.
+ * </p>
+ */
+public final class IPOperationContext {
+  /**
+   * Context with the default settings, used where none is given.
+   */
+  public static final IPOperationContext DEFAULT = new IPOperationContext();
+
+  private final boolean encodeAndDecodeHref;
+
+  /**
+   * Context that encodes and decodes the METS hrefs, as E-ARK requires.
+   */
+  public IPOperationContext() {
+    this(true);
+  }
+
+  public IPOperationContext(boolean encodeAndDecodeHref) {
+    this.encodeAndDecodeHref = encodeAndDecodeHref;
+  }
+
+  public boolean isEncodeAndDecodeHref() {
+    return encodeAndDecodeHref;
+  }
+
+  public String encodeHref(String value) {
+    return METSUtils.encodeHref(value, encodeAndDecodeHref);
+  }
+
+  public String decodeHref(String value) {
+    return METSUtils.decodeHref(value, encodeAndDecodeHref);
+  }
+
+  public FLocat createFileLocation(String filePath) {
+    return METSUtils.createFileLocation(filePath, encodeAndDecodeHref);
+  }
+
+  public String extractedRelativePathFromHref(String href) {
+    return Utils.extractedRelativePathFromHref(href, encodeAndDecodeHref);
+  }
+}
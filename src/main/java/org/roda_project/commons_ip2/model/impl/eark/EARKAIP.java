@@ -10,6 +10,8 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.NullOutputStream;
@@ -45,6 +47,14 @@ public class EARKAIP extends AIPWrap {
 
   private final EARKMETSCreator metsCreator;
 
+  private boolean parseFromArchive = false;
+
+  private ExecutorService checksumExecutor = null;
+
+  private ExecutorService buildExecutor = null;
+
+  private boolean parallelBuild = false;
+
   /**
    * Constructor.
    *
@@ -63,10 +73,64 @@ public class EARKAIP extends AIPWrap {
     metsCreator = factory.getGenerator(version);
   }
 
+  public boolean isParseFromArchive() {
+    return parseFromArchive;
+  }
+
+  /**
+   * When enabled, an AIP in ZIP format is parsed straight from the archive
+   * instead of being extracted first (see {@link EARKSIP#setParseFromArchive}).
+   * The archive stays open until {@link ZIPUtils#closeIPInZipFormat(Path)} is
+   * called with the base path of the parsed AIP.
+   */
+  public void setParseFromArchive(boolean parseFromArchive) {
+    this.parseFromArchive = parseFromArchive;
+  }
+
+  public ExecutorService getBuildExecutor() {
+    return buildExecutor;
+  }
+
+  /**
+   * Sets the executor where the representation METS are generated during build
+   * (see {@link EARKSIP#setBuildExecutor(ExecutorService)}).
+   */
+  public void setBuildExecutor(ExecutorService buildExecutor) {
+    this.buildExecutor = buildExecutor;
+  }
+
+  public boolean isParallelBuild() {
+    return parallelBuild;
+  }
+
+  /**
+   * When enabled and no build executor is set, each build generates the
+   * representation METS on its own pool (see
+   * {@link EARKSIP#setParallelBuild(boolean)}). Disabled by default.
+   */
+  public void setParallelBuild(boolean parallelBuild) {
+    this.parallelBuild = parallelBuild;
+  }
+
+  public ExecutorService getChecksumExecutor() {
+    return checksumExecutor;
+  }
+
+  /**
+   * Sets the executor where the file checksums are verified during parse (see
+   * {@link EARKSIP#setChecksumExecutor(ExecutorService)}). When none is set,
+   * they are verified one at a time on the parsing thread.
+   */
+  public void setChecksumExecutor(ExecutorService checksumExecutor) {
+    this.checksumExecutor = checksumExecutor;
+  }
+
   public AIP parse(final Path source, String version) throws ParseException {
     try {
       if (Files.isDirectory(source)) {
         return parseEARKAIPFromPath(source, version);
+      } else if (parseFromArchive) {
+        return parseEARKAIP(source, null, version);
       } else {
         return parse(source, Files.createTempDirectory("unzipped"), version);
       }
@@ -80,8 +144,14 @@ public class EARKAIP extends AIPWrap {
   }
 
   private AIP parseEARKAIP(final Path source, final Path destinationDirectory, String version) throws ParseException {
-    Path aipPath = ZIPUtils.extractIPIfInZipFormat(source, destinationDirectory);
-    return parseEARKAIPFromPath(aipPath, version);
+    Path aipPath = parseFromArchive ? ZIPUtils.openIPInZipFormat(source, destinationDirectory)
+      : ZIPUtils.extractIPIfInZipFormat(source, destinationDirectory);
+    try {
+      return parseEARKAIPFromPath(aipPath, version);
+    } catch (ParseException | RuntimeException e) {
+      ZIPUtils.closeIPInZipFormatQuietly(aipPath, e);
+      throw e;
+    }
   }
 
   private AIP parseEARKAIPFromPath(final Path aipPath, String version) throws ParseException {
@@ -90,6 +160,7 @@ public class EARKAIP extends AIPWrap {
       aip.setBasePath(aipPath);
 
       EARKUtils metsUtils = new EARKUtils(this.metsCreator);
+      metsUtils.setChecksumExecutor(checksumExecutor);
 
       final MetsWrapper metsWrapper = metsUtils.processMainMets(aip, aipPath);
 
@@ -147,8 +218,17 @@ public class EARKAIP extends AIPWrap {
     throws IPException, InterruptedException {
     final Path buildDir = ModelUtils.createBuildDir(TEMP_DIR);
     Path zipPath = null;
+    final ExecutorService executor;
+    if (buildExecutor != null) {
+      executor = buildExecutor;
+    } else if (parallelBuild) {
+      executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    } else {
+      executor = null;
+    }
 
     EARKUtils utils = new EARKUtils(metsCreator);
+    utils.setBuildExecutor(executor);
 
     try {
       final Map<String, ZipEntryInfo> zipEntries = getZipEntries();
@@ -185,6 +265,9 @@ public class EARKAIP extends AIPWrap {
       ModelUtils.cleanUpUponInterrupt(LOGGER, zipPath);
       throw e;
     } finally {
+      if (executor != null && executor != buildExecutor) {
+        executor.shutdownNow();
+      }
       ModelUtils.deleteBuildDir(buildDir);
     }
   }
@@ -220,6 +303,9 @@ public class EARKAIP extends AIPWrap {
         LOGGER.debug("Writing file {}", zipEntryInfo.getFilePath());
         final Path outputPath = Paths.get(path.toString(), zipEntryInfo.getName());
         writeFileToPath(zipEntryInfo, outputPath, onlyMets);
+        if (zipEntryInfo instanceof METSZipEntryInfo metsEntry) {
+          metsEntry.releaseStaged();
+        }
       }
     } catch (final IOException | NoSuchAlgorithmException e) {
       LOGGER.debug("Error in write method", e);
@@ -233,7 +319,7 @@ public class EARKAIP extends AIPWrap {
     OutputStream os = null;
     try {
 
-      is = Files.newInputStream(zipEntryInfo.getFilePath());
+      is = ZIPUtils.openEntryStream(zipEntryInfo);
 
       if (!onlyMets || zipEntryInfo instanceof METSZipEntryInfo) {
         Files.createDirectories(outputPath.getParent());
@@ -267,8 +353,7 @@ public class EARKAIP extends AIPWrap {
     zipEntryInfo.setChecksum(checksum);
     zipEntryInfo.setChecksumAlgorithm(checksumType);
     if (zipEntryInfo instanceof METSFileTypeZipEntryInfo f) {
-      f.getMetsFileType().setCHECKSUM(checksum);
-      f.getMetsFileType().setCHECKSUMTYPE(checksumType);
+      f.setMetsFileTypeChecksum(checksum, checksumType);
     } else if (zipEntryInfo instanceof METSMdRefZipEntryInfo f) {
       f.getMetsMdRef().setCHECKSUM(checksum);
       f.getMetsMdRef().setCHECKSUMTYPE(checksumType);
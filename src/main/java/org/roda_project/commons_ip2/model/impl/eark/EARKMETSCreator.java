@@ -1,7 +1,6 @@
 package org.roda_project.commons_ip2.model.impl.eark;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -39,11 +38,14 @@ import org.roda_project.commons_ip2.model.IPFileShallow;
 import org.roda_project.commons_ip2.model.IPHeader;
 import org.roda_project.commons_ip2.model.IPInterface;
 import org.roda_project.commons_ip2.model.IPMetadata;
+import org.roda_project.commons_ip2.model.IPOperationContext;
 import org.roda_project.commons_ip2.model.IPRepresentation;
 import org.roda_project.commons_ip2.model.MetsWrapper;
 import org.roda_project.commons_ip2.model.ValidationEntry;
 import org.roda_project.commons_ip2.model.impl.ModelUtils;
+import org.roda_project.commons_ip2.utils.METSDataFileSpool;
 import org.roda_project.commons_ip2.utils.METSUtils;
+import org.roda_project.commons_ip2.utils.ManifestCache;
 import org.roda_project.commons_ip2.utils.StructMapDiv;
 import org.roda_project.commons_ip2.utils.Tree;
 import org.roda_project.commons_ip2.utils.Utils;
@@ -56,7 +58,25 @@ import jakarta.xml.bind.JAXBException;
 
 public abstract class EARKMETSCreator {
   private static final Logger LOGGER = LoggerFactory.getLogger(EARKMETSCreator.class);
-  private final Map<String, MetsType.FileSec.FileGrp> dataFileGrp = new HashMap<>();
+  private final IPOperationContext context;
+
+  protected EARKMETSCreator() {
+    this(new IPOperationContext());
+  }
+
+  /**
+   * @param context
+   *          the settings of the builds and parses that use this creator. The
+   *          creator keeps no other state, so it can be shared by operations
+   *          running at the same time.
+   */
+  protected EARKMETSCreator(final IPOperationContext context) {
+    this.context = context;
+  }
+
+  public IPOperationContext getContext() {
+    return context;
+  }
 
   public MetsWrapper generateMetsSiard(final String id, final String label, final String profile, final boolean mainMets,
                                   final Optional<List<String>> ancestors, final Path metsPath, final IPHeader ipHeader, final String type,
@@ -215,7 +235,8 @@ public abstract class EARKMETSCreator {
     final MetsType.FileSec fileSec = createFileSec();
 
     // Create Shallows File Grps.
-    createShallowFileGrps(metsWrapper, fileSec, mainMets, isRepresentationsData, representation);
+    final Map<String, MetsType.FileSec.FileGrp> dataFileGrp = createShallowFileGrps(metsWrapper, fileSec, mainMets,
+      isRepresentationsData, representation);
 
     // Add schemas, documentation, submission to main div
     addCommonFileGrpToMets(metsWrapper, fileSec, isSchemas, isSubmission, isDocumentation, type);
@@ -231,7 +252,7 @@ public abstract class EARKMETSCreator {
       isMetadataOther, isSchemas, isDocumentation, isSubmission, type);
 
     // Create Data divs
-    createAndAddShallowDataDiv(metsWrapper, representation, mainDiv, mainMets, isRepresentationsData);
+    createAndAddShallowDataDiv(metsWrapper, representation, mainDiv, mainMets, isRepresentationsData, dataFileGrp);
 
     structMap.setDiv(mainDiv);
     mets.getStructMap().add(structMap);
@@ -266,6 +287,19 @@ public abstract class EARKMETSCreator {
   public void addRepresentationMETSToZipAndToMainMETS(final Map<String, ZipEntryInfo> zipEntries,
     final MetsWrapper mainMETSWrapper, final String representationId, final MetsWrapper representationMETSWrapper,
     final String representationMetsPath, final Path buildDir) throws IPException, InterruptedException {
+    addRepresentationMETSToZipAndToMainMETS(zipEntries, mainMETSWrapper, representationId, representationMETSWrapper,
+      representationMetsPath, buildDir, null);
+  }
+
+  /**
+   * @param dataFileSpool
+   *          where the data files of the representation were spooled or
+   *          {@code null} if they are in the data file group
+   */
+  public void addRepresentationMETSToZipAndToMainMETS(final Map<String, ZipEntryInfo> zipEntries,
+    final MetsWrapper mainMETSWrapper, final String representationId, final MetsWrapper representationMETSWrapper,
+    final String representationMetsPath, final Path buildDir, final METSDataFileSpool dataFileSpool)
+    throws IPException, InterruptedException {
     try {
       if (Thread.interrupted()) {
         throw new InterruptedException();
@@ -275,18 +309,24 @@ public abstract class EARKMETSCreator {
       final DivType.Mptr mptr = new DivType.Mptr();
       mptr.setLOCTYPE(METSEnums.LocType.URL.toString());
       mptr.setType(IPConstants.METS_TYPE_SIMPLE);
-      mptr.setHref(METSUtils.encodeHref(representationMetsPath));
+      mptr.setHref(context.encodeHref(representationMetsPath));
 
       // create file
       final FileType fileType = new FileType();
       fileType.setID(Utils.generateRandomAndPrefixedFileID());
 
-      addMETSToZip(zipEntries, representationMETSWrapper, representationMetsPath, buildDir, false, fileType);
+      if (dataFileSpool == null) {
+        addMETSToZip(zipEntries, representationMETSWrapper, representationMetsPath, buildDir, false, fileType);
+      } else {
+        final Path temp = METSUtils.createMETSStagingPath(buildDir);
+        ZIPUtils.addMETSFileToZip(zipEntries, temp, representationMetsPath, representationMETSWrapper.getMets(),
+          fileType, representationMETSWrapper.getDataFileGroup().getID(), dataFileSpool);
+      }
 
       // add to file group and then to file section
       final MetsType.FileSec.FileGrp fileGrp = createFileGroup(
         IPConstants.REPRESENTATIONS_WITH_FIRST_LETTER_CAPITAL + "/" + representationId);
-      final FileType.FLocat fileLocation = METSUtils.createFileLocation(representationMetsPath);
+      final FileType.FLocat fileLocation = context.createFileLocation(representationMetsPath);
       fileType.getFLocat().add(fileLocation);
       fileGrp.getFile().add(fileType);
       mainMETSWrapper.getMets().getFileSec().getFileGrp().add(fileGrp);
@@ -312,7 +352,7 @@ public abstract class EARKMETSCreator {
       final DivType.Mptr mptr = new DivType.Mptr();
       mptr.setLOCTYPE(METSEnums.LocType.URL.toString());
       mptr.setType(IPConstants.METS_TYPE_SIMPLE);
-      mptr.setHref(METSUtils.encodeHref(representationMetsPath));
+      mptr.setHref(context.encodeHref(representationMetsPath));
 
 
       // create file
@@ -324,7 +364,7 @@ public abstract class EARKMETSCreator {
       // add to file group and then to file section
       final MetsType.FileSec.FileGrp fileGrp = createFileGroup(
         IPConstants.REPRESENTATIONS_WITH_FIRST_LETTER_CAPITAL + "/" + representationId);
-      final FileType.FLocat fileLocation = METSUtils.createFileLocation(representationMetsPath);
+      final FileType.FLocat fileLocation = context.createFileLocation(representationMetsPath);
       fileType.getFLocat().add(fileLocation);
       fileGrp.getFile().add(fileType);
       fileGrp.getOtherAttributes().put(QName.valueOf("csip:CONTENTINFORMATIONTYPE"), "citssiard_v1_0");
@@ -344,7 +384,7 @@ public abstract class EARKMETSCreator {
   protected void addMETSToZip(final Map<String, ZipEntryInfo> zipEntries, final MetsWrapper metsWrapper,
     final String metsPath, final Path buildDir, final boolean mainMets, final FileType fileType)
     throws JAXBException, IOException, IPException {
-    final Path temp = Files.createTempFile(buildDir, IPConstants.METS_FILE_NAME, IPConstants.METS_FILE_EXTENSION);
+    final Path temp = METSUtils.createMETSStagingPath(buildDir);
     ZIPUtils.addMETSFileToZip(zipEntries, temp, metsPath, metsWrapper.getMets(), mainMets, fileType);
   }
 
@@ -542,7 +582,7 @@ public abstract class EARKMETSCreator {
     mdRef.setID(METSEnums.FILE_ID_PREFIX + escapeNCName(id));
     mdRef.setType(IPConstants.METS_TYPE_SIMPLE);
     mdRef.setLOCTYPE(METSEnums.LocType.URL.toString());
-    mdRef.setHref(METSUtils.encodeHref(metadataPath));
+    mdRef.setHref(context.encodeHref(metadataPath));
     return mdRef;
   }
 
@@ -559,24 +599,85 @@ public abstract class EARKMETSCreator {
 
   protected FileType addDataFileToMETS(final MetsWrapper representationMETS, final String dataFilePath,
     final Path dataFile) throws IPException, InterruptedException {
+    return addDataFileToMETS(representationMETS, dataFilePath, dataFile, null);
+  }
+
+  /**
+   * @param cached
+   *          the cached information of the data file (mimetype, size and
+   *          checksum) or {@code null} to get it from the file
+   */
+  protected FileType addDataFileToMETS(final MetsWrapper representationMETS, final String dataFilePath,
+    final Path dataFile, final ManifestCache.Entry cached) throws IPException, InterruptedException {
+    final FileType file = createDataFileType(dataFilePath, dataFile, cached);
+    addDataFileToMETS(representationMETS, file, true);
+    return file;
+  }
+
+  /**
+   * Same as {@link #addDataFileToMETS(MetsWrapper, String, Path, ManifestCache.Entry)} but the file
+   * is not added to the data file group, so that it can be written to a
+   * {@link METSDataFileSpool} instead.
+   */
+  protected FileType createDataFileForMETS(final MetsWrapper representationMETS, final String dataFilePath,
+    final Path dataFile, final ManifestCache.Entry cached) throws IPException, InterruptedException {
+    final FileType file = createDataFileType(dataFilePath, dataFile, cached);
+    addDataFileToMETS(representationMETS, file, false);
+    return file;
+  }
+
+  /**
+   * Creates the {@link FileType} of a data file, probing its mimetype and size
+   * unless cached, without touching any METS. So it can be called from any
+   * thread.
+   */
+  protected FileType createDataFileType(final String dataFilePath, final Path dataFile,
+    final ManifestCache.Entry cached) throws IPException, InterruptedException {
     final FileType file = new FileType();
     file.setID(Utils.generateRandomAndPrefixedFileID());
 
     // set mimetype, date creation, etc.
-    METSUtils.setFileBasicInformation(LOGGER, dataFile, file);
+    if (cached != null) {
+      file.setMIMETYPE(cached.getMimetype());
+      file.setSIZE(cached.getSize());
+      try {
+        file.setCREATED(Utils.getCurrentCalendar());
+      } catch (DatatypeConfigurationException e) {
+        throw new IPException("Error getting curent calendar (" + dataFile.toString() + ")", e);
+      }
+      file.setCHECKSUM(cached.getChecksum());
+      file.setCHECKSUMTYPE(cached.getChecksumAlgorithm());
+    } else {
+      METSUtils.setFileBasicInformation(LOGGER, dataFile, file);
+    }
 
-    // add to file section
-    final FileType.FLocat fileLocation = METSUtils.createFileLocation(dataFilePath);
+    final FileType.FLocat fileLocation = context.createFileLocation(dataFilePath);
     file.getFLocat().add(fileLocation);
-    representationMETS.getDataFileGroup().getFile().add(file);
+    return file;
+  }
 
+  /**
+   * Adds a data file created by
+   * {@link #createDataFileType(String, Path, ManifestCache.Entry)} to the
+   * representation METS.
+   *
+   * @param addToFileGroup
+   *          add the file to the data file group or only point the data div to
+   *          it, when the file goes to a {@link METSDataFileSpool} instead
+   */
+  protected void addDataFileToMETS(final MetsWrapper representationMETS, final FileType file,
+    final boolean addToFileGroup) {
     // add to struct map
     if (representationMETS.getDataDiv().getFptr().isEmpty()) {
       final DivType.Fptr fptr = new DivType.Fptr();
       fptr.setFILEID(representationMETS.getDataFileGroup());
       representationMETS.getDataDiv().getFptr().add(fptr);
     }
-    return file;
+
+    // add to file section
+    if (addToFileGroup) {
+      representationMETS.getDataFileGroup().getFile().add(file);
+    }
   }
 
   protected FileType addSchemaFileToMETS(final MetsWrapper metsWrapper, final String schemaFilePath,
@@ -588,7 +689,7 @@ public abstract class EARKMETSCreator {
     METSUtils.setFileBasicInformation(LOGGER, schemaFile, file);
 
     // add to file section
-    final FileType.FLocat fileLocation = METSUtils.createFileLocation(schemaFilePath);
+    final FileType.FLocat fileLocation = context.createFileLocation(schemaFilePath);
     file.getFLocat().add(fileLocation);
     if (metsWrapper.getSchemasFileGroup() != null) {
       metsWrapper.getSchemasFileGroup().getFile().add(file);
@@ -612,7 +713,7 @@ public abstract class EARKMETSCreator {
     METSUtils.setFileBasicInformation(LOGGER, submissionFile, file);
 
     // add to file section
-    final FileType.FLocat fileLocation = METSUtils.createFileLocation(submissionFilePath);
+    final FileType.FLocat fileLocation = context.createFileLocation(submissionFilePath);
     file.getFLocat().add(fileLocation);
     metsWrapper.getSubmissionFileGroup().getFile().add(file);
 
@@ -632,7 +733,7 @@ public abstract class EARKMETSCreator {
     METSUtils.setFileBasicInformation(LOGGER, documentationFile, file);
 
     // add to file section
-    final FileType.FLocat fileLocation = METSUtils.createFileLocation(documentationFilePath);
+    final FileType.FLocat fileLocation = context.createFileLocation(documentationFilePath);
     file.getFLocat().add(fileLocation);
     metsWrapper.getDocumentationFileGroup().getFile().add(file);
 
@@ -657,7 +758,7 @@ public abstract class EARKMETSCreator {
     for (String anc : ancestors) {
       final DivType.Mptr mptr = new DivType.Mptr();
       mptr.setType(IPConstants.METS_TYPE_SIMPLE);
-      mptr.setHref(METSUtils.encodeHref(anc));
+      mptr.setHref(context.encodeHref(anc));
       mptr.setLOCTYPE(METSEnums.LocType.HANDLE.toString());
       ancestorsDiv.getMptr().add(mptr);
     }
@@ -678,7 +779,7 @@ public abstract class EARKMETSCreator {
           for (DivType div : mainDiv.getDiv()) {
             if (IPConstants.RODA_ANCESTORS_DIV_LABEL.equalsIgnoreCase(div.getLABEL()) && div.getMptr() != null) {
               for (DivType.Mptr m : div.getMptr()) {
-                final String href = METSUtils.decodeHref(m.getHref());
+                final String href = context.decodeHref(m.getHref());
                 if (StringUtils.isNotBlank(href)) {
                   ancestors.add(href);
                 }
@@ -851,18 +952,17 @@ public abstract class EARKMETSCreator {
     }
   }
 
-  protected Map<String, MetsType.FileSec.FileGrp> getDataFileGrp() {
-    return dataFileGrp;
-  }
-
   /**
    * Iterates trough files in Representation, create the FileGrps and adds to the
    * {@link HashMap}.
    *
    * @param representation
    *          {@link IPRepresentation}
+   * @param dataFileGrp
+   *          the data FileGrps of the representation, by folder.
    */
-  protected void addFileGrps(final IPRepresentation representation) {
+  protected void addFileGrps(final IPRepresentation representation,
+    final Map<String, MetsType.FileSec.FileGrp> dataFileGrp) {
 
     for (IPFileInterface file : representation.getData()) {
       final String dataFilePath;
@@ -893,11 +993,14 @@ public abstract class EARKMETSCreator {
    *          boolean if have Data in Representation.
    * @param representation
    *          {@link IPRepresentation}.
+   * @return the data FileGrps of the representation, by folder.
    */
-  protected void createShallowFileGrps(final MetsWrapper metsWrapper, final MetsType.FileSec fileSec,
-    final boolean mainMets, final boolean isRepresentationsData, final IPRepresentation representation) {
+  protected Map<String, MetsType.FileSec.FileGrp> createShallowFileGrps(final MetsWrapper metsWrapper,
+    final MetsType.FileSec fileSec, final boolean mainMets, final boolean isRepresentationsData,
+    final IPRepresentation representation) {
+    final Map<String, MetsType.FileSec.FileGrp> dataFileGrp = new HashMap<>();
     if (!mainMets && isRepresentationsData) {
-      addFileGrps(representation);
+      addFileGrps(representation, dataFileGrp);
       for (Map.Entry<String, MetsType.FileSec.FileGrp> entry : dataFileGrp.entrySet()) {
         fileSec.getFileGrp().add(entry.getValue());
         if (metsWrapper.getDataFileGroup() == null) {
@@ -906,6 +1009,7 @@ public abstract class EARKMETSCreator {
         metsWrapper.getDataFileGroup().getFileGrp().add(entry.getValue());
       }
     }
+    return dataFileGrp;
   }
 
   /**
@@ -921,9 +1025,12 @@ public abstract class EARKMETSCreator {
    *          boolean if is main METS file or not.
    * @param isRepresentationsData
    *          boolean if have Data in Representation.
+   * @param dataFileGrp
+   *          the data FileGrps of the representation, by folder.
    */
   protected void createAndAddShallowDataDiv(final MetsWrapper metsWrapper, final IPRepresentation representation,
-    final DivType mainDiv, final boolean mainMets, final boolean isRepresentationsData) {
+    final DivType mainDiv, final boolean mainMets, final boolean isRepresentationsData,
+    final Map<String, MetsType.FileSec.FileGrp> dataFileGrp) {
     if (!mainMets && isRepresentationsData) {
       final Tree<StructMapDiv> dataDivsTree = createTree(representation);
       DivType dataDiv = createDivForStructMap(dataDivsTree.getRoot().getLabel());
@@ -932,7 +1039,7 @@ public abstract class EARKMETSCreator {
         fptr.setFILEID(dataFileGrp.get(dataDiv.getLABEL()));
         dataDiv.getFptr().add(fptr);
       }
-      createDataDiv(dataDivsTree, dataDiv);
+      createDataDiv(dataDivsTree, dataDiv, dataFileGrp);
       metsWrapper.setDataDiv(dataDiv);
       mainDiv.getDiv().add(dataDiv);
     }
@@ -995,8 +1102,11 @@ public abstract class EARKMETSCreator {
    *          {@link Tree} of {@link StructMapDiv}.
    * @param dataDiv
    *          {@link DivType}.
+   * @param dataFileGrp
+   *          the data FileGrps of the representation, by folder.
    */
-  protected void createDataDiv(Tree<StructMapDiv> dataDivsTree, DivType dataDiv) {
+  protected void createDataDiv(Tree<StructMapDiv> dataDivsTree, DivType dataDiv,
+    Map<String, MetsType.FileSec.FileGrp> dataFileGrp) {
     if (!dataDivsTree.getChilds().isEmpty()) {
       for (Tree<StructMapDiv> child : dataDivsTree.getChilds()) {
         DivType div = createDivForStructMap(child.getRoot().getLabel());
@@ -1006,7 +1116,7 @@ public abstract class EARKMETSCreator {
           div.getFptr().add(fptr);
         }
         dataDiv.getDiv().add(div);
-        createDataDiv(child, div);
+        createDataDiv(child, div, dataFileGrp);
       }
     }
   }
@@ -1034,11 +1144,4 @@ public abstract class EARKMETSCreator {
       }
     }
   }
-
-  /**
-   * Clean the {@link HashMap} data.
-   */
-  protected void cleanFileGrpStructure() {
-    dataFileGrp.clear();
-  }
 }
@@ -1,8 +1,14 @@
 package org.roda_project.commons_ip2.model.impl.eark;
 
+import org.roda_project.commons_ip2.model.IPOperationContext;
+
 public class EARKMETSCreator204 extends EARKMETSCreator {
 
     public EARKMETSCreator204() {
         // empty constructor
     }
+
+    public EARKMETSCreator204(IPOperationContext context) {
+        super(context);
+    }
 }
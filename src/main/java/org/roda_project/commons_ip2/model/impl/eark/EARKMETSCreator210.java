@@ -1,8 +1,14 @@
 package org.roda_project.commons_ip2.model.impl.eark;
 
+import org.roda_project.commons_ip2.model.IPOperationContext;
+
 public class EARKMETSCreator210 extends EARKMETSCreator {
 
     public EARKMETSCreator210() {
         // empty constructor
     }
+
+    public EARKMETSCreator210(IPOperationContext context) {
+        super(context);
+    }
 }
@@ -15,6 +15,8 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.roda_project.commons_ip.model.ParseException;
@@ -25,17 +27,17 @@ import org.roda_project.commons_ip2.mets_v1_12.beans.StructMapType;
 import org.roda_project.commons_ip2.model.IPConstants;
 import org.roda_project.commons_ip2.model.IPContentInformationType;
 import org.roda_project.commons_ip2.model.IPContentType;
+import org.roda_project.commons_ip2.model.IPFile;
 import org.roda_project.commons_ip2.model.MetsWrapper;
 import org.roda_project.commons_ip2.model.SIP;
 import org.roda_project.commons_ip2.model.impl.ModelUtils;
 import org.roda_project.commons_ip2.model.impl.eark.out.writers.strategy.WriteStrategy;
 import org.roda_project.commons_ip2.utils.METSUtils;
+import org.roda_project.commons_ip2.utils.ManifestCache;
 import org.roda_project.commons_ip2.utils.ZIPUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static org.roda_project.commons_ip2.model.IPConstants.METS_ENCODE_AND_DECODE_HREF;
-
 public class EARKSIP extends SIP {
   private static final Logger LOGGER = LoggerFactory.getLogger(EARKSIP.class);
 
@@ -45,6 +47,20 @@ public class EARKSIP extends SIP {
 
   private EARKMETSCreator metsCreator;
 
+  private boolean streamingParse = false;
+
+  private boolean parseFromArchive = false;
+
+  private ExecutorService checksumExecutor = null;
+
+  private ExecutorService buildExecutor = null;
+
+  private boolean parallelBuild = false;
+
+  private boolean streamingBuild = false;
+
+  private ManifestCache manifestCache = null;
+
   public EARKSIP() {
     super();
     setProfile(IPConstants.SIP_SPEC_PROFILE);
@@ -84,6 +100,34 @@ public class EARKSIP extends SIP {
     metsCreator = factory.getGenerator(version);
   }
 
+  public boolean isStreamingBuild() {
+    return streamingBuild;
+  }
+
+  /**
+   * When enabled, the data files of representation METS are written to disk as
+   * soon as they are zipped instead of being kept in memory until the METS is
+   * written, which is useful for representations with a huge number of files.
+   * The resulting representation METS are not indented.
+   */
+  public void setStreamingBuild(boolean streamingBuild) {
+    this.streamingBuild = streamingBuild;
+  }
+
+  public ManifestCache getManifestCache() {
+    return manifestCache;
+  }
+
+  /**
+   * Sets a cache of the mimetype and checksum of the representation data files,
+   * so that rebuilding a SIP only probes and digests the files that changed
+   * since the previous build. The cache is saved at the end of each successful
+   * build.
+   */
+  public void setManifestCache(ManifestCache manifestCache) {
+    this.manifestCache = manifestCache;
+  }
+
   /**
    *
    * parse and all parse related methods; during parse, validation is also
@@ -91,11 +135,85 @@ public class EARKSIP extends SIP {
    * _________________________________________________________________________
    */
 
+  public boolean isStreamingParse() {
+    return streamingParse;
+  }
+
+  /**
+   * When enabled, the data files listed in representation METS are read one at
+   * a time during parse instead of loading the whole METS in memory, which is
+   * useful for representations with a huge number of files.
+   */
+  public void setStreamingParse(boolean streamingParse) {
+    this.streamingParse = streamingParse;
+  }
+
+  public boolean isParseFromArchive() {
+    return parseFromArchive;
+  }
+
+  /**
+   * When enabled, a SIP in ZIP format is parsed straight from the archive
+   * instead of being extracted first (see
+   * {@link ZIPUtils#openIPInZipFormat(Path, Path)}): METS and metadata files are
+   * read from the archive entries and the checksums are verified by streaming
+   * them. The {@link IPFile}s of the parsed SIP point
+   * into the archive, which stays open until
+   * {@link ZIPUtils#closeIPInZipFormat(Path)} is called with its base path.
+   */
+  public void setParseFromArchive(boolean parseFromArchive) {
+    this.parseFromArchive = parseFromArchive;
+  }
+
+  public ExecutorService getBuildExecutor() {
+    return buildExecutor;
+  }
+
+  /**
+   * Sets the executor where the representation METS are generated during build
+   * (see {@link EARKUtils#setBuildExecutor(ExecutorService)}). When set, the
+   * build is parallel whatever {@link #setParallelBuild(boolean)} says.
+   */
+  public void setBuildExecutor(ExecutorService buildExecutor) {
+    this.buildExecutor = buildExecutor;
+  }
+
+  public boolean isParallelBuild() {
+    return parallelBuild;
+  }
+
+  /**
+   * When enabled and no build executor is set, each build generates the
+   * representation METS on its own pool with one thread per available
+   * processor. Disabled by default, so they are generated one at a time on the
+   * building thread.
+   */
+  public void setParallelBuild(boolean parallelBuild) {
+    this.parallelBuild = parallelBuild;
+  }
+
+  public ExecutorService getChecksumExecutor() {
+    return checksumExecutor;
+  }
+
+  /**
+   * Sets the executor where the file checksums are verified during parse (see
+   * {@link EARKUtils#setChecksumExecutor(ExecutorService)}). When none is set,
+   * they are verified one at a time on the parsing thread. The executor is not
+   * shut down by the parse.
+   */
+  public void setChecksumExecutor(ExecutorService checksumExecutor) {
+    this.checksumExecutor = checksumExecutor;
+  }
+
   public SIP parse(Path source, Path destinationDirectory) throws ParseException {
     return parseEARKSIP(source, destinationDirectory);
   }
 
   public SIP parse(Path source) throws ParseException {
+    if (parseFromArchive) {
+      return parseEARKSIP(source, null);
+    }
     try {
       return parse(source, Files.createTempDirectory("unzipped"));
     } catch (IOException e) {
@@ -104,13 +222,15 @@ public class EARKSIP extends SIP {
   }
 
   private SIP parseEARKSIP(final Path source, final Path destinationDirectory) throws ParseException {
+    Path sipPath = parseFromArchive ? ZIPUtils.openIPInZipFormat(source, destinationDirectory)
+      : ZIPUtils.extractIPIfInZipFormat(source, destinationDirectory);
     try {
-      METS_ENCODE_AND_DECODE_HREF = true;
       SIP sip = new EARKSIP();
 
       EARKUtils earkUtils = new EARKUtils(metsCreator);
+      earkUtils.setStreamRepresentationFiles(streamingParse);
+      earkUtils.setChecksumExecutor(checksumExecutor);
 
-      Path sipPath = ZIPUtils.extractIPIfInZipFormat(source, destinationDirectory);
       sip.setBasePath(sipPath);
 
       MetsWrapper metsWrapper = earkUtils.processMainMets(sip, sipPath);
@@ -135,7 +255,8 @@ public class EARKSIP extends SIP {
       }
 
       return sip;
-    } catch (final IPException e) {
+    } catch (final IPException | RuntimeException e) {
+      ZIPUtils.closeIPInZipFormatQuietly(sipPath, e);
       throw new ParseException("Error parsing E-ARK SIP", e);
     }
   }
@@ -191,10 +312,20 @@ public class EARKSIP extends SIP {
   @Override
   public Path build(WriteStrategy writeStrategy, final String fileNameWithoutExtension, final boolean onlyManifest,
     IPEnums.SipType sipType) throws IPException, InterruptedException {
-    IPConstants.METS_ENCODE_AND_DECODE_HREF = true;
     Path buildDir = ModelUtils.createBuildDir(SIP_TEMP_DIR);
+    final ExecutorService executor;
+    if (buildExecutor != null) {
+      executor = buildExecutor;
+    } else if (parallelBuild) {
+      executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    } else {
+      executor = null;
+    }
 
     EARKUtils earkUtils = new EARKUtils(metsCreator);
+    earkUtils.setStreamRepresentationMETS(streamingBuild);
+    earkUtils.setManifestCache(manifestCache);
+    earkUtils.setBuildExecutor(executor);
 
     try {
       Map<String, ZipEntryInfo> zipEntries = getZipEntries();
@@ -236,11 +367,19 @@ public class EARKSIP extends SIP {
       METSUtils.addMainMETSToZip(zipEntries, mainMETSWrapper, buildDir);
 
       notifySipBuildPackagingStarted(zipEntries.size());
-      return writeStrategy.write(zipEntries, this, fileNameWithoutExtension, getId(), true);
+      Path result = writeStrategy.write(zipEntries, this, fileNameWithoutExtension, getId(), true);
+      if (manifestCache != null) {
+        LOGGER.debug("Manifest cache hits: {}, misses: {}", manifestCache.getHits(), manifestCache.getMisses());
+        manifestCache.save();
+      }
+      return result;
     } catch (InterruptedException e) {
       ModelUtils.cleanUpUponInterrupt(LOGGER, writeStrategy.getDestinationPath());
       throw e;
     } finally {
+      if (executor != null && executor != buildExecutor) {
+        executor.shutdownNow();
+      }
       ModelUtils.deleteBuildDir(buildDir);
     }
   }
@@ -14,9 +14,14 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -40,6 +45,7 @@ import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
 import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType.MetsHdr.Agent;
 import org.roda_project.commons_ip2.mets_v1_12.beans.StructMapType;
 import org.roda_project.commons_ip2.model.AIP;
+import org.roda_project.commons_ip2.model.IP;
 import org.roda_project.commons_ip2.model.IPConstants;
 import org.roda_project.commons_ip2.model.IPContentType;
 import org.roda_project.commons_ip2.model.IPDescriptiveMetadata;
@@ -49,6 +55,7 @@ import org.roda_project.commons_ip2.model.IPFileShallow;
 import org.roda_project.commons_ip2.model.IPHeader;
 import org.roda_project.commons_ip2.model.IPInterface;
 import org.roda_project.commons_ip2.model.IPMetadata;
+import org.roda_project.commons_ip2.model.IPOperationContext;
 import org.roda_project.commons_ip2.model.IPRepresentation;
 import org.roda_project.commons_ip2.model.MetadataType;
 import org.roda_project.commons_ip2.model.MetsWrapper;
@@ -56,7 +63,14 @@ import org.roda_project.commons_ip2.model.RepresentationStatus;
 import org.roda_project.commons_ip2.model.SIP;
 import org.roda_project.commons_ip2.model.ValidationEntry;
 import org.roda_project.commons_ip2.model.impl.ModelUtils;
+import org.roda_project.commons_ip2.utils.AwaitableTask;
+import org.roda_project.commons_ip2.utils.ChecksumVerificationQueue;
+import org.roda_project.commons_ip2.utils.METSDataFileSpool;
+import org.roda_project.commons_ip2.utils.METSStreamHandler;
+import org.roda_project.commons_ip2.utils.METSStreamReader;
+import org.roda_project.commons_ip2.utils.METSStreamWriter;
 import org.roda_project.commons_ip2.utils.METSUtils;
+import org.roda_project.commons_ip2.utils.ManifestCache;
 import org.roda_project.commons_ip2.utils.Utils;
 import org.roda_project.commons_ip2.utils.ValidationUtils;
 import org.roda_project.commons_ip2.utils.ZIPUtils;
@@ -68,11 +82,118 @@ import jakarta.xml.bind.JAXBException;
 import javax.xml.namespace.QName;
 
 public class EARKUtils {
+  private static final int DATA_FILE_PROBES_AHEAD = 256;
 
   private EARKMETSCreator metsGenerator;
 
+  /**
+   * The href settings of the operation, taken from the METS creator.
+   */
+  private final IPOperationContext context;
+
+  /**
+   * Read the data files of representation METS one at a time instead of
+   * loading them all into the METS object graph.
+   */
+  private boolean streamRepresentationFiles = false;
+
+  /**
+   * Write the data files of representation METS to a spool as their checksums
+   * are known instead of keeping them in the METS object graph.
+   */
+  private boolean streamRepresentationMETS = false;
+
+  /**
+   * Cache of the mimetype and checksum of the representation data files.
+   */
+  private ManifestCache manifestCache = null;
+
+  /**
+   * Where the checksums of the representation, schema, documentation and
+   * submission files are verified during parse.
+   */
+  private ExecutorService checksumExecutor = null;
+
+  /**
+   * Where the representation METS are generated and the data files probed
+   * during build.
+   */
+  private ExecutorService buildExecutor = null;
+
   public EARKUtils(EARKMETSCreator metsGenerator) {
     this.metsGenerator = metsGenerator;
+    this.context = metsGenerator.getContext();
+  }
+
+  public boolean isStreamRepresentationFiles() {
+    return streamRepresentationFiles;
+  }
+
+  /**
+   * When enabled, representation METS are parsed without their data files,
+   * which are then streamed from the METS file by
+   * {@link #processRepresentationFiles(IPInterface, MetsWrapper, IPRepresentation, Path)},
+   * keeping the memory used independent of the number of files.
+   */
+  public void setStreamRepresentationFiles(boolean streamRepresentationFiles) {
+    this.streamRepresentationFiles = streamRepresentationFiles;
+  }
+
+  public boolean isStreamRepresentationMETS() {
+    return streamRepresentationMETS;
+  }
+
+  /**
+   * When enabled, the data files of (non shallow, non ERMS and non SIARD)
+   * representations are written to a {@link METSDataFileSpool} as soon as they
+   * are created, their checksums once they are zipped, and the representation
+   * METS is then written with {@link METSStreamWriter}, so the memory used does
+   * not depend on the number of files.
+   */
+  public void setStreamRepresentationMETS(boolean streamRepresentationMETS) {
+    this.streamRepresentationMETS = streamRepresentationMETS;
+  }
+
+  public ManifestCache getManifestCache() {
+    return manifestCache;
+  }
+
+  /**
+   * When set, the mimetype and checksum of the (non ERMS and non SIARD)
+   * representation data files are taken from the cache if the files did not
+   * change, and the cache is updated with the ones computed during the build.
+   */
+  public void setManifestCache(ManifestCache manifestCache) {
+    this.manifestCache = manifestCache;
+  }
+
+  public ExecutorService getBuildExecutor() {
+    return buildExecutor;
+  }
+
+  /**
+   * When set, the METS of the representations are generated, and the mimetype
+   * and size of their data files probed, on this executor. The representation
+   * METS are still added to the zip entries and to the main METS in order, so
+   * the result is the same as when they are generated one at a time on the
+   * building thread, which is what happens otherwise.
+   */
+  public void setBuildExecutor(ExecutorService buildExecutor) {
+    this.buildExecutor = buildExecutor;
+  }
+
+  public ExecutorService getChecksumExecutor() {
+    return checksumExecutor;
+  }
+
+  /**
+   * When set, the checksums of the representation, schema, documentation and
+   * submission files are verified on this executor while the METS is walked
+   * (see {@link ChecksumVerificationQueue}), otherwise one at a time on the
+   * parsing thread.
+   */
+  public void setChecksumExecutor(ExecutorService checksumExecutor) {
+    this.checksumExecutor = checksumExecutor;
   }
 
   protected void addDescriptiveMetadataToZipAndMETS(Map<String, ZipEntryInfo> zipEntries, MetsWrapper metsWrapper,
@@ -215,134 +336,240 @@ public class EARKUtils {
       if (ip instanceof SIP) {
         ((SIP) ip).notifySipBuildRepresentationsProcessingStarted(representations.size());
       }
-      for (IPRepresentation representation : representations) {
-        if (Thread.interrupted()) {
-          throw new InterruptedException();
-        }
-        String representationId = representation.getObjectID();
-        // 20160407 hsilva: not being used by Common Specification v0.13
-        final boolean isRepresentationMetadataOther = (representation.getOtherMetadata() != null
-          && !representation.getOtherMetadata().isEmpty());
-        final boolean isRepresentationMetadata = ((representation.getDescriptiveMetadata() != null
-          && !representation.getDescriptiveMetadata().isEmpty())
-          || (representation.getPreservationMetadata() != null && !representation.getPreservationMetadata().isEmpty()));
-        final boolean isRepresentationDocumentation = (representation.getDocumentation() != null
-          && !representation.getDocumentation().isEmpty());
-        final boolean isRepresentationSchemas = (representation.getSchemas() != null
-          && !representation.getSchemas().isEmpty());
-        final boolean isRepresentationsData = (representation.getData() != null && !representation.getData().isEmpty());
-        final IPHeader header = new IPHeader(IPEnums.IPStatus.NEW).setAgents(representation.getAgents());
-        final MetsWrapper representationMETSWrapper;
-
-        if (IPEnums.SipType.ERMS.equals(sipType)) {
-          representationMETSWrapper = metsGenerator.generateMETS(representationId, representation.getDescription(),
-            ip.getProfile(), false, Optional.empty(), null, header,
-            mainMETSWrapper.getMets().getMetsHdr().getOAISPACKAGETYPE(), representation.getContentType(),
-            representation.getContentInformationType(), isRepresentationMetadata, isRepresentationMetadataOther,
-            isRepresentationSchemas, isRepresentationDocumentation, false, false, isRepresentationsData);
-        } else if (IPEnums.SipType.SIARD.equals(sipType)) {
-          representation.setContentInformationType(representation.getContentInformationType());
-          representationMETSWrapper = metsGenerator.generateMetsSiard(representationId, representation.getDescription(),
-            "https://citssiard.dilcis.eu/profile/E-ARK-SIARD-REPRESENTATION.xml", false, Optional.empty(), null, header,
-            mainMETSWrapper.getMets().getMetsHdr().getOAISPACKAGETYPE(), representation.getContentType(),
-            representation.getContentInformationType(), isRepresentationMetadata, isRepresentationMetadataOther,
-            isRepresentationSchemas, isRepresentationDocumentation, false, false, isRepresentationsData);
-        }
-
-        else if (!IPEnums.SipType.EARK2S.equals(sipType)) {
-          representationMETSWrapper = metsGenerator.generateMETS(representationId, representation.getDescription(),
-            ip.getProfile(), false, Optional.empty(), null, header,
-            mainMETSWrapper.getMets().getMetsHdr().getOAISPACKAGETYPE(), representation.getContentType(),
-            representation.getContentInformationType(), isRepresentationMetadata, isRepresentationMetadataOther,
-            isRepresentationSchemas, isRepresentationDocumentation, false, false, isRepresentationsData);
-        } else {
-          representationMETSWrapper = metsGenerator.generateMetsShallow(representation, ip.getProfile(), false,
-            Optional.empty(), null, header, mainMETSWrapper.getMets().getMetsHdr().getOAISPACKAGETYPE(),
-            isRepresentationMetadata, isRepresentationMetadataOther, isRepresentationSchemas,
-            isRepresentationDocumentation, false, false, isRepresentationsData);
+      final String packageType = mainMETSWrapper.getMets().getMetsHdr().getOAISPACKAGETYPE();
+      if (buildExecutor == null) {
+        for (IPRepresentation representation : representations) {
+          if (Thread.interrupted()) {
+            throw new InterruptedException();
+          }
+          final RepresentationMETS representationMETS = generateRepresentationMETS(ip,
+            ip instanceof SIP sip ? sip : null, representation, packageType, buildDir, sipType);
+          addRepresentationMETSToZipAndMETS(zipEntries, mainMETSWrapper, representationMETS, buildDir, sipType);
         }
+      } else {
+        addRepresentationsToZipAndMETSInParallel(ip, representations, zipEntries, mainMETSWrapper, packageType,
+          buildDir, sipType);
+      }
+      if (ip instanceof SIP) {
+        ((SIP) ip).notifySipBuildRepresentationsProcessingEnded();
+      }
+    }
 
-        representationMETSWrapper.getMainDiv().setTYPE(representation.getStatus().asString());
-
-        // representation data
-        if (IPEnums.SipType.ERMS.equals(sipType)) {
-          addRepresentationDataFilesToZipErmsAndMETS(ip, zipEntries, representationMETSWrapper, representation,
-            representationId);
-        } else if (IPEnums.SipType.SIARD.equals(sipType)) {
-          addRepresentationDataFilesToZipSiardAndMETS(ip, zipEntries, representationMETSWrapper, representation,
-            representationId);
-        } else {
-          addRepresentationDataFilesToZipAndMETS(ip, zipEntries, representationMETSWrapper, representation,
-            representationId);
-        }
+  }
 
-        // representation descriptive metadata
-        addDescriptiveMetadataToZipAndMETS(zipEntries, representationMETSWrapper,
-          representation.getDescriptiveMetadata(), representationId);
-
-        // representation preservation metadata
-        addPreservationMetadataToZipAndMETS(zipEntries, representationMETSWrapper,
-          representation.getPreservationMetadata(), representationId);
-
-        // representation technical metadata
-        addTechnicalMetadataToZipAndMETS(zipEntries, representationMETSWrapper, representation.getTechnicalMetadata(),
-          representationId);
-
-        // representation source metadata
-        addSourceMetadataToZipAndMETS(zipEntries, representationMETSWrapper,
-          representation.getSourceMetadata(), representationId);
-          
-        // representation rights metadata
-        addRightsMetadataToZipAndMETS(zipEntries, representationMETSWrapper,
-          representation.getRightsMetadata(), representationId);
-
-        // representation other metadata
-        addOtherMetadataToZipAndMETS(zipEntries, representationMETSWrapper, representation.getOtherMetadata(),
-          representationId);
-
-        // representation schemas
-        addSchemasToZipAndMETS(zipEntries, representationMETSWrapper, representation.getSchemas(), representationId);
-
-        // representation documentation
-        addDocumentationToZipAndMETS(zipEntries, representationMETSWrapper, representation.getDocumentation(),
-          representationId);
-
-        // add representation METS to Zip file and to main METS file
-        if (IPEnums.SipType.ERMS.equals(sipType)) {
-          metsGenerator.addRepresentationMETSToZipAndToMainMETS(zipEntries, mainMETSWrapper, representationId,
-            representationMETSWrapper,
-            IPConstants.REPRESENTATIONS_FOLDER + representationId + IPConstants.ZIP_PATH_SEPARATOR + IPConstants.DATA
-              + IPConstants.ZIP_PATH_SEPARATOR + IPConstants.METS_FILE,
-            buildDir);
-        } else if (IPEnums.SipType.SIARD.equals(sipType)) {
-          metsGenerator.addRepresentationSiardMETSToZipAndToMainMETS(zipEntries, mainMETSWrapper, representationId,
-            representationMETSWrapper,
-            IPConstants.REPRESENTATIONS_FOLDER + representationId + IPConstants.ZIP_PATH_SEPARATOR + IPConstants.DATA
-              + IPConstants.ZIP_PATH_SEPARATOR + IPConstants.METS_FILE,
-            buildDir);
+  /**
+   * Generates the METS of every representation on the build executor, then adds
+   * them to the zip entries and to the main METS in the order of the
+   * representations, replaying the progress of each one to the SIP observers as
+   * if they were generated one at a time.
+   */
+  private void addRepresentationsToZipAndMETSInParallel(IPInterface ip, List<IPRepresentation> representations,
+    Map<String, ZipEntryInfo> zipEntries, MetsWrapper mainMETSWrapper, String packageType, Path buildDir,
+    IPEnums.SipType sipType) throws IPException, InterruptedException {
+    final List<AwaitableTask<RepresentationMETS>> tasks = new ArrayList<>();
+    try {
+      for (IPRepresentation representation : representations) {
+        final AwaitableTask<RepresentationMETS> task = new AwaitableTask<>(
+          () -> generateRepresentationMETS(ip, null, representation, packageType, buildDir, sipType));
+        tasks.add(task);
+        buildExecutor.execute(task);
+      }
 
-        } else {
-          metsGenerator.addRepresentationMETSToZipAndToMainMETS(zipEntries, mainMETSWrapper, representationId,
-            representationMETSWrapper, IPConstants.REPRESENTATIONS_FOLDER + representationId
-              + IPConstants.ZIP_PATH_SEPARATOR + IPConstants.METS_FILE,
-            buildDir);
+      for (int i = 0; i < tasks.size(); i++) {
+        final RepresentationMETS representationMETS = runAndGet(tasks.get(i));
+        if (ip instanceof SIP sip) {
+          notifyRepresentationProcessed(sip, representations.get(i));
         }
+        addRepresentationMETSToZipAndMETS(zipEntries, mainMETSWrapper, representationMETS, buildDir, sipType);
+      }
+    } finally {
+      // the tasks write the representation METS and data file spools to the
+      // build dir, so the ones already running are waited for before it can be
+      // deleted
+      boolean interrupted = false;
+      for (AwaitableTask<RepresentationMETS> task : tasks) {
+        interrupted |= task.cancelAndAwait();
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
 
-        metsGenerator.cleanFileGrpStructure();
+  private static void notifyRepresentationProcessed(SIP sip, IPRepresentation representation) {
+    if (representation.getData() != null && !representation.getData().isEmpty()) {
+      sip.notifySipBuildRepresentationProcessingStarted(representation.getData().size());
+      for (int i = 1; i <= representation.getData().size(); i++) {
+        sip.notifySipBuildRepresentationProcessingCurrentStatus(i);
       }
-      if (ip instanceof SIP) {
-        ((SIP) ip).notifySipBuildRepresentationsProcessingEnded();
+      sip.notifySipBuildRepresentationProcessingEnded();
+    }
+  }
+
+  /**
+   * Runs the task on the calling thread if no executor thread took it yet and
+   * gets its result.
+   */
+  private static <T> T runAndGet(FutureTask<T> task) throws IPException, InterruptedException {
+    task.run();
+    try {
+      return task.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IPException cause) {
+        throw cause;
+      } else if (e.getCause() instanceof InterruptedException cause) {
+        throw cause;
+      } else if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      } else if (e.getCause() instanceof Error cause) {
+        throw cause;
       }
+      throw new IPException("Error generating representation METS", e.getCause());
+    }
+  }
+
+  /**
+   * Generates the METS of a representation and the zip entries of its files,
+   * without touching the main METS or the zip entries of the IP. So it can run
+   * on any thread.
+   *
+   * @param progress
+   *          the SIP to notify of the progress or {@code null}
+   */
+  private RepresentationMETS generateRepresentationMETS(IPInterface ip, SIP progress,
+    IPRepresentation representation, String packageType, Path buildDir, IPEnums.SipType sipType)
+    throws IPException, InterruptedException {
+    final Map<String, ZipEntryInfo> zipEntries = new LinkedHashMap<>();
+    String representationId = representation.getObjectID();
+    // 20160407 hsilva: not being used by Common Specification v0.13
+    final boolean isRepresentationMetadataOther = (representation.getOtherMetadata() != null
+      && !representation.getOtherMetadata().isEmpty());
+    final boolean isRepresentationMetadata = ((representation.getDescriptiveMetadata() != null
+      && !representation.getDescriptiveMetadata().isEmpty())
+      || (representation.getPreservationMetadata() != null && !representation.getPreservationMetadata().isEmpty()));
+    final boolean isRepresentationDocumentation = (representation.getDocumentation() != null
+      && !representation.getDocumentation().isEmpty());
+    final boolean isRepresentationSchemas = (representation.getSchemas() != null
+      && !representation.getSchemas().isEmpty());
+    final boolean isRepresentationsData = (representation.getData() != null && !representation.getData().isEmpty());
+    final IPHeader header = new IPHeader(IPEnums.IPStatus.NEW).setAgents(representation.getAgents());
+    final MetsWrapper representationMETSWrapper;
+
+    if (IPEnums.SipType.ERMS.equals(sipType)) {
+      representationMETSWrapper = metsGenerator.generateMETS(representationId, representation.getDescription(),
+        ip.getProfile(), false, Optional.empty(), null, header, packageType, representation.getContentType(),
+        representation.getContentInformationType(), isRepresentationMetadata, isRepresentationMetadataOther,
+        isRepresentationSchemas, isRepresentationDocumentation, false, false, isRepresentationsData);
+    } else if (IPEnums.SipType.SIARD.equals(sipType)) {
+      representation.setContentInformationType(representation.getContentInformationType());
+      representationMETSWrapper = metsGenerator.generateMetsSiard(representationId, representation.getDescription(),
+        "https://citssiard.dilcis.eu/profile/E-ARK-SIARD-REPRESENTATION.xml", false, Optional.empty(), null, header,
+        packageType, representation.getContentType(), representation.getContentInformationType(),
+        isRepresentationMetadata, isRepresentationMetadataOther, isRepresentationSchemas, isRepresentationDocumentation,
+        false, false, isRepresentationsData);
+    }
+
+    else if (!IPEnums.SipType.EARK2S.equals(sipType)) {
+      representationMETSWrapper = metsGenerator.generateMETS(representationId, representation.getDescription(),
+        ip.getProfile(), false, Optional.empty(), null, header, packageType, representation.getContentType(),
+        representation.getContentInformationType(), isRepresentationMetadata, isRepresentationMetadataOther,
+        isRepresentationSchemas, isRepresentationDocumentation, false, false, isRepresentationsData);
+    } else {
+      representationMETSWrapper = metsGenerator.generateMetsShallow(representation, ip.getProfile(), false,
+        Optional.empty(), null, header, packageType, isRepresentationMetadata, isRepresentationMetadataOther,
+        isRepresentationSchemas, isRepresentationDocumentation, false, false, isRepresentationsData);
     }
 
+    representationMETSWrapper.getMainDiv().setTYPE(representation.getStatus().asString());
+
+    METSDataFileSpool dataFileSpool = null;
+    if (streamRepresentationMETS && !IPEnums.SipType.ERMS.equals(sipType)
+      && !IPEnums.SipType.SIARD.equals(sipType) && !IPEnums.SipType.EARK2S.equals(sipType)
+      && representationMETSWrapper.getDataFileGroup() != null) {
+      dataFileSpool = createDataFileSpool(buildDir);
+    }
+
+    // representation data
+    if (IPEnums.SipType.ERMS.equals(sipType)) {
+      addRepresentationDataFilesToZipErmsAndMETS(progress, zipEntries, representationMETSWrapper, representation,
+        representationId);
+    } else if (IPEnums.SipType.SIARD.equals(sipType)) {
+      addRepresentationDataFilesToZipSiardAndMETS(progress, zipEntries, representationMETSWrapper, representation,
+        representationId);
+    } else {
+      addRepresentationDataFilesToZipAndMETS(ip, progress, zipEntries, representationMETSWrapper, representation,
+        representationId, dataFileSpool);
+    }
+
+    // representation descriptive metadata
+    addDescriptiveMetadataToZipAndMETS(zipEntries, representationMETSWrapper,
+      representation.getDescriptiveMetadata(), representationId);
+
+    // representation preservation metadata
+    addPreservationMetadataToZipAndMETS(zipEntries, representationMETSWrapper,
+      representation.getPreservationMetadata(), representationId);
+
+    // representation technical metadata
+    addTechnicalMetadataToZipAndMETS(zipEntries, representationMETSWrapper, representation.getTechnicalMetadata(),
+      representationId);
+
+    // representation source metadata
+    addSourceMetadataToZipAndMETS(zipEntries, representationMETSWrapper,
+      representation.getSourceMetadata(), representationId);
+      
+    // representation rights metadata
+    addRightsMetadataToZipAndMETS(zipEntries, representationMETSWrapper,
+      representation.getRightsMetadata(), representationId);
+
+    // representation other metadata
+    addOtherMetadataToZipAndMETS(zipEntries, representationMETSWrapper, representation.getOtherMetadata(),
+      representationId);
+
+    // representation schemas
+    addSchemasToZipAndMETS(zipEntries, representationMETSWrapper, representation.getSchemas(), representationId);
+
+    // representation documentation
+    addDocumentationToZipAndMETS(zipEntries, representationMETSWrapper, representation.getDocumentation(),
+      representationId);
+
+    return new RepresentationMETS(representationId, representationMETSWrapper, zipEntries, dataFileSpool);
+  }
+
+  private void addRepresentationMETSToZipAndMETS(Map<String, ZipEntryInfo> zipEntries, MetsWrapper mainMETSWrapper,
+    RepresentationMETS representationMETS, Path buildDir, IPEnums.SipType sipType)
+    throws IPException, InterruptedException {
+    zipEntries.putAll(representationMETS.zipEntries);
+
+    // add representation METS to Zip file and to main METS file
+    final String representationId = representationMETS.representationId;
+    final MetsWrapper representationMETSWrapper = representationMETS.metsWrapper;
+    if (IPEnums.SipType.ERMS.equals(sipType)) {
+      metsGenerator.addRepresentationMETSToZipAndToMainMETS(zipEntries, mainMETSWrapper, representationId,
+        representationMETSWrapper,
+        IPConstants.REPRESENTATIONS_FOLDER + representationId + IPConstants.ZIP_PATH_SEPARATOR + IPConstants.DATA
+          + IPConstants.ZIP_PATH_SEPARATOR + IPConstants.METS_FILE,
+        buildDir);
+    } else if (IPEnums.SipType.SIARD.equals(sipType)) {
+      metsGenerator.addRepresentationSiardMETSToZipAndToMainMETS(zipEntries, mainMETSWrapper, representationId,
+        representationMETSWrapper,
+        IPConstants.REPRESENTATIONS_FOLDER + representationId + IPConstants.ZIP_PATH_SEPARATOR + IPConstants.DATA
+          + IPConstants.ZIP_PATH_SEPARATOR + IPConstants.METS_FILE,
+        buildDir);
+
+    } else {
+      metsGenerator.addRepresentationMETSToZipAndToMainMETS(zipEntries, mainMETSWrapper, representationId,
+        representationMETSWrapper, IPConstants.REPRESENTATIONS_FOLDER + representationId
+          + IPConstants.ZIP_PATH_SEPARATOR + IPConstants.METS_FILE,
+        buildDir, representationMETS.dataFileSpool);
+    }
   }
 
-  private void addRepresentationDataFilesToZipErmsAndMETS(IPInterface ip, Map<String, ZipEntryInfo> zipEntries,
+  private void addRepresentationDataFilesToZipErmsAndMETS(SIP progress, Map<String, ZipEntryInfo> zipEntries,
     MetsWrapper representationMETSWrapper, IPRepresentation representation, String representationId)
     throws InterruptedException, IPException {
     if (representation.getData() != null && !representation.getData().isEmpty()) {
-      if (ip instanceof SIP sip) {
-        sip.notifySipBuildRepresentationProcessingStarted(representation.getData().size());
+      if (progress != null) {
+        progress.notifySipBuildRepresentationProcessingStarted(representation.getData().size());
       }
       int i = 0;
       for (IPFileInterface file : representation.getData()) {
@@ -363,23 +590,23 @@ public class EARKUtils {
         }
 
         i++;
-        if (ip instanceof SIP sip) {
-          sip.notifySipBuildRepresentationProcessingCurrentStatus(i);
+        if (progress != null) {
+          progress.notifySipBuildRepresentationProcessingCurrentStatus(i);
         }
       }
-      if (ip instanceof SIP sip) {
-        sip.notifySipBuildRepresentationProcessingEnded();
+      if (progress != null) {
+        progress.notifySipBuildRepresentationProcessingEnded();
       }
     }
 
   }
 
-  private void addRepresentationDataFilesToZipSiardAndMETS(IPInterface ip, Map<String, ZipEntryInfo> zipEntries,
+  private void addRepresentationDataFilesToZipSiardAndMETS(SIP progress, Map<String, ZipEntryInfo> zipEntries,
     MetsWrapper representationMETSWrapper, IPRepresentation representation, String representationId)
     throws InterruptedException, IPException {
     if (representation.getData() != null && !representation.getData().isEmpty()) {
-      if (ip instanceof SIP sip) {
-        sip.notifySipBuildRepresentationProcessingStarted(representation.getData().size());
+      if (progress != null) {
+        progress.notifySipBuildRepresentationProcessingStarted(representation.getData().size());
       }
       int i = 0;
       for (IPFileInterface file : representation.getData()) {
@@ -403,49 +630,147 @@ public class EARKUtils {
         }
 
         i++;
-        if (ip instanceof SIP sip) {
-          sip.notifySipBuildRepresentationProcessingCurrentStatus(i);
+        if (progress != null) {
+          progress.notifySipBuildRepresentationProcessingCurrentStatus(i);
         }
       }
-      if (ip instanceof SIP sip) {
-        sip.notifySipBuildRepresentationProcessingEnded();
+      if (progress != null) {
+        progress.notifySipBuildRepresentationProcessingEnded();
       }
     }
   }
 
+  private METSDataFileSpool createDataFileSpool(Path buildDir) throws IPException {
+    try {
+      return new METSDataFileSpool(Files.createTempFile(buildDir, IPConstants.METS_FILE_NAME, ".spool"));
+    } catch (IOException e) {
+      throw new IPException("Error creating METS data file spool", e);
+    }
+  }
+
   protected void addRepresentationDataFilesToZipAndMETS(IPInterface ip, Map<String, ZipEntryInfo> zipEntries,
     MetsWrapper representationMETSWrapper, IPRepresentation representation, String representationId)
     throws IPException, InterruptedException {
+    addRepresentationDataFilesToZipAndMETS(ip, zipEntries, representationMETSWrapper, representation,
+      representationId, null);
+  }
+
+  /**
+   * @param dataFileSpool
+   *          where the data files are written once zipped or {@code null} to
+   *          add them to the data file group
+   */
+  protected void addRepresentationDataFilesToZipAndMETS(IPInterface ip, Map<String, ZipEntryInfo> zipEntries,
+    MetsWrapper representationMETSWrapper, IPRepresentation representation, String representationId,
+    METSDataFileSpool dataFileSpool) throws IPException, InterruptedException {
+    addRepresentationDataFilesToZipAndMETS(ip, ip instanceof SIP sip ? sip : null, zipEntries,
+      representationMETSWrapper, representation, representationId, dataFileSpool);
+  }
+
+  private void addRepresentationDataFilesToZipAndMETS(IPInterface ip, SIP progress,
+    Map<String, ZipEntryInfo> zipEntries, MetsWrapper representationMETSWrapper, IPRepresentation representation,
+    String representationId, METSDataFileSpool dataFileSpool) throws IPException, InterruptedException {
     if (representation.getData() != null && !representation.getData().isEmpty()) {
-      if (ip instanceof SIP sip) {
-        sip.notifySipBuildRepresentationProcessingStarted(representation.getData().size());
+      if (progress != null) {
+        progress.notifySipBuildRepresentationProcessingStarted(representation.getData().size());
       }
-      int i = 0;
-      for (IPFileInterface file : representation.getData()) {
-        if (Thread.interrupted()) {
-          throw new InterruptedException();
-        }
+      final DataFileProbes probes = buildExecutor != null ? new DataFileProbes(ip, representation.getData()) : null;
+      try {
+        int i = 0;
+        for (IPFileInterface file : representation.getData()) {
+          if (Thread.interrupted()) {
+            throw new InterruptedException();
+          }
 
-        if (file instanceof IPFile) {
-          String dataFilePath = IPConstants.DATA_FOLDER + ModelUtils.getFoldersFromList(file.getRelativeFolders())
-            + file.getFileName();
-          FileType fileType = metsGenerator.addDataFileToMETS(representationMETSWrapper, dataFilePath, file.getPath());
+          if (file instanceof IPFile) {
+            final FileType fileType = probes != null ? probes.take(i) : createDataFileType(ip, file);
+            metsGenerator.addDataFileToMETS(representationMETSWrapper, fileType, dataFileSpool == null);
 
-          dataFilePath = IPConstants.REPRESENTATIONS_FOLDER + representationId + IPConstants.ZIP_PATH_SEPARATOR
-            + dataFilePath;
-          ZIPUtils.addFileTypeFileToZip(zipEntries, file.getPath(), dataFilePath, fileType);
-        } else if (file instanceof IPFileShallow shallow && (shallow.getFileLocation() != null)) {
-          metsGenerator.addDataFileToMETS(representationMETSWrapper, shallow);
+            final String dataFilePath = IPConstants.REPRESENTATIONS_FOLDER + representationId
+              + IPConstants.ZIP_PATH_SEPARATOR + getDataFilePath(file);
+            ZIPUtils.addFileTypeFileToZip(zipEntries, file.getPath(), dataFilePath, fileType, dataFileSpool,
+              manifestCache);
+          } else if (file instanceof IPFileShallow shallow && (shallow.getFileLocation() != null)) {
+            metsGenerator.addDataFileToMETS(representationMETSWrapper, shallow);
+          }
+
+          i++;
+          if (progress != null) {
+            progress.notifySipBuildRepresentationProcessingCurrentStatus(i);
+          }
+        }
+      } finally {
+        if (probes != null) {
+          probes.cancel();
         }
+      }
+      if (progress != null) {
+        progress.notifySipBuildRepresentationProcessingEnded();
+      }
+    }
+  }
 
-        i++;
-        if (ip instanceof SIP sip) {
-          sip.notifySipBuildRepresentationProcessingCurrentStatus(i);
+  private static String getDataFilePath(IPFileInterface file) {
+    return IPConstants.DATA_FOLDER + ModelUtils.getFoldersFromList(file.getRelativeFolders()) + file.getFileName();
+  }
+
+  private FileType createDataFileType(IPInterface ip, IPFileInterface file) throws IPException, InterruptedException {
+    ManifestCache.Entry cached = null;
+    if (manifestCache != null && ip instanceof IP ipWithChecksum) {
+      cached = manifestCache.lookup(file.getPath(), ipWithChecksum.getChecksum());
+    }
+    return metsGenerator.createDataFileType(getDataFilePath(file), file.getPath(), cached);
+  }
+
+  /**
+   * Creates the {@link FileType}s (probing mimetype and size) of the data files
+   * of a representation on the build executor, up to
+   * {@link #DATA_FILE_PROBES_AHEAD} files ahead of the one being added to the
+   * METS.
+   */
+  private final class DataFileProbes {
+    private final IPInterface ip;
+    private final List<IPFileInterface> files;
+    private final Map<Integer, FutureTask<FileType>> tasks = new HashMap<>();
+    private int next = 0;
+
+    private DataFileProbes(IPInterface ip, List<IPFileInterface> files) {
+      this.ip = ip;
+      this.files = files;
+    }
+
+    private FileType take(int index) throws IPException, InterruptedException {
+      for (; next < files.size() && next <= index + DATA_FILE_PROBES_AHEAD; next++) {
+        final IPFileInterface file = files.get(next);
+        if (file instanceof IPFile) {
+          final FutureTask<FileType> task = new FutureTask<>(() -> createDataFileType(ip, file));
+          tasks.put(next, task);
+          buildExecutor.execute(task);
         }
       }
-      if (ip instanceof SIP sip) {
-        sip.notifySipBuildRepresentationProcessingEnded();
+      return runAndGet(tasks.remove(index));
+    }
+
+    private void cancel() {
+      for (FutureTask<FileType> task : tasks.values()) {
+        task.cancel(true);
       }
+      tasks.clear();
+    }
+  }
+
+  private static final class RepresentationMETS {
+    private final String representationId;
+    private final MetsWrapper metsWrapper;
+    private final Map<String, ZipEntryInfo> zipEntries;
+    private final METSDataFileSpool dataFileSpool;
+
+    private RepresentationMETS(String representationId, MetsWrapper metsWrapper,
+      Map<String, ZipEntryInfo> zipEntries, METSDataFileSpool dataFileSpool) {
+      this.representationId = representationId;
+      this.metsWrapper = metsWrapper;
+      this.zipEntries = zipEntries;
+      this.dataFileSpool = dataFileSpool;
     }
   }
 
@@ -624,7 +949,11 @@ public class EARKUtils {
       ValidationUtils.addInfo(ip.getValidationReport(), ValidationConstants.REPRESENTATION_METS_FILE_FOUND,
         ip.getBasePath(), representationMetsFile);
       try {
-        representationMets = METSUtils.instantiateMETSFromFile(representationMetsFile);
+        if (streamRepresentationFiles) {
+          representationMets = METSUtils.instantiateMETSFromFileWithoutDataFiles(representationMetsFile);
+        } else {
+          representationMets = METSUtils.instantiateMETSFromFile(representationMetsFile);
+        }
         setRepresentationContentType(representationMets, representation);
         ValidationUtils.addInfo(ip.getValidationReport(), ValidationConstants.REPRESENTATION_METS_IS_VALID,
           ip.getBasePath(), representationMetsFile);
@@ -663,7 +992,7 @@ public class EARKUtils {
           && (div.getMptr() != null && !div.getMptr().isEmpty())) {
           // we can assume one and only one mets for each representation div
           Mptr mptr = div.getMptr().get(0);
-          String href = Utils.extractedRelativePathFromHref(mptr.getHref());
+          String href = context.extractedRelativePathFromHref(mptr.getHref());
           Path metsFilePath = ip.getBasePath().resolve(href);
           IPRepresentation representation = new IPRepresentation(
             div.getLABEL().replaceFirst(IPConstants.REPRESENTATIONS_WITH_FIRST_LETTER_CAPITAL + "/", ""));
@@ -778,7 +1107,7 @@ public class EARKUtils {
     for (MdSecType mdSecType : dmdSec) {
       MdRef mdRef = mdSecType.getMdRef();
       if (mdRef != null) {
-        String href = Utils.extractedRelativePathFromHref(mdRef);
+        String href = context.extractedRelativePathFromHref(mdRef.getHref());
         Path filePath = basePath.resolve(href);
         if (Files.exists(filePath)) {
           List<String> fileRelativeFolders = Utils
@@ -882,7 +1211,7 @@ public class EARKUtils {
   private void processMdRef(MdRef mdRef, String metadataType, IPInterface ip, IPRepresentation representation,
     Path basePath) throws IPException {
     if (mdRef != null) {
-      String href = Utils.extractedRelativePathFromHref(mdRef);
+      String href = context.extractedRelativePathFromHref(mdRef.getHref());
       Path filePath = basePath.resolve(href);
       if (Files.exists(filePath)) {
         List<String> fileRelativeFolders = Utils
@@ -968,7 +1297,7 @@ public class EARKUtils {
           if (obj instanceof MdSecType mdSecType) {
             MdRef mdRef = mdSecType.getMdRef();
             if (mdRef != null) {
-              String href = Utils.extractedRelativePathFromHref(mdRef);
+              String href = context.extractedRelativePathFromHref(mdRef.getHref());
               Path filePath = basePath.resolve(href);
               if (Files.exists(filePath)) {
                 List<String> fileRelativeFolders = Utils
@@ -1065,55 +1394,68 @@ public class EARKUtils {
 
   protected IPInterface processFile(IPInterface ip, DivType div, String folder, Path basePath) {
     if (div != null && div.getFptr() != null) {
-      for (Fptr fptr : div.getFptr()) {
-        Object object = fptr.getFILEID();
-        if (object instanceof FileGrpType fileGrp) {
-          for (FileType fileType : fileGrp.getFile()) {
-            if (fileType.getFLocat() != null) {
-              FLocat fLocat = fileType.getFLocat().get(0);
-              String href = Utils.extractedRelativePathFromHref(fLocat.getHref());
-              Path filePath = basePath.resolve(href);
-
-              if (Files.exists(filePath)) {
-                List<String> fileRelativeFolders = Utils.getFileRelativeFolders(basePath.resolve(folder), filePath);
-                Optional<IPFileInterface> file = validateFile(ip, filePath, fileType, fileRelativeFolders);
-
-                if (file.isPresent()) {
-                  if (IPConstants.SCHEMAS.equalsIgnoreCase(folder)) {
-                    ValidationUtils.addInfo(ip.getValidationReport(),
-                      ValidationConstants.SCHEMA_FILE_FOUND_WITH_MATCHING_CHECKSUMS, ip.getBasePath(), filePath);
-                    ip.addSchema(file.get());
-                  } else if (IPConstants.DOCUMENTATION.equalsIgnoreCase(folder)) {
-                    ValidationUtils.addInfo(ip.getValidationReport(),
-                      ValidationConstants.DOCUMENTATION_FILE_FOUND_WITH_MATCHING_CHECKSUMS, ip.getBasePath(), filePath);
-                    ip.addDocumentation(file.get());
-                  } else if (IPConstants.SUBMISSION.equalsIgnoreCase(folder) && ip instanceof AIP aip) {
-                    ValidationUtils.addInfo(ip.getValidationReport(),
-                      ValidationConstants.SUBMISSION_FILE_FOUND_WITH_MATCHING_CHECKSUMS, ip.getBasePath(), filePath);
-                    aip.addSubmission(file.get());
-                  }
-                }
-              } else {
-                if (IPConstants.SCHEMAS.equalsIgnoreCase(folder)) {
-                  ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.SCHEMA_FILE_NOT_FOUND,
-                    ValidationEntry.LEVEL.ERROR, div, ip.getBasePath(), filePath);
-                } else if (IPConstants.DOCUMENTATION.equalsIgnoreCase(folder)) {
-                  ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.DOCUMENTATION_FILE_NOT_FOUND,
-                    ValidationEntry.LEVEL.ERROR, div, ip.getBasePath(), filePath);
-                } else if (IPConstants.SUBMISSION.equalsIgnoreCase(folder)) {
-                  ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.SUBMISSION_FILE_NOT_FOUND,
-                    ValidationEntry.LEVEL.ERROR, div, ip.getBasePath(), filePath);
-                }
+      final ChecksumVerificationQueue checksumQueue = new ChecksumVerificationQueue(checksumExecutor);
+      try {
+        for (Fptr fptr : div.getFptr()) {
+          Object object = fptr.getFILEID();
+          if (object instanceof FileGrpType fileGrp) {
+            for (FileType fileType : fileGrp.getFile()) {
+              if (fileType.getFLocat() != null) {
+                processFile(ip, div, folder, basePath, fileType, checksumQueue);
               }
             }
           }
         }
+        checksumQueue.flush();
+      } catch (RuntimeException e) {
+        checksumQueue.cancel();
+        throw e;
       }
     }
 
     return ip;
   }
 
+  private void processFile(IPInterface ip, DivType div, String folder, Path basePath, FileType fileType,
+    ChecksumVerificationQueue checksumQueue) {
+    FLocat fLocat = fileType.getFLocat().get(0);
+    String href = context.extractedRelativePathFromHref(fLocat.getHref());
+    Path filePath = basePath.resolve(href);
+
+    if (Files.exists(filePath)) {
+      List<String> fileRelativeFolders = Utils.getFileRelativeFolders(basePath.resolve(folder), filePath);
+      checksumQueue.verify(ip, filePath, fileRelativeFolders, fileType.getCHECKSUM(), fileType.getCHECKSUMTYPE(),
+        fileType.getID(), file -> {
+          if (IPConstants.SCHEMAS.equalsIgnoreCase(folder)) {
+            ValidationUtils.addInfo(ip.getValidationReport(),
+              ValidationConstants.SCHEMA_FILE_FOUND_WITH_MATCHING_CHECKSUMS, ip.getBasePath(), filePath);
+            ip.addSchema(file);
+          } else if (IPConstants.DOCUMENTATION.equalsIgnoreCase(folder)) {
+            ValidationUtils.addInfo(ip.getValidationReport(),
+              ValidationConstants.DOCUMENTATION_FILE_FOUND_WITH_MATCHING_CHECKSUMS, ip.getBasePath(), filePath);
+            ip.addDocumentation(file);
+          } else if (IPConstants.SUBMISSION.equalsIgnoreCase(folder) && ip instanceof AIP aip) {
+            ValidationUtils.addInfo(ip.getValidationReport(),
+              ValidationConstants.SUBMISSION_FILE_FOUND_WITH_MATCHING_CHECKSUMS, ip.getBasePath(), filePath);
+            aip.addSubmission(file);
+          }
+        });
+    } else {
+      checksumQueue.run(() -> {
+        if (IPConstants.SCHEMAS.equalsIgnoreCase(folder)) {
+          ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.SCHEMA_FILE_NOT_FOUND,
+            ValidationEntry.LEVEL.ERROR, div, ip.getBasePath(), filePath);
+        } else if (IPConstants.DOCUMENTATION.equalsIgnoreCase(folder)) {
+          ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.DOCUMENTATION_FILE_NOT_FOUND,
+            ValidationEntry.LEVEL.ERROR, div, ip.getBasePath(), filePath);
+        } else if (IPConstants.SUBMISSION.equalsIgnoreCase(folder)) {
+          ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.SUBMISSION_FILE_NOT_FOUND,
+            ValidationEntry.LEVEL.ERROR, div, ip.getBasePath(), filePath);
+        }
+      });
+    }
+  }
+
   protected void processRepresentationAgents(MetsWrapper representationMetsWrapper, IPRepresentation representation) {
     addAgentsToMETS(representationMetsWrapper.getMets(), null, representation);
   }
@@ -1122,54 +1464,33 @@ public class EARKUtils {
     IPRepresentation representation, Path representationBasePath) throws IPException {
 
     if (representationMetsWrapper.getDataDiv() != null && representationMetsWrapper.getDataDiv().getFptr() != null) {
-      for (Fptr fptr : representationMetsWrapper.getDataDiv().getFptr()) {
-        Object object = fptr.getFILEID();
-        if (object instanceof FileGrpType fileGrp) {
-          for (FileType fileType : fileGrp.getFile()) {
-            if (fileType != null && fileType.getFLocat() != null) {
-              FLocat fLocat = fileType.getFLocat().get(0);
-              String href = Utils.extractedRelativePathFromHref(fLocat.getHref());
-              Path filePath = representationBasePath.resolve(href);
-
-              // Verify that when protocol is file:/// the file is inside the SIP or not
-              if (filePath.startsWith(representationBasePath)) {
-                // treat as a SIP (generic behaviour)
-                if (Files.exists(filePath)) {
-                  List<String> fileRelativeFolders = Utils
-                    .getFileRelativeFolders(representationBasePath.resolve(IPConstants.DATA), filePath);
-                  Optional<IPFileInterface> file = validateFile(ip, filePath, fileType, fileRelativeFolders);
-
-                  if (file.isPresent()) {
-                    representation.addFile(file.get());
-                    ValidationUtils.addInfo(ip.getValidationReport(),
-                      ValidationConstants.REPRESENTATION_FILE_FOUND_WITH_MATCHING_CHECKSUMS, ip.getBasePath(),
-                      filePath);
-                  }
-                } else {
-                  // treat as a SIP shallow
-                  Optional<IPFileInterface> ipFileInterface = validateFileShallow(ip, fLocat, filePath, fileType,
-                    Collections.emptyList());
-                  ipFileInterface.ifPresent(representation::addFile);
-                }
-              } else {
-                // treat as a SIP shallow
-                Optional<IPFileInterface> ipFileInterface = validateFileShallow(ip, fLocat, filePath, fileType,
-                  Collections.emptyList());
-                ipFileInterface.ifPresent(representation::addFile);
+      final ChecksumVerificationQueue checksumQueue = new ChecksumVerificationQueue(checksumExecutor);
+      try {
+        if (streamRepresentationFiles) {
+          processRepresentationFilesFromStream(ip, representationMetsWrapper, representation, representationBasePath,
+            checksumQueue);
+        } else {
+          for (Fptr fptr : representationMetsWrapper.getDataDiv().getFptr()) {
+            Object object = fptr.getFILEID();
+            if (object instanceof FileGrpType fileGrp) {
+              for (FileType fileType : fileGrp.getFile()) {
+                processRepresentationFile(ip, representationMetsWrapper, representation, representationBasePath,
+                  fileType, Collections.emptyList(), checksumQueue);
               }
-            } else {
-              ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.REPRESENTATION_FILE_HAS_NO_FLOCAT,
-                ValidationEntry.LEVEL.ERROR, fileType, ip.getBasePath(), representationMetsWrapper.getMetsPath());
             }
           }
-        }
-      }
 
-      for (DivType subDiv : representationMetsWrapper.getDataDiv().getDiv()) {
-        final List<String> subDivRelativePath = new ArrayList<>();
-        subDivRelativePath.add(subDiv.getLABEL());
-        processRepresentationFilesSubDivs(ip, representationMetsWrapper, representation, representationBasePath, subDiv,
-          subDivRelativePath);
+          for (DivType subDiv : representationMetsWrapper.getDataDiv().getDiv()) {
+            final List<String> subDivRelativePath = new ArrayList<>();
+            subDivRelativePath.add(subDiv.getLABEL());
+            processRepresentationFilesSubDivs(ip, representationMetsWrapper, representation, representationBasePath,
+              subDiv, subDivRelativePath, checksumQueue);
+          }
+        }
+        checksumQueue.flush();
+      } catch (IPException | RuntimeException e) {
+        checksumQueue.cancel();
+        throw e;
       }
 
       // post-process validations
@@ -1182,8 +1503,8 @@ public class EARKUtils {
   }
 
   protected void processRepresentationFilesSubDivs(IPInterface ip, MetsWrapper representationMetsWrapper,
-    IPRepresentation representation, Path representationBasePath, DivType div, List<String> relativePath)
-    throws IPException {
+    IPRepresentation representation, Path representationBasePath, DivType div, List<String> relativePath,
+    ChecksumVerificationQueue checksumQueue) throws IPException {
 
     final List<Fptr> fptrs = div.getFptr();
     if (fptrs != null && !fptrs.isEmpty()) {
@@ -1191,57 +1512,108 @@ public class EARKUtils {
         final Object object = fptr.getFILEID();
         if (object instanceof FileGrpType fileGrp) {
           for (FileType fileType : fileGrp.getFile()) {
-            if (fileType != null && fileType.getFLocat() != null) {
-              final FLocat fLocat = fileType.getFLocat().get(0);
-              final String href = Utils.extractedRelativePathFromHref(fLocat.getHref());
-              final Path filePath = representationBasePath.resolve(href);
-
-              // Verify that when protocol is file:/// the file is inside the SIP or not
-              if (filePath.startsWith(representationBasePath)) {
-                // treat as a SIP (generic behaviour)
-                if (Files.exists(filePath)) {
-                  final List<String> fileRelativeFolders = Utils
-                    .getFileRelativeFolders(representationBasePath.resolve(IPConstants.DATA), filePath);
-                  final Optional<IPFileInterface> file = validateFile(ip, filePath, fileType, fileRelativeFolders);
-
-                  if (file.isPresent()) {
-                    representation.addFile(file.get());
-                    ValidationUtils.addInfo(ip.getValidationReport(),
-                      ValidationConstants.REPRESENTATION_FILE_FOUND_WITH_MATCHING_CHECKSUMS, ip.getBasePath(),
-                      filePath);
-                  }
-                } else {
-                  // treat as a SIP shallow
-                  final Optional<IPFileInterface> ipFileInterface = validateFileShallow(ip, fLocat, filePath, fileType,
-                    relativePath);
-                  ipFileInterface.ifPresent(representation::addFile);
-                }
-              } else {
-                // treat as a SIP shallow
-                final Optional<IPFileInterface> ipFileInterface = validateFileShallow(ip, fLocat, filePath, fileType,
-                  relativePath);
-                ipFileInterface.ifPresent(representation::addFile);
-              }
-            } else {
-              ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.REPRESENTATION_FILE_HAS_NO_FLOCAT,
-                ValidationEntry.LEVEL.ERROR, fileType, ip.getBasePath(), representationMetsWrapper.getMetsPath());
-            }
+            processRepresentationFile(ip, representationMetsWrapper, representation, representationBasePath,
+              fileType, relativePath, checksumQueue);
           }
         }
       }
     } else if (div.getDiv().isEmpty()) {
       // This is a empty folder, add an empty folder representation in form of a
       // IPFileShallow
-      representation.addFile(IPFileShallow.createEmptyFolder(relativePath));
+      checksumQueue.run(() -> representation.addFile(IPFileShallow.createEmptyFolder(relativePath)));
     }
 
     for (DivType subDiv : div.getDiv()) {
       final List<String> subDivRelativePath = new ArrayList<>(relativePath);
       subDivRelativePath.add(subDiv.getLABEL());
       processRepresentationFilesSubDivs(ip, representationMetsWrapper, representation, representationBasePath, subDiv,
-        subDivRelativePath);
+        subDivRelativePath, checksumQueue);
+    }
+
+  }
+
+  /**
+   * Streaming counterpart of the data div traversal: the structural map (still
+   * in the METS object graph) tells which data file groups belong to which
+   * folder, and the files of those groups are then read one at a time from the
+   * METS file. Files are therefore added in file section order.
+   */
+  protected void processRepresentationFilesFromStream(IPInterface ip, MetsWrapper representationMetsWrapper,
+    IPRepresentation representation, Path representationBasePath, ChecksumVerificationQueue checksumQueue)
+    throws IPException {
+    final Map<String, List<String>> relativePathByFileGrp = new HashMap<>();
+    for (Fptr fptr : representationMetsWrapper.getDataDiv().getFptr()) {
+      if (fptr.getFILEID() instanceof FileGrpType fileGrp) {
+        relativePathByFileGrp.putIfAbsent(fileGrp.getID(), Collections.emptyList());
+      }
+    }
+    for (DivType subDiv : representationMetsWrapper.getDataDiv().getDiv()) {
+      final List<String> subDivRelativePath = new ArrayList<>();
+      subDivRelativePath.add(subDiv.getLABEL());
+      collectRepresentationFileGrps(representation, subDiv, subDivRelativePath, relativePathByFileGrp);
     }
 
+    METSStreamReader.read(representationMetsWrapper.getMetsPath(), new METSStreamHandler() {
+      @Override
+      public void file(String fileGrpId, FileType fileType) throws IPException {
+        final List<String> relativePath = relativePathByFileGrp.get(fileGrpId);
+        if (relativePath != null) {
+          processRepresentationFile(ip, representationMetsWrapper, representation, representationBasePath, fileType,
+            relativePath, checksumQueue);
+        }
+      }
+    });
+  }
+
+  private void collectRepresentationFileGrps(IPRepresentation representation, DivType div, List<String> relativePath,
+    Map<String, List<String>> relativePathByFileGrp) {
+    final List<Fptr> fptrs = div.getFptr();
+    if (fptrs != null && !fptrs.isEmpty()) {
+      for (Fptr fptr : fptrs) {
+        if (fptr.getFILEID() instanceof FileGrpType fileGrp) {
+          relativePathByFileGrp.putIfAbsent(fileGrp.getID(), relativePath);
+        }
+      }
+    } else if (div.getDiv().isEmpty()) {
+      representation.addFile(IPFileShallow.createEmptyFolder(relativePath));
+    }
+
+    for (DivType subDiv : div.getDiv()) {
+      final List<String> subDivRelativePath = new ArrayList<>(relativePath);
+      subDivRelativePath.add(subDiv.getLABEL());
+      collectRepresentationFileGrps(representation, subDiv, subDivRelativePath, relativePathByFileGrp);
+    }
+  }
+
+  private void processRepresentationFile(IPInterface ip, MetsWrapper representationMetsWrapper,
+    IPRepresentation representation, Path representationBasePath, FileType fileType, List<String> relativePath,
+    ChecksumVerificationQueue checksumQueue) {
+    if (fileType != null && fileType.getFLocat() != null) {
+      final FLocat fLocat = fileType.getFLocat().get(0);
+      final String href = context.extractedRelativePathFromHref(fLocat.getHref());
+      final Path filePath = representationBasePath.resolve(href);
+
+      // Verify that when protocol is file:/// the file is inside the SIP or not
+      if (filePath.startsWith(representationBasePath) && Files.exists(filePath)) {
+        // treat as a SIP (generic behaviour)
+        final List<String> fileRelativeFolders = Utils
+          .getFileRelativeFolders(representationBasePath.resolve(IPConstants.DATA), filePath);
+        checksumQueue.verify(ip, filePath, fileRelativeFolders, fileType.getCHECKSUM(), fileType.getCHECKSUMTYPE(),
+          fileType.getID(), file -> {
+            representation.addFile(file);
+            ValidationUtils.addInfo(ip.getValidationReport(),
+              ValidationConstants.REPRESENTATION_FILE_FOUND_WITH_MATCHING_CHECKSUMS, ip.getBasePath(), filePath);
+          });
+      } else {
+        // treat as a SIP shallow
+        checksumQueue.run(() -> validateFileShallow(ip, fLocat, filePath, fileType, relativePath)
+          .ifPresent(representation::addFile));
+      }
+    } else {
+      checksumQueue.run(() -> ValidationUtils.addIssue(ip.getValidationReport(),
+        ValidationConstants.REPRESENTATION_FILE_HAS_NO_FLOCAT, ValidationEntry.LEVEL.ERROR, fileType,
+        ip.getBasePath(), representationMetsWrapper.getMetsPath()));
+    }
   }
 
   private Optional<IPFileInterface> validateFileShallow(IPInterface ip, FLocat fLocat, Path filePath, FileType fileType,
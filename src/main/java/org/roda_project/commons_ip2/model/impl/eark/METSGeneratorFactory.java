@@ -1,5 +1,7 @@
 package org.roda_project.commons_ip2.model.impl.eark;
 
+import org.roda_project.commons_ip2.model.IPOperationContext;
+
 public class METSGeneratorFactory {
 
     public METSGeneratorFactory() {
@@ -7,9 +9,13 @@ public class METSGeneratorFactory {
     }
 
     public EARKMETSCreator getGenerator(String version) {
+        return getGenerator(version, new IPOperationContext());
+    }
+
+    public EARKMETSCreator getGenerator(String version, IPOperationContext context) {
         if (version.equals("2.0.4")) {
-            return new EARKMETSCreator204();
+            return new EARKMETSCreator204(context);
         }
-        return new EARKMETSCreator210();
+        return new EARKMETSCreator210(context);
     }
 }
@@ -0,0 +1,32 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.model.impl.eark.out.writers.factory;
+
+import org.roda_project.commons_ip2.model.impl.eark.out.writers.strategy.ParallelZipWriteStrategy;
+import org.roda_project.commons_ip2.model.impl.eark.out.writers.strategy.WriteStrategy;
+
+/**
+ * {@link WriteStrategyFactory} for {@link ParallelZipWriteStrategy}, by
+ * default with one worker thread per available processor.
+ */
+public class ParallelZipWriteStrategyFactory extends WriteStrategyFactory {
+  private final int threads;
+
+  public ParallelZipWriteStrategyFactory() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public ParallelZipWriteStrategyFactory(int threads) {
+    this.threads = threads;
+  }
+
+  @Override
+  protected WriteStrategy createWriteStrategy() {
+    return new ParallelZipWriteStrategy(threads);
+  }
+}
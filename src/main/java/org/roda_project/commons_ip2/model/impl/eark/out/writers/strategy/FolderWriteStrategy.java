@@ -6,21 +6,22 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
+import java.nio.file.StandardCopyOption;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Map;
 
-import org.apache.commons.io.IOUtils;
 import org.roda_project.commons_ip.utils.IPException;
 import org.roda_project.commons_ip.utils.ZipEntryInfo;
 import org.roda_project.commons_ip2.model.SIP;
+import org.roda_project.commons_ip2.utils.DigestPipeline;
 import org.roda_project.commons_ip2.utils.METSFileTypeZipEntryInfo;
 import org.roda_project.commons_ip2.utils.METSMdRefZipEntryInfo;
+import org.roda_project.commons_ip2.utils.METSZipEntryInfo;
+import org.roda_project.commons_ip2.utils.ZIPUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import jakarta.xml.bind.DatatypeConverter;
-
 /**
  * @author Miguel Guimarães <mguimaraes@keep.pt>
  */
@@ -67,6 +68,9 @@ public class FolderWriteStrategy implements WriteStrategy {
         LOGGER.debug("Writing file {}", zipEntryInfo.getFilePath());
         final Path outputPath = Paths.get(path.toString(), zipEntryInfo.getName());
         writeFileToPath(zipEntryInfo, outputPath, checksumAlgorithm);
+        if (zipEntryInfo instanceof METSZipEntryInfo metsEntry) {
+          metsEntry.releaseStaged();
+        }
       }
     } catch (final IOException | NoSuchAlgorithmException e) {
       LOGGER.debug("Error in write method", e);
@@ -95,39 +99,36 @@ public class FolderWriteStrategy implements WriteStrategy {
 
   private void writeFileToPath(final ZipEntryInfo zipEntryInfo, final Path outputPath, String checksumAlgorithm)
     throws IOException, NoSuchAlgorithmException {
-    InputStream is = null;
-    OutputStream os = null;
-    try {
-
-      is = Files.newInputStream(zipEntryInfo.getFilePath());
-
-      Files.createDirectories(outputPath.getParent());
-      os = Files.newOutputStream(outputPath);
-
-      final byte[] buffer = new byte[4096];
-      final MessageDigest complete = MessageDigest.getInstance(checksumAlgorithm);
-      int numRead;
-      do {
-        numRead = is.read(buffer);
-        if (numRead > 0) {
-          complete.update(buffer, 0, numRead);
-          os.write(buffer, 0, numRead);
+    Files.createDirectories(outputPath.getParent());
+    if (zipEntryInfo instanceof METSZipEntryInfo metsEntry) {
+      // the METS was digested while it was written, so it is only copied
+      DigestPipeline.Result staged = metsEntry.getStagedDigest(Collections.singleton(checksumAlgorithm));
+      if (staged != null) {
+        try (InputStream inputStream = metsEntry.openStagedStream()) {
+          Files.copy(inputStream, outputPath, StandardCopyOption.REPLACE_EXISTING);
         }
-      } while (numRead != -1);
-
-      setChecksum(zipEntryInfo, DatatypeConverter.printHexBinary(complete.digest()), checksumAlgorithm);
-    } finally {
-      IOUtils.closeQuietly(is);
-      IOUtils.closeQuietly(os);
+        setChecksum(zipEntryInfo, staged.getChecksum(checksumAlgorithm), checksumAlgorithm);
+        return;
+      }
+    } else if (zipEntryInfo instanceof METSFileTypeZipEntryInfo f && f.getKnownChecksum(checksumAlgorithm) != null) {
+      // the checksum was taken from the manifest cache, so it is only copied
+      Files.copy(zipEntryInfo.getFilePath(), outputPath, StandardCopyOption.REPLACE_EXISTING);
+      setChecksum(zipEntryInfo, f.getKnownChecksum(checksumAlgorithm), checksumAlgorithm);
+      return;
+    }
+    try (OutputStream os = Files.newOutputStream(outputPath)) {
+      DigestPipeline.Result result = ZIPUtils.digestEntry(zipEntryInfo, Collections.singleton(checksumAlgorithm), os,
+        false);
+      setChecksum(zipEntryInfo, result.getChecksum(checksumAlgorithm), checksumAlgorithm);
     }
   }
 
-  private void setChecksum(final ZipEntryInfo zipEntryInfo, final String checksum, final String checksumType) {
+  private void setChecksum(final ZipEntryInfo zipEntryInfo, final String checksum, final String checksumType)
+    throws IOException {
     zipEntryInfo.setChecksum(checksum);
     zipEntryInfo.setChecksumAlgorithm(checksumType);
     if (zipEntryInfo instanceof METSFileTypeZipEntryInfo f) {
-      f.getMetsFileType().setCHECKSUM(checksum);
-      f.getMetsFileType().setCHECKSUMTYPE(checksumType);
+      f.setMetsFileTypeChecksum(checksum, checksumType);
     } else if (zipEntryInfo instanceof METSMdRefZipEntryInfo f) {
       f.getMetsMdRef().setCHECKSUM(checksum);
       f.getMetsMdRef().setCHECKSUMTYPE(checksumType);
@@ -0,0 +1,121 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.model.impl.eark.out.writers.strategy;
+
+import static org.roda_project.commons_ip2.model.IPConstants.SIP_FILE_EXTENSION;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.roda_project.commons_ip.utils.IPException;
+import org.roda_project.commons_ip.utils.ZipEntryInfo;
+import org.roda_project.commons_ip2.model.SIP;
+import org.roda_project.commons_ip2.utils.ParallelZIPUtils;
+
+/**
+ * {@link WriteStrategy} that produces the same ZIP as {@link ZipWriteStrategy}
+ * but deflates and digests the entries concurrently on a pool of worker
+ * threads.
+ */
+public class ParallelZipWriteStrategy implements WriteStrategy {
+
+  private static final int PENDING_ENTRIES_PER_THREAD = 4;
+
+  private final int threads;
+  private Path destinationPath;
+
+  public ParallelZipWriteStrategy() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public ParallelZipWriteStrategy(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be greater than zero");
+    }
+    this.threads = threads;
+  }
+
+  @Override
+  public void setup(Path destinationPath) {
+    this.destinationPath = destinationPath;
+  }
+
+  @Override
+  public Path write(Map<String, ZipEntryInfo> entries, SIP sip, String fileNameWithoutExtension, String fallbackName,
+    boolean deleteExisting) throws IPException, InterruptedException {
+    return write(entries, sip, fileNameWithoutExtension, fallbackName, true, deleteExisting);
+  }
+
+  @Override
+  public Path write(Map<String, ZipEntryInfo> entries, SIP sip, String fileNameWithoutExtension, String fallbackName,
+    boolean createSipIdFolder, boolean deleteExisting) throws IPException, InterruptedException {
+    Path zipPath = getZipPath(destinationPath, fileNameWithoutExtension, fallbackName);
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new ZipWorkerThreadFactory());
+    try (OutputStream outputStream = Files.newOutputStream(zipPath)) {
+      ParallelZIPUtils.zip(entries, outputStream, sip, createSipIdFolder, true, executor,
+        threads * PENDING_ENTRIES_PER_THREAD);
+    } catch (ClosedByInterruptException e) {
+      throw new InterruptedException();
+    } catch (IOException e) {
+      throw new IPException("Error generating E-ARK SIP ZIP file. Reason: " + e.getMessage(), e);
+    } finally {
+      // the zip already waited for the entries it submitted
+      executor.shutdownNow();
+    }
+
+    return zipPath;
+  }
+
+  @Override
+  public Path getDestinationPath() {
+    return this.destinationPath;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  private Path getZipPath(Path destinationDirectory, String fileNameWithoutExtension, String fallbackName)
+    throws IPException {
+    Path zipPath;
+    if (fileNameWithoutExtension != null) {
+      zipPath = destinationDirectory.resolve(fileNameWithoutExtension + SIP_FILE_EXTENSION);
+    } else {
+      zipPath = destinationDirectory.resolve(fallbackName + SIP_FILE_EXTENSION);
+    }
+
+    try {
+      if (Files.exists(zipPath)) {
+        Files.delete(zipPath);
+      }
+    } catch (IOException e) {
+      throw new IPException("Error deleting already existing zip", e);
+    }
+    return zipPath;
+  }
+
+  private static final class ZipWorkerThreadFactory implements ThreadFactory {
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "parallel-zip-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
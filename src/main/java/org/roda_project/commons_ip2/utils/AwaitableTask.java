@@ -0,0 +1,70 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link FutureTask} that, once cancelled, can be waited for: its callable
+ * either never starts or {@link #cancelAndAwait()} waits for it to return.
+ * <p>
+ * This lets a caller stop the tasks it submitted to an executor it does not
+ * own, e.g. before deleting the files they write, without shutting the
+ * executor down.
+ * </p>
+ */
+public final class AwaitableTask<T> extends FutureTask<T> {
+  private final AtomicBoolean started;
+  private final CountDownLatch stopped;
+
+  public AwaitableTask(Callable<T> callable) {
+    this(callable, new AtomicBoolean(), new CountDownLatch(1));
+  }
+
+  private AwaitableTask(Callable<T> callable, AtomicBoolean started, CountDownLatch stopped) {
+    super(() -> {
+      if (!started.compareAndSet(false, true)) {
+        throw new CancellationException();
+      }
+      try {
+        return callable.call();
+      } finally {
+        stopped.countDown();
+      }
+    });
+    this.started = started;
+    this.stopped = stopped;
+  }
+
+  /**
+   * Cancels the task, interrupting it if it is running, and waits for its
+   * callable to return if it already started.
+   *
+   * @return if the calling thread was interrupted while waiting
+   */
+  public boolean cancelAndAwait() {
+    if (started.compareAndSet(false, true)) {
+      cancel(false);
+      return false;
+    }
+    cancel(true);
+    boolean interrupted = false;
+    while (true) {
+      try {
+        stopped.await();
+        return interrupted;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+  }
+}
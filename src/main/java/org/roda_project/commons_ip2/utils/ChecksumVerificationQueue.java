@@ -0,0 +1,149 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.roda_project.commons_ip2.model.IPFileInterface;
+import org.roda_project.commons_ip2.model.IPInterface;
+
+/**
+ * Verifies the checksums of the files of an IP on an {@link ExecutorService}
+ * while the METS is still being walked, keeping the effects in the original
+ * order.
+ * <p>
+ * Each file digest is submitted as soon as the file is found, and its outcome
+ * (the {@link IPFileInterface} or the validation report entries) is applied on
+ * the calling thread, in submission order, together with any other action
+ * queued with {@link #run(Runnable)}. So the files are added to the IP and the
+ * entries to the validation report exactly as if the checksums were verified
+ * one at a time. At most {@code maxPending} digests are pending at any time.
+ * </p>
+ */
+public final class ChecksumVerificationQueue {
+  public static final int DEFAULT_MAX_PENDING = 1024;
+
+  private final ExecutorService executor;
+  private final int maxPending;
+  private final Deque<Step> steps = new ArrayDeque<>();
+
+  /**
+   * @param executor
+   *          where the checksums are computed, if null they are computed on the
+   *          calling thread
+   */
+  public ChecksumVerificationQueue(ExecutorService executor) {
+    this(executor, DEFAULT_MAX_PENDING);
+  }
+
+  public ChecksumVerificationQueue(ExecutorService executor, int maxPending) {
+    this.executor = executor;
+    this.maxPending = Math.max(1, maxPending);
+  }
+
+  /**
+   * Queues the verification of a file (see
+   * {@link Utils#validateFile(IPInterface, Path, List, String, String, String)}),
+   * calling {@code onValid} with the file if its checksum matches.
+   */
+  public void verify(IPInterface ip, Path filePath, List<String> fileRelativeFolders, String metsChecksum,
+    String metsChecksumAlgorithm, String metsElementId, Consumer<IPFileInterface> onValid) {
+    if (executor == null || StringUtils.isBlank(metsChecksum) || StringUtils.isBlank(metsChecksumAlgorithm)) {
+      run(() -> Utils
+        .validateFile(ip, filePath, fileRelativeFolders, metsChecksum, metsChecksumAlgorithm, metsElementId)
+        .ifPresent(onValid));
+      return;
+    }
+
+    final Future<String> checksum = executor.submit(() -> Utils.computeChecksum(filePath, metsChecksumAlgorithm));
+    enqueue(new Step(checksum, () -> Utils.validateFile(ip, filePath, fileRelativeFolders, metsChecksum,
+      metsChecksumAlgorithm, metsElementId, () -> get(checksum)).ifPresent(onValid)));
+  }
+
+  /**
+   * Queues an action to run after the ones queued before it.
+   */
+  public void run(Runnable action) {
+    enqueue(new Step(null, action));
+  }
+
+  /**
+   * Waits for all the pending checksums and applies every queued action.
+   */
+  public void flush() {
+    while (!steps.isEmpty()) {
+      steps.poll().completion.run();
+    }
+  }
+
+  /**
+   * Cancels the pending checksums and discards the queued actions.
+   */
+  public void cancel() {
+    for (Step step : steps) {
+      if (step.checksum != null) {
+        step.checksum.cancel(true);
+      }
+    }
+    steps.clear();
+  }
+
+  private void enqueue(Step step) {
+    steps.add(step);
+    // apply whatever is already done, without waiting
+    while (!steps.isEmpty() && steps.peek().isReady()) {
+      steps.poll().completion.run();
+    }
+    // bound the pending checksums
+    while (steps.size() > maxPending) {
+      steps.poll().completion.run();
+    }
+  }
+
+  private static String get(Future<String> checksum) throws NoSuchAlgorithmException, IOException {
+    try {
+      return checksum.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      checksum.cancel(true);
+      throw new InterruptedIOException("Interrupted while computing checksum");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof NoSuchAlgorithmException cause) {
+        throw cause;
+      } else if (e.getCause() instanceof IOException cause) {
+        throw cause;
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private static final class Step {
+    private final Future<String> checksum;
+    private final Runnable completion;
+
+    private Step(Future<String> checksum, Runnable completion) {
+      this.checksum = checksum;
+      this.completion = completion;
+    }
+
+    private boolean isReady() {
+      return checksum == null || checksum.isDone();
+    }
+  }
+}
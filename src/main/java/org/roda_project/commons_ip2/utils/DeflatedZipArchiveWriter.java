@@ -0,0 +1,255 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a ZIP archive out of entries that were already deflated elsewhere
+ * (e.g. by a worker thread), so that the final archive can be assembled by
+ * simply copying the raw compressed bytes. Entry sizes and CRCs are known
+ * beforehand, hence no data descriptors are written. ZIP64 extra fields and end
+ * of central directory records are written whenever sizes, offsets or the
+ * number of entries do not fit in the classic ZIP format.
+ */
+final class DeflatedZipArchiveWriter {
+  private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+  private static final int CENTRAL_FILE_HEADER_SIGNATURE = 0x02014b50;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+  private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+
+  private static final int VERSION_DEFAULT = 20;
+  private static final int VERSION_ZIP64 = 45;
+  private static final int FLAG_UTF8 = 0x0800;
+  private static final int METHOD_DEFLATED = 8;
+  private static final int ZIP64_EXTRA_FIELD_ID = 0x0001;
+
+  private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+  private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final OutputStream out;
+  private final List<CentralDirectoryEntry> centralDirectory = new ArrayList<>();
+  private final long dosTime;
+  private long offset = 0;
+  private boolean finished = false;
+
+  DeflatedZipArchiveWriter(OutputStream out) {
+    this.out = out;
+    this.dosTime = toDosTime(LocalDateTime.now());
+  }
+
+  /**
+   * Appends an entry whose content is the raw deflate stream (no zlib wrapper)
+   * stored in {@code deflatedChunk}.
+   */
+  void addEntry(String name, Path deflatedChunk, long crc, long compressedSize, long size) throws IOException {
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    boolean zip64Sizes = size >= ZIP64_MAGIC || compressedSize >= ZIP64_MAGIC;
+    long localHeaderOffset = offset;
+
+    writeInt(LOCAL_FILE_HEADER_SIGNATURE);
+    writeShort(zip64Sizes ? VERSION_ZIP64 : VERSION_DEFAULT);
+    writeShort(FLAG_UTF8);
+    writeShort(METHOD_DEFLATED);
+    writeInt(dosTime);
+    writeInt(crc);
+    if (zip64Sizes) {
+      writeInt(ZIP64_MAGIC);
+      writeInt(ZIP64_MAGIC);
+    } else {
+      writeInt(compressedSize);
+      writeInt(size);
+    }
+    writeShort(nameBytes.length);
+    writeShort(zip64Sizes ? 20 : 0);
+    writeBytes(nameBytes);
+    if (zip64Sizes) {
+      writeShort(ZIP64_EXTRA_FIELD_ID);
+      writeShort(16);
+      writeLong(size);
+      writeLong(compressedSize);
+    }
+
+    try (InputStream inputStream = Files.newInputStream(deflatedChunk)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int numRead;
+      while ((numRead = inputStream.read(buffer)) != -1) {
+        writeBytes(buffer, numRead);
+      }
+    }
+
+    centralDirectory
+      .add(new CentralDirectoryEntry(nameBytes, crc, compressedSize, size, localHeaderOffset, zip64Sizes));
+  }
+
+  /**
+   * Writes the central directory and the end of central directory records. The
+   * underlying stream is flushed but not closed.
+   */
+  void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    finished = true;
+
+    long centralDirectoryOffset = offset;
+    for (CentralDirectoryEntry entry : centralDirectory) {
+      writeCentralDirectoryEntry(entry);
+    }
+    long centralDirectorySize = offset - centralDirectoryOffset;
+    long count = centralDirectory.size();
+
+    if (count >= ZIP64_MAGIC_COUNT || centralDirectoryOffset >= ZIP64_MAGIC || centralDirectorySize >= ZIP64_MAGIC) {
+      long zip64EndOffset = offset;
+      writeInt(ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+      writeLong(44);
+      writeShort(VERSION_ZIP64);
+      writeShort(VERSION_ZIP64);
+      writeInt(0);
+      writeInt(0);
+      writeLong(count);
+      writeLong(count);
+      writeLong(centralDirectorySize);
+      writeLong(centralDirectoryOffset);
+
+      writeInt(ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE);
+      writeInt(0);
+      writeLong(zip64EndOffset);
+      writeInt(1);
+    }
+
+    writeInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+    writeShort(0);
+    writeShort(0);
+    writeShort((int) Math.min(count, ZIP64_MAGIC_COUNT));
+    writeShort((int) Math.min(count, ZIP64_MAGIC_COUNT));
+    writeInt(Math.min(centralDirectorySize, ZIP64_MAGIC));
+    writeInt(Math.min(centralDirectoryOffset, ZIP64_MAGIC));
+    writeShort(0);
+    out.flush();
+  }
+
+  private void writeCentralDirectoryEntry(CentralDirectoryEntry entry) throws IOException {
+    boolean zip64Offset = entry.localHeaderOffset >= ZIP64_MAGIC;
+    boolean zip64 = entry.zip64Sizes || zip64Offset;
+
+    ByteArrayOutputStream extra = new ByteArrayOutputStream();
+    if (zip64) {
+      int dataSize = (entry.zip64Sizes ? 16 : 0) + (zip64Offset ? 8 : 0);
+      writeShort(extra, ZIP64_EXTRA_FIELD_ID);
+      writeShort(extra, dataSize);
+      if (entry.zip64Sizes) {
+        writeLong(extra, entry.size);
+        writeLong(extra, entry.compressedSize);
+      }
+      if (zip64Offset) {
+        writeLong(extra, entry.localHeaderOffset);
+      }
+    }
+
+    int version = zip64 ? VERSION_ZIP64 : VERSION_DEFAULT;
+    writeInt(CENTRAL_FILE_HEADER_SIGNATURE);
+    writeShort(version);
+    writeShort(version);
+    writeShort(FLAG_UTF8);
+    writeShort(METHOD_DEFLATED);
+    writeInt(dosTime);
+    writeInt(entry.crc);
+    writeInt(entry.zip64Sizes ? ZIP64_MAGIC : entry.compressedSize);
+    writeInt(entry.zip64Sizes ? ZIP64_MAGIC : entry.size);
+    writeShort(entry.name.length);
+    writeShort(extra.size());
+    // comment length, disk number start, internal and external attributes
+    writeShort(0);
+    writeShort(0);
+    writeShort(0);
+    writeInt(0);
+    writeInt(zip64Offset ? ZIP64_MAGIC : entry.localHeaderOffset);
+    writeBytes(entry.name);
+    writeBytes(extra.toByteArray());
+  }
+
+  private static long toDosTime(LocalDateTime time) {
+    if (time.getYear() < 1980) {
+      return (1 << 21) | (1 << 16);
+    }
+    return ((long) (time.getYear() - 1980) << 25) | ((long) time.getMonthValue() << 21)
+      | ((long) time.getDayOfMonth() << 16) | ((long) time.getHour() << 11) | ((long) time.getMinute() << 5)
+      | ((long) time.getSecond() >> 1);
+  }
+
+  private void writeBytes(byte[] bytes) throws IOException {
+    writeBytes(bytes, bytes.length);
+  }
+
+  private void writeBytes(byte[] bytes, int length) throws IOException {
+    out.write(bytes, 0, length);
+    offset += length;
+  }
+
+  private void writeShort(int value) throws IOException {
+    writeShort(out, value);
+    offset += 2;
+  }
+
+  private void writeInt(long value) throws IOException {
+    writeInt(out, value);
+    offset += 4;
+  }
+
+  private void writeLong(long value) throws IOException {
+    writeLong(out, value);
+    offset += 8;
+  }
+
+  private static void writeShort(OutputStream os, int value) throws IOException {
+    os.write(value & 0xFF);
+    os.write((value >>> 8) & 0xFF);
+  }
+
+  private static void writeInt(OutputStream os, long value) throws IOException {
+    writeShort(os, (int) (value & 0xFFFF));
+    writeShort(os, (int) ((value >>> 16) & 0xFFFF));
+  }
+
+  private static void writeLong(OutputStream os, long value) throws IOException {
+    writeInt(os, value & ZIP64_MAGIC);
+    writeInt(os, (value >>> 32) & ZIP64_MAGIC);
+  }
+
+  private static final class CentralDirectoryEntry {
+    private final byte[] name;
+    private final long crc;
+    private final long compressedSize;
+    private final long size;
+    private final long localHeaderOffset;
+    private final boolean zip64Sizes;
+
+    private CentralDirectoryEntry(byte[] name, long crc, long compressedSize, long size, long localHeaderOffset,
+      boolean zip64Sizes) {
+      this.name = name;
+      this.crc = crc;
+      this.compressedSize = compressedSize;
+      this.size = size;
+      this.localHeaderOffset = localHeaderOffset;
+      this.zip64Sizes = zip64Sizes;
+    }
+  }
+}
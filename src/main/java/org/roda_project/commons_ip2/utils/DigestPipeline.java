@@ -0,0 +1,297 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import jakarta.xml.bind.DatatypeConverter;
+
+/**
+ * Computes several checksums (and optionally the ZIP CRC-32) of some content in
+ * a single pass, optionally copying the content to a sink at the same time.
+ * <p>
+ * Read buffers and {@link MessageDigest} instances are kept per thread and
+ * reused between calls, so digesting many small files does not allocate a new
+ * buffer and new digests for each of them.
+ * </p>
+ */
+public final class DigestPipeline {
+  public static final int BUFFER_SIZE = 1024 * 1024;
+  /**
+   * Files with at least this size are memory mapped by
+   * {@link #digestFile(Path, Set)}.
+   */
+  public static final long MAPPED_THRESHOLD = 8L * 1024 * 1024;
+
+  private static final long MAPPED_WINDOW_SIZE = 64L * 1024 * 1024;
+
+  private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+  private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);
+
+  private DigestPipeline() {
+    // do nothing
+  }
+
+  /**
+   * Reads the whole input stream (without closing it), digesting it with every
+   * algorithm and writing it to {@code sink} if not null.
+   */
+  public static Result digest(InputStream inputStream, Set<String> checksumAlgorithms, OutputStream sink,
+    boolean computeCrc) throws NoSuchAlgorithmException, IOException {
+    List<MessageDigest> digests = acquireDigests(checksumAlgorithms);
+    CRC32 crc = computeCrc ? new CRC32() : null;
+    byte[] buffer = BUFFERS.get();
+    long size = 0;
+
+    int numRead;
+    while ((numRead = inputStream.read(buffer)) != -1) {
+      update(digests, crc, sink, buffer, numRead);
+      size += numRead;
+    }
+
+    return new Result(checksumAlgorithms, digests, crc, size);
+  }
+
+  /**
+   * Same as {@link #digest(InputStream, Set, OutputStream, boolean)} but
+   * reads the file through a {@link FileChannel}. Files of other file systems
+   * (e.g. entries of a ZIP file system, whose channels are backed by a
+   * temporary copy of the entry) are read as a stream.
+   */
+  public static Result digest(Path file, Set<String> checksumAlgorithms, OutputStream sink, boolean computeCrc)
+    throws NoSuchAlgorithmException, IOException {
+    if (file.getFileSystem() != FileSystems.getDefault()) {
+      try (InputStream inputStream = Files.newInputStream(file)) {
+        return digest(inputStream, checksumAlgorithms, sink, computeCrc);
+      }
+    }
+    List<MessageDigest> digests = acquireDigests(checksumAlgorithms);
+    CRC32 crc = computeCrc ? new CRC32() : null;
+    byte[] buffer = BUFFERS.get();
+    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+    long size = 0;
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      int numRead;
+      while ((numRead = channel.read(byteBuffer)) != -1) {
+        if (numRead > 0) {
+          update(digests, crc, sink, buffer, numRead);
+          size += numRead;
+        }
+        byteBuffer.clear();
+      }
+    }
+
+    return new Result(checksumAlgorithms, digests, crc, size);
+  }
+
+  /**
+   * Digests a file without copying it anywhere. Files of at least
+   * {@link #MAPPED_THRESHOLD} bytes are memory mapped (in windows, to bound the
+   * address space used) and fed directly to the digests, smaller files, files
+   * that cannot be mapped and files of other file systems are read as in
+   * {@link #digest(Path, Set, OutputStream, boolean)}.
+   */
+  public static Result digestFile(Path file, Set<String> checksumAlgorithms)
+    throws NoSuchAlgorithmException, IOException {
+    if (file.getFileSystem() != FileSystems.getDefault()) {
+      return digest(file, checksumAlgorithms, null, false);
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size >= MAPPED_THRESHOLD) {
+        try {
+          return digestMapped(channel, size, checksumAlgorithms);
+        } catch (IOException | UnsupportedOperationException e) {
+          // fall back to reading the file
+        }
+      }
+    }
+    return digest(file, checksumAlgorithms, null, false);
+  }
+
+  private static Result digestMapped(FileChannel channel, long size, Set<String> checksumAlgorithms)
+    throws NoSuchAlgorithmException, IOException {
+    List<MessageDigest> digests = acquireDigests(checksumAlgorithms);
+    byte[] buffer = BUFFERS.get();
+    long position = 0;
+    while (position < size) {
+      long length = Math.min(MAPPED_WINDOW_SIZE, size - position);
+      MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+      // digests only take direct buffers through a small intermediate array, so
+      // the window is copied once in big chunks and shared by all the digests
+      while (window.hasRemaining()) {
+        int chunk = Math.min(buffer.length, window.remaining());
+        window.get(buffer, 0, chunk);
+        update(digests, null, null, buffer, chunk);
+      }
+      position += length;
+    }
+    return new Result(checksumAlgorithms, digests, null, size);
+  }
+
+  /**
+   * Wraps the output stream so that everything written to it is digested on the
+   * way, e.g. to get the checksums of a file while it is being created instead
+   * of reading it back afterwards. The digests are not shared with the thread,
+   * so other digests may be computed while the stream is open.
+   */
+  public static DigestingOutputStream digesting(OutputStream outputStream, Set<String> checksumAlgorithms,
+    boolean computeCrc) throws NoSuchAlgorithmException {
+    List<MessageDigest> digests = new ArrayList<>(checksumAlgorithms.size());
+    for (String algorithm : checksumAlgorithms) {
+      digests.add(MessageDigest.getInstance(algorithm));
+    }
+    return new DigestingOutputStream(outputStream, checksumAlgorithms, digests, computeCrc ? new CRC32() : null);
+  }
+
+  /**
+   * Gets a reset {@link MessageDigest} owned by the current thread. It must not
+   * be shared with other threads nor kept after the digest is computed.
+   */
+  public static MessageDigest getDigest(String algorithm) throws NoSuchAlgorithmException {
+    Map<String, MessageDigest> digests = DIGESTS.get();
+    MessageDigest digest = digests.get(algorithm);
+    if (digest == null) {
+      digest = MessageDigest.getInstance(algorithm);
+      digests.put(algorithm, digest);
+    } else {
+      digest.reset();
+    }
+    return digest;
+  }
+
+  private static List<MessageDigest> acquireDigests(Set<String> checksumAlgorithms)
+    throws NoSuchAlgorithmException {
+    List<MessageDigest> digests = new ArrayList<>(checksumAlgorithms.size());
+    for (String algorithm : checksumAlgorithms) {
+      digests.add(getDigest(algorithm));
+    }
+    return digests;
+  }
+
+  private static void update(List<MessageDigest> digests, CRC32 crc, OutputStream sink, byte[] buffer, int length)
+    throws IOException {
+    for (MessageDigest digest : digests) {
+      digest.update(buffer, 0, length);
+    }
+    if (crc != null) {
+      crc.update(buffer, 0, length);
+    }
+    if (sink != null) {
+      sink.write(buffer, 0, length);
+    }
+  }
+
+  /**
+   * Output stream that digests the content written through it. See
+   * {@link DigestPipeline#digesting(OutputStream, Set, boolean)}.
+   */
+  public static final class DigestingOutputStream extends FilterOutputStream {
+    private final Set<String> checksumAlgorithms;
+    private final List<MessageDigest> digests;
+    private final CRC32 crc;
+    private long size = 0;
+
+    private DigestingOutputStream(OutputStream outputStream, Set<String> checksumAlgorithms,
+      List<MessageDigest> digests, CRC32 crc) {
+      super(outputStream);
+      this.checksumAlgorithms = checksumAlgorithms;
+      this.digests = digests;
+      this.crc = crc;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      for (MessageDigest digest : digests) {
+        digest.update((byte) b);
+      }
+      if (crc != null) {
+        crc.update(b);
+      }
+      size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      for (MessageDigest digest : digests) {
+        digest.update(b, off, len);
+      }
+      if (crc != null) {
+        crc.update(b, off, len);
+      }
+      size += len;
+    }
+
+    /**
+     * @return the digests of everything written so far. Must be called only
+     *         once, after all the content was written.
+     */
+    public Result getResult() {
+      return new Result(checksumAlgorithms, digests, crc, size);
+    }
+  }
+
+  /**
+   * Checksums (hex encoded, upper case), CRC-32 and size of the digested content.
+   */
+  public static final class Result {
+    private final Map<String, String> checksums;
+    private final long crc;
+    private final long size;
+
+    private Result(Set<String> checksumAlgorithms, List<MessageDigest> digests, CRC32 crc, long size) {
+      this.checksums = new HashMap<>();
+      int i = 0;
+      for (String algorithm : checksumAlgorithms) {
+        checksums.put(algorithm, DatatypeConverter.printHexBinary(digests.get(i++).digest()));
+      }
+      this.crc = crc != null ? crc.getValue() : -1;
+      this.size = size;
+    }
+
+    public Map<String, String> getChecksums() {
+      return checksums;
+    }
+
+    public String getChecksum(String algorithm) {
+      return checksums.get(algorithm);
+    }
+
+    /**
+     * @return the CRC-32 of the content or -1 if it was not requested.
+     */
+    public long getCrc() {
+      return crc;
+    }
+
+    public long getSize() {
+      return size;
+    }
+  }
+}
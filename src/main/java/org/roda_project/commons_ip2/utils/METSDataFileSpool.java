@@ -0,0 +1,168 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.roda_project.commons_ip2.mets_v1_12.beans.FileType;
+
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+
+/**
+ * Temporary file where the {@code <file>} elements of a representation data file
+ * group are written, one by one, as soon as they are created. The checksums,
+ * only known once the files are zipped, are written to a second file in the
+ * same order and merged into the elements when they are copied into the METS
+ * by {@link METSStreamWriter}, so the {@link FileType}s do not have to be kept
+ * in memory until then.
+ */
+public class METSDataFileSpool {
+  private static final QName FILE_ELEMENT = new QName(METSStreamReader.METS_NAMESPACE, "file");
+  private static final String SPOOL_ROOT_START = "<spool xmlns=\"" + METSStreamReader.METS_NAMESPACE + "\">";
+  private static final String SPOOL_ROOT_END = "</spool>";
+
+  private static final char CHECKSUM_SEPARATOR = '\t';
+
+  private final Path spoolFile;
+  private final Path checksumFile;
+  private OutputStream outputStream;
+  private Writer checksumWriter;
+  private long count = 0;
+
+  /**
+   * @param spoolFile
+   *          the temporary file to write to (it is overwritten), next to which
+   *          the checksums are written
+   */
+  public METSDataFileSpool(Path spoolFile) {
+    this.spoolFile = spoolFile;
+    this.checksumFile = spoolFile.resolveSibling(spoolFile.getFileName() + ".checksums");
+  }
+
+  /**
+   * Appends a {@code <file>} element. Its checksum, if not set yet, is set
+   * later with {@link #setChecksum(String, String, String)}.
+   */
+  public synchronized void append(FileType fileType) throws IOException {
+    if (outputStream == null) {
+      outputStream = new BufferedOutputStream(Files.newOutputStream(spoolFile));
+    }
+    try {
+      MetsJaxbRegistry.marshalFragment(new JAXBElement<>(FILE_ELEMENT, FileType.class, fileType), outputStream);
+    } catch (JAXBException e) {
+      throw new IOException("Error spooling METS file element " + fileType.getID(), e);
+    }
+    count++;
+  }
+
+  /**
+   * Sets the checksum of a spooled {@code <file>} element. Checksums must be set
+   * in the order the elements were appended.
+   */
+  public synchronized void setChecksum(String fileId, String checksumType, String checksum) throws IOException {
+    if (checksumWriter == null) {
+      checksumWriter = Files.newBufferedWriter(checksumFile, StandardCharsets.UTF_8);
+    }
+    checksumWriter.write(fileId + CHECKSUM_SEPARATOR + checksumType + CHECKSUM_SEPARATOR + checksum + "\n");
+  }
+
+  /**
+   * @return the number of spooled elements.
+   */
+  public synchronized long size() {
+    return count;
+  }
+
+  /**
+   * Writes every spooled {@code <file>} element, in the order they were
+   * appended and with the checksums set since, to the given writer.
+   */
+  public synchronized void writeTo(XMLStreamWriter writer) throws IOException, XMLStreamException {
+    if (outputStream == null) {
+      return;
+    }
+    outputStream.flush();
+    if (checksumWriter != null) {
+      checksumWriter.flush();
+    }
+
+    try (InputStream inputStream = new SequenceInputStream(Collections.enumeration(
+      Arrays.asList(new ByteArrayInputStream(SPOOL_ROOT_START.getBytes(StandardCharsets.UTF_8)),
+        Files.newInputStream(spoolFile), new ByteArrayInputStream(SPOOL_ROOT_END.getBytes(StandardCharsets.UTF_8)))));
+      BufferedReader checksums = checksumWriter != null ? Files.newBufferedReader(checksumFile, StandardCharsets.UTF_8)
+        : new BufferedReader(new StringReader(""))) {
+      XMLStreamReader reader = METSStreamReader.createReader(inputStream);
+      try {
+        int event = reader.getEventType();
+        while (event != XMLStreamConstants.END_DOCUMENT) {
+          if (event == XMLStreamConstants.START_ELEMENT && FILE_ELEMENT.getLocalPart().equals(reader.getLocalName())) {
+            FileType fileType = MetsJaxbRegistry.unmarshalFragment(reader, FileType.class);
+            setChecksum(fileType, checksums.readLine());
+            MetsJaxbRegistry.marshalFragment(new JAXBElement<>(FILE_ELEMENT, FileType.class, fileType), writer);
+            event = reader.getEventType();
+          } else {
+            event = reader.next();
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (JAXBException e) {
+      throw new IOException("Error reading spooled METS file elements", e);
+    }
+  }
+
+  private static void setChecksum(FileType fileType, String checksumLine) throws IOException {
+    if (checksumLine == null) {
+      throw new IOException("No checksum was set for the METS file element " + fileType.getID());
+    }
+    String[] fields = checksumLine.split(String.valueOf(CHECKSUM_SEPARATOR), -1);
+    if (fields.length != 3 || !fields[0].equals(fileType.getID())) {
+      throw new IOException("The checksum of the METS file element " + fileType.getID()
+        + " was not set in the order the elements were spooled");
+    }
+    fileType.setCHECKSUMTYPE(fields[1]);
+    fileType.setCHECKSUM(fields[2]);
+  }
+
+  /**
+   * Closes and deletes the spool file and the checksum file.
+   */
+  public synchronized void delete() throws IOException {
+    if (outputStream != null) {
+      outputStream.close();
+      outputStream = null;
+    }
+    if (checksumWriter != null) {
+      checksumWriter.close();
+      checksumWriter = null;
+    }
+    Files.deleteIfExists(spoolFile);
+    Files.deleteIfExists(checksumFile);
+  }
+}
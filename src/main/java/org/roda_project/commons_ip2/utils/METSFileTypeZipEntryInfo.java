@@ -7,6 +7,7 @@
  */
 package org.roda_project.commons_ip2.utils;
 
+import java.io.IOException;
 import java.nio.file.Path;
 
 import org.roda_project.commons_ip.utils.FileZipEntryInfo;
@@ -14,6 +15,12 @@ import org.roda_project.commons_ip2.mets_v1_12.beans.FileType;
 
 public class METSFileTypeZipEntryInfo extends FileZipEntryInfo {
   private FileType metsFileType;
+  private METSDataFileSpool spool;
+  private String metsFileTypeId;
+  private String mimetype;
+  private String knownChecksum;
+  private String knownChecksumType;
+  private ManifestCache manifestCache;
 
   public METSFileTypeZipEntryInfo(String name, Path filePath) {
     super(name, filePath);
@@ -24,6 +31,22 @@ public class METSFileTypeZipEntryInfo extends FileZipEntryInfo {
     this.setMetsFileType(metsFileType);
   }
 
+  /**
+   * @param spool
+   *          where the METS file type is written right away, as it is not part
+   *          of the METS object graph; only its ID, mimetype and checksum are
+   *          kept, and {@link #getMetsFileType()} returns {@code null}
+   */
+  public METSFileTypeZipEntryInfo(String name, Path filePath, FileType metsFileType, METSDataFileSpool spool)
+    throws IOException {
+    this(name, filePath, metsFileType);
+    if (spool != null) {
+      spool.append(metsFileType);
+      this.spool = spool;
+      this.metsFileType = null;
+    }
+  }
+
   @Override
   public void prepareEntryForZipping() {
     // do nothing
@@ -35,6 +58,47 @@ public class METSFileTypeZipEntryInfo extends FileZipEntryInfo {
 
   public void setMetsFileType(FileType metsFileType) {
     this.metsFileType = metsFileType;
+    this.metsFileTypeId = metsFileType.getID();
+    this.mimetype = metsFileType.getMIMETYPE();
+    this.knownChecksum = metsFileType.getCHECKSUM();
+    this.knownChecksumType = metsFileType.getCHECKSUMTYPE();
+  }
+
+  /**
+   * @param manifestCache
+   *          the cache the METS file type information was taken from (if a
+   *          checksum is already set) and that is updated once the checksum is
+   *          computed
+   */
+  public void setManifestCache(ManifestCache manifestCache) {
+    this.manifestCache = manifestCache;
+  }
+
+  /**
+   * @return the checksum taken from the {@link ManifestCache}, so the file does
+   *         not need to be digested, or {@code null} if it is not known.
+   */
+  public String getKnownChecksum(String checksumType) {
+    if (manifestCache != null && knownChecksum != null && checksumType.equals(knownChecksumType)) {
+      return knownChecksum;
+    }
+    return null;
+  }
+
+  /**
+   * Sets the checksum of the METS file type, in the spool if it was spooled.
+   */
+  public void setMetsFileTypeChecksum(String checksum, String checksumType) throws IOException {
+    if (manifestCache != null) {
+      manifestCache.put(getFilePath(), mimetype, checksumType, checksum);
+    }
+    if (spool != null) {
+      spool.setChecksum(metsFileTypeId, checksumType, checksum);
+      spool = null;
+    } else if (metsFileType != null) {
+      metsFileType.setCHECKSUM(checksum);
+      metsFileType.setCHECKSUMTYPE(checksumType);
+    }
   }
 
 }
@@ -0,0 +1,95 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import org.roda_project.commons_ip.utils.IPException;
+import org.roda_project.commons_ip2.mets_v1_12.beans.AmdSecType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.FileType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.MdSecType;
+
+/**
+ * Callbacks invoked by {@link METSStreamReader} while a METS file is read, in
+ * document order. Every method does nothing by default, so implementations
+ * only override the events they care about.
+ */
+public interface METSStreamHandler {
+
+  /**
+   * A {@code <dmdSec>} was read.
+   */
+  default void dmdSec(MdSecType dmdSec) throws IPException {
+    // do nothing
+  }
+
+  /**
+   * An {@code <amdSec>} was read.
+   */
+  default void amdSec(AmdSecType amdSec) throws IPException {
+    // do nothing
+  }
+
+  /**
+   * A {@code <fileGrp>} of the file section starts.
+   */
+  default void startFileGrp(String id, String use) throws IPException {
+    // do nothing
+  }
+
+  /**
+   * A {@code <file>} was read. References (IDREF) of the file to other
+   * elements of the METS are not resolved.
+   *
+   * @param fileGrpId
+   *          the ID of the innermost {@code <fileGrp>} holding the file
+   */
+  default void file(String fileGrpId, FileType file) throws IPException {
+    // do nothing
+  }
+
+  /**
+   * A {@code <fileGrp>} of the file section ends.
+   */
+  default void endFileGrp(String id) throws IPException {
+    // do nothing
+  }
+
+  /**
+   * A {@code <structMap>} starts.
+   */
+  default void startStructMap(String id, String type, String label) throws IPException {
+    // do nothing
+  }
+
+  /**
+   * A {@code <div>} of the current structural map starts.
+   */
+  default void startDiv(String id, String label, String type) throws IPException {
+    // do nothing
+  }
+
+  /**
+   * A {@code <fptr>} of the current {@code <div>} was read.
+   */
+  default void fptr(String fileId) throws IPException {
+    // do nothing
+  }
+
+  /**
+   * The current {@code <div>} ends.
+   */
+  default void endDiv(String id) throws IPException {
+    // do nothing
+  }
+
+  /**
+   * The current {@code <structMap>} ends.
+   */
+  default void endStructMap(String id) throws IPException {
+    // do nothing
+  }
+}
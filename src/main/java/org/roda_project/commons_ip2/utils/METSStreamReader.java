@@ -0,0 +1,214 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.stream.StreamFilter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.roda_project.commons_ip.utils.IPException;
+import org.roda_project.commons_ip2.mets_v1_12.beans.AmdSecType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.FileType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.MdSecType;
+import org.roda_project.commons_ip2.model.IPConstants;
+
+import jakarta.xml.bind.JAXBException;
+
+/**
+ * Reads a METS file with StAX, notifying a {@link METSStreamHandler} of the
+ * file section, structural map and metadata sections as they are found.
+ * <p>
+ * Only the element being notified is materialised (e.g. one {@link FileType}
+ * at a time), so the memory needed does not depend on the number of files
+ * listed in the METS. The METS is not validated against its schema.
+ * </p>
+ */
+public final class METSStreamReader {
+  public static final String METS_NAMESPACE = "http://www.loc.gov/METS/";
+
+  private static final String DMD_SEC = "dmdSec";
+  private static final String AMD_SEC = "amdSec";
+  private static final String FILE_GRP = "fileGrp";
+  private static final String FILE = "file";
+  private static final String STRUCT_MAP = "structMap";
+  private static final String DIV = "div";
+  private static final String FPTR = "fptr";
+
+  private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+  private METSStreamReader() {
+    // do nothing
+  }
+
+  public static void read(Path metsFile, METSStreamHandler handler) throws IPException {
+    try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(metsFile))) {
+      read(inputStream, handler);
+    } catch (IOException e) {
+      throw new IPException("Error reading METS file " + metsFile, e);
+    }
+  }
+
+  /**
+   * Reads the METS out of the input stream, which is not closed.
+   */
+  public static void read(InputStream inputStream, METSStreamHandler handler) throws IPException {
+    XMLStreamReader reader = null;
+    try {
+      reader = createReader(inputStream);
+      read(reader, handler);
+    } catch (XMLStreamException | JAXBException e) {
+      throw new IPException("Error reading METS file", e);
+    } finally {
+      close(reader);
+    }
+  }
+
+  /**
+   * Creates a StAX reader with DTDs and external entities disabled.
+   */
+  public static XMLStreamReader createReader(InputStream inputStream) throws XMLStreamException {
+    return INPUT_FACTORY.createXMLStreamReader(inputStream);
+  }
+
+  /**
+   * Wraps the reader so that the {@code <file>} elements of the data file groups
+   * (see {@link #isDataFileGrp(String)}) are skipped, leaving those groups
+   * empty.
+   */
+  public static XMLStreamReader withoutDataFiles(XMLStreamReader reader) throws XMLStreamException {
+    return INPUT_FACTORY.createFilteredReader(reader, new DataFilesFilter());
+  }
+
+  /**
+   * @return if the file group, given its USE, holds representation data files
+   *         (i.e. "Data" or, for shallow representations, "data/...").
+   */
+  public static boolean isDataFileGrp(String use) {
+    return use != null && (IPConstants.DATA_WITH_FIRST_LETTER_CAPITAL.equalsIgnoreCase(use)
+      || use.toLowerCase().startsWith(IPConstants.DATA_FOLDER));
+  }
+
+  private static void read(XMLStreamReader reader, METSStreamHandler handler)
+    throws XMLStreamException, JAXBException, IPException {
+    Deque<String> fileGrps = new ArrayDeque<>();
+    Deque<String> divs = new ArrayDeque<>();
+    String structMap = null;
+
+    int event = reader.getEventType();
+    while (event != XMLStreamConstants.END_DOCUMENT) {
+      if (event == XMLStreamConstants.START_ELEMENT && METS_NAMESPACE.equals(reader.getNamespaceURI())) {
+        String name = reader.getLocalName();
+        if (FILE.equals(name) && !fileGrps.isEmpty()) {
+          String fileGrpId = fileGrps.peek();
+          handler.file(fileGrpId, MetsJaxbRegistry.unmarshalFragment(reader, FileType.class));
+          // the reader is already positioned after the end of the element
+          event = reader.getEventType();
+          continue;
+        } else if (DMD_SEC.equals(name)) {
+          handler.dmdSec(MetsJaxbRegistry.unmarshalFragment(reader, MdSecType.class));
+          event = reader.getEventType();
+          continue;
+        } else if (AMD_SEC.equals(name)) {
+          handler.amdSec(MetsJaxbRegistry.unmarshalFragment(reader, AmdSecType.class));
+          event = reader.getEventType();
+          continue;
+        } else if (FILE_GRP.equals(name)) {
+          String id = attribute(reader, "ID");
+          fileGrps.push(id);
+          handler.startFileGrp(id, attribute(reader, "USE"));
+        } else if (STRUCT_MAP.equals(name)) {
+          structMap = attribute(reader, "ID");
+          handler.startStructMap(structMap, attribute(reader, "TYPE"), attribute(reader, "LABEL"));
+        } else if (DIV.equals(name) && structMap != null) {
+          String id = attribute(reader, "ID");
+          divs.push(id);
+          handler.startDiv(id, attribute(reader, "LABEL"), attribute(reader, "TYPE"));
+        } else if (FPTR.equals(name) && !divs.isEmpty()) {
+          handler.fptr(attribute(reader, "FILEID"));
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT && METS_NAMESPACE.equals(reader.getNamespaceURI())) {
+        String name = reader.getLocalName();
+        if (FILE_GRP.equals(name) && !fileGrps.isEmpty()) {
+          handler.endFileGrp(fileGrps.pop());
+        } else if (DIV.equals(name) && !divs.isEmpty()) {
+          handler.endDiv(divs.pop());
+        } else if (STRUCT_MAP.equals(name) && structMap != null) {
+          handler.endStructMap(structMap);
+          structMap = null;
+        }
+      }
+      event = reader.next();
+    }
+  }
+
+  private static String attribute(XMLStreamReader reader, String name) {
+    return reader.getAttributeValue(null, name);
+  }
+
+  private static void close(XMLStreamReader reader) throws IPException {
+    if (reader != null) {
+      try {
+        reader.close();
+      } catch (XMLStreamException e) {
+        throw new IPException("Error closing METS reader", e);
+      }
+    }
+  }
+
+  private static XMLInputFactory createInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+  /**
+   * Stateful filter that rejects every event of the {@code <file>} elements
+   * found inside data file groups.
+   */
+  private static final class DataFilesFilter implements StreamFilter {
+    private final Deque<Boolean> dataFileGrps = new ArrayDeque<>();
+    private int skippedDepth = 0;
+
+    @Override
+    public boolean accept(XMLStreamReader reader) {
+      if (skippedDepth > 0) {
+        if (reader.isStartElement()) {
+          skippedDepth++;
+        } else if (reader.isEndElement()) {
+          skippedDepth--;
+        }
+        return false;
+      }
+
+      if (reader.isStartElement() && METS_NAMESPACE.equals(reader.getNamespaceURI())) {
+        boolean insideDataFileGrp = !dataFileGrps.isEmpty() && dataFileGrps.peek();
+        if (FILE_GRP.equals(reader.getLocalName())) {
+          dataFileGrps.push(insideDataFileGrp || isDataFileGrp(attribute(reader, "USE")));
+        } else if (FILE.equals(reader.getLocalName()) && insideDataFileGrp) {
+          skippedDepth = 1;
+          return false;
+        }
+      } else if (reader.isEndElement() && METS_NAMESPACE.equals(reader.getNamespaceURI())
+        && FILE_GRP.equals(reader.getLocalName()) && !dataFileGrps.isEmpty()) {
+        dataFileGrps.pop();
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,290 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
+
+import jakarta.xml.bind.JAXBException;
+
+/**
+ * Writes a METS file whose data file group is filled from a
+ * {@link METSDataFileSpool} instead of from the {@link Mets} object graph.
+ * <p>
+ * The header, metadata sections, the other file groups and the structural map
+ * are marshalled from the beans as usual; the spooled {@code <file>} elements
+ * are copied, one at a time, right before the end of the file group with the
+ * given ID. The output is not formatted.
+ * </p>
+ */
+public final class METSStreamWriter {
+  private static final String FILE_GRP = "fileGrp";
+  private static final String ID = "ID";
+  private static final int NOT_FOUND = -1;
+  private static final int DONE = -2;
+
+  private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+  private METSStreamWriter() {
+    // do nothing
+  }
+
+  /**
+   * Marshals the METS into the output stream, which is left open.
+   *
+   * @param dataFileGrpId
+   *          the ID of the (empty) file group where the spooled files go
+   */
+  public static void write(Mets mets, boolean rootMETS, String dataFileGrpId, METSDataFileSpool spool,
+    OutputStream outputStream) throws JAXBException, IOException {
+    BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(outputStream);
+    XMLStreamWriter writer = null;
+    try {
+      writer = OUTPUT_FACTORY.createXMLStreamWriter(bufferedOutputStream, StandardCharsets.UTF_8.name());
+      MetsJaxbRegistry.marshal(mets, new SpoolingWriter(writer, dataFileGrpId, spool),
+        METSUtils.getSchemaLocation(rootMETS));
+      writer.flush();
+      bufferedOutputStream.flush();
+    } catch (XMLStreamException e) {
+      throw new IOException("Error writing METS", e);
+    } finally {
+      if (writer != null) {
+        try {
+          writer.close();
+        } catch (XMLStreamException e) {
+          // do nothing
+        }
+      }
+    }
+  }
+
+  /**
+   * Delegating writer that injects the spooled files before the end tag of the
+   * data file group.
+   */
+  private static final class SpoolingWriter implements XMLStreamWriter {
+    private final XMLStreamWriter delegate;
+    private final String dataFileGrpId;
+    private final METSDataFileSpool spool;
+    private String currentElement;
+    private int depth = 0;
+    private int dataFileGrpDepth = NOT_FOUND;
+
+    private SpoolingWriter(XMLStreamWriter delegate, String dataFileGrpId, METSDataFileSpool spool) {
+      this.delegate = delegate;
+      this.dataFileGrpId = dataFileGrpId;
+      this.spool = spool;
+    }
+
+    private void startElement(String localName) {
+      currentElement = localName;
+      depth++;
+    }
+
+    private void attribute(String localName, String value) {
+      if (dataFileGrpDepth == NOT_FOUND && FILE_GRP.equals(currentElement) && ID.equals(localName)
+        && value.equals(dataFileGrpId)) {
+        dataFileGrpDepth = depth;
+      }
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+      startElement(localName);
+      delegate.writeStartElement(localName);
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+      startElement(localName);
+      delegate.writeStartElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+      startElement(localName);
+      delegate.writeStartElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+      currentElement = localName;
+      delegate.writeEmptyElement(namespaceURI, localName);
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+      currentElement = localName;
+      delegate.writeEmptyElement(prefix, localName, namespaceURI);
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+      currentElement = localName;
+      delegate.writeEmptyElement(localName);
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+      if (depth == dataFileGrpDepth) {
+        try {
+          spool.writeTo(delegate);
+        } catch (IOException e) {
+          throw new XMLStreamException("Error copying the spooled METS file elements", e);
+        }
+        // the spool is only written once
+        dataFileGrpDepth = DONE;
+      }
+      currentElement = null;
+      depth--;
+      delegate.writeEndElement();
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+      delegate.writeEndDocument();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+      delegate.close();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+      delegate.flush();
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+      attribute(localName, value);
+      delegate.writeAttribute(localName, value);
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value)
+      throws XMLStreamException {
+      if (namespaceURI == null || namespaceURI.isEmpty()) {
+        attribute(localName, value);
+      }
+      delegate.writeAttribute(prefix, namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+      if (namespaceURI == null || namespaceURI.isEmpty()) {
+        attribute(localName, value);
+      }
+      delegate.writeAttribute(namespaceURI, localName, value);
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+      delegate.writeNamespace(prefix, namespaceURI);
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+      delegate.writeDefaultNamespace(namespaceURI);
+    }
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+      delegate.writeComment(data);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+      delegate.writeProcessingInstruction(target);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+      delegate.writeProcessingInstruction(target, data);
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+      delegate.writeCData(data);
+    }
+
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+      delegate.writeDTD(dtd);
+    }
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+      delegate.writeEntityRef(name);
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+      delegate.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+    }
+
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+      delegate.writeStartDocument(StandardCharsets.UTF_8.name(), version);
+    }
+
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+      delegate.writeStartDocument(encoding, version);
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+      delegate.writeCharacters(text);
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+      delegate.writeCharacters(text, start, len);
+    }
+
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+      return delegate.getPrefix(uri);
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+      delegate.setPrefix(prefix, uri);
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+      delegate.setDefaultNamespace(uri);
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+      delegate.setNamespaceContext(context);
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+      return delegate.getNamespaceContext();
+    }
+
+    @Override
+    public Object getProperty(String name) {
+      return delegate.getProperty(name);
+    }
+  }
+}
@@ -17,13 +17,11 @@ import java.net.URLEncoder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.UUID;
 
-import javax.xml.XMLConstants;
 import javax.xml.datatype.DatatypeConfigurationException;
-import javax.xml.transform.Source;
-import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.roda_project.commons_ip.utils.IPException;
 import org.roda_project.commons_ip.utils.METSEnums.LocType;
@@ -36,14 +34,12 @@ import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType.MetsHdr.Agent;
 import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType.MetsHdr.Agent.Note;
 import org.roda_project.commons_ip2.model.IPAgent;
 import org.roda_project.commons_ip2.model.IPConstants;
+import org.roda_project.commons_ip2.model.IPOperationContext;
 import org.roda_project.commons_ip2.model.MetsWrapper;
 import org.slf4j.Logger;
 import org.xml.sax.SAXException;
 
-import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Marshaller;
-import jakarta.xml.bind.Unmarshaller;
 
 public final class METSUtils {
 
@@ -52,43 +48,65 @@ public final class METSUtils {
   }
 
   public static Mets instantiateMETSFromFile(Path metsFile) throws JAXBException, SAXException, IOException {
-    JAXBContext jaxbContext = JAXBContext.newInstance(Mets.class);
-    Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-    SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-    factory.setResourceResolver(new ResourceResolver());
-    InputStream metsSchemaInputStream = METSUtils.class
-      .getResourceAsStream(IPConstants.SCHEMA_METS_RELATIVE_PATH_FROM_RESOURCES);
-    Source metsSchemaSource = new StreamSource(metsSchemaInputStream);
-    Schema schema = factory.newSchema(metsSchemaSource);
-    jaxbUnmarshaller.setSchema(schema);
-    return (Mets) jaxbUnmarshaller.unmarshal(new BufferedInputStream(Files.newInputStream(metsFile.toAbsolutePath())));
+    try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(metsFile.toAbsolutePath()))) {
+      return MetsJaxbRegistry.unmarshal(inputStream);
+    }
+  }
+
+  /**
+   * Same as {@link #instantiateMETSFromFile(Path)} but leaving the data file
+   * groups without their {@code <file>} elements, which can later be read one at
+   * a time with {@link METSStreamReader}.
+   */
+  public static Mets instantiateMETSFromFileWithoutDataFiles(Path metsFile)
+    throws JAXBException, SAXException, IOException {
+    try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(metsFile.toAbsolutePath()))) {
+      XMLStreamReader reader = METSStreamReader.withoutDataFiles(METSStreamReader.createReader(inputStream));
+      try {
+        return MetsJaxbRegistry.unmarshal(reader);
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      throw new JAXBException("Error reading METS file " + metsFile, e);
+    }
   }
 
   public static Path marshallMETS(Mets mets, Path tempMETSFile, boolean rootMETS)
     throws JAXBException, IOException, IPException {
-    JAXBContext context = JAXBContext.newInstance(Mets.class);
-    Marshaller m = context.createMarshaller();
-    m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+    try (OutputStream metsOutputStream = Files.newOutputStream(tempMETSFile)) {
+      marshallMETS(mets, metsOutputStream, rootMETS);
+    }
 
+    return tempMETSFile;
+  }
+
+  /**
+   * Marshals the METS into the given output stream, which is left open.
+   */
+  public static void marshallMETS(Mets mets, OutputStream metsOutputStream, boolean rootMETS)
+    throws JAXBException, IOException, IPException {
+    MetsJaxbRegistry.marshal(mets, metsOutputStream, getSchemaLocation(rootMETS));
+  }
+
+  /**
+   * @return the xsi:schemaLocation of a METS file, pointing to the schemas
+   *         folder of the IP.
+   */
+  public static String getSchemaLocation(boolean rootMETS) {
+    String schemaLocation;
     if (rootMETS) {
-      m.setProperty(Marshaller.JAXB_SCHEMA_LOCATION,
-        "http://www.loc.gov/METS/ schemas/" + IPConstants.SCHEMA_METS_FILENAME_WITH_VERSION
+      schemaLocation = "http://www.loc.gov/METS/ schemas/" + IPConstants.SCHEMA_METS_FILENAME_WITH_VERSION
           + " http://www.w3.org/1999/xlink schemas/" + IPConstants.SCHEMA_XLINK_FILENAME
           + " https://dilcis.eu/XML/METS/CSIPExtensionMETS schemas/" + IPConstants.SCHEMA_EARK_CSIP_FILENAME
-          + " https://dilcis.eu/XML/METS/SIPExtensionMETS schemas/" + IPConstants.SCHEMA_EARK_SIP_FILENAME);
+          + " https://dilcis.eu/XML/METS/SIPExtensionMETS schemas/" + IPConstants.SCHEMA_EARK_SIP_FILENAME;
     } else {
-      m.setProperty(Marshaller.JAXB_SCHEMA_LOCATION,
-        "http://www.loc.gov/METS/ ../../schemas/" + IPConstants.SCHEMA_METS_FILENAME_WITH_VERSION
+      schemaLocation = "http://www.loc.gov/METS/ ../../schemas/" + IPConstants.SCHEMA_METS_FILENAME_WITH_VERSION
           + " http://www.w3.org/1999/xlink ../../schemas/" + IPConstants.SCHEMA_XLINK_FILENAME
           + " https://dilcis.eu/XML/METS/CSIPExtensionMETS ../../schemas/" + IPConstants.SCHEMA_EARK_CSIP_FILENAME
-          + " https://dilcis.eu/XML/METS/SIPExtensionMETS ../../schemas/" + IPConstants.SCHEMA_EARK_SIP_FILENAME);
+          + " https://dilcis.eu/XML/METS/SIPExtensionMETS ../../schemas/" + IPConstants.SCHEMA_EARK_SIP_FILENAME;
     }
-
-    try (OutputStream metsOutputStream = Files.newOutputStream(tempMETSFile)) {
-      m.marshal(mets, metsOutputStream);
-    }
-
-    return tempMETSFile;
+    return schemaLocation;
   }
 
   public static void addMainMETSToZip(Map<String, ZipEntryInfo> zipEntries, MetsWrapper metsWrapper, String metsPath,
@@ -107,8 +125,16 @@ public final class METSUtils {
 
   public static void addMETSToZip(Map<String, ZipEntryInfo> zipEntries, MetsWrapper metsWrapper, String metsPath,
     Path buildDir, boolean mainMets, FileType fileType) throws JAXBException, IOException, IPException {
-    Path temp = Files.createTempFile(buildDir, IPConstants.METS_FILE_NAME, IPConstants.METS_FILE_EXTENSION);
-    ZIPUtils.addMETSFileToZip(zipEntries, temp, metsPath, metsWrapper.getMets(), mainMets, fileType);
+    ZIPUtils.addMETSFileToZip(zipEntries, createMETSStagingPath(buildDir), metsPath, metsWrapper.getMets(), mainMets,
+      fileType);
+  }
+
+  /**
+   * Path of the build directory where a METS is spilled if it is too big to be
+   * staged in memory (see {@link METSZipEntryInfo}). The file is not created.
+   */
+  public static Path createMETSStagingPath(Path buildDir) {
+    return buildDir.resolve(IPConstants.METS_FILE_NAME + UUID.randomUUID() + IPConstants.METS_FILE_EXTENSION);
   }
 
   public static Agent createMETSAgent(IPAgent ipAgent) {
@@ -126,11 +152,20 @@ public final class METSUtils {
     return agent;
   }
 
+  /**
+   * @deprecated use {@link IPOperationContext#createFileLocation(String)}, this
+   *             method uses the settings of {@link IPOperationContext#DEFAULT}
+   */
+  @Deprecated
   public static FLocat createFileLocation(String filePath) {
+    return IPOperationContext.DEFAULT.createFileLocation(filePath);
+  }
+
+  public static FLocat createFileLocation(String filePath, boolean encodeHref) {
     FLocat fileLocation = new FLocat();
     fileLocation.setType(IPConstants.METS_TYPE_SIMPLE);
     fileLocation.setLOCTYPE(LocType.URL.toString());
-    fileLocation.setHref(encodeHref(filePath));
+    fileLocation.setHref(encodeHref(filePath, encodeHref));
     return fileLocation;
   }
 
@@ -169,6 +204,25 @@ public final class METSUtils {
 
   public static void setFileBasicInformation(Logger logger, Path file, FileType fileType)
     throws IPException, InterruptedException {
+    // size info.
+    final long size;
+    try {
+      logger.debug("Getting file size {}", file);
+      size = Files.size(file);
+      logger.debug("Done getting file size");
+    } catch (IOException e) {
+      throw new IPException("Error getting file size (" + file.toString() + ")", e);
+    }
+
+    setFileBasicInformation(logger, file, fileType, size);
+  }
+
+  /**
+   * Same as {@link #setFileBasicInformation(Logger, Path, FileType)} but with an
+   * already known file size.
+   */
+  public static void setFileBasicInformation(Logger logger, Path file, FileType fileType, long size)
+    throws IPException {
     // mimetype info.
     try {
       logger.debug("Setting mimetype {}", file);
@@ -185,14 +239,7 @@ public final class METSUtils {
       throw new IPException("Error getting curent calendar (" + file.toString() + ")", e);
     }
 
-    // size info.
-    try {
-      logger.debug("Setting file size {}", file);
-      fileType.setSIZE(Files.size(file));
-      logger.debug("Done setting file size");
-    } catch (IOException e) {
-      throw new IPException("Error getting file size (" + file.toString() + ")", e);
-    }
+    fileType.setSIZE(size);
   }
 
   private static String getFileMimetype(Path file) throws IOException {
@@ -208,17 +255,19 @@ public final class METSUtils {
   }
 
   /**
-   * Decodes a value from a METS HREF attribute.
-   * 
-   * <p>
-   * 20170511 hsilva: a global variable called
-   * {@link IPConstants.METS_ENCODE_AND_DECODE_HREF} is used to enable/disable the
-   * effective decode (done this way to avoid lots of changes in the methods that
-   * use this method)
-   * </p>
+   * Decodes a value from a METS HREF attribute, with the settings of
+   * {@link IPOperationContext#DEFAULT}.
+   *
+   * @deprecated use {@link IPOperationContext#decodeHref(String)} or
+   *             {@link #decodeHref(String, boolean)}
    */
+  @Deprecated
   public static String decodeHref(String value) {
-    if (IPConstants.METS_ENCODE_AND_DECODE_HREF) {
+    return IPOperationContext.DEFAULT.decodeHref(value);
+  }
+
+  public static String decodeHref(String value, boolean decode) {
+    if (decode) {
       try {
         value = URLDecoder.decode(value, "UTF-8");
       } catch (NullPointerException | UnsupportedEncodingException e) {
@@ -229,18 +278,19 @@ public final class METSUtils {
   }
 
   /**
-   * Encodes a value to put in METS HREF attribute.
+   * Encodes a value to put in METS HREF attribute, with the settings of
+   * {@link IPOperationContext#DEFAULT}.
    *
-   * <p>
-   * 20170511 hsilva: a global variable called
-   * {@link IPConstants.METS_ENCODE_AND_DECODE_HREF} is used to enable/disable the
-   * effective encode (done this way to avoid lots of changes in the methods that
-   * use this method). This method is not multi-thread safe when using different
-   * SIP formats.
-   * </p>
+   * @deprecated use {@link IPOperationContext#encodeHref(String)} or
+   *             {@link #encodeHref(String, boolean)}
    */
+  @Deprecated
   public static String encodeHref(String value) {
-    if (IPConstants.METS_ENCODE_AND_DECODE_HREF) {
+    return IPOperationContext.DEFAULT.encodeHref(value);
+  }
+
+  public static String encodeHref(String value, boolean encode) {
+    if (encode) {
       value = escapeSpecialCharacters(value);
     }
     return value;
@@ -9,14 +9,16 @@ package org.roda_project.commons_ip2.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
+import java.io.OutputStream;
 import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.roda_project.commons_ip.utils.FileZipEntryInfo;
 import org.roda_project.commons_ip.utils.IPException;
@@ -28,14 +30,32 @@ import org.slf4j.LoggerFactory;
 
 import jakarta.xml.bind.JAXBException;
 
+/**
+ * METS entry of an IP, marshalled by {@link #prepareEntryForZipping()}.
+ * <p>
+ * The METS is staged in a {@link StagingBuffer}, in memory up to
+ * {@link #getMemoryLimit()} bytes and spilled to {@link #getFilePath()} only
+ * when bigger, so the writers must read it with {@link #openStagedStream()}
+ * instead of reading {@link #getFilePath()}.
+ * </p>
+ */
 public class METSZipEntryInfo extends FileZipEntryInfo {
   private static final Logger LOGGER = LoggerFactory.getLogger(METSZipEntryInfo.class);
 
+  public static final int DEFAULT_MEMORY_LIMIT = 16 * 1024 * 1024;
+
   private Mets mets;
   private boolean rootMETS;
   private Map<String, String> checksums;
   private long size;
   private FileType fileType;
+  private String dataFileGrpId;
+  private METSDataFileSpool dataFileSpool;
+  private Set<String> checksumAlgorithms = Collections.emptySet();
+  private DigestPipeline.Result stagedDigest;
+  private int memoryLimit = DEFAULT_MEMORY_LIMIT;
+  private StagingBuffer staged;
+  private boolean released;
 
   public METSZipEntryInfo(String name, Path filePath, Mets mets, boolean rootMETS, FileType fileType) {
     super(name, filePath);
@@ -46,6 +66,19 @@ public class METSZipEntryInfo extends FileZipEntryInfo {
     this.fileType = fileType;
   }
 
+  /**
+   * @param dataFileGrpId
+   *          the ID of the data file group, which is filled from the spool
+   * @param dataFileSpool
+   *          where the data files of the METS were spooled
+   */
+  public METSZipEntryInfo(String name, Path filePath, Mets mets, boolean rootMETS, FileType fileType,
+    String dataFileGrpId, METSDataFileSpool dataFileSpool) {
+    this(name, filePath, mets, rootMETS, fileType);
+    this.dataFileGrpId = dataFileGrpId;
+    this.dataFileSpool = dataFileSpool;
+  }
+
   public Map<String, String> getChecksums() {
     return checksums;
   }
@@ -62,32 +95,123 @@ public class METSZipEntryInfo extends FileZipEntryInfo {
     this.size = size;
   }
 
+  /**
+   * Sets the checksum algorithms to compute while the METS is written, besides
+   * the one returned by {@link #getChecksum()}.
+   */
+  public void setChecksumAlgorithms(Set<String> checksumAlgorithms) {
+    this.checksumAlgorithms = checksumAlgorithms;
+  }
+
+  /**
+   * Get the size and checksums computed while the METS was written by
+   * {@link #prepareEntryForZipping()}, so that the METS does not have to be
+   * digested again when it is copied.
+   *
+   * @return the digests or {@code null} if some of the given algorithms were not
+   *         computed
+   */
+  public DigestPipeline.Result getStagedDigest(Set<String> algorithms) {
+    if (stagedDigest == null || !stagedDigest.getChecksums().keySet().containsAll(algorithms)) {
+      return null;
+    }
+    return stagedDigest;
+  }
+
+  public int getMemoryLimit() {
+    return memoryLimit;
+  }
+
+  /**
+   * Sets the maximum size of a METS kept in memory, bigger ones are written to
+   * {@link #getFilePath()}. With 0 the METS is always written to the file.
+   */
+  public void setMemoryLimit(int memoryLimit) {
+    this.memoryLimit = memoryLimit;
+  }
+
+  /**
+   * Opens a stream with the METS written by {@link #prepareEntryForZipping()}.
+   *
+   * @throws IllegalStateException
+   *           if the METS was not written yet, or was kept in memory and
+   *           {@link #releaseStaged()} was called since
+   */
+  public InputStream openStagedStream() throws IOException {
+    if (released) {
+      throw new IllegalStateException("METS already released");
+    } else if (staged == null) {
+      throw new IllegalStateException("METS not written yet");
+    }
+    return staged.openInputStream();
+  }
+
+  /**
+   * Frees the memory used by the staged METS, once it was copied to the output.
+   * A METS that was spilled to disk can still be read with
+   * {@link #openStagedStream()}.
+   */
+  public void releaseStaged() {
+    if (staged != null && staged.isInMemory()) {
+      staged.release();
+      staged = null;
+      released = true;
+    }
+  }
+
   @Override
   public void prepareEntryForZipping() throws IPException {
+    stagedDigest = null;
+    releaseStaged();
+    staged = new StagingBuffer(getFilePath(), memoryLimit);
+    released = false;
     try {
-      METSUtils.marshallMETS(mets, getFilePath(), rootMETS);
+      // digest the METS while it is being written, instead of reading it back
+      DigestPipeline.DigestingOutputStream outputStream = DigestPipeline.digesting(staged, getStagingAlgorithms(),
+        false);
+      try (OutputStream metsOutputStream = outputStream) {
+        if (dataFileSpool != null) {
+          METSStreamWriter.write(mets, rootMETS, dataFileGrpId, dataFileSpool, metsOutputStream);
+        } else {
+          METSUtils.marshallMETS(mets, metsOutputStream, rootMETS);
+        }
+      } finally {
+        if (dataFileSpool != null) {
+          dataFileSpool.delete();
+        }
+      }
+      stagedDigest = outputStream.getResult();
+
       if (!rootMETS && fileType != null) {
-        METSUtils.setFileBasicInformation(LOGGER, getFilePath(), fileType);
+        METSUtils.setFileBasicInformation(LOGGER, getFilePath(), fileType, stagedDigest.getSize());
 
         String checksumType = this.getChecksum();
-        Set<String> checksumAlgorithms = new HashSet<>();
-        checksumAlgorithms.add(checksumType);
-        try (InputStream inputStream = Files.newInputStream(getFilePath())) {
-          Map<String, String> checksums = ZIPUtils.calculateChecksums(Optional.empty(), inputStream,
-            checksumAlgorithms);
-          String checksum = checksums.get(checksumType);
+        String checksum = stagedDigest.getChecksum(checksumType);
+        if (checksum != null) {
           fileType.setCHECKSUM(checksum);
           fileType.setCHECKSUMTYPE(checksumType);
-        } catch (NoSuchAlgorithmException e) {
-          // do nothing
         }
-
       }
-    } catch (JAXBException | IOException e) {
+    } catch (JAXBException | IOException | NoSuchAlgorithmException e) {
       throw new IPException("Error marshalling METS", e);
-    } catch (InterruptedException e) {
-      // do nothing
     }
   }
 
+  private Set<String> getStagingAlgorithms() {
+    Set<String> algorithms = new TreeSet<>(checksumAlgorithms);
+    if (getChecksum() != null) {
+      algorithms.add(getChecksum());
+    }
+    for (Iterator<String> iterator = algorithms.iterator(); iterator.hasNext();) {
+      String algorithm = iterator.next();
+      try {
+        MessageDigest.getInstance(algorithm);
+      } catch (NoSuchAlgorithmException e) {
+        LOGGER.debug("Unable to digest METS with {}", algorithm, e);
+        iterator.remove();
+      }
+    }
+    return algorithms;
+  }
+
 }
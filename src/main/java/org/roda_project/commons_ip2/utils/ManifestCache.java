@@ -0,0 +1,211 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.roda_project.commons_ip.utils.IPException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache of the mimetype and checksum of the files put in a SIP, so that
+ * rebuilding a SIP where only a few files changed does not probe and digest
+ * every file again.
+ * <p>
+ * An entry is only reused while the file keeps the same path, size,
+ * modification time and file key (inode), as returned by
+ * {@link BasicFileAttributes}, and if it holds a checksum of the requested
+ * algorithm. The cache is kept in memory and only written back by
+ * {@link #save()}.
+ * </p>
+ */
+public class ManifestCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ManifestCache.class);
+
+  private static final String SEPARATOR = "\t";
+  private static final String NO_FILE_KEY = "-";
+
+  private final Path cacheFile;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  private ManifestCache(Path cacheFile) {
+    this.cacheFile = cacheFile;
+  }
+
+  /**
+   * Loads the cache from the given file. If the file does not exist yet, the
+   * cache starts empty and the file is created by {@link #save()}.
+   */
+  public static ManifestCache load(Path cacheFile) throws IPException {
+    ManifestCache cache = new ManifestCache(cacheFile);
+    try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] fields = line.split(SEPARATOR);
+        if (fields.length == 7) {
+          cache.entries.put(decode(fields[0]), new Entry(Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+            fields[3], decode(fields[4]), fields[5], fields[6]));
+        } else {
+          LOGGER.debug("Ignoring invalid manifest cache line: {}", line);
+        }
+      }
+    } catch (NoSuchFileException e) {
+      LOGGER.debug("Manifest cache {} does not exist, starting empty", cacheFile);
+    } catch (IOException | NumberFormatException e) {
+      throw new IPException("Error loading manifest cache " + cacheFile, e);
+    }
+    return cache;
+  }
+
+  /**
+   * Writes the cache back to its file.
+   */
+  public void save() throws IPException {
+    try {
+      Path parent = cacheFile.toAbsolutePath().getParent();
+      Files.createDirectories(parent);
+      Path temp = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+          Entry value = entry.getValue();
+          writer.write(String.join(SEPARATOR, encode(entry.getKey()), Long.toString(value.size),
+            Long.toString(value.lastModified), value.fileKey, encode(value.mimetype), value.checksumAlgorithm,
+            value.checksum));
+          writer.newLine();
+        }
+      }
+      Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new IPException("Error saving manifest cache " + cacheFile, e);
+    }
+  }
+
+  /**
+   * Get the cached information of a file, if the file did not change since it
+   * was cached.
+   *
+   * @return the {@link Entry} or {@code null} on a cache miss
+   */
+  public Entry lookup(Path file, String checksumAlgorithm) {
+    Entry entry = entries.get(key(file));
+    if (entry != null && entry.checksumAlgorithm.equals(checksumAlgorithm)) {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (entry.matches(attributes)) {
+          hits.incrementAndGet();
+          return entry;
+        }
+      } catch (IOException e) {
+        LOGGER.debug("Unable to read attributes of {}", file, e);
+      }
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Caches the information of a file, as it currently is.
+   */
+  public void put(Path file, String mimetype, String checksumAlgorithm, String checksum) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      entries.put(key(file), new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(),
+        fileKey(attributes), mimetype, checksumAlgorithm, checksum));
+    } catch (IOException e) {
+      LOGGER.debug("Unable to cache {}", file, e);
+    }
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private static String key(Path file) {
+    return file.toAbsolutePath().normalize().toString();
+  }
+
+  private static String fileKey(BasicFileAttributes attributes) {
+    Object fileKey = attributes.fileKey();
+    return fileKey != null ? fileKey.toString().replace(SEPARATOR, " ") : NO_FILE_KEY;
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+  private static String decode(String value) {
+    return URLDecoder.decode(value, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Cached information of one file.
+   */
+  public static final class Entry {
+    private final long size;
+    private final long lastModified;
+    private final String fileKey;
+    private final String mimetype;
+    private final String checksumAlgorithm;
+    private final String checksum;
+
+    private Entry(long size, long lastModified, String fileKey, String mimetype, String checksumAlgorithm,
+      String checksum) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.fileKey = fileKey;
+      this.mimetype = mimetype;
+      this.checksumAlgorithm = checksumAlgorithm;
+      this.checksum = checksum;
+    }
+
+    private boolean matches(BasicFileAttributes attributes) {
+      return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis()
+        && fileKey.equals(fileKey(attributes));
+    }
+
+    public long getSize() {
+      return size;
+    }
+
+    public String getMimetype() {
+      return mimetype;
+    }
+
+    public String getChecksumAlgorithm() {
+      return checksumAlgorithm;
+    }
+
+    public String getChecksum() {
+      return checksum;
+    }
+  }
+}
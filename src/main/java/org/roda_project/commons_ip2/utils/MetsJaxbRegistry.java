@@ -0,0 +1,304 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.glassfish.jaxb.runtime.v2.JAXBContextFactory;
+import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
+import org.roda_project.commons_ip2.model.IPConstants;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.ValidationEvent;
+
+/**
+ * Process wide holder of the METS {@link JAXBContext} and of the compiled METS
+ * {@link Schema}.
+ * <p>
+ * Creating a {@link JAXBContext} and compiling the METS XSD are by far the most
+ * expensive steps of reading or writing a METS file, so both are done once and
+ * shared. {@link Marshaller} and {@link Unmarshaller} instances are not thread
+ * safe, so they are pooled and handed out to one caller at a time.
+ * </p>
+ */
+public final class MetsJaxbRegistry {
+  private static final Queue<Unmarshaller> UNMARSHALLERS = new ConcurrentLinkedQueue<>();
+  private static final Queue<Marshaller> MARSHALLERS = new ConcurrentLinkedQueue<>();
+  private static final Queue<Unmarshaller> FRAGMENT_UNMARSHALLERS = new ConcurrentLinkedQueue<>();
+  private static final Queue<Marshaller> FRAGMENT_MARSHALLERS = new ConcurrentLinkedQueue<>();
+
+  private static final SAXParserFactory PARSER_FACTORY = createParserFactory();
+
+  private static volatile JAXBContext context;
+  private static volatile Schema schema;
+
+  private MetsJaxbRegistry() {
+    // do nothing
+  }
+
+  /**
+   * @return the shared {@link JAXBContext} for {@link Mets}.
+   */
+  public static JAXBContext getContext() throws JAXBException {
+    JAXBContext result = context;
+    if (result == null) {
+      synchronized (MetsJaxbRegistry.class) {
+        result = context;
+        if (result == null) {
+          result = new JAXBContextFactory().createContext(new Class[] {Mets.class}, null);
+          context = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the compiled METS schema used by every supported E-ARK
+   *         specification version.
+   */
+  public static Schema getSchema() throws SAXException {
+    // all the supported E-ARK specification versions (2.0.4, 2.1.0 and 2.2.0)
+    // rely on METS 1.12
+    Schema result = schema;
+    if (result == null) {
+      synchronized (MetsJaxbRegistry.class) {
+        result = schema;
+        if (result == null) {
+          result = compileSchema(IPConstants.SCHEMA_METS_RELATIVE_PATH_FROM_RESOURCES);
+          schema = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Unmarshals a METS file, validating it against the METS schema. The input
+   * stream is not closed.
+   */
+  public static Mets unmarshal(InputStream inputStream) throws JAXBException, SAXException {
+    Unmarshaller unmarshaller = pollUnmarshaller();
+    try {
+      return (Mets) unmarshaller.unmarshal(inputStream);
+    } finally {
+      UNMARSHALLERS.offer(unmarshaller);
+    }
+  }
+
+  /**
+   * Unmarshals a METS file, validating it against the METS schema, while
+   * forwarding the start and end element events of the same parse to the given
+   * observer. This lets callers collect extra information (e.g. attributes not
+   * kept by the beans) without reading the file a second time. The input stream
+   * is not closed.
+   */
+  public static Mets unmarshalWithObserver(InputStream inputStream, ContentHandler observer)
+    throws JAXBException, SAXException {
+    Unmarshaller unmarshaller = pollUnmarshaller();
+    try {
+      ObservingFilter filter = new ObservingFilter(createXMLReader(), observer);
+      return (Mets) unmarshaller.unmarshal(new SAXSource(filter, new InputSource(inputStream)));
+    } finally {
+      UNMARSHALLERS.offer(unmarshaller);
+    }
+  }
+
+  /**
+   * Unmarshals a METS file out of a StAX reader, validating it against the METS
+   * schema. The reader is not closed.
+   */
+  public static Mets unmarshal(XMLStreamReader reader) throws JAXBException, SAXException {
+    Unmarshaller unmarshaller = pollUnmarshaller();
+    try {
+      return (Mets) unmarshaller.unmarshal(reader);
+    } finally {
+      UNMARSHALLERS.offer(unmarshaller);
+    }
+  }
+
+  /**
+   * Unmarshals the element the reader is positioned at (e.g. a single
+   * {@code <file>}) into the given METS type, leaving the reader right after
+   * its end tag. Fragments are not validated against the schema and references
+   * (IDREF) to elements outside the fragment are left unresolved.
+   */
+  public static <T> T unmarshalFragment(XMLStreamReader reader, Class<T> type) throws JAXBException {
+    Unmarshaller unmarshaller = FRAGMENT_UNMARSHALLERS.poll();
+    if (unmarshaller == null) {
+      unmarshaller = getContext().createUnmarshaller();
+      // unresolved IDREFs are reported as errors, which are expected here
+      unmarshaller.setEventHandler(event -> event.getSeverity() != ValidationEvent.FATAL_ERROR);
+    }
+
+    try {
+      return unmarshaller.unmarshal(reader, type).getValue();
+    } finally {
+      FRAGMENT_UNMARSHALLERS.offer(unmarshaller);
+    }
+  }
+
+  /**
+   * Marshals a METS (formatted output) into the output stream, which is left
+   * open.
+   */
+  public static void marshal(Mets mets, OutputStream outputStream, String schemaLocation) throws JAXBException {
+    Marshaller marshaller = pollMarshaller();
+    try {
+      marshaller.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, schemaLocation);
+      marshaller.marshal(mets, outputStream);
+    } finally {
+      MARSHALLERS.offer(marshaller);
+    }
+  }
+
+  /**
+   * Marshals a METS into the XML stream writer, which is left open. The pooled
+   * marshallers ask for formatted output, but JAXB does not indent what it
+   * writes through an {@link XMLStreamWriter}, so the output is only formatted
+   * if the writer itself does it.
+   */
+  public static void marshal(Mets mets, XMLStreamWriter writer, String schemaLocation) throws JAXBException {
+    Marshaller marshaller = pollMarshaller();
+    try {
+      marshaller.setProperty(Marshaller.JAXB_SCHEMA_LOCATION, schemaLocation);
+      marshaller.marshal(mets, writer);
+    } finally {
+      MARSHALLERS.offer(marshaller);
+    }
+  }
+
+  /**
+   * Marshals a METS element (e.g. a single {@code <file>} wrapped in a
+   * {@link jakarta.xml.bind.JAXBElement}) without the XML declaration, so it
+   * can be part of a larger document.
+   */
+  public static void marshalFragment(Object element, OutputStream outputStream) throws JAXBException {
+    Marshaller marshaller = pollFragmentMarshaller();
+    try {
+      marshaller.marshal(element, outputStream);
+    } finally {
+      FRAGMENT_MARSHALLERS.offer(marshaller);
+    }
+  }
+
+  /**
+   * Same as {@link #marshalFragment(Object, OutputStream)}, but writes into an
+   * XML stream writer that is in the middle of a document.
+   */
+  public static void marshalFragment(Object element, XMLStreamWriter writer) throws JAXBException {
+    Marshaller marshaller = pollFragmentMarshaller();
+    try {
+      marshaller.marshal(element, writer);
+    } finally {
+      FRAGMENT_MARSHALLERS.offer(marshaller);
+    }
+  }
+
+  private static Unmarshaller pollUnmarshaller() throws JAXBException, SAXException {
+    Unmarshaller unmarshaller = UNMARSHALLERS.poll();
+    if (unmarshaller == null) {
+      unmarshaller = getContext().createUnmarshaller();
+      unmarshaller.setSchema(getSchema());
+    }
+    return unmarshaller;
+  }
+
+  private static Marshaller pollMarshaller() throws JAXBException {
+    Marshaller marshaller = MARSHALLERS.poll();
+    if (marshaller == null) {
+      marshaller = getContext().createMarshaller();
+      marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+    }
+    return marshaller;
+  }
+
+  private static Marshaller pollFragmentMarshaller() throws JAXBException {
+    Marshaller marshaller = FRAGMENT_MARSHALLERS.poll();
+    if (marshaller == null) {
+      marshaller = getContext().createMarshaller();
+      marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+    }
+    return marshaller;
+  }
+
+  private static SAXParserFactory createParserFactory() {
+    SAXParserFactory factory = SAXParserFactory.newInstance();
+    factory.setNamespaceAware(true);
+    return factory;
+  }
+
+  private static XMLReader createXMLReader() throws SAXException {
+    try {
+      // SAXParserFactory is not guaranteed to be thread safe
+      synchronized (PARSER_FACTORY) {
+        return PARSER_FACTORY.newSAXParser().getXMLReader();
+      }
+    } catch (ParserConfigurationException e) {
+      throw new SAXException(e);
+    }
+  }
+
+  private static Schema compileSchema(String schemaPath) throws SAXException {
+    SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+    factory.setResourceResolver(new ResourceResolver());
+    try (InputStream metsSchemaInputStream = MetsJaxbRegistry.class.getResourceAsStream(schemaPath)) {
+      return factory.newSchema(new StreamSource(metsSchemaInputStream));
+    } catch (IOException e) {
+      throw new SAXException("Error reading METS schema " + schemaPath, e);
+    }
+  }
+
+  /**
+   * Filter that hands the element events to an observer before passing them on
+   * to the unmarshaller.
+   */
+  private static final class ObservingFilter extends XMLFilterImpl {
+    private final ContentHandler observer;
+
+    private ObservingFilter(XMLReader parent, ContentHandler observer) {
+      super(parent);
+      this.observer = observer;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+      observer.startElement(uri, localName, qName, atts);
+      super.startElement(uri, localName, qName, atts);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+      observer.endElement(uri, localName, qName);
+      super.endElement(uri, localName, qName);
+    }
+  }
+}
@@ -0,0 +1,235 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.roda_project.commons_ip.utils.IPException;
+import org.roda_project.commons_ip.utils.ZipEntryInfo;
+import org.roda_project.commons_ip2.model.SIP;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parallel counterpart of {@link ZIPUtils#zip(Map, OutputStream, SIP, boolean, boolean)}.
+ * <p>
+ * Each entry is deflated and digested by a worker into a temporary chunk, and
+ * the chunks are then appended to the archive in the original entry order.
+ * METS entries depend on the checksums of the entries that precede them, so
+ * all pending entries are flushed before a METS entry is prepared.
+ * </p>
+ */
+public final class ParallelZIPUtils {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelZIPUtils.class);
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private ParallelZIPUtils() {
+    // do nothing
+  }
+
+  /**
+   * @param executor
+   *          executor where entries are deflated and digested, owned by the
+   *          caller; the entries still pending when this method returns are
+   *          cancelled and waited for, but the executor is not shut down
+   * @param maxPendingEntries
+   *          maximum number of entries that may be deflated ahead of the one
+   *          being written (bounds the temporary disk usage)
+   */
+  public static void zip(Map<String, ZipEntryInfo> files, OutputStream out, SIP sip, boolean createSipIdFolder,
+    boolean isCompressed, ExecutorService executor, int maxPendingEntries)
+    throws IOException, InterruptedException, IPException {
+    Set<String> nonMetsChecksumAlgorithms = new TreeSet<>();
+    nonMetsChecksumAlgorithms.add(sip.getChecksum());
+    Set<String> metsChecksumAlgorithms = new TreeSet<>();
+    metsChecksumAlgorithms.addAll(nonMetsChecksumAlgorithms);
+    metsChecksumAlgorithms.addAll(sip.getExtraChecksumAlgorithms());
+
+    int level = isCompressed ? Deflater.DEFAULT_COMPRESSION : Deflater.NO_COMPRESSION;
+    Path tempDir = Files.createTempDirectory("parallel-zip");
+    Deque<PendingEntry> pending = new ArrayDeque<>();
+    OutputStream bufferedOut = new BufferedOutputStream(out, BUFFER_SIZE);
+    DeflatedZipArchiveWriter writer = new DeflatedZipArchiveWriter(bufferedOut);
+
+    try {
+      int written = 0;
+      for (ZipEntryInfo file : files.values()) {
+        if (Thread.interrupted()) {
+          throw new InterruptedException();
+        }
+
+        file.setChecksum(sip.getChecksum());
+        Set<String> algorithms = nonMetsChecksumAlgorithms;
+        if (file instanceof METSZipEntryInfo metsEntry) {
+          // METS content depends on the checksums of the previous entries
+          written = writePending(pending, 0, writer, sip, written);
+          metsEntry.setChecksumAlgorithms(metsChecksumAlgorithms);
+          file.prepareEntryForZipping();
+          // the METS was digested while it was written, so it is only deflated
+          algorithms = metsEntry.getStagedDigest(metsChecksumAlgorithms) != null ? Collections.emptySet()
+            : metsChecksumAlgorithms;
+        } else {
+          file.prepareEntryForZipping();
+          // the checksum was taken from the manifest cache, so it is only deflated
+          if (file instanceof METSFileTypeZipEntryInfo f && f.getKnownChecksum(sip.getChecksum()) != null) {
+            algorithms = Collections.emptySet();
+          }
+        }
+
+        String entryName = createSipIdFolder ? sip.getId() + "/" + file.getName() : file.getName();
+        Set<String> entryAlgorithms = algorithms;
+        AwaitableTask<DeflatedChunk> task = new AwaitableTask<>(
+          () -> deflate(file, entryAlgorithms, tempDir, level));
+        executor.execute(task);
+        pending.add(new PendingEntry(file, entryName, task));
+
+        written = writePending(pending, maxPendingEntries, writer, sip, written);
+      }
+      writePending(pending, 0, writer, sip, written);
+
+      writer.finish();
+      bufferedOut.close();
+    } finally {
+      // entries still deflating would otherwise create chunks in the directory
+      // while it is being deleted
+      boolean interrupted = false;
+      for (PendingEntry entry : pending) {
+        interrupted |= entry.task.cancelAndAwait();
+      }
+      Utils.deletePath(tempDir);
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static int writePending(Deque<PendingEntry> pending, int maxPendingEntries, DeflatedZipArchiveWriter writer,
+    SIP sip, int written) throws IOException, InterruptedException, IPException {
+    int count = written;
+    while (pending.size() > maxPendingEntries) {
+      PendingEntry entry = pending.peek();
+      DeflatedChunk chunk = getChunk(entry);
+      pending.poll();
+      if (entry.file instanceof METSZipEntryInfo metsEntry) {
+        metsEntry.releaseStaged();
+      }
+
+      LOGGER.debug("Zipping file {}", entry.file.getFilePath());
+      writer.addEntry(entry.name, chunk.path, chunk.crc, chunk.compressedSize, chunk.size);
+      Files.deleteIfExists(chunk.path);
+      Map<String, String> checksums = chunk.checksums;
+      if (entry.file instanceof METSZipEntryInfo metsEntry && chunk.checksums.isEmpty()) {
+        checksums = metsEntry.getStagedDigest(Collections.emptySet()).getChecksums();
+      } else if (entry.file instanceof METSFileTypeZipEntryInfo f && chunk.checksums.isEmpty()) {
+        checksums = Collections.singletonMap(sip.getChecksum(), f.getKnownChecksum(sip.getChecksum()));
+      }
+      ZIPUtils.setChecksums(entry.file, checksums, chunk.size, sip.getChecksum());
+      LOGGER.debug("Done zipping file");
+
+      count++;
+      sip.notifySipBuildPackagingCurrentStatus(count);
+    }
+    return count;
+  }
+
+  private static DeflatedChunk getChunk(PendingEntry entry) throws IOException, InterruptedException, IPException {
+    try {
+      return entry.task.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException ioException) {
+        throw ioException;
+      } else if (cause instanceof InterruptedException interruptedException) {
+        throw interruptedException;
+      }
+      throw new IPException("Error zipping file " + entry.file.getFilePath(), cause);
+    }
+  }
+
+  private static DeflatedChunk deflate(ZipEntryInfo file, Set<String> checksumAlgorithms, Path tempDir, int level)
+    throws IOException, NoSuchAlgorithmException {
+    Path chunkPath = Files.createTempFile(tempDir, "entry", ".deflated");
+    Deflater deflater = new Deflater(level, true);
+    DigestPipeline.Result result;
+    try (OutputStream outputStream = new InterruptibleOutputStream(
+      new DeflaterOutputStream(Files.newOutputStream(chunkPath), deflater, BUFFER_SIZE), file.getName())) {
+      result = ZIPUtils.digestEntry(file, checksumAlgorithms, outputStream, true);
+    } finally {
+      deflater.end();
+    }
+
+    return new DeflatedChunk(chunkPath, result.getCrc(), Files.size(chunkPath), result.getSize(),
+      result.getChecksums());
+  }
+
+  /**
+   * Stops deflating an entry, at the next chunk, once the build is cancelled.
+   */
+  private static final class InterruptibleOutputStream extends FilterOutputStream {
+    private final String name;
+
+    private InterruptibleOutputStream(OutputStream outputStream, String name) {
+      super(outputStream);
+      this.name = name;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedIOException("Interrupted while deflating " + name);
+      }
+      out.write(b, off, len);
+    }
+  }
+
+  private static final class PendingEntry {
+    private final ZipEntryInfo file;
+    private final String name;
+    private final AwaitableTask<DeflatedChunk> task;
+
+    private PendingEntry(ZipEntryInfo file, String name, AwaitableTask<DeflatedChunk> task) {
+      this.file = file;
+      this.name = name;
+      this.task = task;
+    }
+  }
+
+  private static final class DeflatedChunk {
+    private final Path path;
+    private final long crc;
+    private final long compressedSize;
+    private final long size;
+    private final Map<String, String> checksums;
+
+    private DeflatedChunk(Path path, long crc, long compressedSize, long size, Map<String, String> checksums) {
+      this.path = path;
+      this.crc = crc;
+      this.compressedSize = compressedSize;
+      this.size = size;
+      this.checksums = checksums;
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Output stream that keeps what is written to it in memory, up to
+ * {@code memoryLimit} bytes, and spills everything to {@code spillFile} once
+ * that limit is exceeded.
+ * <p>
+ * Used to stage content generated during a build (e.g. the METS) so that it is
+ * serialised once and then streamed to the output with
+ * {@link #openInputStream()}, without going through a temporary file unless it
+ * is too big to be kept in memory.
+ * </p>
+ */
+public final class StagingBuffer extends OutputStream {
+  private static final int INITIAL_CAPACITY = 8 * 1024;
+  private static final int SPILL_BUFFER_SIZE = 64 * 1024;
+
+  private final Path spillFile;
+  private final int memoryLimit;
+  private byte[] buffer;
+  private int count;
+  private OutputStream spillOutputStream;
+  private long size;
+  private boolean closed;
+
+  /**
+   * @param spillFile
+   *          where the content is written if it exceeds {@code memoryLimit}
+   *          bytes, it is only created then
+   * @param memoryLimit
+   *          maximum number of bytes kept in memory, if 0 the content is always
+   *          written to {@code spillFile}
+   */
+  public StagingBuffer(Path spillFile, int memoryLimit) {
+    this.spillFile = spillFile;
+    this.memoryLimit = Math.max(0, memoryLimit);
+    this.buffer = new byte[Math.min(INITIAL_CAPACITY, this.memoryLimit)];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (closed) {
+      throw new IOException("Staging buffer already closed");
+    }
+    if (spillOutputStream == null && (long) count + len > memoryLimit) {
+      spill();
+    }
+    if (spillOutputStream != null) {
+      spillOutputStream.write(b, off, len);
+    } else {
+      if (count + len > buffer.length) {
+        buffer = Arrays.copyOf(buffer, (int) Math.min(memoryLimit, Math.max(2L * buffer.length, count + len)));
+      }
+      System.arraycopy(b, off, buffer, count, len);
+      count += len;
+    }
+    size += len;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (spillOutputStream != null) {
+      spillOutputStream.flush();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      if (spillOutputStream != null) {
+        spillOutputStream.close();
+      }
+    }
+  }
+
+  /**
+   * @return the number of bytes written
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * @return {@code true} if the content was not spilled to disk
+   */
+  public boolean isInMemory() {
+    return spillOutputStream == null;
+  }
+
+  /**
+   * Opens a stream with the content written so far. Can be called any number of
+   * times, after the buffer is closed.
+   */
+  public InputStream openInputStream() throws IOException {
+    if (spillOutputStream != null) {
+      return Files.newInputStream(spillFile);
+    }
+    return new ByteArrayInputStream(buffer, 0, count);
+  }
+
+  /**
+   * Releases the memory of the buffer, keeping the spilled content on disk (if
+   * any).
+   */
+  public void release() {
+    buffer = new byte[0];
+    count = 0;
+  }
+
+  private void spill() throws IOException {
+    spillOutputStream = new BufferedOutputStream(Files.newOutputStream(spillFile), SPILL_BUFFER_SIZE);
+    spillOutputStream.write(buffer, 0, count);
+    release();
+  }
+}
@@ -17,9 +17,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
@@ -41,12 +41,11 @@ import org.roda_project.commons_ip2.model.IPConstants;
 import org.roda_project.commons_ip2.model.IPFile;
 import org.roda_project.commons_ip2.model.IPFileInterface;
 import org.roda_project.commons_ip2.model.IPInterface;
+import org.roda_project.commons_ip2.model.IPOperationContext;
 import org.roda_project.commons_ip2.model.ValidationEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import jakarta.xml.bind.DatatypeConverter;
-
 public final class Utils {
   private static final Logger LOGGER = LoggerFactory.getLogger(Utils.class);
 
@@ -99,12 +98,34 @@ public final class Utils {
     }
   }
 
+  /**
+   * @deprecated use
+   *             {@link #extractedRelativePathFromHref(MdRef, IPOperationContext)},
+   *             this method uses the settings of
+   *             {@link IPOperationContext#DEFAULT}
+   */
+  @Deprecated
   public static String extractedRelativePathFromHref(MdRef mdref) {
-    return extractedRelativePathFromHref(mdref.getHref());
+    return extractedRelativePathFromHref(mdref, IPOperationContext.DEFAULT);
   }
 
+  public static String extractedRelativePathFromHref(MdRef mdref, IPOperationContext context) {
+    return context.extractedRelativePathFromHref(mdref.getHref());
+  }
+
+  /**
+   * @deprecated use
+   *             {@link IPOperationContext#extractedRelativePathFromHref(String)},
+   *             this method uses the settings of
+   *             {@link IPOperationContext#DEFAULT}
+   */
+  @Deprecated
   public static String extractedRelativePathFromHref(String href) {
-    String res = METSUtils.decodeHref(href);
+    return IPOperationContext.DEFAULT.extractedRelativePathFromHref(href);
+  }
+
+  public static String extractedRelativePathFromHref(String href, boolean decodeHref) {
+    String res = METSUtils.decodeHref(href, decodeHref);
     for (String prefix : IPConstants.METS_FILE_PREFIXES_TO_ACCEPT) {
       if (res.startsWith(prefix)) {
         res = res.replaceFirst(prefix, "");
@@ -161,18 +182,11 @@ public final class Utils {
    */
   public static String calculateChecksum(InputStream is, String algorithm)
     throws NoSuchAlgorithmException, IOException {
-    MessageDigest digester = MessageDigest.getInstance(algorithm);
     try {
-      byte[] block = new byte[4096];
-      int length;
-      while ((length = is.read(block)) > 0) {
-        digester.update(block, 0, length);
-      }
+      return DigestPipeline.digest(is, Collections.singleton(algorithm), null, false).getChecksum(algorithm);
     } finally {
       is.close();
     }
-
-    return DatatypeConverter.printHexBinary(digester.digest());
   }
 
   public static List<String> getFileRelativeFolders(Path basePath, Path filePath) {
@@ -188,30 +202,30 @@ public final class Utils {
 
   public static Optional<IPFileInterface> validateFile(IPInterface ip, Path filePath, List<String> fileRelativeFolders,
     String metsChecksum, String metsChecksumAlgorithm, String metsElementId) {
-    boolean calculateChecksum = true;
-    Optional<IPFileInterface> file = Optional.empty();
+    return validateFile(ip, filePath, fileRelativeFolders, metsChecksum, metsChecksumAlgorithm, metsElementId,
+      () -> computeChecksum(filePath, metsChecksumAlgorithm));
+  }
 
-    // validate if both mets checksum or mets algorithm are set
-    if (StringUtils.isBlank(metsChecksum)) {
-      ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.CHECKSUM_NOT_SET,
-        ValidationEntry.LEVEL.ERROR, ip.getBasePath(), filePath);
-      calculateChecksum = false;
-    }
-    if (StringUtils.isBlank(metsChecksumAlgorithm)) {
-      ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.CHECKSUM_ALGORITHM_NOT_SET,
-        ValidationEntry.LEVEL.ERROR, ip.getBasePath(), filePath);
-      calculateChecksum = false;
-    }
+  /**
+   * Same as
+   * {@link #validateFile(IPInterface, Path, List, String, String, String)} but
+   * taking the computed checksum from {@code computedChecksum}, e.g. a digest
+   * already running on another thread. It is only called if both the METS
+   * checksum and algorithm are set.
+   */
+  public static Optional<IPFileInterface> validateFile(IPInterface ip, Path filePath, List<String> fileRelativeFolders,
+    String metsChecksum, String metsChecksumAlgorithm, String metsElementId, ChecksumSupplier computedChecksum) {
+    Optional<IPFileInterface> file = Optional.empty();
 
-    if (calculateChecksum) {
+    if (isChecksumSet(ip, filePath, metsChecksum, metsChecksumAlgorithm)) {
       try {
-        String computedChecksum = Utils.calculateChecksum(Files.newInputStream(filePath), metsChecksumAlgorithm);
-        if (computedChecksum.equalsIgnoreCase(metsChecksum)) {
+        String checksum = computedChecksum.get();
+        if (checksum.equalsIgnoreCase(metsChecksum)) {
           file = Optional
             .of(new IPFile(filePath, fileRelativeFolders).setChecksumAndAlgorithm(metsChecksum, metsChecksumAlgorithm));
         } else {
           ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.CHECKSUMS_DIFFER,
-            ValidationEntry.LEVEL.ERROR, metsElementId, metsChecksum, metsChecksumAlgorithm, computedChecksum,
+            ValidationEntry.LEVEL.ERROR, metsElementId, metsChecksum, metsChecksumAlgorithm, checksum,
             ip.getBasePath(), filePath);
         }
       } catch (NoSuchAlgorithmException | IOException e) {
@@ -223,4 +237,37 @@ public final class Utils {
     return file;
   }
 
+  /**
+   * Validates if both METS checksum and algorithm are set, adding an issue to
+   * the IP validation report for each one that is not.
+   */
+  public static boolean isChecksumSet(IPInterface ip, Path filePath, String metsChecksum,
+    String metsChecksumAlgorithm) {
+    boolean checksumSet = true;
+    if (StringUtils.isBlank(metsChecksum)) {
+      ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.CHECKSUM_NOT_SET,
+        ValidationEntry.LEVEL.ERROR, ip.getBasePath(), filePath);
+      checksumSet = false;
+    }
+    if (StringUtils.isBlank(metsChecksumAlgorithm)) {
+      ValidationUtils.addIssue(ip.getValidationReport(), ValidationConstants.CHECKSUM_ALGORITHM_NOT_SET,
+        ValidationEntry.LEVEL.ERROR, ip.getBasePath(), filePath);
+      checksumSet = false;
+    }
+    return checksumSet;
+  }
+
+  public static String computeChecksum(Path filePath, String checksumAlgorithm)
+    throws NoSuchAlgorithmException, IOException {
+    return DigestPipeline.digestFile(filePath, Collections.singleton(checksumAlgorithm)).getChecksum(checksumAlgorithm);
+  }
+
+  /**
+   * Supplies the checksum computed for a file.
+   */
+  @FunctionalInterface
+  public interface ChecksumSupplier {
+    String get() throws NoSuchAlgorithmException, IOException;
+  }
+
 }
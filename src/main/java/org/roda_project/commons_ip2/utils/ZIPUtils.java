@@ -12,23 +12,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
-import jakarta.xml.bind.DatatypeConverter;
-
 import org.apache.commons.io.IOUtils;
 import org.roda_project.commons_ip.model.ParseException;
 import org.roda_project.commons_ip.utils.IPException;
@@ -86,6 +85,100 @@ public final class ZIPUtils {
     return ipFolderPath;
   }
 
+  /**
+   * Opens an IP in ZIP format as a {@link FileSystem}, so it can be parsed
+   * without extracting it: entries are read (and inflated) straight from the
+   * archive when needed and nothing is written to disk.
+   * <p>
+   * The ZIP file system takes {@code \} as a separator, so archives with
+   * entries whose name contains it are extracted as in
+   * {@link #extractIPIfInZipFormat(Path, Path)} instead.
+   * </p>
+   *
+   * @param source
+   *          IP (if it is a directory it is returned as is)
+   * @param destinationDirectory
+   *          this path is only used if the IP must be extracted, a temporary
+   *          directory is created if null
+   * @return the IP folder inside the archive, i.e. its root or the single
+   *         folder that contains the main METS. Its file system must be closed
+   *         with {@link #closeIPInZipFormat(Path)} once the IP files are no
+   *         longer needed
+   */
+  public static Path openIPInZipFormat(final Path source, final Path destinationDirectory) throws ParseException {
+    if (Files.isDirectory(source)) {
+      return source;
+    }
+
+    if (hasEntryNamesWithBackslash(source)) {
+      LOGGER.warn("{} has entry names with '\\', extracting it instead of parsing it from the archive", source);
+      try {
+        return extractIPIfInZipFormat(source,
+          destinationDirectory != null ? destinationDirectory : Files.createTempDirectory("unzipped"));
+      } catch (IOException e) {
+        throw new ParseException("Error creating temporary directory for IP parse", e);
+      }
+    }
+
+    FileSystem fileSystem = null;
+    try {
+      fileSystem = FileSystems.newFileSystem(source);
+      final Path root = fileSystem.getPath("/");
+      Path ipFolderPath = root;
+      // same adjustment as in extractIPIfInZipFormat for IPs zipped inside a
+      // folder
+      if (!Files.exists(root.resolve(IPConstants.METS_FILE))) {
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(root)) {
+          for (Path path : directoryStream) {
+            if (Files.isDirectory(path) && Files.exists(path.resolve(IPConstants.METS_FILE))) {
+              ipFolderPath = path;
+              break;
+            }
+          }
+        }
+      }
+      return ipFolderPath;
+    } catch (IOException | RuntimeException e) {
+      if (fileSystem != null) {
+        closeIPInZipFormatQuietly(fileSystem.getPath("/"), e);
+      }
+      throw new ParseException("Error opening ZIP file", e);
+    }
+  }
+
+  private static boolean hasEntryNamesWithBackslash(final Path source) throws ParseException {
+    try (ZipFile zipFile = new ZipFile(source.toFile())) {
+      return zipFile.stream().anyMatch(entry -> entry.getName().indexOf('\\') >= 0);
+    } catch (IOException e) {
+      throw new ParseException("Error opening ZIP file", e);
+    }
+  }
+
+  /**
+   * Closes the archive opened by {@link #openIPInZipFormat(Path, Path)} that contains
+   * the IP. Does nothing if the IP is not inside an archive.
+   *
+   * @param ipPath
+   *          the IP folder
+   */
+  public static void closeIPInZipFormat(final Path ipPath) throws IOException {
+    if (ipPath != null && ipPath.getFileSystem() != FileSystems.getDefault()) {
+      ipPath.getFileSystem().close();
+    }
+  }
+
+  /**
+   * Same as {@link #closeIPInZipFormat(Path)} but adding any error to the
+   * suppressed exceptions of {@code cause}, for when the parse failed.
+   */
+  public static void closeIPInZipFormatQuietly(final Path ipPath, final Exception cause) {
+    try {
+      closeIPInZipFormat(ipPath);
+    } catch (IOException e) {
+      cause.addSuppressed(e);
+    }
+  }
+
   public static Map<String, ZipEntryInfo> addMdRefFileToZip(Map<String, ZipEntryInfo> zipEntries, Path filePath,
     String zipPath, MdRef mdRef) throws IPException {
     zipEntries.put(zipPath, new METSMdRefZipEntryInfo(zipPath, filePath, mdRef));
@@ -98,12 +191,43 @@ public final class ZIPUtils {
     return zipEntries;
   }
 
+  public static Map<String, ZipEntryInfo> addFileTypeFileToZip(Map<String, ZipEntryInfo> zipEntries, Path filePath,
+    String zipPath, FileType fileType, METSDataFileSpool dataFileSpool) throws IPException {
+    return addFileTypeFileToZip(zipEntries, filePath, zipPath, fileType, dataFileSpool, null);
+  }
+
+  public static Map<String, ZipEntryInfo> addFileTypeFileToZip(Map<String, ZipEntryInfo> zipEntries, Path filePath,
+    String zipPath, FileType fileType, METSDataFileSpool dataFileSpool, ManifestCache manifestCache)
+    throws IPException {
+    METSFileTypeZipEntryInfo entry;
+    try {
+      entry = new METSFileTypeZipEntryInfo(zipPath, filePath, fileType, dataFileSpool);
+    } catch (IOException e) {
+      throw new IPException("Error spooling METS file element of " + zipPath, e);
+    }
+    entry.setManifestCache(manifestCache);
+    zipEntries.put(zipPath, entry);
+    return zipEntries;
+  }
+
   public static Map<String, ZipEntryInfo> addMETSFileToZip(Map<String, ZipEntryInfo> zipEntries, Path filePath,
     String zipPath, Mets mets, boolean rootMETS, FileType fileType) throws IPException {
     zipEntries.put(zipPath, new METSZipEntryInfo(zipPath, filePath, mets, rootMETS, fileType));
     return zipEntries;
   }
 
+  /**
+   * Adds a representation METS whose data files are taken from the spool when
+   * it is written.
+   */
+  public static Map<String, ZipEntryInfo> addMETSFileToZip(Map<String, ZipEntryInfo> zipEntries, Path filePath,
+    String zipPath, Mets mets, FileType fileType, String dataFileGrpId, METSDataFileSpool dataFileSpool)
+    throws IPException {
+    zipEntries.put(zipPath,
+      new METSZipEntryInfo(zipPath, filePath, mets, false, fileType, dataFileGrpId, dataFileSpool));
+    return zipEntries;
+  }
+
   public static void zip(Map<String, ZipEntryInfo> files, OutputStream out, SIP sip, boolean isCompressed)
     throws IOException, InterruptedException, IPException {
     zip(files, out, sip, true, isCompressed);
@@ -131,6 +255,9 @@ public final class ZIPUtils {
       }
 
       file.setChecksum(sip.getChecksum());
+      if (file instanceof METSZipEntryInfo metsEntry) {
+        metsEntry.setChecksumAlgorithms(metsChecksumAlgorithms);
+      }
       file.prepareEntryForZipping();
 
 
@@ -144,30 +271,39 @@ public final class ZIPUtils {
 
       zos.putNextEntry(entry);
 
-      try (InputStream inputStream = Files.newInputStream(file.getFilePath());) {
+      try {
         Map<String, String> checksums;
+        long size;
+        DigestPipeline.Result staged = null;
+        String knownChecksum = null;
         if (file instanceof METSZipEntryInfo metsEntry) {
-          checksums = calculateChecksums(Optional.of(zos), inputStream, metsChecksumAlgorithms);
-          metsEntry.setChecksums(checksums);
-          metsEntry.setSize(metsEntry.getFilePath().toFile().length());
+          // the METS was digested while it was written, so it is only copied
+          staged = metsEntry.getStagedDigest(metsChecksumAlgorithms);
+        } else if (file instanceof METSFileTypeZipEntryInfo f) {
+          knownChecksum = f.getKnownChecksum(sip.getChecksum());
+        }
+
+        if (staged != null) {
+          size = digestEntry(file, Collections.emptySet(), zos, false).getSize();
+          checksums = staged.getChecksums();
+        } else if (knownChecksum != null) {
+          size = digestEntry(file, Collections.emptySet(), zos, false).getSize();
+          checksums = Collections.singletonMap(sip.getChecksum(), knownChecksum);
         } else {
-          checksums = calculateChecksums(Optional.of(zos), inputStream, nonMetsChecksumAlgorithms);
+          DigestPipeline.Result result = digestEntry(file,
+            file instanceof METSZipEntryInfo ? metsChecksumAlgorithms : nonMetsChecksumAlgorithms, zos, false);
+          size = result.getSize();
+          checksums = result.getChecksums();
         }
 
         LOGGER.debug("Done zipping file");
-        String checksum = checksums.get(sip.getChecksum());
-        String checksumType = sip.getChecksum();
-        file.setChecksum(checksum);
-        file.setChecksumAlgorithm(checksumType);
-        if (file instanceof METSFileTypeZipEntryInfo f) {
-          f.getMetsFileType().setCHECKSUM(checksum);
-          f.getMetsFileType().setCHECKSUMTYPE(checksumType);
-        } else if (file instanceof METSMdRefZipEntryInfo f) {
-          f.getMetsMdRef().setCHECKSUM(checksum);
-          f.getMetsMdRef().setCHECKSUMTYPE(checksumType);
-        }
+        setChecksums(file, checksums, size, sip.getChecksum());
       } catch (NoSuchAlgorithmException e) {
         LOGGER.error("Error while zipping files", e);
+      } finally {
+        if (file instanceof METSZipEntryInfo metsEntry) {
+          metsEntry.releaseStaged();
+        }
       }
       zos.closeEntry();
       i++;
@@ -179,36 +315,56 @@ public final class ZIPUtils {
     out.close();
   }
 
-  public static Map<String, String> calculateChecksums(Optional<ZipOutputStream> zos, InputStream inputStream,
-    Set<String> checksumAlgorithms) throws NoSuchAlgorithmException, IOException {
-    byte[] buffer = new byte[4096];
-    Map<String, String> values = new HashMap<>();
-
-    // instantiate different checksum algorithms
-    Map<String, MessageDigest> algorithms = new HashMap<>();
-    for (String alg : checksumAlgorithms) {
-      algorithms.put(alg, MessageDigest.getInstance(alg));
-    }
-
-    // calculate value for each one of the algorithms
-    int numRead;
-    do {
-      numRead = inputStream.read(buffer);
-      if (numRead > 0) {
-        for (Entry<String, MessageDigest> alg : algorithms.entrySet()) {
-          alg.getValue().update(buffer, 0, numRead);
-        }
+  /**
+   * Opens the content of an entry, which for a {@link METSZipEntryInfo} is the
+   * staged METS.
+   */
+  public static InputStream openEntryStream(ZipEntryInfo file) throws IOException {
+    if (file instanceof METSZipEntryInfo metsEntry) {
+      return metsEntry.openStagedStream();
+    }
+    return Files.newInputStream(file.getFilePath());
+  }
 
-        if (zos.isPresent()) {
-          zos.get().write(buffer, 0, numRead);
-        }
+  /**
+   * Same as {@link DigestPipeline#digest(Path, Set, OutputStream, boolean)} with
+   * the content of an entry (see {@link #openEntryStream(ZipEntryInfo)}).
+   */
+  public static DigestPipeline.Result digestEntry(ZipEntryInfo file, Set<String> checksumAlgorithms,
+    OutputStream sink, boolean computeCrc) throws NoSuchAlgorithmException, IOException {
+    if (file instanceof METSZipEntryInfo) {
+      try (InputStream inputStream = openEntryStream(file)) {
+        return DigestPipeline.digest(inputStream, checksumAlgorithms, sink, computeCrc);
       }
-    } while (numRead != -1);
+    }
+    return DigestPipeline.digest(file.getFilePath(), checksumAlgorithms, sink, computeCrc);
+  }
+
+  /**
+   * Propagates the checksums computed while zipping an entry to the entry itself
+   * and to the METS element (file or mdRef) that references it.
+   */
+  static void setChecksums(ZipEntryInfo file, Map<String, String> checksums, long size, String checksumType)
+    throws IOException {
+    if (file instanceof METSZipEntryInfo metsEntry) {
+      metsEntry.setChecksums(checksums);
+      metsEntry.setSize(size);
+    }
 
-    // generate hex versions of the digests
-    algorithms.forEach((alg, dig) -> values.put(alg, DatatypeConverter.printHexBinary(dig.digest())));
+    String checksum = checksums.get(checksumType);
+    file.setChecksum(checksum);
+    file.setChecksumAlgorithm(checksumType);
+    if (file instanceof METSFileTypeZipEntryInfo f) {
+      f.setMetsFileTypeChecksum(checksum, checksumType);
+    } else if (file instanceof METSMdRefZipEntryInfo f) {
+      f.getMetsMdRef().setCHECKSUM(checksum);
+      f.getMetsMdRef().setCHECKSUMTYPE(checksumType);
+    }
+  }
 
-    return values;
+  public static Map<String, String> calculateChecksums(Optional<ZipOutputStream> zos, InputStream inputStream,
+    Set<String> checksumAlgorithms) throws NoSuchAlgorithmException, IOException {
+    return DigestPipeline.digest(inputStream, checksumAlgorithms, zos.orElse(null), false).getChecksums();
   }
 
   public static void unzip(Path zip, final Path dest) throws IOException {
@@ -0,0 +1,234 @@
+package org.roda_project.commons_ip2.validator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.roda_project.commons_ip2.validator.constants.Constants;
+import org.roda_project.commons_ip2.validator.reporter.ValidationReportOutputJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Validates many Information Packages, several at the same time, writing one
+ * report per package.
+ * <p>
+ * The {@link ValidatorPipeline}s are kept between packages, so the components
+ * and their controlled vocabularies are only created once per worker thread,
+ * and the checksums of all the packages are verified on the same
+ * {@link ExecutorService}. Packages can be submitted as they arrive, until the
+ * validator is closed.
+ * </p>
+ */
+public class BatchValidator implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchValidator.class);
+
+  /**
+   * The E-ARK CSIP version.
+   */
+  private final String version;
+  /**
+   * {@link ExecutorService} where the packages are validated.
+   */
+  private final ExecutorService packageExecutor;
+  /**
+   * {@link ExecutorService} where the file checksums are verified.
+   */
+  private final ExecutorService checksumExecutor;
+  /**
+   * The {@link ValidatorPipeline}s not in use.
+   */
+  private final BlockingQueue<ValidatorPipeline> pipelines = new LinkedBlockingQueue<>();
+  /**
+   * Number of representation METS files of a package validated concurrently.
+   */
+  private int subMetsThreads = 1;
+
+  /**
+   * Creates a batch validator.
+   *
+   * @param version
+   *          the E-ARK CSIP version
+   * @param parallelism
+   *          the number of packages validated at the same time
+   */
+  public BatchValidator(final String version, final int parallelism) {
+    this.version = version;
+    this.packageExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+    this.checksumExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Set the number of representation METS files of each package validated
+   * concurrently (see {@link EARKSIPValidator#setSubMetsThreads(int)}).
+   *
+   * @param subMetsThreads
+   *          the number of threads
+   */
+  public void setSubMetsThreads(final int subMetsThreads) {
+    this.subMetsThreads = Math.max(1, subMetsThreads);
+  }
+
+  /**
+   * Submits an Information Package to validation.
+   *
+   * @param sipPath
+   *          the {@link Path} to the Information Package
+   * @param reportPath
+   *          the {@link Path} where the report is written
+   * @return the {@link Future} {@link Outcome}, that never completes
+   *         exceptionally
+   */
+  public Future<Outcome> submit(final Path sipPath, final Path reportPath) {
+    return packageExecutor.submit(() -> validate(sipPath, reportPath));
+  }
+
+  private Outcome validate(final Path sipPath, final Path reportPath) {
+    ValidatorPipeline pipeline = pipelines.poll();
+    try {
+      if (pipeline == null) {
+        pipeline = new ValidatorPipeline(version);
+      }
+      try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(reportPath))) {
+        final ValidationReportOutputJson reporter = new ValidationReportOutputJson(sipPath, outputStream);
+        final EARKSIPValidator validator = new EARKSIPValidator(reporter, pipeline);
+        validator.setChecksumExecutor(checksumExecutor);
+        validator.setSubMetsThreads(subMetsThreads);
+        return new Outcome(sipPath, reportPath, validator.validate(version), null);
+      }
+    } catch (IOException | ParserConfigurationException | SAXException | RuntimeException e) {
+      LOGGER.error("Failed to validate {}", sipPath, e);
+      return new Outcome(sipPath, reportPath, false, e.getMessage() != null ? e.getMessage() : e.toString());
+    } finally {
+      if (pipeline != null) {
+        pipelines.add(pipeline);
+      }
+    }
+  }
+
+  /**
+   * Writes the summary of a batch of validations as JSON.
+   *
+   * @param outcomes
+   *          the {@link List} of {@link Outcome}
+   * @param outputStream
+   *          the {@link OutputStream}, not closed
+   * @throws IOException
+   *           if some I/O error occurs.
+   */
+  public static void writeSummary(final List<Outcome> outcomes, final OutputStream outputStream)
+    throws IOException {
+    int valid = 0;
+    int failed = 0;
+    for (Outcome outcome : outcomes) {
+      if (outcome.getError() != null) {
+        failed++;
+      } else if (outcome.isValid()) {
+        valid++;
+      }
+    }
+    final JsonGenerator jsonGenerator = new JsonFactory().createGenerator(outputStream, JsonEncoding.UTF8)
+      .useDefaultPrettyPrinter();
+    jsonGenerator.writeStartObject();
+    jsonGenerator.writeNumberField(Constants.VALIDATION_BATCH_SUMMARY_KEY_TOTAL, outcomes.size());
+    jsonGenerator.writeNumberField(Constants.VALIDATION_BATCH_SUMMARY_KEY_VALID, valid);
+    jsonGenerator.writeNumberField(Constants.VALIDATION_BATCH_SUMMARY_KEY_INVALID,
+      outcomes.size() - valid - failed);
+    jsonGenerator.writeNumberField(Constants.VALIDATION_BATCH_SUMMARY_KEY_FAILED, failed);
+    jsonGenerator.writeFieldName(Constants.VALIDATION_BATCH_SUMMARY_KEY_PACKAGES);
+    jsonGenerator.writeStartArray();
+    for (Outcome outcome : outcomes) {
+      jsonGenerator.writeStartObject();
+      jsonGenerator.writeStringField(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_PATH,
+        outcome.getSipPath().toString());
+      jsonGenerator.writeStringField(Constants.VALIDATION_BATCH_SUMMARY_KEY_REPORT,
+        outcome.getReportPath().toString());
+      jsonGenerator.writeBooleanField(Constants.VALIDATION_BATCH_SUMMARY_KEY_VALID, outcome.isValid());
+      if (outcome.getError() != null) {
+        jsonGenerator.writeStringField(Constants.VALIDATION_BATCH_SUMMARY_KEY_ERROR, outcome.getError());
+      }
+      jsonGenerator.writeEndObject();
+    }
+    jsonGenerator.writeEndArray();
+    jsonGenerator.writeEndObject();
+    jsonGenerator.flush();
+  }
+
+  /**
+   * Stops accepting packages and waits for the submitted ones to be validated.
+   */
+  @Override
+  public void close() {
+    packageExecutor.shutdown();
+    try {
+      while (!packageExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOGGER.debug("Waiting for the validation of the submitted packages");
+      }
+    } catch (InterruptedException e) {
+      packageExecutor.shutdownNow();
+      Thread.currentThread().interrupt();
+    } finally {
+      checksumExecutor.shutdownNow();
+      pipelines.clear();
+    }
+  }
+
+  /**
+   * The outcome of the validation of an Information Package.
+   */
+  public static final class Outcome {
+    private final Path sipPath;
+    private final Path reportPath;
+    private final boolean valid;
+    private final String error;
+
+    Outcome(final Path sipPath, final Path reportPath, final boolean valid, final String error) {
+      this.sipPath = sipPath;
+      this.reportPath = reportPath;
+      this.valid = valid;
+      this.error = error;
+    }
+
+    public Path getSipPath() {
+      return sipPath;
+    }
+
+    public Path getReportPath() {
+      return reportPath;
+    }
+
+    /**
+     * Check if the Information Package is valid.
+     *
+     * @return if it is valid, {@code false} if it could not be validated
+     */
+    public boolean isValid() {
+      return valid;
+    }
+
+    /**
+     * Get the error that prevented the validation.
+     *
+     * @return the message or {@code null} if the package was validated
+     */
+    public String getError() {
+      return error;
+    }
+  }
+}
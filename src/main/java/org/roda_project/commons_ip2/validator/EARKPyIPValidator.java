@@ -2,17 +2,24 @@ package org.roda_project.commons_ip2.validator;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.roda_project.commons_ip2.cli.model.exception.UnmarshallerException;
 import org.roda_project.commons_ip2.validator.common.InstatiateMets;
+import org.roda_project.commons_ip2.validator.common.MetsStreamSupplier;
 import org.roda_project.commons_ip2.validator.components.MetsValidator;
 import org.roda_project.commons_ip2.validator.components.StructureValidatorImpl;
 import org.roda_project.commons_ip2.validator.components.administritiveMetadataComponent.AdministritiveMetadataComponentValidator204;
@@ -38,10 +45,12 @@ import org.roda_project.commons_ip2.validator.components.structuralMapComponent.
 import org.roda_project.commons_ip2.validator.components.structuralMapComponent.StructuralMapComponentValidator210;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.constants.ConstantsCSIPspec;
+import org.roda_project.commons_ip2.validator.model.pyip.ChecksumAlg;
 import org.roda_project.commons_ip2.validator.model.pyip.IpType;
 import org.roda_project.commons_ip2.validator.observer.ValidationObserver;
 import org.roda_project.commons_ip2.validator.reporter.ReporterDetails;
 import org.roda_project.commons_ip2.validator.reporter.ValidationReportOutputJSONPyIP;
+import org.roda_project.commons_ip2.validator.reporter.pyipUtils.InformationPackageUtils;
 import org.roda_project.commons_ip2.validator.state.MetsValidatorState;
 import org.roda_project.commons_ip2.validator.state.StructureValidatorState;
 import org.roda_project.commons_ip2.validator.utils.ResultsUtils;
@@ -87,6 +96,11 @@ public class EARKPyIPValidator {
    */
   private final MetsValidatorState metsValidatorState;
 
+  /**
+   * Flag if the checksum of the IP file is calculated for the report.
+   */
+  private boolean packageChecksumEnabled = true;
+
   /**
    * Initializes Validation Objects.
    *
@@ -156,6 +170,18 @@ public class EARKPyIPValidator {
     sipComponents.forEach(c -> c.removeObserver(observer));
   }
 
+  /**
+   * Set if the checksum of the IP file is calculated for the report. It is
+   * calculated by default, on a background thread while the IP is validated;
+   * when disabled the report has an empty checksum.
+   *
+   * @param packageChecksumEnabled
+   *          flag if the checksum is calculated
+   */
+  public void setPackageChecksumEnabled(final boolean packageChecksumEnabled) {
+    this.packageChecksumEnabled = packageChecksumEnabled;
+  }
+
   /**
    * Validates the Information Package.
    *
@@ -166,6 +192,16 @@ public class EARKPyIPValidator {
    *           if some error occurs in Checksum Calculation.
    */
   public boolean validate() throws IOException, NoSuchAlgorithmException {
+    final Future<String> packageChecksum = startPackageChecksum();
+    try {
+      return validate(packageChecksum);
+    } finally {
+      // stops reading the IP if the validation failed before waiting for it
+      packageChecksum.cancel(true);
+    }
+  }
+
+  private boolean validate(final Future<String> packageChecksum) throws IOException, NoSuchAlgorithmException {
     structureComponent.notifyObserversIPValidationStarted();
     try {
       final Map<String, ReporterDetails> structureValidationResults = structureComponent
@@ -173,7 +209,7 @@ public class EARKPyIPValidator {
       validationReportOutputJSONPyIP.getResults().putAll(structureValidationResults);
 
       if (validationReportOutputJSONPyIP.validFileComponent()) {
-        final Map<String, InputStream> subMets;
+        final Map<String, MetsStreamSupplier> subMets;
         if (structureValidatorState.isZipFileFlag()) {
           metsValidatorState.setMetsFiles(structureValidatorState.getZipManager().getFiles(earksipPath));
           subMets = structureValidatorState.getZipManager().getSubMets(earksipPath);
@@ -221,14 +257,61 @@ public class EARKPyIPValidator {
       csipStr0.setSpecification(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION);
       validationReportOutputJSONPyIP.getResults().put(ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP0_ID,
         csipStr0);
+    } finally {
+      structureValidatorState.getZipManager().closeZipFile();
     }
 
+    validationReportOutputJSONPyIP.setPackageChecksum(getPackageChecksum(packageChecksum));
     validationReportOutputJSONPyIP
       .setIpType(metsValidatorState.getIpType() != null ? metsValidatorState.getIpType() : IpType.CSIP.toString());
     validationReportOutputJSONPyIP.writeReport();
     return validationReportOutputJSONPyIP.isValid();
   }
 
+  /**
+   * Starts calculating the checksum of the IP file, for the report, on a
+   * background thread so that it overlaps with the validation instead of
+   * reading the whole IP again at the end. The caller cancels it once done.
+   *
+   * @return the {@link Future} checksum, empty if it is not calculated
+   */
+  private Future<String> startPackageChecksum() {
+    if (!packageChecksumEnabled || !Files.isRegularFile(earksipPath)) {
+      return CompletableFuture.completedFuture("");
+    }
+    final FutureTask<String> task = new FutureTask<>(
+      () -> InformationPackageUtils.calculatePackageChecksum(earksipPath, ChecksumAlg.SHA1.toString()));
+    final Thread thread = new Thread(task, "package-checksum");
+    thread.setDaemon(true);
+    thread.start();
+    return task;
+  }
+
+  /**
+   * Waits for the checksum of the IP file.
+   *
+   * @throws IOException
+   *           if some I/O error occurs.
+   * @throws NoSuchAlgorithmException
+   *           if the Cryptographic algorithm is not available
+   */
+  private String getPackageChecksum(final Future<String> packageChecksum)
+    throws IOException, NoSuchAlgorithmException {
+    try {
+      return packageChecksum.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while calculating the checksum of " + earksipPath);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioException) {
+        throw ioException;
+      } else if (e.getCause() instanceof NoSuchAlgorithmException noSuchAlgorithmException) {
+        throw noSuchAlgorithmException;
+      }
+      throw new IOException("Error calculating the checksum of " + earksipPath, e.getCause());
+    }
+  }
+
   /**
    * Iterate over all Components and merge all results.
    *
@@ -248,7 +331,8 @@ public class EARKPyIPValidator {
    * Validate METS files inside representations.
    *
    * @param subMets
-   *          the {@link Map} with path to sub METS and InputStream of file.
+   *          the {@link Map} with path to sub METS and the supplier of its
+   *          InputStream.
    * @param isZip
    *          flag if the Information Package is in compact format or if it is a
    *          folder.
@@ -259,11 +343,15 @@ public class EARKPyIPValidator {
    * @throws SAXException
    *           If some error occurs
    */
-  private void validateSubMets(final Map<String, InputStream> subMets, final boolean isZip)
+  private void validateSubMets(final Map<String, MetsStreamSupplier> subMets, final boolean isZip)
     throws IOException, UnmarshallerException {
-    for (Map.Entry<String, InputStream> entry : subMets.entrySet()) {
-      final InstatiateMets instatiateMets = new InstatiateMets(entry.getValue());
-      metsValidatorState.setMets(instatiateMets.instatiateMetsFile(entry.getKey()));
+    for (Map.Entry<String, MetsStreamSupplier> entry : subMets.entrySet()) {
+      final InstatiateMets instatiateMets;
+      try (InputStream stream = entry.getValue().open()) {
+        instatiateMets = new InstatiateMets(stream);
+        metsValidatorState.setMets(instatiateMets.instatiateMetsFile(entry.getKey()));
+      }
+      metsValidatorState.setXlinkIndex(instatiateMets.getXlinkIndex());
       metsValidatorState.setIpType(metsValidatorState.getMets().getMetsHdr().getOAISPACKAGETYPE());
       setupMetsValidatorState(entry.getKey(), isZip, false);
       validateComponents();
@@ -294,6 +382,7 @@ public class EARKPyIPValidator {
     metsValidatorState.setMetsName(ipPath);
     metsValidatorState.setIsRootMets(true);
     metsValidatorState.setMets(metsRoot.instatiateMetsFile(Constants.METS_FILE));
+    metsValidatorState.setXlinkIndex(metsRoot.getXlinkIndex());
     validateComponents();
   }
 
@@ -7,46 +7,31 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
 
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.roda_project.commons_ip2.cli.model.exception.UnmarshallerException;
+import org.roda_project.commons_ip2.validator.common.ChecksumVerificationStage;
 import org.roda_project.commons_ip2.validator.common.InstatiateMets;
+import org.roda_project.commons_ip2.validator.common.MetsStreamSupplier;
 import org.roda_project.commons_ip2.validator.components.MetsValidator;
 import org.roda_project.commons_ip2.validator.components.StructureValidatorImpl;
-import org.roda_project.commons_ip2.validator.components.administritiveMetadataComponent.AdministritiveMetadataComponentValidator204;
-import org.roda_project.commons_ip2.validator.components.administritiveMetadataComponent.AdministritiveMetadataComponentValidator210;
-import org.roda_project.commons_ip2.validator.components.administritiveMetadataComponent.AdministritiveMetadataComponentValidator220;
 import org.roda_project.commons_ip2.validator.components.aipFileSectionComponent.AipFileSectionComponent204;
 import org.roda_project.commons_ip2.validator.components.aipFileSectionComponent.AipFileSectionComponent210;
 import org.roda_project.commons_ip2.validator.components.aipFileSectionComponent.AipFileSectionComponent220;
-import org.roda_project.commons_ip2.validator.components.descriptiveMetadataComponent.DescriptiveMetadataComponentValidator204;
-import org.roda_project.commons_ip2.validator.components.descriptiveMetadataComponent.DescriptiveMetadataComponentValidator210;
-import org.roda_project.commons_ip2.validator.components.descriptiveMetadataComponent.DescriptiveMetadataComponentValidator220;
-import org.roda_project.commons_ip2.validator.components.fileComponent.StructureComponentValidator204;
-import org.roda_project.commons_ip2.validator.components.fileComponent.StructureComponentValidator210;
-import org.roda_project.commons_ip2.validator.components.fileComponent.StructureComponentValidator220;
-import org.roda_project.commons_ip2.validator.components.fileSectionComponent.FileSectionComponentValidator204;
-import org.roda_project.commons_ip2.validator.components.fileSectionComponent.FileSectionComponentValidator210;
-import org.roda_project.commons_ip2.validator.components.fileSectionComponent.FileSectionComponentValidator220;
-import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsHeaderValidator.MetsHeaderComponentValidator204;
-import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsHeaderValidator.MetsHeaderComponentValidator210;
-import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsHeaderValidator.MetsHeaderComponentValidator220;
-import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsValidator.MetsComponentValidator204;
-import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsValidator.MetsComponentValidator210;
-import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsValidator.MetsComponentValidator220;
 import org.roda_project.commons_ip2.validator.components.sipFileSectionComponent.SipFileSectionComponent204;
 import org.roda_project.commons_ip2.validator.components.sipFileSectionComponent.SipFileSectionComponent210;
 import org.roda_project.commons_ip2.validator.components.sipFileSectionComponent.SipFileSectionComponent220;
-import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsComponent.SipMetsComponent204;
-import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsComponent.SipMetsComponent210;
-import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsComponent.SipMetsComponent220;
 import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsHdrComponent.SipMetsHdrComponent204;
 import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsHdrComponent.SipMetsHdrComponent210;
 import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsHdrComponent.SipMetsHdrComponent220;
-import org.roda_project.commons_ip2.validator.components.structuralMapComponent.StructuralMapComponentValidator204;
-import org.roda_project.commons_ip2.validator.components.structuralMapComponent.StructuralMapComponentValidator210;
-import org.roda_project.commons_ip2.validator.components.structuralMapComponent.StructuralMapComponentValidator220;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.constants.ConstantsCSIPspec;
 import org.roda_project.commons_ip2.validator.observer.ValidationObserver;
@@ -82,15 +67,15 @@ public class EARKSIPValidator {
   /**
    * List of CSIP components to validate.
    */
-  private final List<MetsValidator> csipComponents = new ArrayList<>();
+  private final List<MetsValidator> csipComponents;
   /**
    * List of SIP components to validate.
    */
-  private final List<MetsValidator> sipComponents = new ArrayList<>();
+  private final List<MetsValidator> sipComponents;
   /**
    * List of AIP components to validate.
    */
-  private final List<MetsValidator> aipComponents = new ArrayList<>();
+  private final List<MetsValidator> aipComponents;
   /**
    * The contextual mets state {@link MetsValidatorState}.
    */
@@ -98,6 +83,32 @@ public class EARKSIPValidator {
 
   private final String version;
 
+  /**
+   * {@link ExecutorService} where file checksums are verified. When not set, a
+   * pool sized to the available processors is created for each validation, the
+   * first time a checksum is verified.
+   */
+  private ExecutorService checksumExecutor = null;
+
+  /**
+   * The pool created by this validator when no {@link #checksumExecutor} is
+   * set, shut down at the end of each validation.
+   */
+  private ExecutorService ownChecksumExecutor = null;
+
+  /**
+   * Number of representation METS files validated concurrently. With 1 (the
+   * default) they are validated one after the other.
+   */
+  private int subMetsThreads = 1;
+
+  /**
+   * {@link ValidationObserver}s, added to the components only while
+   * {@link #validate(String)} runs, so components shared through a
+   * {@link ValidatorPipeline} do not keep them after the package is done.
+   */
+  private final List<ValidationObserver> observers = new ArrayList<>();
+
   /**
    * Initializes Validation Objects.
    *
@@ -112,40 +123,35 @@ public class EARKSIPValidator {
    */
   public EARKSIPValidator(final ValidationReportOutputJson reportOutputJson, String version)
     throws IOException, ParserConfigurationException, SAXException {
+    this(reportOutputJson, new ValidatorPipeline(version));
+  }
+
+  /**
+   * Initializes Validation Objects with the components of an existing
+   * {@link ValidatorPipeline}, so that they are not created again for each
+   * Information Package.
+   *
+   * @param reportOutputJson
+   *          the {@link ValidationReportOutputJson}
+   * @param pipeline
+   *          the {@link ValidatorPipeline}, not used by any other validation
+   *          while this one runs
+   */
+  public EARKSIPValidator(final ValidationReportOutputJson reportOutputJson, final ValidatorPipeline pipeline) {
 
     this.earksipPath = reportOutputJson.getSipPath().toAbsolutePath().normalize();
 
     this.validationReportOutputJson = reportOutputJson;
 
-    this.version = version;
+    this.version = pipeline.getVersion();
 
     this.structureValidatorState = new StructureValidatorState(
       reportOutputJson.getSipPath().toAbsolutePath().normalize());
-    if (version.equals("2.1.0")) {
-      this.structureComponent = new StructureComponentValidator210();
-    } else if (version.equals("2.0.4")) {
-      this.structureComponent = new StructureComponentValidator204();
-    } else {
-      this.structureComponent = new StructureComponentValidator220();
-    }
+    this.structureComponent = pipeline.getStructureComponent();
+    this.csipComponents = pipeline.getCsipComponents();
+    this.sipComponents = pipeline.getSipComponents();
+    this.aipComponents = pipeline.getAipComponents();
     this.metsValidatorState = new MetsValidatorState();
-    setupComponents(version);
-  }
-
-  /**
-   * Setup Validation Components.
-   *
-   * @throws IOException
-   *           if some I/O error occurs.
-   * @throws ParserConfigurationException
-   *           if some error occur.
-   * @throws SAXException
-   *           if some error occur.
-   */
-  private void setupComponents(String version) throws IOException, ParserConfigurationException, SAXException {
-    this.csipComponents.addAll(getComponentsForVersion(version, "csipComponents"));
-    this.sipComponents.addAll(getComponentsForVersion(version, "sipComponents"));
-    this.aipComponents.addAll(getComponentsForVersion(version, "aipComponents"));
   }
 
   /**
@@ -155,9 +161,7 @@ public class EARKSIPValidator {
    *          the {@link ValidationObserver}
    */
   public void addObserver(final ValidationObserver observer) {
-    structureComponent.addObserver(observer);
-    csipComponents.forEach(c -> c.addObserver(observer));
-    sipComponents.forEach(c -> c.addObserver(observer));
+    observers.add(observer);
   }
 
   /**
@@ -167,9 +171,34 @@ public class EARKSIPValidator {
    *          the {@link ValidationObserver}
    */
   public void removeObserver(final ValidationObserver observer) {
-    structureComponent.removeObserver(observer);
-    csipComponents.forEach(c -> c.removeObserver(observer));
-    sipComponents.forEach(c -> c.removeObserver(observer));
+    observers.remove(observer);
+  }
+
+  /**
+   * Set the {@link ExecutorService} where file checksums are verified. The
+   * executor is not shut down by the validator.
+   *
+   * @param checksumExecutor
+   *          the {@link ExecutorService}
+   */
+  public void setChecksumExecutor(final ExecutorService checksumExecutor) {
+    this.checksumExecutor = checksumExecutor;
+  }
+
+  /**
+   * Set the number of representation METS files validated concurrently.
+   * <p>
+   * Each representation METS is validated on its own {@link MetsValidatorState}
+   * with its own CSIP components. The results are merged, and the SIP/AIP
+   * specific components run, in the same order as in a sequential validation,
+   * so the report is the same. Observers are notified from the worker threads.
+   * </p>
+   *
+   * @param subMetsThreads
+   *          the number of threads, 1 to validate them sequentially
+   */
+  public void setSubMetsThreads(final int subMetsThreads) {
+    this.subMetsThreads = Math.max(1, subMetsThreads);
   }
 
   /**
@@ -180,13 +209,58 @@ public class EARKSIPValidator {
    *           if some I/O error occurs.
    */
   public boolean validate(String version) throws IOException {
+    observers.forEach(this::attachObserver);
+    try {
+      return validateIP(version);
+    } finally {
+      observers.forEach(this::detachObserver);
+      structureValidatorState.getZipManager().closeZipFile();
+      shutdownOwnChecksumExecutor();
+    }
+  }
+
+  private void attachObserver(final ValidationObserver observer) {
+    structureComponent.addObserver(observer);
+    csipComponents.forEach(c -> c.addObserver(observer));
+    sipComponents.forEach(c -> c.addObserver(observer));
+  }
+
+  private void detachObserver(final ValidationObserver observer) {
+    structureComponent.removeObserver(observer);
+    csipComponents.forEach(c -> c.removeObserver(observer));
+    sipComponents.forEach(c -> c.removeObserver(observer));
+  }
+
+  /**
+   * Gets the {@link ExecutorService} where file checksums are verified,
+   * creating a pool if none was set. Called from the representation METS
+   * workers too.
+   */
+  private synchronized ExecutorService getChecksumExecutor() {
+    if (checksumExecutor != null) {
+      return checksumExecutor;
+    }
+    if (ownChecksumExecutor == null) {
+      ownChecksumExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+    return ownChecksumExecutor;
+  }
+
+  private synchronized void shutdownOwnChecksumExecutor() {
+    if (ownChecksumExecutor != null) {
+      ownChecksumExecutor.shutdownNow();
+      ownChecksumExecutor = null;
+    }
+  }
+
+  private boolean validateIP(String version) throws IOException {
     structureComponent.notifyObserversIPValidationStarted();
     final Map<String, ReporterDetails> structureValidationResults = structureComponent
       .validate(structureValidatorState);
     validationReportOutputJson.getResults().putAll(structureValidationResults);
 
     if (validationReportOutputJson.validFileComponent()) {
-      final Map<String, InputStream> subMets;
+      final Map<String, MetsStreamSupplier> subMets;
       if (structureValidatorState.isZipFileFlag()) {
         metsValidatorState.setMetsFiles(structureValidatorState.getZipManager().getFiles(earksipPath));
         subMets = structureValidatorState.getZipManager().getSubMets(earksipPath);
@@ -195,7 +269,9 @@ public class EARKSIPValidator {
         subMets = structureValidatorState.getFolderManager().getSubMets(earksipPath);
       }
 
-      if (!subMets.isEmpty()) {
+      if (subMetsThreads > 1 && subMets.size() > 1) {
+        validateSubMetsConcurrently(subMets, structureValidatorState.isZipFileFlag());
+      } else if (!subMets.isEmpty()) {
         validateSubMets(subMets, structureValidatorState.isZipFileFlag());
       }
       validateRootMets();
@@ -221,44 +297,204 @@ public class EARKSIPValidator {
    *           if some I/O error occurs.
    */
   private void validateComponents() throws IOException {
-    for (MetsValidator component : csipComponents) {
-      final Map<String, ReporterDetails> componentResults = component.validate(structureValidatorState,
-        metsValidatorState);
-      ResultsUtils.mergeResults(validationReportOutputJson.getResults(), componentResults);
+    validateCsipComponents(metsValidatorState, csipComponents,
+      componentResults -> ResultsUtils.mergeResults(validationReportOutputJson.getResults(), componentResults));
+    validateIpTypeExtendedComponents(metsValidatorState);
+  }
+
+  /**
+   * Runs the CSIP components over the given METS state, handing the results of
+   * each component to the given consumer as soon as it finishes.
+   *
+   * @throws IOException
+   *           if some I/O error occurs.
+   */
+  private void validateCsipComponents(final MetsValidatorState state, final List<MetsValidator> components,
+    final Consumer<Map<String, ReporterDetails>> resultsConsumer) throws IOException {
+    verifyChecksums(state);
+    for (MetsValidator component : components) {
+      resultsConsumer.accept(component.validate(structureValidatorState, state));
+    }
+    state.flushEntries();
+    state.setChecksumResults(null);
+  }
+
+  /**
+   * Verifies concurrently the checksums of the files referenced in the file
+   * section of the given METS, ahead of the rule evaluation.
+   */
+  private void verifyChecksums(final MetsValidatorState state) {
+    state.setChecksumResults(null);
+    if (Boolean.parseBoolean(System.getProperty("skipChecksumCalculation", "false"))) {
+      return;
+    }
+    try {
+      state.setChecksumResults(
+        new ChecksumVerificationStage(structureValidatorState, this::getChecksumExecutor).verify(state));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     }
-    metsValidatorState.flushEntries();
-    validateIpTypeExtendedComponents();
   }
 
   /**
    * Validate METS files inside representations.
    *
    * @param subMets
-   *          the {@link Map } with path to sub METS and InputStream of file.
+   *          the {@link Map } with path to sub METS and the supplier of its
+   *          InputStream.
    * @param isZip
    *          flag if the Information Package is in compact format or if it is a
    *          folder.
    */
-  private void validateSubMets(final Map<String, InputStream> subMets, final boolean isZip) {
-    for (Map.Entry<String, InputStream> entry : subMets.entrySet()) {
-
-      final InstatiateMets instatiateMets = new InstatiateMets(entry.getValue());
+  private void validateSubMets(final Map<String, MetsStreamSupplier> subMets, final boolean isZip) {
+    for (Map.Entry<String, MetsStreamSupplier> entry : subMets.entrySet()) {
       try {
-        metsValidatorState.setMets(instatiateMets.instatiateMetsFile(entry.getKey()));
+        final InstatiateMets instatiateMets;
+        try (InputStream stream = entry.getValue().open()) {
+          instatiateMets = new InstatiateMets(stream);
+          metsValidatorState.setMets(instatiateMets.instatiateMetsFile(entry.getKey()));
+        }
+        metsValidatorState.setXlinkIndex(instatiateMets.getXlinkIndex());
         metsValidatorState.setIpType(metsValidatorState.getMets().getMetsHdr().getOAISPACKAGETYPE());
-        setupMetsValidatorState(entry.getKey(), isZip, false);
+        setupMetsValidatorState(metsValidatorState, entry.getKey(), isZip, false);
         validateComponents();
       } catch (IOException | UnmarshallerException e) {
-        final String message = createExceptionMessage(e, entry.getKey());
-        final ReporterDetails csipStr0 = new ReporterDetails(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION, message,
-          false, false);
-        csipStr0.setSpecification(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION);
         ResultsUtils.addResult(validationReportOutputJson.getResults(),
-          ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP0_ID, csipStr0);
+          ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP0_ID, createSubMetsError(e, entry.getKey()));
+      }
+    }
+  }
+
+  /**
+   * Validate METS files inside representations concurrently.
+   * <p>
+   * The CSIP components of each METS run on a worker thread, over a
+   * {@link MetsValidatorState} of its own. Their results are then merged, and
+   * the SIP/AIP components run, one METS at a time in the order of the given
+   * {@link Map}, as the SIP/AIP components depend on the results merged so far.
+   * </p>
+   *
+   * @param subMets
+   *          the {@link Map } with path to sub METS and the supplier of its
+   *          InputStream.
+   * @param isZip
+   *          flag if the Information Package is in compact format or if it is a
+   *          folder.
+   * @throws IOException
+   *           if the components could not be created or the validation was
+   *           interrupted.
+   */
+  private void validateSubMetsConcurrently(final Map<String, MetsStreamSupplier> subMets, final boolean isZip)
+    throws IOException {
+    final int threads = Math.min(subMetsThreads, subMets.size());
+    final BlockingQueue<List<MetsValidator>> componentsPool = new LinkedBlockingQueue<>();
+    try {
+      for (int i = 0; i < threads; i++) {
+        final List<MetsValidator> components = ValidatorPipeline.createComponents(version, "csipComponents");
+        observers.forEach(observer -> components.forEach(c -> c.addObserver(observer)));
+        componentsPool.add(components);
       }
+    } catch (ParserConfigurationException | SAXException e) {
+      throw new IOException("Unable to create the validation components", e);
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<SubMetsValidation>> futures = new ArrayList<>();
+      for (Map.Entry<String, MetsStreamSupplier> entry : subMets.entrySet()) {
+        futures.add(executor.submit(() -> {
+          final List<MetsValidator> components = componentsPool.take();
+          try {
+            return validateSubMetsCsip(entry.getKey(), entry.getValue(), isZip, components);
+          } finally {
+            componentsPool.add(components);
+          }
+        }));
+      }
+
+      for (Future<SubMetsValidation> future : futures) {
+        mergeSubMetsValidation(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while validating representation METS files", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      executor.shutdownNow();
     }
   }
 
+  /**
+   * Unmarshals a representation METS and runs the CSIP components over it.
+   *
+   * @return the {@link SubMetsValidation}
+   */
+  private SubMetsValidation validateSubMetsCsip(final String key, final MetsStreamSupplier metsStream,
+    final boolean isZip, final List<MetsValidator> components) {
+    final MetsValidatorState state = new MetsValidatorState();
+    state.setMetsFiles(metsValidatorState.getMetsFiles());
+    final SubMetsValidation validation = new SubMetsValidation(key, state);
+    try {
+      final InstatiateMets instatiateMets;
+      try (InputStream stream = metsStream.open()) {
+        instatiateMets = new InstatiateMets(stream);
+        state.setMets(instatiateMets.instatiateMetsFile(key));
+      }
+      state.setXlinkIndex(instatiateMets.getXlinkIndex());
+      state.setIpType(state.getMets().getMetsHdr().getOAISPACKAGETYPE());
+      setupMetsValidatorState(state, key, isZip, false);
+      validateCsipComponents(state, components, validation.componentResults::add);
+    } catch (IOException | UnmarshallerException e) {
+      validation.error = createSubMetsError(e, key);
+    }
+    return validation;
+  }
+
+  /**
+   * Merges the outcome of a representation METS validated concurrently into
+   * the report and runs the SIP/AIP components over it.
+   */
+  private void mergeSubMetsValidation(final SubMetsValidation validation) {
+    final Map<String, ReporterDetails> results = validationReportOutputJson.getResults();
+    validation.componentResults.forEach(componentResults -> ResultsUtils.mergeResults(results, componentResults));
+    if (validation.state.getMets() != null) {
+      // as in a sequential validation, the last METS read is kept
+      metsValidatorState.setMets(validation.state.getMets());
+      metsValidatorState.setIpType(validation.state.getIpType());
+    }
+    if (validation.error == null) {
+      try {
+        validateIpTypeExtendedComponents(validation.state);
+      } catch (IOException e) {
+        validation.error = createSubMetsError(e, validation.key);
+      }
+    }
+    if (validation.error != null) {
+      ResultsUtils.addResult(results, ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP0_ID, validation.error);
+    }
+  }
+
+  /**
+   * Creates the CSIP0 result reporting an error on a representation METS.
+   *
+   * @param e
+   *          the {@link Exception}
+   * @param mets
+   *          the path to METS file
+   * @return the {@link ReporterDetails}
+   */
+  private ReporterDetails createSubMetsError(final Exception e, final String mets) {
+    final String message = createExceptionMessage(e, mets);
+    final ReporterDetails csipStr0 = new ReporterDetails(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION, message,
+      false, false);
+    csipStr0.setSpecification(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION);
+    return csipStr0;
+  }
+
   /**
    * Creates Message for Exception.
    *
@@ -319,6 +555,7 @@ public class EARKSIPValidator {
       metsValidatorState.setIsRootMets(true);
 
       metsValidatorState.setMets(metsRoot.instatiateMetsFile(Constants.METS_FILE));
+      metsValidatorState.setXlinkIndex(metsRoot.getXlinkIndex());
       metsValidatorState.setIpType(metsValidatorState.getMets().getMetsHdr().getOAISPACKAGETYPE());
       validateComponents();
     } catch (IOException | UnmarshallerException e) {
@@ -335,6 +572,8 @@ public class EARKSIPValidator {
   /**
    * Setup State of METS.
    *
+   * @param state
+   *          the {@link MetsValidatorState} to setup
    * @param key
    *          the METS file path
    * @param isZip
@@ -342,9 +581,10 @@ public class EARKSIPValidator {
    * @param isRootMets
    *          Flag if METS file is root or representation METS
    */
-  private void setupMetsValidatorState(final String key, final boolean isZip, final boolean isRootMets) {
-    this.metsValidatorState.setMetsName(key);
-    this.metsValidatorState.setIsRootMets(isRootMets);
+  private void setupMetsValidatorState(final MetsValidatorState state, final String key, final boolean isZip,
+    final boolean isRootMets) {
+    state.setMetsName(key);
+    state.setIsRootMets(isRootMets);
     if (isZip) {
       final StringBuilder metsPath = new StringBuilder();
       for (String path : key.split(Constants.SEPARATOR)) {
@@ -352,9 +592,9 @@ public class EARKSIPValidator {
           metsPath.append(path).append("/");
         }
       }
-      this.metsValidatorState.setMetsPath(metsPath.toString());
+      state.setMetsPath(metsPath.toString());
     } else {
-      this.metsValidatorState.setMetsPath(Paths.get(key).getParent().toString());
+      state.setMetsPath(Paths.get(key).getParent().toString());
     }
   }
 
@@ -370,14 +610,16 @@ public class EARKSIPValidator {
   /**
    * Validate SIP specifications or AIP Specifications if the type is SIP or AIP.
    *
+   * @param state
+   *          the {@link MetsValidatorState} of the METS
    * @throws IOException
    *           if some I/O error occurs.
    */
-  private void validateIpTypeExtendedComponents() throws IOException {
-    if (metsValidatorState.getIpType() != null && metsValidatorState.getIpType().equals("SIP")) {
-      validateSIPComponents();
-    } else if (metsValidatorState.getIpType() != null && metsValidatorState.getIpType().equals("AIP")) {
-      validateAIPComponets();
+  private void validateIpTypeExtendedComponents(final MetsValidatorState state) throws IOException {
+    if (state.getIpType() != null && state.getIpType().equals("SIP")) {
+      validateSIPComponents(state);
+    } else if (state.getIpType() != null && state.getIpType().equals("AIP")) {
+      validateAIPComponets(state);
     }
   }
 
@@ -387,8 +629,7 @@ public class EARKSIPValidator {
    * @throws IOException
    *           if some I/O error occurs.
    */
-  private void validateSIPComponents() throws IOException {
-    aipComponents.clear();
+  private void validateSIPComponents(final MetsValidatorState state) throws IOException {
     for (MetsValidator component : sipComponents) {
       if (component instanceof SipFileSectionComponent204 component1) {
         ((SipFileSectionComponent204) component).setIsToValidate(ResultsUtils.isResultValid(
@@ -409,6 +650,9 @@ public class EARKSIPValidator {
           .get(ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP10_ID) != null) {
           ((SipMetsHdrComponent204) component).setIsToValidateAgents(ResultsUtils.isResultValid(
             validationReportOutputJson.getResults(), ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP10_ID));
+        } else {
+          // the component may come from a pipeline used on other packages
+          ((SipMetsHdrComponent204) component).setIsToValidateAgents(true);
         }
       }
       if (component instanceof SipMetsHdrComponent210) {
@@ -418,6 +662,9 @@ public class EARKSIPValidator {
           .get(ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP10_ID) != null) {
           ((SipMetsHdrComponent210) component).setIsToValidateAgents(ResultsUtils.isResultValid(
             validationReportOutputJson.getResults(), ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP10_ID));
+        } else {
+          // the component may come from a pipeline used on other packages
+          ((SipMetsHdrComponent210) component).setIsToValidateAgents(true);
         }
       }
       if (component instanceof SipMetsHdrComponent220) {
@@ -427,10 +674,12 @@ public class EARKSIPValidator {
           .get(ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP10_ID) != null) {
           ((SipMetsHdrComponent220) component).setIsToValidateAgents(ResultsUtils.isResultValid(
             validationReportOutputJson.getResults(), ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP10_ID));
+        } else {
+          // the component may come from a pipeline used on other packages
+          ((SipMetsHdrComponent220) component).setIsToValidateAgents(true);
         }
       }
-      final Map<String, ReporterDetails> sipComponentResults = component.validate(structureValidatorState,
-        metsValidatorState);
+      final Map<String, ReporterDetails> sipComponentResults = component.validate(structureValidatorState, state);
       ResultsUtils.mergeResults(validationReportOutputJson.getResults(), sipComponentResults);
     }
   }
@@ -442,8 +691,7 @@ public class EARKSIPValidator {
    * @throws IOException
    *           if some I/O error occurs.
    */
-  private void validateAIPComponets() throws IOException {
-    sipComponents.clear();
+  private void validateAIPComponets(final MetsValidatorState state) throws IOException {
     for (MetsValidator component : aipComponents) {
       if (component instanceof AipFileSectionComponent204) {
         ((AipFileSectionComponent204) component).setIsToValidate(ResultsUtils.isResultValid(
@@ -457,8 +705,7 @@ public class EARKSIPValidator {
         ((AipFileSectionComponent220) component).setIsToValidate(ResultsUtils.isResultValid(
           validationReportOutputJson.getResults(), ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP58_ID));
       }
-      final Map<String, ReporterDetails> aipComponentResults = component.validate(structureValidatorState,
-        metsValidatorState);
+      final Map<String, ReporterDetails> aipComponentResults = component.validate(structureValidatorState, state);
       ResultsUtils.mergeResults(validationReportOutputJson.getResults(), aipComponentResults);
     }
   }
@@ -482,55 +729,19 @@ public class EARKSIPValidator {
     structureComponent.notifyObserversIPValidationFinished();
   }
 
-  private List<MetsValidator> getComponentsForVersion(String version, String type)
-    throws IOException, ParserConfigurationException, SAXException {
-    List<MetsValidator> values = new ArrayList<>();
-    if (version.equals("2.0.4")) {
-      if (type.equals("csipComponents")) {
-        values.add(new MetsComponentValidator204());
-        values.add(new MetsHeaderComponentValidator204());
-        values.add(new DescriptiveMetadataComponentValidator204());
-        values.add(new AdministritiveMetadataComponentValidator204());
-        values.add(new FileSectionComponentValidator204());
-        values.add(new StructuralMapComponentValidator204());
-      } else if (type.equals("sipComponents")) {
-        values.add(new SipMetsComponent204());
-        values.add(new SipMetsHdrComponent204());
-        values.add(new SipFileSectionComponent204());
-      } else {
-        values.add(new AipFileSectionComponent204());
-      }
-    } else if (version.equals("2.1.0")) {
-      if (type.equals("csipComponents")) {
-        values.add(new MetsComponentValidator210());
-        values.add(new MetsHeaderComponentValidator210());
-        values.add(new DescriptiveMetadataComponentValidator210());
-        values.add(new AdministritiveMetadataComponentValidator210());
-        values.add(new FileSectionComponentValidator210());
-        values.add(new StructuralMapComponentValidator210());
-      } else if (type.equals("sipComponents")) {
-        values.add(new SipMetsComponent210());
-        values.add(new SipMetsHdrComponent210());
-        values.add(new SipFileSectionComponent210());
-      } else {
-        values.add(new AipFileSectionComponent210());
-      }
-    } else {
-      if (type.equals("csipComponents")) {
-        values.add(new MetsComponentValidator220());
-        values.add(new MetsHeaderComponentValidator220());
-        values.add(new DescriptiveMetadataComponentValidator220());
-        values.add(new AdministritiveMetadataComponentValidator220());
-        values.add(new FileSectionComponentValidator220());
-        values.add(new StructuralMapComponentValidator220());
-      } else if (type.equals("sipComponents")) {
-        values.add(new SipMetsComponent220());
-        values.add(new SipMetsHdrComponent220());
-        values.add(new SipFileSectionComponent220());
-      } else {
-        values.add(new AipFileSectionComponent220());
-      }
+  /**
+   * Outcome of the CSIP components over a representation METS validated
+   * concurrently.
+   */
+  private static final class SubMetsValidation {
+    private final String key;
+    private final MetsValidatorState state;
+    private final List<Map<String, ReporterDetails>> componentResults = new ArrayList<>();
+    private ReporterDetails error = null;
+
+    private SubMetsValidation(final String key, final MetsValidatorState state) {
+      this.key = key;
+      this.state = state;
     }
-    return values;
   }
 }
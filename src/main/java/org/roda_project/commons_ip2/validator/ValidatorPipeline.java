@@ -0,0 +1,190 @@
+package org.roda_project.commons_ip2.validator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.roda_project.commons_ip2.validator.components.MetsValidator;
+import org.roda_project.commons_ip2.validator.components.StructureValidatorImpl;
+import org.roda_project.commons_ip2.validator.components.administritiveMetadataComponent.AdministritiveMetadataComponentValidator204;
+import org.roda_project.commons_ip2.validator.components.administritiveMetadataComponent.AdministritiveMetadataComponentValidator210;
+import org.roda_project.commons_ip2.validator.components.administritiveMetadataComponent.AdministritiveMetadataComponentValidator220;
+import org.roda_project.commons_ip2.validator.components.aipFileSectionComponent.AipFileSectionComponent204;
+import org.roda_project.commons_ip2.validator.components.aipFileSectionComponent.AipFileSectionComponent210;
+import org.roda_project.commons_ip2.validator.components.aipFileSectionComponent.AipFileSectionComponent220;
+import org.roda_project.commons_ip2.validator.components.descriptiveMetadataComponent.DescriptiveMetadataComponentValidator204;
+import org.roda_project.commons_ip2.validator.components.descriptiveMetadataComponent.DescriptiveMetadataComponentValidator210;
+import org.roda_project.commons_ip2.validator.components.descriptiveMetadataComponent.DescriptiveMetadataComponentValidator220;
+import org.roda_project.commons_ip2.validator.components.fileComponent.StructureComponentValidator204;
+import org.roda_project.commons_ip2.validator.components.fileComponent.StructureComponentValidator210;
+import org.roda_project.commons_ip2.validator.components.fileComponent.StructureComponentValidator220;
+import org.roda_project.commons_ip2.validator.components.fileSectionComponent.FileSectionComponentValidator204;
+import org.roda_project.commons_ip2.validator.components.fileSectionComponent.FileSectionComponentValidator210;
+import org.roda_project.commons_ip2.validator.components.fileSectionComponent.FileSectionComponentValidator220;
+import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsHeaderValidator.MetsHeaderComponentValidator204;
+import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsHeaderValidator.MetsHeaderComponentValidator210;
+import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsHeaderValidator.MetsHeaderComponentValidator220;
+import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsValidator.MetsComponentValidator204;
+import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsValidator.MetsComponentValidator210;
+import org.roda_project.commons_ip2.validator.components.metsRootComponent.metsValidator.MetsComponentValidator220;
+import org.roda_project.commons_ip2.validator.components.sipFileSectionComponent.SipFileSectionComponent204;
+import org.roda_project.commons_ip2.validator.components.sipFileSectionComponent.SipFileSectionComponent210;
+import org.roda_project.commons_ip2.validator.components.sipFileSectionComponent.SipFileSectionComponent220;
+import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsComponent.SipMetsComponent204;
+import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsComponent.SipMetsComponent210;
+import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsComponent.SipMetsComponent220;
+import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsHdrComponent.SipMetsHdrComponent204;
+import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsHdrComponent.SipMetsHdrComponent210;
+import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsHdrComponent.SipMetsHdrComponent220;
+import org.roda_project.commons_ip2.validator.components.structuralMapComponent.StructuralMapComponentValidator204;
+import org.roda_project.commons_ip2.validator.components.structuralMapComponent.StructuralMapComponentValidator210;
+import org.roda_project.commons_ip2.validator.components.structuralMapComponent.StructuralMapComponentValidator220;
+import org.xml.sax.SAXException;
+
+/**
+ * The validation components of a specification version.
+ * <p>
+ * Creating the components loads their controlled vocabularies, so a pipeline
+ * can be created once and handed to several {@link EARKSIPValidator}s, one
+ * after the other (see {@link BatchValidator}). A pipeline must not be used by
+ * two validations at the same time, as the components keep the state of the
+ * METS file they are validating.
+ * </p>
+ */
+public final class ValidatorPipeline {
+  /**
+   * The E-ARK CSIP version.
+   */
+  private final String version;
+  /**
+   * {@link StructureValidatorImpl}.
+   */
+  private final StructureValidatorImpl structureComponent;
+  /**
+   * List of CSIP components to validate.
+   */
+  private final List<MetsValidator> csipComponents;
+  /**
+   * List of SIP components to validate.
+   */
+  private final List<MetsValidator> sipComponents;
+  /**
+   * List of AIP components to validate.
+   */
+  private final List<MetsValidator> aipComponents;
+
+  /**
+   * Creates the components of a specification version.
+   *
+   * @param version
+   *          the E-ARK CSIP version
+   * @throws IOException
+   *           if some I/O error occurs.
+   * @throws ParserConfigurationException
+   *           if some error occur.
+   * @throws SAXException
+   *           if some error occur.
+   */
+  public ValidatorPipeline(final String version) throws IOException, ParserConfigurationException, SAXException {
+    this.version = version;
+    if (version.equals("2.1.0")) {
+      this.structureComponent = new StructureComponentValidator210();
+    } else if (version.equals("2.0.4")) {
+      this.structureComponent = new StructureComponentValidator204();
+    } else {
+      this.structureComponent = new StructureComponentValidator220();
+    }
+    this.csipComponents = createComponents(version, "csipComponents");
+    this.sipComponents = createComponents(version, "sipComponents");
+    this.aipComponents = createComponents(version, "aipComponents");
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  StructureValidatorImpl getStructureComponent() {
+    return structureComponent;
+  }
+
+  List<MetsValidator> getCsipComponents() {
+    return csipComponents;
+  }
+
+  List<MetsValidator> getSipComponents() {
+    return sipComponents;
+  }
+
+  List<MetsValidator> getAipComponents() {
+    return aipComponents;
+  }
+
+  /**
+   * Creates the components of a specification version.
+   *
+   * @param version
+   *          the E-ARK CSIP version
+   * @param type
+   *          "csipComponents", "sipComponents" or "aipComponents"
+   * @return the {@link List} of {@link MetsValidator}
+   * @throws IOException
+   *           if some I/O error occurs.
+   * @throws ParserConfigurationException
+   *           if some error occur.
+   * @throws SAXException
+   *           if some error occur.
+   */
+  static List<MetsValidator> createComponents(final String version, final String type)
+    throws IOException, ParserConfigurationException, SAXException {
+    List<MetsValidator> values = new ArrayList<>();
+    if (version.equals("2.0.4")) {
+      if (type.equals("csipComponents")) {
+        values.add(new MetsComponentValidator204());
+        values.add(new MetsHeaderComponentValidator204());
+        values.add(new DescriptiveMetadataComponentValidator204());
+        values.add(new AdministritiveMetadataComponentValidator204());
+        values.add(new FileSectionComponentValidator204());
+        values.add(new StructuralMapComponentValidator204());
+      } else if (type.equals("sipComponents")) {
+        values.add(new SipMetsComponent204());
+        values.add(new SipMetsHdrComponent204());
+        values.add(new SipFileSectionComponent204());
+      } else {
+        values.add(new AipFileSectionComponent204());
+      }
+    } else if (version.equals("2.1.0")) {
+      if (type.equals("csipComponents")) {
+        values.add(new MetsComponentValidator210());
+        values.add(new MetsHeaderComponentValidator210());
+        values.add(new DescriptiveMetadataComponentValidator210());
+        values.add(new AdministritiveMetadataComponentValidator210());
+        values.add(new FileSectionComponentValidator210());
+        values.add(new StructuralMapComponentValidator210());
+      } else if (type.equals("sipComponents")) {
+        values.add(new SipMetsComponent210());
+        values.add(new SipMetsHdrComponent210());
+        values.add(new SipFileSectionComponent210());
+      } else {
+        values.add(new AipFileSectionComponent210());
+      }
+    } else {
+      if (type.equals("csipComponents")) {
+        values.add(new MetsComponentValidator220());
+        values.add(new MetsHeaderComponentValidator220());
+        values.add(new DescriptiveMetadataComponentValidator220());
+        values.add(new AdministritiveMetadataComponentValidator220());
+        values.add(new FileSectionComponentValidator220());
+        values.add(new StructuralMapComponentValidator220());
+      } else if (type.equals("sipComponents")) {
+        values.add(new SipMetsComponent220());
+        values.add(new SipMetsHdrComponent220());
+        values.add(new SipFileSectionComponent220());
+      } else {
+        values.add(new AipFileSectionComponent220());
+      }
+    }
+    return values;
+  }
+}
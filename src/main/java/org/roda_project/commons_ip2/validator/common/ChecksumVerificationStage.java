@@ -0,0 +1,200 @@
+package org.roda_project.commons_ip2.validator.common;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.roda_project.commons_ip2.mets_v1_12.beans.FileType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
+import org.roda_project.commons_ip2.validator.constants.Constants;
+import org.roda_project.commons_ip2.validator.state.MetsValidatorState;
+import org.roda_project.commons_ip2.validator.state.StructureValidatorState;
+import org.roda_project.commons_ip2.validator.utils.DecoderUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Verifies, ahead of the rule evaluation, the checksums of every file
+ * referenced in the file section of a METS file.
+ * <p>
+ * All the (file, algorithm, expected checksum) tuples of the METS are collected
+ * first and then verified concurrently on the given {@link ExecutorService}.
+ * The outcome is kept in {@link Results}, which the file section validator
+ * looks up instead of reading each file inline. Tuples whose verification
+ * failed with an error are left out, so the validator computes them again and
+ * reports the error exactly as it would without this stage.
+ * </p>
+ */
+public final class ChecksumVerificationStage {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChecksumVerificationStage.class);
+
+  private final StructureValidatorState structureValidatorState;
+  private final Supplier<ExecutorService> executorSupplier;
+
+  /**
+   * @param structureValidatorState
+   *          the {@link StructureValidatorState} of the IP
+   * @param executor
+   *          the {@link ExecutorService} where checksums are computed
+   */
+  public ChecksumVerificationStage(final StructureValidatorState structureValidatorState,
+    final ExecutorService executor) {
+    this(structureValidatorState, () -> executor);
+  }
+
+  /**
+   * @param structureValidatorState
+   *          the {@link StructureValidatorState} of the IP
+   * @param executorSupplier
+   *          supplies the {@link ExecutorService} where checksums are computed,
+   *          only called if the METS references some file with a checksum
+   */
+  public ChecksumVerificationStage(final StructureValidatorState structureValidatorState,
+    final Supplier<ExecutorService> executorSupplier) {
+    this.structureValidatorState = structureValidatorState;
+    this.executorSupplier = executorSupplier;
+  }
+
+  /**
+   * Verifies the checksums of the files referenced in the file section of the
+   * METS currently held by the given state.
+   *
+   * @param metsValidatorState
+   *          the {@link MetsValidatorState}
+   * @return the {@link Results}
+   * @throws InterruptedException
+   *           if interrupted while waiting for the verifications
+   */
+  public Results verify(final MetsValidatorState metsValidatorState) throws InterruptedException {
+    final List<ChecksumTuple> tuples = collect(metsValidatorState);
+    if (tuples.isEmpty()) {
+      return new Results(new HashMap<>());
+    }
+
+    final ExecutorService executor = executorSupplier.get();
+    final Map<String, Future<Boolean>> futures = new LinkedHashMap<>();
+    for (ChecksumTuple tuple : tuples) {
+      final String key = Results.key(tuple.file, tuple.algorithm, tuple.checksum);
+      if (!futures.containsKey(key)) {
+        futures.put(key, executor.submit(() -> verify(tuple)));
+      }
+    }
+
+    final Map<String, Boolean> verified = new HashMap<>(futures.size() * 2);
+    try {
+      for (Map.Entry<String, Future<Boolean>> entry : futures.entrySet()) {
+        try {
+          verified.put(entry.getKey(), entry.getValue().get());
+        } catch (ExecutionException e) {
+          LOGGER.debug("Unable to verify checksum {}", entry.getKey(), e.getCause());
+        }
+      }
+    } finally {
+      for (Future<Boolean> future : futures.values()) {
+        future.cancel(true);
+      }
+    }
+    return new Results(verified);
+  }
+
+  private boolean verify(final ChecksumTuple tuple) throws IOException, NoSuchAlgorithmException {
+    if (structureValidatorState.isZipFileFlag()) {
+      return structureValidatorState.getZipManager().verifyChecksum(structureValidatorState.getIpPath(), tuple.file,
+        tuple.algorithm, tuple.checksum);
+    } else {
+      return structureValidatorState.getFolderManager().verifyChecksum(Paths.get(tuple.file), tuple.algorithm,
+        tuple.checksum);
+    }
+  }
+
+  /**
+   * Collects the tuples the same way the file section validator resolves them,
+   * so that the lookup keys match.
+   */
+  private List<ChecksumTuple> collect(final MetsValidatorState metsValidatorState) {
+    final List<ChecksumTuple> tuples = new ArrayList<>();
+    final MetsType.FileSec fileSec = metsValidatorState.getMets().getFileSec();
+    if (fileSec == null) {
+      return tuples;
+    }
+    for (MetsType.FileSec.FileGrp grp : fileSec.getFileGrp()) {
+      for (FileType file : grp.getFile()) {
+        final String checksumType = file.getCHECKSUMTYPE();
+        final String checksum = file.getCHECKSUM();
+        if (checksumType == null || checksum == null || file.getFLocat().isEmpty()) {
+          continue;
+        }
+        final String href = file.getFLocat().get(0).getHref();
+        if (href == null) {
+          continue;
+        }
+        final String filePath = URLDecoder.decode(DecoderUtils.normalizePath(href), StandardCharsets.UTF_8);
+        final String finalPath;
+        if (structureValidatorState.isZipFileFlag()) {
+          if (!metsValidatorState.isRootMets()) {
+            finalPath = metsValidatorState.getMetsPath() + filePath;
+          } else {
+            finalPath = metsValidatorState.getMets().getOBJID() + Constants.SEPARATOR + filePath;
+          }
+        } else {
+          finalPath = Paths.get(metsValidatorState.getMetsPath()).resolve(filePath).toString();
+        }
+        tuples.add(new ChecksumTuple(finalPath, checksumType, checksum));
+      }
+    }
+    return tuples;
+  }
+
+  private static final class ChecksumTuple {
+    private final String file;
+    private final String algorithm;
+    private final String checksum;
+
+    private ChecksumTuple(final String file, final String algorithm, final String checksum) {
+      this.file = file;
+      this.algorithm = algorithm;
+      this.checksum = checksum;
+    }
+  }
+
+  /**
+   * Outcome of the checksum verifications of one METS file.
+   */
+  public static final class Results {
+    private final Map<String, Boolean> verified;
+
+    private Results(final Map<String, Boolean> verified) {
+      this.verified = verified;
+    }
+
+    /**
+     * Get the outcome of a checksum verification.
+     *
+     * @param file
+     *          the zip entry name or the file path
+     * @param algorithm
+     *          the checksum algorithm
+     * @param checksum
+     *          the expected checksum
+     * @return if the checksum matches or {@code null} if it was not verified
+     */
+    public Boolean get(final String file, final String algorithm, final String checksum) {
+      return verified.get(key(file, algorithm, checksum));
+    }
+
+    private static String key(final String file, final String algorithm, final String checksum) {
+      return file + '\u0000' + algorithm + '\u0000' + checksum;
+    }
+  }
+}
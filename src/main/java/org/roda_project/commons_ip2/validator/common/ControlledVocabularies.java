@@ -0,0 +1,116 @@
+package org.roda_project.commons_ip2.validator.common;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.roda_project.commons_ip2.validator.constants.Constants;
+import org.xml.sax.SAXException;
+
+/**
+ * Process-wide registry of the controlled vocabularies.
+ * <p>
+ * Each vocabulary is loaded the first time it is asked for, by one thread
+ * only, and kept as an unmodifiable {@link Set}, so creating validation
+ * components does not read the resources again and checking a value is a hash
+ * lookup.
+ * </p>
+ */
+public final class ControlledVocabularies {
+  /**
+   * {@link ConcurrentMap} from resource path to the Terms of an XML vocabulary.
+   */
+  private static final ConcurrentMap<String, Set<String>> XML_VOCABULARIES = new ConcurrentHashMap<>();
+
+  /**
+   * {@link ConcurrentMap} from resource path to the lines of a plain text
+   * vocabulary, so the same path asked for as XML is not answered with lines.
+   */
+  private static final ConcurrentMap<String, Set<String>> LINE_VOCABULARIES = new ConcurrentHashMap<>();
+
+  private ControlledVocabularies() {
+    // do nothing
+  }
+
+  /**
+   * Get the values of the Term tags of an XML vocabulary (see
+   * {@link ControlledVocabularyParser}).
+   *
+   * @param resourcePath
+   *          the {@link String} to resource.
+   * @return an unmodifiable {@link Set} with all values from Term tag.
+   * @throws IOException
+   *           if some I/O error occurs.
+   * @throws SAXException
+   *           if some error occurs.
+   * @throws ParserConfigurationException
+   *           if some error occurs.
+   */
+  public static Set<String> get(final String resourcePath)
+    throws IOException, SAXException, ParserConfigurationException {
+    try {
+      return XML_VOCABULARIES.computeIfAbsent(resourcePath, ControlledVocabularies::parse);
+    } catch (VocabularyException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof SAXException saxException) {
+        throw saxException;
+      }
+      if (cause instanceof ParserConfigurationException parserConfigurationException) {
+        throw parserConfigurationException;
+      }
+      throw (IOException) cause;
+    }
+  }
+
+  /**
+   * Get the IANA Media Types, one per line of the resource.
+   *
+   * @return an unmodifiable {@link Set}.
+   */
+  public static Set<String> getIanaMediaTypes() {
+    return LINE_VOCABULARIES.computeIfAbsent(Constants.PATH_RESOURCES_CSIP_VOCABULARY_IANA_MEDIA_TYPES,
+      ControlledVocabularies::readLines);
+  }
+
+  private static Set<String> parse(final String resourcePath) {
+    try {
+      return Collections.unmodifiableSet(new HashSet<>(ControlledVocabularyParser.parse(resourcePath)));
+    } catch (IOException | SAXException | ParserConfigurationException e) {
+      throw new VocabularyException(e);
+    }
+  }
+
+  private static Set<String> readLines(final String resourcePath) {
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+      Objects.requireNonNull(ControlledVocabularies.class.getResourceAsStream(resourcePath)),
+      StandardCharsets.UTF_8))) {
+      final Set<String> lines = reader.lines().collect(Collectors.toCollection(HashSet::new));
+      return Collections.unmodifiableSet(lines);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Carries the checked exception of a parse out of
+   * {@link ConcurrentMap#computeIfAbsent}.
+   */
+  private static final class VocabularyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private VocabularyException(final Exception cause) {
+      super(cause);
+    }
+  }
+}
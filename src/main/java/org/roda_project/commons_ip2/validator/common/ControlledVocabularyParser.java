@@ -20,7 +20,9 @@ public final class ControlledVocabularyParser {
   }
 
   /**
-   * Parse tags Term from XML files.
+   * Parse tags Term from XML files. The validation components get the
+   * vocabularies from {@link ControlledVocabularies}, which parses each one
+   * only once.
    *
    * @param resourcePath
    *          the {@link String} to resource.
@@ -38,8 +40,9 @@ public final class ControlledVocabularyParser {
     final List<String> data = new ArrayList<>();
     final SAXParser saxParser = factory.newSAXParser();
     final ControlledVocabularyHandler controlledVocabularyHandler = new ControlledVocabularyHandler("Term", data);
-    final InputStream stream = ControlledVocabularyParser.class.getResourceAsStream(resourcePath);
-    saxParser.parse(stream, controlledVocabularyHandler);
+    try (InputStream stream = ControlledVocabularyParser.class.getResourceAsStream(resourcePath)) {
+      saxParser.parse(stream, controlledVocabularyHandler);
+    }
     return data;
   }
 }
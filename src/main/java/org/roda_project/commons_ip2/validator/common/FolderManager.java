@@ -8,16 +8,16 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
-import jakarta.xml.bind.DatatypeConverter;
-
+import org.roda_project.commons_ip2.utils.DigestPipeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +33,12 @@ public class FolderManager {
    */
   private File folder = null;
 
+  /**
+   * Sizes of the files digested by {@link #verifyChecksum(Path, String, String)},
+   * so {@link #verifySize(Path, Long)} does not need to stat them again.
+   */
+  private final Map<Path, Long> knownSizes = new ConcurrentHashMap<>();
+
   public boolean checkIfExistsRootMetsFile(final Path path) {
     boolean found = false;
     folder = path.toFile();
@@ -90,19 +96,11 @@ public class FolderManager {
     if (!Files.exists(path)) {
       valid = false;
     } else {
-      final InputStream stream = new FileInputStream(path.toFile());
-      final MessageDigest messageDigest = MessageDigest.getInstance(alg);
-      final byte[] buffer = new byte[8192];
-      int numOfBytesRead;
-      while ((numOfBytesRead = stream.read(buffer)) > 0) {
-        messageDigest.update(buffer, 0, numOfBytesRead);
-      }
-      final byte[] hash = messageDigest.digest();
-      final String fileChecksum = DatatypeConverter.printHexBinary(hash);
-      if (!checksum.equalsIgnoreCase(fileChecksum)) {
+      final DigestPipeline.Result result = DigestPipeline.digestFile(path, Collections.singleton(alg));
+      knownSizes.put(path.toAbsolutePath().normalize(), result.getSize());
+      if (!checksum.equalsIgnoreCase(result.getChecksum(alg))) {
         valid = false;
       }
-      stream.close();
     }
     return valid;
   }
@@ -112,7 +110,11 @@ public class FolderManager {
     if (path == null) {
       valid = false;
     } else {
-      if (Files.size(path) != metsSize) {
+      Long size = knownSizes.get(path.toAbsolutePath().normalize());
+      if (size == null) {
+        size = Files.size(path);
+      }
+      if (!size.equals(metsSize)) {
         valid = false;
       }
     }
@@ -154,8 +156,16 @@ public class FolderManager {
     return count;
   }
 
-  public Map<String, InputStream> getSubMets(final Path path) throws FileNotFoundException {
-    final HashMap<String, InputStream> subMets = new HashMap<>();
+  /**
+   * Get the representation METS files of the IP. The files are only opened
+   * when the returned {@link MetsStreamSupplier}s are called.
+   *
+   * @param path
+   *          {@link Path} to the IP
+   * @return {@link Map} from the file path to its {@link MetsStreamSupplier}
+   */
+  public Map<String, MetsStreamSupplier> getSubMets(final Path path) {
+    final HashMap<String, MetsStreamSupplier> subMets = new HashMap<>();
     final File[] representationsFolder = path.resolve("representations").toFile().listFiles();
     if (representationsFolder != null) {
       for (File representation : representationsFolder) {
@@ -164,8 +174,8 @@ public class FolderManager {
           if (representationFiles != null) {
             for (File file : representationFiles) {
               if (file.getName().equals("METS.xml")) {
-                final InputStream subStream = new FileInputStream(file.getPath());
-                subMets.put(file.getPath(), subStream);
+                final Path metsFile = file.toPath();
+                subMets.put(file.getPath(), () -> Files.newInputStream(metsFile));
               }
             }
           }
@@ -2,22 +2,12 @@ package org.roda_project.commons_ip2.validator.common;
 
 import java.io.InputStream;
 
-import javax.xml.XMLConstants;
-import javax.xml.transform.Source;
-import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
-
 import org.roda_project.commons_ip2.cli.model.exception.UnmarshallerException;
 import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
-import org.roda_project.commons_ip2.model.IPConstants;
-import org.roda_project.commons_ip2.utils.METSUtils;
-import org.roda_project.commons_ip2.utils.ResourceResolver;
+import org.roda_project.commons_ip2.utils.MetsJaxbRegistry;
 import org.xml.sax.SAXException;
 
-import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Unmarshaller;
 
 /** {@author João Gomes <jgomes@keep.pt>}. */
 public class InstatiateMets {
@@ -25,6 +15,10 @@ public class InstatiateMets {
    * {@link InputStream}.
    */
   private final InputStream stream;
+  /**
+   * {@link MetsXlinkIndex} collected while unmarshalling.
+   */
+  private MetsXlinkIndex xlinkIndex = null;
 
   /**
    * Constructor that sets the {@link InputStream}.
@@ -44,21 +38,25 @@ public class InstatiateMets {
    *           if some schema or parse error occurs.
    */
   public Mets instatiateMetsFile(String file) throws UnmarshallerException {
+    final MetsXlinkIndex.Collector collector = MetsXlinkIndex.collector();
     try {
-      org.glassfish.jaxb.runtime.v2.JAXBContextFactory contextFactory = new org.glassfish.jaxb.runtime.v2.JAXBContextFactory();
-      JAXBContext jaxbContext = contextFactory.createContext(new Class[] {Mets.class}, null);
-      final Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-      final SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-      factory.setResourceResolver(new ResourceResolver());
-      final InputStream metsSchemaInputStream = METSUtils.class
-        .getResourceAsStream(IPConstants.SCHEMA_METS_RELATIVE_PATH_FROM_RESOURCES);
-      final Source metsSchemaSource = new StreamSource(metsSchemaInputStream);
-      final Schema schema = factory.newSchema(metsSchemaSource);
-      jaxbUnmarshaller.setSchema(schema);
-      return (Mets) jaxbUnmarshaller.unmarshal(stream);
+      final Mets mets = MetsJaxbRegistry.unmarshalWithObserver(stream, collector);
+      xlinkIndex = collector.getIndex();
+      return mets;
     } catch (JAXBException | SAXException e) {
       throw new UnmarshallerException("An error occured during the unmarshalling process on file " + file + ". "
         + (e.getMessage() != null ? e.getMessage() : e.getCause()));
     }
   }
+
+  /**
+   * Get the {@code xlink:type} attributes collected by
+   * {@link #instatiateMetsFile(String)}.
+   *
+   * @return the {@link MetsXlinkIndex} or {@code null} if the METS file was not
+   *         unmarshalled successfully
+   */
+  public MetsXlinkIndex getXlinkIndex() {
+    return xlinkIndex;
+  }
 }
@@ -0,0 +1,20 @@
+package org.roda_project.commons_ip2.validator.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Opens a METS file on demand, so that the METS files of an IP do not all have
+ * to be open at the same time. The caller closes the returned stream.
+ */
+@FunctionalInterface
+public interface MetsStreamSupplier {
+  /**
+   * Opens a new {@link InputStream} to the METS file.
+   *
+   * @return the {@link InputStream}
+   * @throws IOException
+   *           if some I/O error occurs
+   */
+  InputStream open() throws IOException;
+}
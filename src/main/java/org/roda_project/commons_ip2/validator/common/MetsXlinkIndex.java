@@ -0,0 +1,130 @@
+package org.roda_project.commons_ip2.validator.common;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * The {@code xlink:type} attributes of the METS elements the validators check,
+ * collected while the METS file is unmarshalled (see {@link InstatiateMets}),
+ * so that the file is not parsed again for each of those checks.
+ * <p>
+ * For each indexed (section, element) pair the values are keyed by the ID of
+ * the element or, if it has none, by its {@code xlink:href}, exactly as
+ * {@link org.roda_project.commons_ip2.validator.handlers.MetsHandler} does.
+ * </p>
+ */
+public final class MetsXlinkIndex {
+  /**
+   * Constant with the url of xml schema.
+   */
+  private static final String SCHEMA = "http://www.w3.org/1999/xlink";
+
+  /**
+   * The (section, element) pairs that are indexed.
+   */
+  private static final String[][] INDEXED = {{"file", "FLocat"}, {"div", "mptr"}, {"dmdSec", "mdRef"},
+    {"digiprovMD", "mdRef"}, {"rightsMD", "mdRef"}};
+
+  /**
+   * {@link Map} from section/element to the collected values.
+   */
+  private final Map<String, Map<String, String>> types = new HashMap<>();
+
+  private MetsXlinkIndex() {
+    for (String[] pair : INDEXED) {
+      types.put(key(pair[0], pair[1]), new HashMap<>());
+    }
+  }
+
+  /**
+   * Get the {@code xlink:type} of the given elements inside the given section.
+   *
+   * @param section
+   *          the {@link String} section
+   * @param element
+   *          the {@link String} element
+   * @return an unmodifiable {@link Map} from ID (or {@code xlink:href}) to
+   *         {@code xlink:type}, or {@code null} if the pair is not indexed
+   */
+  public Map<String, String> getTypes(final String section, final String element) {
+    final Map<String, String> values = types.get(key(section, element));
+    return values != null ? Collections.unmodifiableMap(values) : null;
+  }
+
+  private static String key(final String section, final String element) {
+    return section + "/" + element;
+  }
+
+  /**
+   * Creates the handler that fills a new index from the events of a parse.
+   *
+   * @return the {@link Collector}
+   */
+  static Collector collector() {
+    return new Collector(new MetsXlinkIndex());
+  }
+
+  /**
+   * Handler that records the indexed elements, keeping one "inside section" flag
+   * per pair.
+   */
+  static final class Collector extends DefaultHandler {
+    private final MetsXlinkIndex index;
+    private final boolean[] sectionFound = new boolean[INDEXED.length];
+
+    private Collector(final MetsXlinkIndex index) {
+      this.index = index;
+    }
+
+    MetsXlinkIndex getIndex() {
+      return index;
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName,
+      final Attributes attributes) {
+      for (int i = 0; i < INDEXED.length; i++) {
+        if (localName.equals(INDEXED[i][0])) {
+          sectionFound[i] = true;
+        }
+        if (localName.equals(INDEXED[i][1]) && sectionFound[i]) {
+          record(INDEXED[i], attributes);
+        }
+      }
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) {
+      for (int i = 0; i < INDEXED.length; i++) {
+        if (localName.equals(INDEXED[i][0])) {
+          sectionFound[i] = false;
+        }
+      }
+    }
+
+    private void record(final String[] pair, final Attributes attributes) {
+      String id = null;
+      String type = null;
+      String href = null;
+      for (int i = 0; i < attributes.getLength(); i++) {
+        final String attrUri = attributes.getURI(i);
+        final String attName = attributes.getLocalName(i);
+        final String value = attributes.getValue(i);
+        if (attName.equals("ID")) {
+          id = value;
+        }
+        if (attrUri.equals(SCHEMA) && attName.equals("href")) {
+          href = value;
+        }
+        if (attrUri.equals(SCHEMA) && attName.equals("type")) {
+          type = value;
+        }
+      }
+      index.types.get(key(pair[0], pair[1])).put(id != null ? id : href, type);
+    }
+  }
+}
@@ -0,0 +1,246 @@
+package org.roda_project.commons_ip2.validator.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Immutable index of the entries of an IP in zip format, built with a single
+ * scan of the zip central directory.
+ * <p>
+ * Besides the entries in central directory order, it keeps a hash lookup by
+ * entry name, a sorted set of file names (used to answer prefix queries), the
+ * set of directories (explicit or implied by file entries) and the folders
+ * found directly under the IP root folder.
+ * </p>
+ */
+public final class ZipIndex {
+  /**
+   * Entries in central directory order.
+   */
+  private final List<IndexEntry> entries;
+  /**
+   * Entries by name.
+   */
+  private final Map<String, IndexEntry> entriesByName;
+  /**
+   * Names of the non directory entries, sorted.
+   */
+  private final NavigableSet<String> fileNames;
+  /**
+   * Directories (explicit or implied), without the trailing separator.
+   */
+  private final Set<String> directories;
+  /**
+   * Names of the folders directly under the IP root folder.
+   */
+  private final Set<String> rootFolders;
+  /**
+   * Names of the folders in the root of the zip file.
+   */
+  private final Set<String> topLevelNames;
+
+  private ZipIndex(final List<IndexEntry> entries) {
+    this.entries = Collections.unmodifiableList(entries);
+    Map<String, IndexEntry> byName = new HashMap<>(entries.size() * 2);
+    NavigableSet<String> files = new TreeSet<>();
+    Set<String> dirs = new HashSet<>();
+    Set<String> folders = new HashSet<>();
+    Set<String> topLevel = new HashSet<>();
+
+    for (IndexEntry entry : entries) {
+      String name = entry.getName();
+      byName.put(name, entry);
+      if (!entry.isDirectory()) {
+        files.add(name);
+      }
+      topLevel.add(entry.getSegment(0));
+
+      int separator = name.indexOf('/');
+      while (separator != -1) {
+        dirs.add(name.substring(0, separator));
+        separator = name.indexOf('/', separator + 1);
+      }
+
+      int first = name.indexOf('/');
+      if (first != -1) {
+        int second = name.indexOf('/', first + 1);
+        if (second != -1) {
+          folders.add(name.substring(first + 1, second));
+        }
+      }
+    }
+
+    this.entriesByName = Collections.unmodifiableMap(byName);
+    this.fileNames = Collections.unmodifiableNavigableSet(files);
+    this.directories = Collections.unmodifiableSet(dirs);
+    this.rootFolders = Collections.unmodifiableSet(folders);
+    this.topLevelNames = Collections.unmodifiableSet(topLevel);
+  }
+
+  /**
+   * Builds the index out of the central directory of the given zip file.
+   *
+   * @param zipFile
+   *          {@link ZipFile}
+   * @return the {@link ZipIndex}
+   */
+  public static ZipIndex build(final ZipFile zipFile) {
+    List<IndexEntry> entries = new ArrayList<>(zipFile.size());
+    Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+    while (zipEntries.hasMoreElements()) {
+      entries.add(new IndexEntry(zipEntries.nextElement()));
+    }
+    return new ZipIndex(entries);
+  }
+
+  /**
+   * Get all entries, in central directory order.
+   *
+   * @return {@link List} of {@link IndexEntry}
+   */
+  public List<IndexEntry> getEntries() {
+    return entries;
+  }
+
+  /**
+   * Get an entry by its name.
+   *
+   * @param name
+   *          the entry name
+   * @return the {@link IndexEntry} or {@code null} if it does not exist
+   */
+  public IndexEntry getEntry(final String name) {
+    return entriesByName.get(name);
+  }
+
+  /**
+   * Check if an entry with the given name exists.
+   *
+   * @param name
+   *          the entry name
+   * @return if exists or not
+   */
+  public boolean contains(final String name) {
+    return entriesByName.containsKey(name);
+  }
+
+  /**
+   * Check if there is a file (non directory) entry whose name starts with the
+   * given prefix.
+   *
+   * @param prefix
+   *          the prefix
+   * @return if exists or not
+   */
+  public boolean containsFileWithPrefix(final String prefix) {
+    String candidate = fileNames.ceiling(prefix);
+    return candidate != null && candidate.startsWith(prefix);
+  }
+
+  /**
+   * Check if the given path is a directory of the zip file, either because
+   * there is a directory entry for it or because some entry lives inside it.
+   *
+   * @param path
+   *          the path, with or without trailing separator
+   * @return if is a directory or not
+   */
+  public boolean isDirectory(final String path) {
+    String directory = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    return directories.contains(directory);
+  }
+
+  /**
+   * Check if there is a folder with the given name directly under the IP root
+   * folder (e.g. metadata, representations).
+   *
+   * @param folder
+   *          the folder name
+   * @return if exists or not
+   */
+  public boolean containsRootFolder(final String folder) {
+    return rootFolders.contains(folder);
+  }
+
+  /**
+   * Get the distinct names found in the root of the zip file.
+   *
+   * @return {@link Set} of names
+   */
+  public Set<String> getTopLevelNames() {
+    return topLevelNames;
+  }
+
+  /**
+   * Number of entries.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Information about one zip entry.
+   */
+  public static final class IndexEntry {
+    private final String name;
+    private final String[] segments;
+    private final boolean directory;
+    private final long size;
+    private final long compressedSize;
+    private final long crc;
+
+    private IndexEntry(final ZipEntry zipEntry) {
+      this.name = zipEntry.getName();
+      this.segments = name.split("/");
+      this.directory = zipEntry.isDirectory();
+      this.size = zipEntry.getSize();
+      this.compressedSize = zipEntry.getCompressedSize();
+      this.crc = zipEntry.getCrc();
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Number of path segments, as in {@code getName().split("/").length}.
+     *
+     * @return the number of segments.
+     */
+    public int getSegmentCount() {
+      return segments.length;
+    }
+
+    public String getSegment(final int index) {
+      return segments[index];
+    }
+
+    public boolean isDirectory() {
+      return directory;
+    }
+
+    public long getSize() {
+      return size;
+    }
+
+    public long getCompressedSize() {
+      return compressedSize;
+    }
+
+    public long getCrc() {
+      return crc;
+    }
+  }
+}
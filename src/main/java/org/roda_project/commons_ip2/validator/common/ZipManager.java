@@ -3,26 +3,55 @@ package org.roda_project.commons_ip2.validator.common;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
-import jakarta.xml.bind.DatatypeConverter;
-
+import org.roda_project.commons_ip2.utils.DigestPipeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /** {@author João Gomes <jgomes@keep.pt>}. */
 public class ZipManager {
   private static final Logger LOGGER = LoggerFactory.getLogger(ZipManager.class);
+  private static final Pattern SUBMISSION_PATTERN = Pattern.compile(".+/submission/.+");
   private ZipFile zipFile = null;
+  /**
+   * {@link ZipIndex} of the IP, built once from the zip central directory.
+   */
+  private ZipIndex zipIndex = null;
+  /**
+   * {@link Path} of the IP that {@link #zipIndex} refers to.
+   */
+  private Path zipIndexPath = null;
+
+  /**
+   * Gets the {@link ZipIndex} of the IP, building it on first use.
+   *
+   * @param path
+   *          {@link Path} to the IP
+   * @return the {@link ZipIndex}
+   * @throws IOException
+   *           if some I/O error occurs
+   */
+  public synchronized ZipIndex getZipIndex(Path path) throws IOException {
+    if (zipIndex == null || !path.equals(zipIndexPath)) {
+      try (ZipFile indexedZipFile = new ZipFile(path.toFile())) {
+        zipIndex = ZipIndex.build(indexedZipFile);
+      }
+      zipIndexPath = path;
+    }
+    return zipIndex;
+  }
 
   /**
    * Gets {@link InputStream} to the IP in zip format.
@@ -35,7 +64,7 @@ public class ZipManager {
    * @throws IOException
    *           if some I/O error occurs
    */
-  public InputStream getZipInputStream(Path path, String entry) throws IOException {
+  public synchronized InputStream getZipInputStream(Path path, String entry) throws IOException {
     if (zipFile == null) {
       zipFile = new ZipFile(path.toFile());
     }
@@ -56,21 +85,12 @@ public class ZipManager {
    * @throws IOException
    *           if some I/O error occurs
    */
-  public InputStream getMetsRootInputStream(Path path) throws IOException {
+  public synchronized InputStream getMetsRootInputStream(Path path) throws IOException {
     if (zipFile == null) {
       zipFile = new ZipFile(path.toFile());
     }
 
-    Enumeration entries = zipFile.entries();
-    String entry = null;
-    while (entries.hasMoreElements()) {
-      ZipEntry entr = (ZipEntry) entries.nextElement();
-      if (entr.getName().endsWith("/METS.xml")) {
-        if (entr.getName().split("/").length == 2) {
-          entry = entr.getName();
-        }
-      }
-    }
+    String entry = getRootMetsEntryName(path);
     if (entry == null) {
       LOGGER.debug("METS.xml not Found");
       throw new IOException("METS.xml not Found");
@@ -79,6 +99,16 @@ public class ZipManager {
     return zipFile.getInputStream(zipArchiveEntry);
   }
 
+  private String getRootMetsEntryName(Path path) throws IOException {
+    String entry = null;
+    for (ZipIndex.IndexEntry entr : getZipIndex(path).getEntries()) {
+      if (entr.getName().endsWith("/METS.xml") && entr.getSegmentCount() == 2) {
+        entry = entr.getName();
+      }
+    }
+    return entry;
+  }
+
   /**
    * Get ERMS file in IP {@link InputStream}.
    *
@@ -88,19 +118,15 @@ public class ZipManager {
    * @throws IOException
    *           if some I/O error occurs
    */
-  public InputStream getErmsInputStream(Path path) throws IOException {
+  public synchronized InputStream getErmsInputStream(Path path) throws IOException {
     if (zipFile == null) {
       zipFile = new ZipFile(path.toFile());
     }
 
-    Enumeration entries = zipFile.entries();
     String entry = null;
-    while (entries.hasMoreElements()) {
-      ZipEntry entr = (ZipEntry) entries.nextElement();
-      if (entr.getName().endsWith("erms.xml")) {
-        if (entr.getName().split("/").length == 4) {
-          entry = entr.getName();
-        }
+    for (ZipIndex.IndexEntry entr : getZipIndex(path).getEntries()) {
+      if (entr.getName().endsWith("erms.xml") && entr.getSegmentCount() == 4) {
+        entry = entr.getName();
       }
     }
     if (entry == null) {
@@ -124,7 +150,7 @@ public class ZipManager {
    *          {@link String} entry
    * @return {@link ZipEntry}
    */
-  public ZipEntry getZipEntry(Path path, String entry) {
+  public synchronized ZipEntry getZipEntry(Path path, String entry) {
     try {
       if (zipFile == null) {
         zipFile = new ZipFile(path.toFile());
@@ -146,23 +172,11 @@ public class ZipManager {
    *           if some I/O error occurs.
    */
   public boolean checkIfExistsRootMetsFile(Path path) throws IOException {
-    boolean found = false;
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().endsWith("/METS.xml")) {
-        if (entry.getName().split("/").length == 2) {
-          found = true;
-          break;
-        }
-      }
-    }
-    return found;
+    return getRootMetsEntryName(path) != null;
   }
 
   /** Closes Zip file. */
-  public void closeZipFile() {
+  public synchronized void closeZipFile() {
     if (zipFile != null) {
       try {
         zipFile.close();
@@ -185,17 +199,7 @@ public class ZipManager {
    *           if some I/O error occurs.
    */
   public boolean checkPathExists(Path path, String filePath) throws IOException {
-    boolean found = false;
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().equals(filePath)) {
-        found = true;
-        break;
-      }
-    }
-    return found;
+    return getZipIndex(path).contains(filePath);
   }
 
   /**
@@ -221,16 +225,12 @@ public class ZipManager {
     if (entry == null) {
       valid = false;
     } else {
-      MessageDigest messageDigest = MessageDigest.getInstance(alg);
-      byte[] buffer = new byte[8192];
-      int numOfBytesRead;
-      while ((numOfBytesRead = entry.read(buffer)) > 0) {
-        messageDigest.update(buffer, 0, numOfBytesRead);
-      }
-      byte[] hash = messageDigest.digest();
-      String fileChecksum = DatatypeConverter.printHexBinary(hash);
-      if (!checksum.equalsIgnoreCase(fileChecksum)) {
-        valid = false;
+      try (InputStream stream = entry) {
+        String fileChecksum = DigestPipeline.digest(stream, Collections.singleton(alg), null, false)
+          .getChecksum(alg);
+        if (!checksum.equalsIgnoreCase(fileChecksum)) {
+          valid = false;
+        }
       }
     }
     return valid;
@@ -238,7 +238,13 @@ public class ZipManager {
 
   public boolean verifySize(Path path, String file, Long metsSize) {
     boolean valid = true;
-    ZipEntry entry = getZipEntry(path, file);
+    ZipIndex.IndexEntry entry;
+    try {
+      entry = getZipIndex(path).getEntry(file);
+    } catch (IOException e) {
+      LOGGER.debug("Failed to retrieve the entry: {} from {}", file, path, e);
+      entry = null;
+    }
     if (entry == null) {
       valid = false;
     } else {
@@ -250,12 +256,10 @@ public class ZipManager {
   }
 
   public boolean verifyIfExistsFilesInFolder(Path path, String regex) throws IOException {
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().matches(regex)) {
-        if (entry.getName().split("/").length == 3) {
+    Pattern pattern = Pattern.compile(regex);
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
+      if (pattern.matcher(entry.getName()).matches()) {
+        if (entry.getSegmentCount() == 3) {
           if (!entry.isDirectory()) {
             return true;
           }
@@ -267,23 +271,21 @@ public class ZipManager {
 
   public int countMetadataFiles(Path path, String regex) throws IOException {
     int count = 0;
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
+    Pattern pattern = Pattern.compile(regex);
+    List<ZipIndex.IndexEntry> entries = getZipIndex(path).getEntries();
 
     if (regex.contains("descriptive")) {
-      while (entries.hasMoreElements()) {
-        ZipEntry entry = (ZipEntry) entries.nextElement();
-        if (entry.getName().matches(regex)) {
+      for (ZipIndex.IndexEntry entry : entries) {
+        if (pattern.matcher(entry.getName()).matches()) {
           if (!entry.isDirectory()) {
             count++;
           }
         }
       }
     } else {
-      while (entries.hasMoreElements()) {
-        ZipEntry entry = (ZipEntry) entries.nextElement();
-        if (entry.getName().matches(regex)) {
-          if (!entry.isDirectory() && !entry.toString().contains("descriptive")) {
+      for (ZipIndex.IndexEntry entry : entries) {
+        if (pattern.matcher(entry.getName()).matches()) {
+          if (!entry.isDirectory() && !entry.getName().contains("descriptive")) {
             count++;
           }
         }
@@ -292,85 +294,63 @@ public class ZipManager {
     return count;
   }
 
-  public HashMap<String, InputStream> getSubMets(Path path) throws IOException {
-    HashMap<String, InputStream> subMets = new HashMap<>();
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().endsWith("/METS.xml") && entry.getName().split("/").length > 2
-        && entry.getName().split("/").length <= 4 && !entry.getName().matches(".+/submission/.+")) {
-        InputStream stream = zipFile.getInputStream(entry);
-        if (stream != null) {
-          subMets.put(entry.getName(), stream);
-        }
+  /**
+   * Get the representation METS files of the IP. The files are only opened
+   * when the returned {@link MetsStreamSupplier}s are called, from the zip file
+   * of this manager.
+   *
+   * @param path
+   *          {@link Path} to the IP
+   * @return {@link HashMap} from the entry name to its {@link MetsStreamSupplier}
+   * @throws IOException
+   *           if some I/O error occurs
+   */
+  public HashMap<String, MetsStreamSupplier> getSubMets(Path path) throws IOException {
+    HashMap<String, MetsStreamSupplier> subMets = new HashMap<>();
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
+      final String name = entry.getName();
+      if (name.endsWith("/METS.xml") && entry.getSegmentCount() > 2 && entry.getSegmentCount() <= 4
+        && !SUBMISSION_PATTERN.matcher(name).matches()) {
+        subMets.put(name, () -> {
+          InputStream stream = getZipInputStream(path, name);
+          if (stream == null) {
+            throw new IOException(name + " not Found");
+          }
+          return stream;
+        });
       }
     }
     return subMets;
   }
 
   public boolean checkSingleRootFolder(Path path) throws IOException {
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-
-    Set<String> tmp = new HashSet<>();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      String name = entry.getName().split("/")[0];
-      tmp.add(name);
-    }
-    return tmp.size() == 1;
+    return getZipIndex(path).getTopLevelNames().size() == 1;
   }
 
   public boolean checkDirectory(Path path, String directoryPath) throws IOException {
-    ZipFile zipFile = new ZipFile(path.toFile());
-    ZipEntry e = zipFile.getEntry(directoryPath);
-    Enumeration entries = zipFile.entries();
-    boolean found = false;
-    if (e == null) {
-      while (entries.hasMoreElements()) {
-        ZipEntry entry = (ZipEntry) entries.nextElement();
-        if (entry.getName().startsWith(directoryPath) && !entry.isDirectory()) {
-          found = true;
-        }
-      }
-    } else {
-      found = true;
-    }
-    return found;
+    ZipIndex index = getZipIndex(path);
+    return index.contains(directoryPath) || index.contains(directoryPath + "/")
+      || index.containsFileWithPrefix(directoryPath);
   }
 
   public boolean checkSubMetsFolder(Path path, String objectId) throws IOException {
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
+    Pattern pattern = Pattern.compile(".*/?" + objectId + "/METS.xml");
+    Pattern lowerCasePattern = Pattern.compile(".*/?" + objectId.toLowerCase() + "/METS.xml");
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
       String name = entry.getName();
-      if (name.matches(".*/?" + objectId + "/METS.xml")) {
+      if (pattern.matcher(name).matches() || lowerCasePattern.matcher(name).matches()) {
         return true;
-      } else {
-        if (name.matches(".*/?" + objectId.toLowerCase() + "/METS.xml")) {
-          return true;
-        }
       }
     }
     return false;
   }
 
   public boolean checkRootFolderName(Path path, String objectId) throws IOException {
-    if (zipFile == null) {
-      zipFile = new ZipFile(path.toFile());
-    }
-
-    Enumeration entries = zipFile.entries();
+    Pattern pattern = Pattern.compile(".*/METS.xml");
     String entry = null;
-    while (entries.hasMoreElements()) {
-      ZipEntry entr = (ZipEntry) entries.nextElement();
-      if (entr.getName().matches(".*/METS.xml")) {
-        if (entr.getName().split("/").length == 2) {
-          entry = entr.getName();
-        }
+    for (ZipIndex.IndexEntry entr : getZipIndex(path).getEntries()) {
+      if (pattern.matcher(entr.getName()).matches() && entr.getSegmentCount() == 2) {
+        entry = entr.getName();
       }
     }
     if (entry == null) {
@@ -382,11 +362,9 @@ public class ZipManager {
 
   public HashMap<String, Boolean> getMetadataFiles(Path path, String regex) throws IOException {
     HashMap<String, Boolean> metadataFiles = new HashMap<>();
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().matches(regex)) {
+    Pattern pattern = Pattern.compile(regex);
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
+      if (pattern.matcher(entry.getName()).matches()) {
         if (!entry.isDirectory()) {
           metadataFiles.put(entry.getName(), false);
         }
@@ -397,11 +375,9 @@ public class ZipManager {
 
   public HashMap<String, Boolean> getFiles(Path path) throws IOException {
     HashMap<String, Boolean> metadataFiles = new HashMap<>();
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (!entry.getName().matches(".*/METS.xml") && !entry.getName().contains("/metadata") && !entry.isDirectory()
+    Pattern metsPattern = Pattern.compile(".*/METS.xml");
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
+      if (!metsPattern.matcher(entry.getName()).matches() && !entry.getName().contains("/metadata") && !entry.isDirectory()
         && !entry.getName().contains("/aip.json")) {
         metadataFiles.put(entry.getName(), false);
       }
@@ -411,11 +387,9 @@ public class ZipManager {
 
   public boolean checkPathIsDirectory(Path path, String filePath) throws IOException {
     boolean found = false;
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().matches(".*/?" + filePath + "/")) {
+    Pattern pattern = Pattern.compile(".*/?" + filePath + "/");
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
+      if (pattern.matcher(entry.getName()).matches()) {
         if (entry.isDirectory()) {
           found = true;
           break;
@@ -426,28 +400,14 @@ public class ZipManager {
   }
 
   public boolean checkIfExistsFolderInRoot(Path path, String folder) throws IOException {
-    boolean found = false;
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().matches(".*/" + folder + "/.*")) {
-        if (entry.getName().split("/")[1].equals(folder)) {
-          found = true;
-          break;
-        }
-      }
-    }
-    return found;
+    return getZipIndex(path).containsRootFolder(folder);
   }
 
   public boolean checkIfExistsFolderInside(Path path, String folder) throws IOException {
     boolean found = false;
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().matches(".*/" + folder + "/.*") && entry.getName().split("/").length >= 3) {
+    Pattern pattern = Pattern.compile(".*/" + folder + "/.*");
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
+      if (entry.getSegmentCount() >= 3 && pattern.matcher(entry.getName()).matches()) {
         found = true;
         break;
       }
@@ -456,12 +416,9 @@ public class ZipManager {
   }
 
   public boolean checkIfExistsFolderInsideRepresentation(Path path, String folder) throws IOException {
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().matches(".*/representations/.*/" + folder + "/.*")
-        && entry.getName().split("/").length >= 4) {
+    Pattern pattern = Pattern.compile(".*/representations/.*/" + folder + "/.*");
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
+      if (entry.getSegmentCount() >= 4 && pattern.matcher(entry.getName()).matches()) {
         return true;
       }
     }
@@ -469,59 +426,42 @@ public class ZipManager {
   }
 
   public boolean checkIfExistsSubMets(Path path) throws IOException {
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
     int countSubMets = 0;
     int countRepresentations;
-    List<String> representationsFoldersNames = new ArrayList<>();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
+    Set<String> representationsFoldersNames = new HashSet<>();
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
       if (entry.getName().endsWith("/METS.xml")) {
-        if (entry.getName().split("/").length > 2 && entry.getName().split("/").length <= 4
-          && !entry.getName().matches(".+/submission/.+")) {
+        if (entry.getSegmentCount() > 2 && entry.getSegmentCount() <= 4
+          && !SUBMISSION_PATTERN.matcher(entry.getName()).matches()) {
           countSubMets++;
         }
       } else {
-        if (entry.getName().contains("/representations/") && (entry.getName().split("/").length > 3
-          && !entry.isDirectory() && !entry.getName().matches(".+/submission/.+"))) {
-          String representationName = getRepresentationName(entry.getName());
-          if (!representationsFoldersNames.contains(representationName)) {
-            representationsFoldersNames.add(representationName);
-          }
+        if (entry.getName().contains("/representations/") && (entry.getSegmentCount() > 3 && !entry.isDirectory()
+          && !SUBMISSION_PATTERN.matcher(entry.getName()).matches())) {
+          representationsFoldersNames.add(getRepresentationName(entry));
         }
       }
     }
-    zipFile.close();
     countRepresentations = representationsFoldersNames.size();
     return countSubMets == countRepresentations;
   }
 
   public List<String> getRepresentationsFoldersNames(Path path) throws IOException {
-    List<String> representationsFoldersNames = new ArrayList<>();
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().contains("/representations/") && entry.getName().split("/").length > 3
-        && !entry.getName().matches(".+/submission/.+")) {
-        String representationName = getRepresentationName(entry.getName());
-        if (!representationsFoldersNames.contains(representationName)) {
-          representationsFoldersNames.add(representationName);
-        }
+    Set<String> representationsFoldersNames = new LinkedHashSet<>();
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
+      if (entry.getName().contains("/representations/") && entry.getSegmentCount() > 3
+        && !SUBMISSION_PATTERN.matcher(entry.getName()).matches()) {
+        representationsFoldersNames.add(getRepresentationName(entry));
       }
     }
-    zipFile.close();
-    return representationsFoldersNames;
+    return new ArrayList<>(representationsFoldersNames);
   }
 
   public int countFilesInsideRepresentations(Path path) throws IOException {
     int count = 0;
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().contains("/representations/") && !entry.getName().matches(".+/submission/.+")
-        && entry.getName().split("/").length == 3 && !entry.getName().endsWith("/")) {
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
+      if (entry.getName().contains("/representations/") && !SUBMISSION_PATTERN.matcher(entry.getName()).matches()
+        && entry.getSegmentCount() == 3 && !entry.getName().endsWith("/")) {
         count++;
       }
     }
@@ -535,37 +475,30 @@ public class ZipManager {
     commonFolders.add("schemas");
     commonFolders.add("representations");
     List<String> additionalFolders = new ArrayList<>();
-    ZipFile zipFile = new ZipFile(path.toFile());
-    Enumeration entries = zipFile.entries();
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      String[] folder = entry.getName().split("/");
-      if (folder.length == 2 && entry.isDirectory()) {
-        if (!commonFolders.contains(folder[1])) {
-          additionalFolders.add(folder[1]);
+    for (ZipIndex.IndexEntry entry : getZipIndex(path).getEntries()) {
+      if (entry.getSegmentCount() == 2 && entry.isDirectory()) {
+        if (!commonFolders.contains(entry.getSegment(1))) {
+          additionalFolders.add(entry.getSegment(1));
         }
       }
     }
     return additionalFolders;
   }
 
-  private String getRepresentationName(String entry) {
-    String[] representations = entry.split("/");
+  private String getRepresentationName(ZipIndex.IndexEntry entry) {
     StringBuilder representationName = new StringBuilder();
-    representationName.append(representations[0]).append("/").append(representations[1]).append("/")
-      .append(representations[2]);
+    representationName.append(entry.getSegment(0)).append("/").append(entry.getSegment(1)).append("/")
+      .append(entry.getSegment(2));
     return representationName.toString();
   }
 
   public boolean checkIfExistsFolderRepresentation(Path ipPath, String folder, String representation)
     throws IOException {
-    ZipFile zipFile = new ZipFile(ipPath.toFile());
-    Enumeration entries = zipFile.entries();
     StringBuilder regex = new StringBuilder();
     regex.append(".+/").append(representation).append("/").append(folder);
-    while (entries.hasMoreElements()) {
-      ZipEntry entry = (ZipEntry) entries.nextElement();
-      if (entry.getName().matches(regex.toString())) {
+    Pattern pattern = Pattern.compile(regex.toString());
+    for (ZipIndex.IndexEntry entry : getZipIndex(ipPath).getEntries()) {
+      if (pattern.matcher(entry.getName()).matches()) {
         return true;
       }
     }
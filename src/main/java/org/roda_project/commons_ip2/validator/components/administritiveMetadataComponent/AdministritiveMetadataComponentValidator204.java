@@ -4,11 +4,12 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.roda_project.commons_ip2.mets_v1_12.beans.AmdSecType;
-import org.roda_project.commons_ip2.validator.common.ControlledVocabularyParser;
+import org.roda_project.commons_ip2.validator.common.ControlledVocabularies;
 import org.roda_project.commons_ip2.validator.components.MetsValidatorImpl;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.constants.ConstantsCSIPspec;
@@ -31,9 +32,9 @@ public class AdministritiveMetadataComponentValidator204 extends MetsValidatorIm
    */
   private List<AmdSecType> amdSec;
   /**
-   * The {@link List} of {@link String}.
+   * The {@link Set} of {@link String}.
    */
-  private List<String> dmdSecStatus;
+  private Set<String> dmdSecStatus;
 
   /**
    * Initialize all objects needed to validation of this component.
@@ -47,7 +48,7 @@ public class AdministritiveMetadataComponentValidator204 extends MetsValidatorIm
    */
   public AdministritiveMetadataComponentValidator204() throws IOException, ParserConfigurationException, SAXException {
     this.moduleName = Constants.CSIP_MODULE_NAME_4;
-    this.dmdSecStatus = ControlledVocabularyParser.parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_DMD_SEC_STATUS);
+    this.dmdSecStatus = ControlledVocabularies.get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_DMD_SEC_STATUS);
   }
 
   @Override
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.roda_project.commons_ip2.mets_v1_12.beans.AmdSecType;
@@ -18,6 +19,7 @@ import org.roda_project.commons_ip2.validator.common.MetsParser;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.handlers.MetsHandler;
 import org.roda_project.commons_ip2.validator.reporter.ReporterDetails;
+import org.roda_project.commons_ip2.validator.state.MetsIdRegistry;
 import org.roda_project.commons_ip2.validator.state.MetsValidatorState;
 import org.roda_project.commons_ip2.validator.state.StructureValidatorState;
 import org.roda_project.commons_ip2.validator.utils.CHECKSUMTYPE;
@@ -252,7 +254,7 @@ public abstract class AmdSecValidator {
       final List<MdSecType> digiprov = a.getDigiprovMD();
       for (MdSecType md : digiprov) {
         if (!metsValidatorState.checkMetsInternalId(md.getID())) {
-          metsValidatorState.addMetsInternalId(md.getID());
+          metsValidatorState.addMetsInternalId(md.getID(), MetsIdRegistry.DIGIPROV_MD);
         } else {
           final StringBuilder message = new StringBuilder();
           message.append("Value ").append(md.getID())
@@ -270,7 +272,7 @@ public abstract class AmdSecValidator {
    * fixed vocabulary.See also: dmdSec status
    */
   protected ReporterDetails validateCSIP34(final MetsValidatorState metsValidatorState, final List<AmdSecType> amdSec,
-    final List<String> dmdSecStatus) {
+    final Set<String> dmdSecStatus) {
     for (AmdSecType a : amdSec) {
       final List<MdSecType> digiprov = a.getDigiprovMD();
       for (MdSecType md : digiprov) {
@@ -347,7 +349,10 @@ public abstract class AmdSecValidator {
     final MetsHandler amdSecHandler = new MetsHandler("digiprovMD", "mdRef", amdSecTypes);
     final MetsParser metsParser = new MetsParser();
     InputStream metsStream = null;
-    if (!amdSec.isEmpty()) {
+    final Map<String, String> indexedTypes = metsValidatorState.getXlinkTypes("digiprovMD", "mdRef");
+    if (indexedTypes != null) {
+      amdSecTypes.putAll(indexedTypes);
+    } else if (!amdSec.isEmpty()) {
       if (structureValidatorState.isZipFileFlag()) {
         if (metsValidatorState.isRootMets()) {
           metsStream = structureValidatorState.getZipManager()
@@ -771,7 +776,7 @@ public abstract class AmdSecValidator {
             return new ReporterDetails(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION, Message.createErrorMessage(
               message.toString(), metsValidatorState.getMetsName(), metsValidatorState.isRootMets()), false, false);
           } else {
-            metsValidatorState.addMetsInternalId(rmd.getID());
+            metsValidatorState.addMetsInternalId(rmd.getID(), MetsIdRegistry.RIGHTS_MD);
           }
         }
       } else {
@@ -789,7 +794,7 @@ public abstract class AmdSecValidator {
    * fixed vocabulary.See also: dmdSec status
    */
   protected ReporterDetails validateCSIP47(final MetsValidatorState metsValidatorState, final List<AmdSecType> amdSec,
-    final List<String> dmdSecStatus) {
+    final Set<String> dmdSecStatus) {
     for (AmdSecType a : amdSec) {
       final List<MdSecType> rigthsMD = a.getRightsMD();
       if (rigthsMD != null && !rigthsMD.isEmpty()) {
@@ -878,7 +883,10 @@ public abstract class AmdSecValidator {
     final MetsHandler amdSecHandler = new MetsHandler("rightsMD", "mdRef", amdSecTypes);
     final MetsParser metsParser = new MetsParser();
     InputStream metsStream = null;
-    if (!amdSec.isEmpty()) {
+    final Map<String, String> indexedTypes = metsValidatorState.getXlinkTypes("rightsMD", "mdRef");
+    if (indexedTypes != null) {
+      amdSecTypes.putAll(indexedTypes);
+    } else if (!amdSec.isEmpty()) {
       if (structureValidatorState.isZipFileFlag()) {
         if (metsValidatorState.isRootMets()) {
           metsStream = structureValidatorState.getZipManager()
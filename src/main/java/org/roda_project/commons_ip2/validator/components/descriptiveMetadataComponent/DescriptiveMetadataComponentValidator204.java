@@ -5,7 +5,7 @@ import org.roda_project.commons_ip2.mets_v1_12.beans.AmdSecType;
 import org.roda_project.commons_ip2.mets_v1_12.beans.MdSecType;
 import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
 import org.roda_project.commons_ip2.utils.IanaMediaTypes;
-import org.roda_project.commons_ip2.validator.common.ControlledVocabularyParser;
+import org.roda_project.commons_ip2.validator.common.ControlledVocabularies;
 import org.roda_project.commons_ip2.validator.common.FolderManager;
 import org.roda_project.commons_ip2.validator.common.MetsParser;
 import org.roda_project.commons_ip2.validator.common.ZipManager;
@@ -34,6 +34,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /** {@author João Gomes <jgomes@keep.pt>}. */
@@ -49,9 +50,9 @@ public class DescriptiveMetadataComponentValidator204 extends MetsValidatorImpl
    */
   private List<MdSecType> dmdSec;
   /**
-   * {@link List}.
+   * {@link Set}.
    */
-  private List<String> dmdSecStatus;
+  private Set<String> dmdSecStatus;
   /**
    * {@link Map}.
    */
@@ -68,7 +69,7 @@ public class DescriptiveMetadataComponentValidator204 extends MetsValidatorImpl
    */
   public DescriptiveMetadataComponentValidator204() throws IOException, ParserConfigurationException, SAXException {
     moduleName = Constants.CSIP_MODULE_NAME_3;
-    this.dmdSecStatus = ControlledVocabularyParser.parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_DMD_SEC_STATUS);
+    this.dmdSecStatus = ControlledVocabularies.get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_DMD_SEC_STATUS);
   }
 
   @Override
@@ -4,11 +4,12 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.roda_project.commons_ip2.mets_v1_12.beans.MdSecType;
-import org.roda_project.commons_ip2.validator.common.ControlledVocabularyParser;
+import org.roda_project.commons_ip2.validator.common.ControlledVocabularies;
 import org.roda_project.commons_ip2.validator.components.MetsValidatorImpl;
 import org.roda_project.commons_ip2.validator.constants220.Constants;
 import org.roda_project.commons_ip2.validator.constants220.ConstantsCSIPspec;
@@ -33,9 +34,9 @@ public class DescriptiveMetadataComponentValidator220 extends MetsValidatorImpl
    */
   private List<MdSecType> dmdSec;
   /**
-   * {@link List}.
+   * {@link Set}.
    */
-  private List<String> dmdSecStatus;
+  private Set<String> dmdSecStatus;
 
   /**
    * {@link Map}.
@@ -53,7 +54,7 @@ public class DescriptiveMetadataComponentValidator220 extends MetsValidatorImpl
    */
   public DescriptiveMetadataComponentValidator220() throws IOException, ParserConfigurationException, SAXException {
     moduleName = Constants.CSIP_MODULE_NAME_3;
-    this.dmdSecStatus = ControlledVocabularyParser.parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_DMD_SEC_STATUS);
+    this.dmdSecStatus = ControlledVocabularies.get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_DMD_SEC_STATUS);
   }
 
   @Override
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -23,6 +24,7 @@ import org.roda_project.commons_ip2.validator.common.ZipManager;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.handlers.MetsHandler;
 import org.roda_project.commons_ip2.validator.reporter.ReporterDetails;
+import org.roda_project.commons_ip2.validator.state.MetsIdRegistry;
 import org.roda_project.commons_ip2.validator.state.MetsValidatorState;
 import org.roda_project.commons_ip2.validator.state.StructureValidatorState;
 import org.roda_project.commons_ip2.validator.utils.CHECKSUMTYPE;
@@ -232,7 +234,7 @@ public abstract class DmdSecValidator {
     if (dmdSec != null && !dmdSec.isEmpty()) {
       for (MdSecType mdSec : dmdSec) {
         if (!metsValidatorState.checkMetsInternalId(mdSec.getID())) {
-          metsValidatorState.addMetsInternalId(mdSec.getID());
+          metsValidatorState.addMetsInternalId(mdSec.getID(), MetsIdRegistry.DMD_SEC);
         } else {
           final StringBuilder message = new StringBuilder();
           message.append("Value ").append(mdSec.getID())
@@ -277,7 +279,7 @@ public abstract class DmdSecValidator {
    * mets/dmdSec/@STATUS Indicates the status of the package using a fixed
    * vocabulary.See also: dmdSec status
    */
-  protected ReporterDetails validateCSIP20(final MetsValidatorState metsValidatorState, final List<MdSecType> dmdSec, final List<String> dmdSecStatus) {
+  protected ReporterDetails validateCSIP20(final MetsValidatorState metsValidatorState, final List<MdSecType> dmdSec, final Set<String> dmdSecStatus) {
     final ReporterDetails details = new ReporterDetails();
     for (MdSecType mdSec : dmdSec) {
       final String status = mdSec.getSTATUS();
@@ -352,7 +354,10 @@ public abstract class DmdSecValidator {
     final MetsHandler dmdSecHandler = new MetsHandler("dmdSec", "mdRef", dmdSecType);
     final MetsParser metsParser = new MetsParser();
     InputStream metsStream = null;
-    if (!dmdSec.isEmpty()) {
+    final Map<String, String> indexedTypes = metsValidatorState.getXlinkTypes("dmdSec", "mdRef");
+    if (indexedTypes != null) {
+      dmdSecType.putAll(indexedTypes);
+    } else if (!dmdSec.isEmpty()) {
       if (structureValidatorState.isZipFileFlag()) {
         if (metsValidatorState.isRootMets()) {
           metsStream = structureValidatorState.getZipManager()
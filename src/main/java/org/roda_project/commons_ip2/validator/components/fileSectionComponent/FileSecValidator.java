@@ -4,15 +4,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.xml.namespace.QName;
 
-import org.roda_project.commons_ip2.mets_v1_12.beans.AmdSecType;
 import org.roda_project.commons_ip2.mets_v1_12.beans.FileGrpType;
 import org.roda_project.commons_ip2.mets_v1_12.beans.FileType;
 import org.roda_project.commons_ip2.mets_v1_12.beans.MdSecType;
@@ -22,6 +24,7 @@ import org.roda_project.commons_ip2.validator.common.MetsParser;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.handlers.MetsHandler;
 import org.roda_project.commons_ip2.validator.reporter.ReporterDetails;
+import org.roda_project.commons_ip2.validator.state.MetsIdRegistry;
 import org.roda_project.commons_ip2.validator.state.MetsValidatorState;
 import org.roda_project.commons_ip2.validator.state.StructureValidatorState;
 import org.roda_project.commons_ip2.validator.utils.CHECKSUMTYPE;
@@ -63,7 +66,7 @@ public abstract class FileSecValidator {
       final String id = fileSec.getID();
       if (id != null) {
         if (!metsValidatorState.checkMetsInternalId(id)) {
-          metsValidatorState.addMetsInternalId(id);
+          metsValidatorState.addMetsInternalId(id, MetsIdRegistry.FILE_SEC);
         } else {
           final StringBuilder message = new StringBuilder();
           message.append("Value ").append(id).append(" in %1$s for mets/fileSec/@ID isn't unique in the package");
@@ -250,25 +253,12 @@ public abstract class FileSecValidator {
    */
   protected ReporterDetails validateCSIP61(final MetsValidatorState metsValidatorState) {
     final List<MetsType.FileSec.FileGrp> fileGrps = metsValidatorState.getMets().getFileSec().getFileGrp();
-    final List<AmdSecType> amdSec = metsValidatorState.getMets().getAmdSec();
+    final MetsIdRegistry declaredIds = metsValidatorState.getDeclaredIds();
     for (MetsType.FileSec.FileGrp fileGrp : fileGrps) {
       final QName keyAdmid = new QName(Constants.HTTPS_DILCIS_EU_XML_METS_CSIPEXTENSION_METS, "ADMID", "csip");
       final String admid = fileGrp.getOtherAttributes().get(keyAdmid);
       if (admid != null) {
-        boolean found = false;
-        for (AmdSecType a : amdSec) {
-          final List<MdSecType> digiProv = a.getDigiprovMD();
-          for (MdSecType mdSecType : digiProv) {
-            if (admid.equals(mdSecType.getID())) {
-              found = true;
-              break;
-            }
-          }
-          if (found) {
-            break;
-          }
-        }
-        if (!found) {
+        if (!declaredIds.contains(admid, MetsIdRegistry.DIGIPROV_MD)) {
           final StringBuilder message = new StringBuilder();
           message.append("Value ").append(admid).append(
             " in %1$s for mets/fileSec/fileGrp/file/@ADMID " + "doesn't match with any mets/amdSec/digiprovMD/@ID");
@@ -293,7 +283,7 @@ public abstract class FileSecValidator {
    * specification
    */
   protected ReporterDetails validateCSIP62(final MetsValidatorState metsValidatorState,
-    final List<String> contentInformationType) {
+    final Set<String> contentInformationType) {
     final List<MetsType.FileSec.FileGrp> fileGrps = metsValidatorState.getMets().getFileSec().getFileGrp();
     for (MetsType.FileSec.FileGrp fileGrp : fileGrps) {
       if (fileGrp.getUSE() != null && fileGrp.getUSE().matches("Representations/")) {
@@ -417,7 +407,7 @@ public abstract class FileSecValidator {
       final String id = grp.getID();
       if (id != null) {
         if (!metsValidatorState.checkMetsInternalId(id)) {
-          metsValidatorState.addMetsInternalId(id);
+          metsValidatorState.addMetsInternalId(id, MetsIdRegistry.FILE_GRP);
         } else {
           final StringBuilder message = new StringBuilder();
           message.append("Value ").append(id)
@@ -494,7 +484,7 @@ public abstract class FileSecValidator {
         final String id = file.getID();
         if (id != null) {
           if (!metsValidatorState.checkMetsInternalId(id)) {
-            metsValidatorState.addMetsInternalId(id);
+            metsValidatorState.addMetsInternalId(id, MetsIdRegistry.FILE);
           } else {
             final StringBuilder message = new StringBuilder();
             message.append("Value ").append(id)
@@ -707,16 +697,25 @@ public abstract class FileSecValidator {
                     finalPath.append(metsValidatorState.getMets().getOBJID()).append(Constants.SEPARATOR)
                       .append(filePath);
                   }
-                  if (!structureValidatorState.getZipManager().verifyChecksum(structureValidatorState.getIpPath(),
-                    finalPath.toString(), checksumType, checksum)) {
+                  Boolean valid = getVerifiedChecksum(metsValidatorState, finalPath.toString(), checksumType,
+                    checksum);
+                  if (valid == null) {
+                    valid = structureValidatorState.getZipManager().verifyChecksum(
+                      structureValidatorState.getIpPath(), finalPath.toString(), checksumType, checksum);
+                  }
+                  if (!valid) {
                     message.append("mets/dmdSec/mdRef/@CHECKSUM ").append(checksum)
                       .append(" in %1$s and checksum of file (").append(finalPath).append(") isn't equal");
                     return new ReporterDetails(getCSIPVersion(), Message.createErrorMessage(message.toString(),
                       metsValidatorState.getMetsName(), metsValidatorState.isRootMets()), false, false);
                   }
                 } else {
-                  if (!structureValidatorState.getFolderManager().verifyChecksum(
-                    Paths.get(metsValidatorState.getMetsPath()).resolve(filePath), checksumType, checksum)) {
+                  final Path path = Paths.get(metsValidatorState.getMetsPath()).resolve(filePath);
+                  Boolean valid = getVerifiedChecksum(metsValidatorState, path.toString(), checksumType, checksum);
+                  if (valid == null) {
+                    valid = structureValidatorState.getFolderManager().verifyChecksum(path, checksumType, checksum);
+                  }
+                  if (!valid) {
                     message.append("mets/dmdSec/mdRef/@CHECKSUM ").append(checksum)
                       .append(" in %1$s and checksum of file (")
                       .append(Paths.get(metsValidatorState.getMetsPath()).resolve(filePath)).append(") isn't equal");
@@ -733,6 +732,18 @@ public abstract class FileSecValidator {
     return new ReporterDetails();
   }
 
+  /**
+   * Get the outcome of the checksum verification stage, if the checksum was
+   * verified ahead of the rule evaluation.
+   */
+  private Boolean getVerifiedChecksum(final MetsValidatorState metsValidatorState, final String file,
+    final String checksumType, final String checksum) {
+    if (metsValidatorState.getChecksumResults() == null) {
+      return null;
+    }
+    return metsValidatorState.getChecksumResults().get(file, checksumType, checksum);
+  }
+
   /*
    * mets/fileSec/fileGrp/file/@CHECKSUMTYPE The type of checksum following the
    * value list present in the METS-standard which has been used for calculating
@@ -801,17 +812,15 @@ public abstract class FileSecValidator {
    */
   protected ReporterDetails validateCSIP74(final MetsValidatorState metsValidatorState) {
     final List<MetsType.FileSec.FileGrp> fileGrps = metsValidatorState.getMets().getFileSec().getFileGrp();
-    final List<AmdSecType> amdSec = metsValidatorState.getMets().getAmdSec();
 
-    // Get all identifiers for DigiprovMD
-    final List<String> amdIds = amdSec.stream().map(AmdSecType::getDigiprovMD).flatMap(List::stream)
-      .filter(dp -> dp.getMdRef() != null).map(dp -> dp.getMdRef().getID()).toList();
+    // All identifiers for DigiprovMD
+    final MetsIdRegistry declaredIds = metsValidatorState.getDeclaredIds();
 
     // Get all file ADMIDs that are NOT in the list of DigiprovMD identifiers
     final List<String> admidsNotInAmd = fileGrps.stream().map(FileGrpType::getFile).flatMap(List::stream)
       .map(FileType::getADMID).flatMap(List::stream).filter(MdSecType.class::isInstance).map(MdSecType.class::cast)
       .filter(md -> md.getMdRef() != null).map(md -> md.getMdRef().getID()).distinct()
-      .filter(admid -> !amdIds.contains(admid)).toList();
+      .filter(admid -> !declaredIds.contains(admid, MetsIdRegistry.DIGIPROV_MD_MD_REF)).toList();
 
     // Report only valid if all ADMIDs are in DigiprovMD identifiers
     final ReporterDetails r = new ReporterDetails();
@@ -837,7 +846,7 @@ public abstract class FileSecValidator {
    */
   protected ReporterDetails validateCSIP75(final MetsValidatorState metsValidatorState) {
     final List<MetsType.FileSec.FileGrp> fileGrps = metsValidatorState.getMets().getFileSec().getFileGrp();
-    final List<MdSecType> dmdSec = metsValidatorState.getMets().getDmdSec();
+    final MetsIdRegistry declaredIds = metsValidatorState.getDeclaredIds();
     for (MetsType.FileSec.FileGrp fileGrp : fileGrps) {
       final List<FileType> files = fileGrp.getFile();
       for (FileType file : files) {
@@ -847,12 +856,8 @@ public abstract class FileSecValidator {
           for (Object o : dmdids) {
             final MdSecType mdSecType = (MdSecType) o;
             final String dmdid = mdSecType.getMdRef().getID();
-            for (MdSecType md : dmdSec) {
-              final String id = md.getMdRef().getID();
-              if (id != null && dmdid.equals(id)) {
-                found = true;
-                break;
-              }
+            if (declaredIds.contains(dmdid, MetsIdRegistry.DMD_SEC_MD_REF)) {
+              found = true;
             }
             if (!found) {
               final StringBuilder message = new StringBuilder();
@@ -952,7 +957,10 @@ public abstract class FileSecValidator {
     final MetsHandler fileSecHandler = new MetsHandler("file", "FLocat", fileSecTypes);
     final MetsParser metsParser = new MetsParser();
     InputStream metsStream = null;
-    if (!fileGrp.isEmpty()) {
+    final Map<String, String> indexedTypes = metsValidatorState.getXlinkTypes("file", "FLocat");
+    if (indexedTypes != null) {
+      fileSecTypes.putAll(indexedTypes);
+    } else if (!fileGrp.isEmpty()) {
       if (structureValidatorState.isZipFileFlag()) {
         if (metsValidatorState.isRootMets()) {
           metsStream = structureValidatorState.getZipManager()
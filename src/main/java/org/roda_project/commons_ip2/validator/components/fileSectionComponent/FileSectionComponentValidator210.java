@@ -4,10 +4,11 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.parsers.ParserConfigurationException;
 
-import org.roda_project.commons_ip2.validator.common.ControlledVocabularyParser;
+import org.roda_project.commons_ip2.validator.common.ControlledVocabularies;
 import org.roda_project.commons_ip2.validator.components.MetsValidatorImpl;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.constants.ConstantsCSIPspec;
@@ -26,9 +27,9 @@ public class FileSectionComponentValidator210 extends MetsValidatorImpl {
    */
   private final String moduleName;
   /**
-   * {@link List} of content information type.
+   * {@link Set} of content information type.
    */
-  private List<String> contentInformationType;
+  private Set<String> contentInformationType;
 
   /**
    * Initializes Validation component.
@@ -42,8 +43,8 @@ public class FileSectionComponentValidator210 extends MetsValidatorImpl {
    */
   public FileSectionComponentValidator210() throws IOException, ParserConfigurationException, SAXException {
     moduleName = Constants.CSIP_MODULE_NAME_5;
-    this.contentInformationType = ControlledVocabularyParser
-      .parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_CONTENT_INFORMATION_TYPE);
+    this.contentInformationType = ControlledVocabularies
+      .get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_CONTENT_INFORMATION_TYPE);
   }
 
   @Override
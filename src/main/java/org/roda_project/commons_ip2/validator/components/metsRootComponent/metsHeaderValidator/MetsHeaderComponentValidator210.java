@@ -4,11 +4,12 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
-import org.roda_project.commons_ip2.validator.common.ControlledVocabularyParser;
+import org.roda_project.commons_ip2.validator.common.ControlledVocabularies;
 import org.roda_project.commons_ip2.validator.components.MetsValidatorImpl;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.constants.ConstantsCSIPspec;
@@ -27,9 +28,9 @@ public class MetsHeaderComponentValidator210 extends MetsValidatorImpl {
   private final String moduleName;
 
   /**
-   * {@link List} of {@link String} with OAIS package types.
+   * {@link Set} of {@link String} with OAIS package types.
    */
-  private final List<String> oaisPackageTypes;
+  private final Set<String> oaisPackageTypes;
 
   /**
    * {@link MetsType.MetsHdr}.
@@ -53,8 +54,7 @@ public class MetsHeaderComponentValidator210 extends MetsValidatorImpl {
    */
   public MetsHeaderComponentValidator210() throws IOException, ParserConfigurationException, SAXException {
     this.moduleName = Constants.CSIP_MODULE_NAME_2;
-    this.oaisPackageTypes = ControlledVocabularyParser
-      .parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_OAIS_PACKAGE_TYPE);
+    this.oaisPackageTypes = ControlledVocabularies.get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_OAIS_PACKAGE_TYPE);
   }
 
   @Override
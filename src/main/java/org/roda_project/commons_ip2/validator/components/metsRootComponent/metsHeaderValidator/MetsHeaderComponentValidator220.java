@@ -1,7 +1,7 @@
 package org.roda_project.commons_ip2.validator.components.metsRootComponent.metsHeaderValidator;
 
 import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
-import org.roda_project.commons_ip2.validator.common.ControlledVocabularyParser;
+import org.roda_project.commons_ip2.validator.common.ControlledVocabularies;
 import org.roda_project.commons_ip2.validator.components.MetsValidatorImpl;
 import org.roda_project.commons_ip2.validator.constants220.Constants;
 import org.roda_project.commons_ip2.validator.constants220.ConstantsCSIPspec;
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Carlos Afonso <cafonso@keep.pt>
@@ -28,9 +29,9 @@ public class MetsHeaderComponentValidator220 extends MetsValidatorImpl {
   private final String moduleName;
 
   /**
-   * {@link List} of {@link String} with OAIS package types.
+   * {@link Set} of {@link String} with OAIS package types.
    */
-  private final List<String> oaisPackageTypes;
+  private final Set<String> oaisPackageTypes;
 
   /**
    * {@link MetsType.MetsHdr}.
@@ -54,8 +55,7 @@ public class MetsHeaderComponentValidator220 extends MetsValidatorImpl {
    */
   public MetsHeaderComponentValidator220() throws IOException, ParserConfigurationException, SAXException {
     this.moduleName = Constants.CSIP_MODULE_NAME_2;
-    this.oaisPackageTypes = ControlledVocabularyParser
-      .parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_OAIS_PACKAGE_TYPE);
+    this.oaisPackageTypes = ControlledVocabularies.get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_OAIS_PACKAGE_TYPE);
   }
 
   @Override
@@ -1,6 +1,7 @@
 package org.roda_project.commons_ip2.validator.components.metsRootComponent.metsHeaderValidator;
 
 import java.util.List;
+import java.util.Set;
 
 import javax.xml.datatype.XMLGregorianCalendar;
 
@@ -50,7 +51,7 @@ public abstract class MetsHeaderValidator {
    * OAISPackage type
    */
   protected ReporterDetails validateCSIP9(final MetsValidatorState metsValidatorState, MetsType.MetsHdr metsHdr,
-    final List<String> oaisPackageTypes) {
+    final Set<String> oaisPackageTypes) {
     final ReporterDetails details = new ReporterDetails();
     final String oaisPackageType = metsHdr.getOAISPACKAGETYPE();
     if (oaisPackageType == null || oaisPackageType.equals("")) {
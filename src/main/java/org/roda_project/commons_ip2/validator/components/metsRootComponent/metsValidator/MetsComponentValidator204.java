@@ -4,10 +4,11 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.parsers.ParserConfigurationException;
 
-import org.roda_project.commons_ip2.validator.common.ControlledVocabularyParser;
+import org.roda_project.commons_ip2.validator.common.ControlledVocabularies;
 import org.roda_project.commons_ip2.validator.components.MetsValidatorImpl;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.constants.ConstantsCSIPspec;
@@ -26,14 +27,14 @@ public class MetsComponentValidator204 extends MetsValidatorImpl {
   private final String moduleName;
 
   /**
-   * {@link List} of {@link String} with content categories.
+   * {@link Set} of {@link String} with content categories.
    */
-  private final List<String> contentCategory;
+  private final Set<String> contentCategory;
 
   /**
-   * {@link List} of {@link String} with content information types.
+   * {@link Set} of {@link String} with content information types.
    */
-  private final List<String> contentInformationTypesList;
+  private final Set<String> contentInformationTypesList;
 
   /**
    * Initialize all objects needed to validation of this component.
@@ -47,9 +48,9 @@ public class MetsComponentValidator204 extends MetsValidatorImpl {
    */
   public MetsComponentValidator204() throws IOException, ParserConfigurationException, SAXException {
     this.moduleName = Constants.CSIP_MODULE_NAME_2;
-    this.contentCategory = ControlledVocabularyParser.parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_CONTENT_CATEGORY);
-    this.contentInformationTypesList = ControlledVocabularyParser
-      .parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_CONTENT_INFORMATION_TYPE);
+    this.contentCategory = ControlledVocabularies.get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_CONTENT_CATEGORY);
+    this.contentInformationTypesList = ControlledVocabularies
+      .get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_CONTENT_INFORMATION_TYPE);
   }
 
   /**
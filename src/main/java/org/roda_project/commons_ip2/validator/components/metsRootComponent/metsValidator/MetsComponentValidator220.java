@@ -1,6 +1,6 @@
 package org.roda_project.commons_ip2.validator.components.metsRootComponent.metsValidator;
 
-import org.roda_project.commons_ip2.validator.common.ControlledVocabularyParser;
+import org.roda_project.commons_ip2.validator.common.ControlledVocabularies;
 import org.roda_project.commons_ip2.validator.components.MetsValidatorImpl;
 import org.roda_project.commons_ip2.validator.constants220.Constants;
 import org.roda_project.commons_ip2.validator.constants220.ConstantsCSIPspec;
@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Carlos Afonso <cafonso@keep.pt>
@@ -27,14 +28,14 @@ public class MetsComponentValidator220 extends MetsValidatorImpl {
   private final String moduleName;
 
   /**
-   * {@link List} of {@link String} with content categories.
+   * {@link Set} of {@link String} with content categories.
    */
-  private final List<String> contentCategory;
+  private final Set<String> contentCategory;
 
   /**
-   * {@link List} of {@link String} with content information types.
+   * {@link Set} of {@link String} with content information types.
    */
-  private final List<String> contentInformationTypesList;
+  private final Set<String> contentInformationTypesList;
 
   /**
    * Initialize all objects needed to validation of this component.
@@ -48,9 +49,9 @@ public class MetsComponentValidator220 extends MetsValidatorImpl {
    */
   public MetsComponentValidator220() throws IOException, ParserConfigurationException, SAXException {
     this.moduleName = Constants.CSIP_MODULE_NAME_2;
-    this.contentCategory = ControlledVocabularyParser.parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_CONTENT_CATEGORY);
-    this.contentInformationTypesList = ControlledVocabularyParser
-      .parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_CONTENT_INFORMATION_TYPE);
+    this.contentCategory = ControlledVocabularies.get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_CONTENT_CATEGORY);
+    this.contentInformationTypesList = ControlledVocabularies
+      .get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_CONTENT_INFORMATION_TYPE);
   }
 
   /**
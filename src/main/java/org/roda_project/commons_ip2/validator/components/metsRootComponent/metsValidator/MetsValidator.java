@@ -2,7 +2,7 @@ package org.roda_project.commons_ip2.validator.components.metsRootComponent.mets
 
 import java.io.IOException;
 import java.nio.file.Paths;
-import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.roda_project.commons_ip2.validator.reporter.ReporterDetails;
@@ -79,7 +79,7 @@ public abstract class MetsValidator {
    * @return {@link ReporterDetails}
    */
   protected ReporterDetails validateCSIP2(final MetsValidatorState metsValidatorState,
-    final List<String> contentCategory) {
+    final Set<String> contentCategory) {
     final String type = metsValidatorState.getMets().getTYPE();
     if (StringUtils.isBlank(type)) {
       return new ReporterDetails(getCSIPVersion(),
@@ -132,7 +132,7 @@ public abstract class MetsValidator {
    * @return {@link ReporterDetails}
    */
   protected ReporterDetails validateCSIP4(final MetsValidatorState metsValidatorState,
-    final List<String> contentInformationTypesList) {
+    final Set<String> contentInformationTypesList) {
     final String contentInformationType = metsValidatorState.getMets().getCONTENTINFORMATIONTYPE();
     if (contentInformationType != null) {
       if (!contentInformationTypesList.contains(contentInformationType)) {
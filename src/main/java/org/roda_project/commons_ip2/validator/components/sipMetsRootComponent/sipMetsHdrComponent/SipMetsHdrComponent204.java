@@ -4,11 +4,12 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
-import org.roda_project.commons_ip2.validator.common.ControlledVocabularyParser;
+import org.roda_project.commons_ip2.validator.common.ControlledVocabularies;
 import org.roda_project.commons_ip2.validator.components.MetsValidatorImpl;
 import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsComponent.SipMetsValidator;
 import org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsComponent.SipMetsValidatorFactory;
@@ -45,9 +46,9 @@ public class SipMetsHdrComponent204 extends MetsValidatorImpl {
    */
   private List<MetsType.MetsHdr.Agent> agents;
   /**
-   * {@link List}.
+   * {@link Set}.
    */
-  private final List<String> recordsStatus;
+  private final Set<String> recordsStatus;
 
   /**
    * Initializes Object.
@@ -61,7 +62,7 @@ public class SipMetsHdrComponent204 extends MetsValidatorImpl {
    */
   public SipMetsHdrComponent204() throws IOException, ParserConfigurationException, SAXException {
     this.moduleName = Constants.SIP_MODULE_NAME_2;
-    this.recordsStatus = ControlledVocabularyParser.parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_RECORD_STATUS);
+    this.recordsStatus = ControlledVocabularies.get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_RECORD_STATUS);
   }
 
   public void setIsToValidateMetsHdr(final boolean isToValidateMetsHdr) {
@@ -1,7 +1,7 @@
 package org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsHdrComponent;
 
 import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
-import org.roda_project.commons_ip2.validator.common.ControlledVocabularyParser;
+import org.roda_project.commons_ip2.validator.common.ControlledVocabularies;
 import org.roda_project.commons_ip2.validator.components.MetsValidatorImpl;
 import org.roda_project.commons_ip2.validator.constants220.Constants;
 import org.roda_project.commons_ip2.validator.constants220.ConstantsSIPspec;
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Carlos Afonso <cafonso@keep.pt>
@@ -44,9 +45,9 @@ public class SipMetsHdrComponent220 extends MetsValidatorImpl {
    */
   private List<MetsType.MetsHdr.Agent> agents;
   /**
-   * {@link List}.
+   * {@link Set}.
    */
-  private final List<String> recordsStatus;
+  private final Set<String> recordsStatus;
 
   /**
    * Initializes Object.
@@ -60,7 +61,7 @@ public class SipMetsHdrComponent220 extends MetsValidatorImpl {
    */
   public SipMetsHdrComponent220() throws IOException, ParserConfigurationException, SAXException {
     this.moduleName = Constants.SIP_MODULE_NAME_2;
-    this.recordsStatus = ControlledVocabularyParser.parse(Constants.PATH_RESOURCES_CSIP_VOCABULARY_RECORD_STATUS);
+    this.recordsStatus = ControlledVocabularies.get(Constants.PATH_RESOURCES_CSIP_VOCABULARY_RECORD_STATUS);
   }
 
   public void setIsToValidateMetsHdr(final boolean isToValidateMetsHdr) {
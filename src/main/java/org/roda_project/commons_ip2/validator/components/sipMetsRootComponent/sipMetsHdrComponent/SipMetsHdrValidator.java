@@ -1,6 +1,7 @@
 package org.roda_project.commons_ip2.validator.components.sipMetsRootComponent.sipMetsHdrComponent;
 
 import java.util.List;
+import java.util.Set;
 
 import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
 import org.roda_project.commons_ip2.validator.constants.Constants;
@@ -21,7 +22,7 @@ public abstract class SipMetsHdrValidator {
    */
 
   protected ReporterDetails validateSIP3(final MetsValidatorState metsValidatorState, final MetsType.MetsHdr metsHdr,
-    final List<String> recordsStatus) {
+    final Set<String> recordsStatus) {
     final String recordStatus = metsHdr.getRECORDSTATUS();
     if (recordStatus != null && !recordsStatus.contains(recordStatus)) {
       final StringBuilder message = new StringBuilder();
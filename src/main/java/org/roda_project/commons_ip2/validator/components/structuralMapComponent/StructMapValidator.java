@@ -7,6 +7,7 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.roda_project.commons_ip2.mets_v1_12.beans.AmdSecType;
 import org.roda_project.commons_ip2.mets_v1_12.beans.DivType;
@@ -18,6 +19,7 @@ import org.roda_project.commons_ip2.validator.common.MetsParser;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.handlers.MetsHandler;
 import org.roda_project.commons_ip2.validator.reporter.ReporterDetails;
+import org.roda_project.commons_ip2.validator.state.MetsIdRegistry;
 import org.roda_project.commons_ip2.validator.state.MetsValidatorState;
 import org.roda_project.commons_ip2.validator.state.StructureValidatorState;
 import org.roda_project.commons_ip2.validator.utils.DecoderUtils;
@@ -148,7 +150,7 @@ public abstract class StructMapValidator {
             return new ReporterDetails(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION, Message.createErrorMessage(
               message.toString(), metsValidatorState.getMetsName(), metsValidatorState.isRootMets()), false, false);
           } else {
-            metsValidatorState.addMetsInternalId(id);
+            metsValidatorState.addMetsInternalId(id, MetsIdRegistry.STRUCT_MAP);
           }
         }
       }
@@ -202,7 +204,7 @@ public abstract class StructMapValidator {
               return new ReporterDetails(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION, Message.createErrorMessage(
                 message.toString(), metsValidatorState.getMetsName(), metsValidatorState.isRootMets()), false, false);
             } else {
-              metsValidatorState.addMetsInternalId(id);
+              metsValidatorState.addMetsInternalId(id, MetsIdRegistry.DIV);
             }
           }
         }
@@ -340,7 +342,7 @@ public abstract class StructMapValidator {
                       metsValidatorState.isRootMets()),
                     false, false);
                 } else {
-                  metsValidatorState.addMetsInternalId(id);
+                  metsValidatorState.addMetsInternalId(id, MetsIdRegistry.DIV);
                 }
               }
             }
@@ -390,20 +392,7 @@ public abstract class StructMapValidator {
    */
   protected ReporterDetails validateCSIP91(final MetsValidatorState metsValidatorState) {
     final List<StructMapType> structMap = metsValidatorState.getMets().getStructMap();
-    final List<AmdSecType> amdSec = metsValidatorState.getMets().getAmdSec();
-    final List<String> amdSecIDs = new ArrayList<>();
-    if (amdSec != null && !amdSec.isEmpty()) {
-      for (AmdSecType amdSecType : amdSec) {
-        final List<MdSecType> allMDS = new ArrayList<>();
-        allMDS.addAll(amdSecType.getDigiprovMD());
-        allMDS.addAll(amdSecType.getRightsMD());
-        allMDS.addAll(amdSecType.getTechMD());
-        allMDS.addAll(amdSecType.getSourceMD());
-        for (MdSecType mdSecType : allMDS) {
-          amdSecIDs.add(mdSecType.getID());
-        }
-      }
-    }
+    final MetsIdRegistry declaredIds = metsValidatorState.getDeclaredIds();
     if (structMap != null) {
       for (StructMapType struct : structMap) {
         final DivType div = struct.getDiv();
@@ -420,7 +409,8 @@ public abstract class StructMapValidator {
                   } else {
                     admid = ((MdSecType) o).getID();
                   }
-                  if (!amdSecIDs.contains(admid)) {
+                  if (!declaredIds.contains(admid, MetsIdRegistry.DIGIPROV_MD, MetsIdRegistry.RIGHTS_MD,
+                    MetsIdRegistry.TECH_MD, MetsIdRegistry.SOURCE_MD)) {
                     final StringBuilder message = new StringBuilder();
                     message.append("mets/structMap[@LABEL='CSIP']/div/div[@LABEL='Metadata']/@ADMID (").append(admid)
                       .append(") doesn't match with any mets/amdSec/digiprovMD/@ID in %1$s");
@@ -449,13 +439,7 @@ public abstract class StructMapValidator {
    */
   protected ReporterDetails validateCSIP92(final MetsValidatorState metsValidatorState) {
     final List<StructMapType> structMap = metsValidatorState.getMets().getStructMap();
-    final List<MdSecType> dmdSec = metsValidatorState.getMets().getDmdSec();
-    final List<String> dmdSecIDs = new ArrayList<>();
-    if (!dmdSec.isEmpty()) {
-      for (MdSecType md : dmdSec) {
-        dmdSecIDs.add(md.getID());
-      }
-    }
+    final MetsIdRegistry declaredIds = metsValidatorState.getDeclaredIds();
     if (structMap != null) {
       for (StructMapType struct : structMap) {
         final DivType div = struct.getDiv();
@@ -467,7 +451,7 @@ public abstract class StructMapValidator {
               if (!dmdids.isEmpty()) {
                 for (Object o : dmdids) {
                   final String dmid = ((MdSecType) o).getID();
-                  if (!dmdSecIDs.contains(dmid)) {
+                  if (!declaredIds.contains(dmid, MetsIdRegistry.DMD_SEC)) {
                     final StringBuilder message = new StringBuilder();
                     message.append("mets/structMap[@LABEL='CSIP']/div/div[@LABEL='Metadata']/@DMDID (").append(dmid)
                       .append(") not match with any mets/dmdSec/mdRef/@ID in %1$s");
@@ -565,7 +549,7 @@ public abstract class StructMapValidator {
                       metsValidatorState.isRootMets()),
                     false, false);
                 } else {
-                  metsValidatorState.addMetsInternalId(id);
+                  metsValidatorState.addMetsInternalId(id, MetsIdRegistry.DIV);
                 }
               }
             }
@@ -671,13 +655,7 @@ public abstract class StructMapValidator {
    */
   protected ReporterDetails validateCSIP116(final MetsValidatorState metsValidatorState) {
     final List<StructMapType> structMap = metsValidatorState.getMets().getStructMap();
-    final MetsType.FileSec fileSec = metsValidatorState.getMets().getFileSec();
-    final List<MetsType.FileSec.FileGrp> fileGrps;
-    if (fileSec != null) {
-      fileGrps = metsValidatorState.getMets().getFileSec().getFileGrp();
-    } else {
-      fileGrps = new ArrayList<>();
-    }
+    final MetsIdRegistry declaredIds = metsValidatorState.getDeclaredIds();
     boolean found = false;
     if (structMap != null) {
       for (StructMapType struct : structMap) {
@@ -690,12 +668,9 @@ public abstract class StructMapValidator {
               if (ftprs != null && !ftprs.isEmpty()) {
                 for (DivType.Fptr fptr : ftprs) {
                   final String fileid = ((MetsType.FileSec.FileGrp) fptr.getFILEID()).getID();
-                  for (MetsType.FileSec.FileGrp fileGrp : fileGrps) {
-                    if (fileGrp.getUSE() != null && fileGrp.getUSE().equals("Documentation")) {
-                      final String id = fileGrp.getID();
-                      if (id.equals(fileid)) {
-                        found = true;
-                      }
+                  for (Object element : declaredIds.getElements(fileid, MetsIdRegistry.FILE_GRP)) {
+                    if ("Documentation".equals(((MetsType.FileSec.FileGrp) element).getUSE())) {
+                      found = true;
                     }
                   }
                   if (!found) {
@@ -796,7 +771,7 @@ public abstract class StructMapValidator {
                       metsValidatorState.isRootMets()),
                     false, false);
                 } else {
-                  metsValidatorState.addMetsInternalId(id);
+                  metsValidatorState.addMetsInternalId(id, MetsIdRegistry.DIV);
                 }
               }
             }
@@ -900,13 +875,7 @@ public abstract class StructMapValidator {
    */
   protected ReporterDetails validateCSIP118(final MetsValidatorState metsValidatorState) {
     final List<StructMapType> structMap = metsValidatorState.getMets().getStructMap();
-    final MetsType.FileSec fileSec = metsValidatorState.getMets().getFileSec();
-    final List<MetsType.FileSec.FileGrp> fileGrps;
-    if (fileSec != null) {
-      fileGrps = metsValidatorState.getMets().getFileSec().getFileGrp();
-    } else {
-      fileGrps = new ArrayList<>();
-    }
+    final MetsIdRegistry declaredIds = metsValidatorState.getDeclaredIds();
     boolean found = false;
     if (structMap != null) {
       for (StructMapType struct : structMap) {
@@ -919,12 +888,9 @@ public abstract class StructMapValidator {
               if (ftprs != null && !ftprs.isEmpty()) {
                 for (DivType.Fptr fptr : ftprs) {
                   final String fileid = ((MetsType.FileSec.FileGrp) fptr.getFILEID()).getID();
-                  for (MetsType.FileSec.FileGrp fileGrp : fileGrps) {
-                    if (fileGrp.getUSE() != null && fileGrp.getUSE().equals("Schemas")) {
-                      final String id = fileGrp.getID();
-                      if (id.equals(fileid)) {
-                        found = true;
-                      }
+                  for (Object element : declaredIds.getElements(fileid, MetsIdRegistry.FILE_GRP)) {
+                    if ("Schemas".equals(((MetsType.FileSec.FileGrp) element).getUSE())) {
+                      found = true;
                     }
                   }
                   if (!found) {
@@ -1026,7 +992,7 @@ public abstract class StructMapValidator {
                       metsValidatorState.isRootMets()),
                     false, false);
                 } else {
-                  metsValidatorState.addMetsInternalId(id);
+                  metsValidatorState.addMetsInternalId(id, MetsIdRegistry.DIV);
                 }
               }
             }
@@ -1146,13 +1112,7 @@ public abstract class StructMapValidator {
    */
   protected ReporterDetails validateCSIP119(final MetsValidatorState metsValidatorState) {
     final List<StructMapType> structMap = metsValidatorState.getMets().getStructMap();
-    final MetsType.FileSec fileSec = metsValidatorState.getMets().getFileSec();
-    final List<MetsType.FileSec.FileGrp> fileGrps;
-    if (fileSec != null) {
-      fileGrps = metsValidatorState.getMets().getFileSec().getFileGrp();
-    } else {
-      fileGrps = new ArrayList<>();
-    }
+    final MetsIdRegistry declaredIds = metsValidatorState.getDeclaredIds();
     boolean found = false;
     if (structMap != null) {
       for (StructMapType struct : structMap) {
@@ -1165,12 +1125,9 @@ public abstract class StructMapValidator {
               if (ftprs != null && !ftprs.isEmpty()) {
                 for (DivType.Fptr fptr : ftprs) {
                   final String fileid = ((MetsType.FileSec.FileGrp) fptr.getFILEID()).getID();
-                  for (MetsType.FileSec.FileGrp fileGrp : fileGrps) {
-                    if (fileGrp.getUSE().equals("Representations")) {
-                      final String id = fileGrp.getID();
-                      if (id.equals(fileid)) {
-                        found = true;
-                      }
+                  for (Object element : declaredIds.getElements(fileid, MetsIdRegistry.FILE_GRP)) {
+                    if ("Representations".equals(((MetsType.FileSec.FileGrp) element).getUSE())) {
+                      found = true;
                     }
                   }
                   if (!found) {
@@ -1251,7 +1208,7 @@ public abstract class StructMapValidator {
                 return new ReporterDetails(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION, Message.createErrorMessage(
                   message.toString(), metsValidatorState.getMetsName(), metsValidatorState.isRootMets()), false, false);
               } else {
-                metsValidatorState.addMetsInternalId(id);
+                metsValidatorState.addMetsInternalId(id, MetsIdRegistry.DIV);
               }
             }
           }
@@ -1501,7 +1458,10 @@ public abstract class StructMapValidator {
     final MetsHandler fileSecHandler = new MetsHandler("div", "mptr", structMapTypes);
     final MetsParser metsParser = new MetsParser();
     InputStream metsStream = null;
-    if (!structMap.isEmpty()) {
+    final Map<String, String> indexedTypes = metsValidatorState.getXlinkTypes("div", "mptr");
+    if (indexedTypes != null) {
+      structMapTypes.putAll(indexedTypes);
+    } else if (!structMap.isEmpty()) {
       if (structureValidatorState.isZipFileFlag()) {
         if (metsValidatorState.isRootMets()) {
           metsStream = structureValidatorState.getZipManager()
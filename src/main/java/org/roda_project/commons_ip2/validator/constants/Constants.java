@@ -168,6 +168,41 @@ public final class Constants {
    */
   public static final String VALIDATION_REPORT_SPECIFICATION_KEY_PATH = "path";
 
+  /**
+   * Constant batch validation summary key "total".
+   */
+  public static final String VALIDATION_BATCH_SUMMARY_KEY_TOTAL = "total";
+
+  /**
+   * Constant batch validation summary key "valid".
+   */
+  public static final String VALIDATION_BATCH_SUMMARY_KEY_VALID = "valid";
+
+  /**
+   * Constant batch validation summary key "invalid".
+   */
+  public static final String VALIDATION_BATCH_SUMMARY_KEY_INVALID = "invalid";
+
+  /**
+   * Constant batch validation summary key "failed".
+   */
+  public static final String VALIDATION_BATCH_SUMMARY_KEY_FAILED = "failed";
+
+  /**
+   * Constant batch validation summary key "packages".
+   */
+  public static final String VALIDATION_BATCH_SUMMARY_KEY_PACKAGES = "packages";
+
+  /**
+   * Constant batch validation summary key "report".
+   */
+  public static final String VALIDATION_BATCH_SUMMARY_KEY_REPORT = "report";
+
+  /**
+   * Constant batch validation summary key "error".
+   */
+  public static final String VALIDATION_BATCH_SUMMARY_KEY_ERROR = "error";
+
   public static final String HTTPS_DILCIS_EU_XML_METS_CSIPEXTENSION_METS = "https://"
     + "dilcis.eu/XML/METS/CSIPExtensionMETS";
 
@@ -296,6 +331,21 @@ public final class Constants {
    */
   public static final String VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_NOTES = "notes";
 
+  /**
+   * Constant validation report key "issueCount".
+   */
+  public static final String VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_ISSUE_COUNT = "issueCount";
+
+  /**
+   * Constant validation report key "omittedIssues".
+   */
+  public static final String VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_OMITTED_ISSUES = "omittedIssues";
+
+  /**
+   * Constant validation report key "omittedIssuesFile".
+   */
+  public static final String VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_OMITTED_ISSUES_FILE = "omittedIssuesFile";
+
   /* Report Status */
   /**
    * Constant validation report key "passed".
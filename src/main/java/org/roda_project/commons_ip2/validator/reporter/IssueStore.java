@@ -0,0 +1,316 @@
+package org.roda_project.commons_ip2.validator.reporter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded storage of the issues of a requirement.
+ * <p>
+ * Only the first issues (see {@link #MAX_SAMPLES_PROPERTY}) are kept as
+ * samples. The issues past that are only counted, per message template (the
+ * message with its file names and numbers replaced by {@code {}}, up to
+ * {@link #MAX_TEMPLATES} templates), so a package with millions of failures
+ * does not keep millions of strings in memory.
+ * If {@link #SPILL_DIRECTORY_PROPERTY} is set, those issues are also appended
+ * to a file in that directory, so none is lost. The file is kept open until
+ * {@link #closeSpillFile()} is called, when the report is written.
+ * </p>
+ */
+public final class IssueStore {
+  /**
+   * System property with the maximum number of issues kept in memory per
+   * requirement.
+   */
+  public static final String MAX_SAMPLES_PROPERTY = "validator.maxIssuesPerRequirement";
+  /**
+   * System property with the directory where the issues that are not kept in
+   * memory are written to. Not set by default.
+   */
+  public static final String SPILL_DIRECTORY_PROPERTY = "validator.issuesSpillDirectory";
+
+  /**
+   * Maximum number of templates counted, the issues of any other template are
+   * counted under {@link #OTHER_TEMPLATE}.
+   */
+  public static final int MAX_TEMPLATES = 100;
+  /**
+   * Template of the issues past {@link #MAX_TEMPLATES}.
+   */
+  public static final String OTHER_TEMPLATE = "{other}";
+
+  private static final int DEFAULT_MAX_SAMPLES = 1000;
+  private static final String PLACEHOLDER = "{}";
+
+  private final int maxSamples;
+  private final List<String> samples = new ArrayList<>();
+  private final Map<String, Long> omittedCounts = new LinkedHashMap<>();
+  private long omitted = 0;
+  private Path spillFile = null;
+  private BufferedWriter spillWriter = null;
+
+  /**
+   * Creates a store bounded by the {@link #MAX_SAMPLES_PROPERTY} system
+   * property.
+   */
+  public IssueStore() {
+    this(Integer.getInteger(MAX_SAMPLES_PROPERTY, DEFAULT_MAX_SAMPLES));
+  }
+
+  /**
+   * Creates a store that keeps at most the given number of issues in memory.
+   *
+   * @param maxSamples
+   *          the maximum number of issues kept in memory
+   */
+  public IssueStore(final int maxSamples) {
+    this.maxSamples = Math.max(0, maxSamples);
+  }
+
+  /**
+   * Copy constructor. The copy gets its own copy of the spill file, if any.
+   *
+   * @param other
+   *          the {@link IssueStore} to copy
+   */
+  public IssueStore(final IssueStore other) {
+    this(other.maxSamples);
+    samples.addAll(other.samples);
+    omittedCounts.putAll(other.omittedCounts);
+    omitted = other.omitted;
+    if (other.spillFile != null) {
+      try {
+        other.closeSpillFile();
+        Files.copy(other.spillFile, getOrCreateSpillFile(), StandardCopyOption.REPLACE_EXISTING);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Adds an issue.
+   *
+   * @param issue
+   *          the issue {@link String}
+   */
+  public void add(final String issue) {
+    if (samples.size() < maxSamples) {
+      samples.add(issue);
+    } else {
+      omitted++;
+      count(templateOf(issue), 1L);
+      spill(issue);
+    }
+  }
+
+  /**
+   * Adds all the issues of a {@link List}.
+   *
+   * @param issues
+   *          the {@link List} of issues
+   */
+  public void addAll(final List<String> issues) {
+    for (String issue : issues) {
+      add(issue);
+    }
+  }
+
+  /**
+   * Adds all the issues of another store, samples first, then the counted ones.
+   * The spill file of the other store, if any, is moved to this store (or
+   * appended to its spill file and deleted), so the other store is left
+   * without one.
+   *
+   * @param other
+   *          the {@link IssueStore}
+   */
+  public void addAll(final IssueStore other) {
+    addAll(other.samples);
+    if (other.omitted > 0) {
+      omitted += other.omitted;
+      other.omittedCounts.forEach(this::count);
+      if (other.spillFile != null) {
+        try {
+          moveSpillFile(other);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the issues kept in memory.
+   *
+   * @return an unmodifiable {@link List}
+   */
+  public List<String> getSamples() {
+    return Collections.unmodifiableList(samples);
+  }
+
+  /**
+   * Check if no issue was added.
+   *
+   * @return if the store is empty
+   */
+  public boolean isEmpty() {
+    return samples.isEmpty() && omitted == 0;
+  }
+
+  /**
+   * Get the total number of issues added.
+   *
+   * @return the number of issues
+   */
+  public long getCount() {
+    return samples.size() + omitted;
+  }
+
+  /**
+   * Get the number of issues that were not kept in memory.
+   *
+   * @return the number of issues
+   */
+  public long getOmittedCount() {
+    return omitted;
+  }
+
+  /**
+   * Get the number of issues not kept in memory, per message template.
+   *
+   * @return an unmodifiable {@link Map}
+   */
+  public Map<String, Long> getOmittedCounts() {
+    return Collections.unmodifiableMap(omittedCounts);
+  }
+
+  /**
+   * Get the file with the issues not kept in memory, one per line. Call
+   * {@link #closeSpillFile()} before reading it.
+   *
+   * @return the {@link Path} or {@code null} if they were not written
+   */
+  public Path getSpillFile() {
+    return spillFile;
+  }
+
+  /**
+   * Flushes and closes the spill file, if open. It is opened again if more
+   * issues are spilled.
+   *
+   * @throws IOException
+   *           if some I/O error occurs
+   */
+  public void closeSpillFile() throws IOException {
+    if (spillWriter != null) {
+      spillWriter.close();
+      spillWriter = null;
+    }
+  }
+
+  private void count(final String template, final long count) {
+    if (omittedCounts.containsKey(template) || omittedCounts.size() < MAX_TEMPLATES) {
+      omittedCounts.merge(template, count, Long::sum);
+    } else {
+      omittedCounts.merge(OTHER_TEMPLATE, count, Long::sum);
+    }
+  }
+
+  private void spill(final String issue) {
+    if (System.getProperty(SPILL_DIRECTORY_PROPERTY) == null) {
+      return;
+    }
+    try {
+      final BufferedWriter writer = getOrOpenSpillWriter();
+      writer.write(issue.replace('\n', ' '));
+      writer.newLine();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void moveSpillFile(final IssueStore other) throws IOException {
+    other.closeSpillFile();
+    if (spillFile == null) {
+      spillFile = other.spillFile;
+    } else {
+      final BufferedWriter writer = getOrOpenSpillWriter();
+      try (BufferedReader reader = Files.newBufferedReader(other.spillFile, StandardCharsets.UTF_8)) {
+        reader.transferTo(writer);
+      }
+      Files.delete(other.spillFile);
+    }
+    other.spillFile = null;
+  }
+
+  private BufferedWriter getOrOpenSpillWriter() throws IOException {
+    if (spillWriter == null) {
+      spillWriter = Files.newBufferedWriter(getOrCreateSpillFile(), StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND);
+    }
+    return spillWriter;
+  }
+
+  private Path getOrCreateSpillFile() throws IOException {
+    if (spillFile == null) {
+      final Path directory = Paths.get(System.getProperty(SPILL_DIRECTORY_PROPERTY, "."));
+      Files.createDirectories(directory);
+      spillFile = Files.createTempFile(directory, "issues", ".txt");
+    }
+    return spillFile;
+  }
+
+  /**
+   * Gets the template of an issue, replacing the words that look like file
+   * names or have numbers by {@code {}}.
+   *
+   * @param issue
+   *          the issue {@link String}
+   * @return the template
+   */
+  static String templateOf(final String issue) {
+    final StringBuilder template = new StringBuilder(issue.length());
+    for (String word : issue.split(" ")) {
+      if (template.length() > 0) {
+        template.append(' ');
+      }
+      if (isVariable(word)) {
+        template.append(PLACEHOLDER);
+      } else {
+        template.append(word);
+      }
+    }
+    return template.toString();
+  }
+
+  /**
+   * Check if a word of an issue changes from issue to issue: it has digits or
+   * looks like a file name.
+   *
+   * @param word
+   *          the word {@link String}
+   * @return if the word is variable
+   */
+  static boolean isVariable(final String word) {
+    for (int i = 0; i < word.length(); i++) {
+      final char c = word.charAt(i);
+      if (Character.isDigit(c)) {
+        return true;
+      }
+    }
+    return word.indexOf('.', 1) > 0 && word.indexOf('.', 1) < word.length() - 1;
+  }
+}
@@ -1,7 +1,9 @@
 package org.roda_project.commons_ip2.validator.reporter;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 /** {@author João Gomes <jgomes@keep.pt>}. */
 public class ReporterDetails {
@@ -14,9 +16,9 @@ public class ReporterDetails {
    */
   private boolean valid;
   /**
-   * {@link List}.
+   * {@link IssueStore}.
    */
-  private final List<String> issues;
+  private final IssueStore issues;
   /**
    * The specification.
    */
@@ -30,7 +32,7 @@ public class ReporterDetails {
   public ReporterDetails() {
     this.detail = "";
     this.valid = true;
-    this.issues = new ArrayList<>();
+    this.issues = new IssueStore();
   }
 
   /**
@@ -48,7 +50,7 @@ public class ReporterDetails {
   public ReporterDetails(final String specification, final String issue, final boolean valid, final boolean skipped) {
     this.detail = "";
     this.valid = valid;
-    this.issues = new ArrayList<>();
+    this.issues = new IssueStore();
     this.issues.add(issue);
     this.specification = specification;
     this.skipped = skipped;
@@ -70,7 +72,8 @@ public class ReporterDetails {
     final boolean skipped) {
     this.detail = "";
     this.specification = specification;
-    this.issues = new ArrayList<>(issues);
+    this.issues = new IssueStore();
+    this.issues.addAll(issues);
     this.valid = valid;
     this.skipped = skipped;
   }
@@ -82,7 +85,11 @@ public class ReporterDetails {
    *          {@link ReporterDetails}
    */
   public ReporterDetails(final ReporterDetails clone) {
-    this(clone.getSpecification(), clone.getIssues(), clone.isValid(), clone.isSkipped());
+    this.detail = "";
+    this.specification = clone.getSpecification();
+    this.issues = new IssueStore(clone.issues);
+    this.valid = clone.isValid();
+    this.skipped = clone.isSkipped();
   }
 
   /**
@@ -118,8 +125,61 @@ public class ReporterDetails {
     return this;
   }
 
+  /**
+   * Get the issues kept in memory, at most the first
+   * {@link IssueStore#MAX_SAMPLES_PROPERTY} ones.
+   *
+   * @return an unmodifiable {@link List}
+   */
   public List<String> getIssues() {
-    return this.issues;
+    return this.issues.getSamples();
+  }
+
+  /**
+   * Get the total number of issues, including the ones not kept in memory.
+   *
+   * @return the number of issues
+   */
+  public long getIssueCount() {
+    return this.issues.getCount();
+  }
+
+  /**
+   * Get the number of issues not kept in memory.
+   *
+   * @return the number of issues
+   */
+  public long getOmittedIssueCount() {
+    return this.issues.getOmittedCount();
+  }
+
+  /**
+   * Get the number of issues not kept in memory, per message template.
+   *
+   * @return {@link Map}
+   */
+  public Map<String, Long> getOmittedIssueCounts() {
+    return this.issues.getOmittedCounts();
+  }
+
+  /**
+   * Get the file where the issues not kept in memory were written to.
+   *
+   * @return the {@link Path} or {@code null}
+   */
+  public Path getOmittedIssuesFile() {
+    return this.issues.getSpillFile();
+  }
+
+  /**
+   * Closes the file where the issues not kept in memory were written to, if
+   * open.
+   *
+   * @throws IOException
+   *           if some I/O error occurs
+   */
+  public void closeOmittedIssuesFile() throws IOException {
+    this.issues.closeSpillFile();
   }
 
   public boolean isValid() {
@@ -157,4 +217,24 @@ public class ReporterDetails {
   public void addIssues(final List<String> issues) {
     this.issues.addAll(issues);
   }
+
+  /**
+   * Adds all the issues of other {@link ReporterDetails}, including the ones
+   * not kept in memory, whose file is moved to this {@link ReporterDetails}.
+   *
+   * @param other
+   *          {@link ReporterDetails}.
+   */
+  public void addIssues(final ReporterDetails other) {
+    this.issues.addAll(other.issues);
+  }
+
+  /**
+   * Check if there are issues.
+   *
+   * @return if there are issues
+   */
+  public boolean hasIssues() {
+    return !this.issues.isEmpty();
+  }
 }
@@ -0,0 +1,133 @@
+package org.roda_project.commons_ip2.validator.reporter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.roda_project.commons_ip2.validator.constants.ConstantsAIPspec;
+import org.roda_project.commons_ip2.validator.constants.ConstantsCSIPspec;
+import org.roda_project.commons_ip2.validator.constants.ConstantsSIPspec;
+
+/**
+ * Dense index of the requirement identifiers (CSIPSTRn, CSIPn, SIPn and AIPn),
+ * in report order.
+ * <p>
+ * The identifiers are computed once, so finding the position of a requirement
+ * is a single hash lookup instead of parsing it on every comparison. The
+ * highest number of each prefix is taken from the {@code _ID} constants of the
+ * specification classes, so new requirements are indexed when they are added
+ * there.
+ * </p>
+ */
+public final class RequirementIds {
+  /**
+   * The prefixes of the requirement identifiers, in report order.
+   */
+  private static final String[] PREFIXES = {"CSIPSTR", "CSIP", "SIP", "AIP"};
+
+  /**
+   * The classes with the requirement identifiers, as {@code _ID} constants.
+   */
+  private static final Class<?>[] SPECIFICATIONS = {ConstantsCSIPspec.class, ConstantsSIPspec.class,
+    ConstantsAIPspec.class, org.roda_project.commons_ip2.validator.constants220.ConstantsCSIPspec.class,
+    org.roda_project.commons_ip2.validator.constants220.ConstantsSIPspec.class,
+    org.roda_project.commons_ip2.validator.constants220.ConstantsAIPspec.class};
+
+  /**
+   * The highest requirement number of each prefix.
+   */
+  private static final int[] MAX_NUMBERS = maxNumbers();
+
+  /**
+   * The identifiers by index.
+   */
+  private static final String[] IDS;
+
+  /**
+   * {@link Map} from identifier to index.
+   */
+  private static final Map<String, Integer> INDEX = new HashMap<>();
+
+  static {
+    int size = 0;
+    for (int max : MAX_NUMBERS) {
+      size += max + 1;
+    }
+    IDS = new String[size];
+    int index = 0;
+    for (int i = 0; i < PREFIXES.length; i++) {
+      for (int number = 0; number <= MAX_NUMBERS[i]; number++) {
+        IDS[index] = PREFIXES[i] + number;
+        INDEX.put(IDS[index], index);
+        index++;
+      }
+    }
+  }
+
+  private RequirementIds() {
+    // do nothing
+  }
+
+  private static int[] maxNumbers() {
+    final int[] maxNumbers = new int[PREFIXES.length];
+    for (Class<?> specification : SPECIFICATIONS) {
+      for (Field field : specification.getFields()) {
+        if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class
+          && field.getName().endsWith("_ID")) {
+          try {
+            addMaxNumber(maxNumbers, (String) field.get(null));
+          } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+          }
+        }
+      }
+    }
+    return maxNumbers;
+  }
+
+  private static void addMaxNumber(final int[] maxNumbers, final String id) {
+    for (int i = 0; i < PREFIXES.length; i++) {
+      if (id.startsWith(PREFIXES[i])) {
+        try {
+          maxNumbers[i] = Math.max(maxNumbers[i], Integer.parseInt(id.substring(PREFIXES[i].length())));
+        } catch (NumberFormatException e) {
+          // not a numbered requirement
+        }
+        return;
+      }
+    }
+  }
+
+  /**
+   * Get the number of indexed requirements.
+   *
+   * @return the size of the index
+   */
+  public static int size() {
+    return IDS.length;
+  }
+
+  /**
+   * Get the index of a requirement identifier.
+   *
+   * @param id
+   *          the requirement identifier
+   * @return the index or {@code -1} if it is not a known requirement
+   */
+  public static int indexOf(final Object id) {
+    final Integer index = INDEX.get(id);
+    return index != null ? index : -1;
+  }
+
+  /**
+   * Get the requirement identifier of an index.
+   *
+   * @param index
+   *          the index
+   * @return the requirement identifier
+   */
+  public static String idOf(final int index) {
+    return IDS[index];
+  }
+}
@@ -0,0 +1,221 @@
+package org.roda_project.commons_ip2.validator.reporter;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * {@link Map} of the results of the requirements, ordered as in the report.
+ * <p>
+ * The results of the requirements known by {@link RequirementIds} are kept in
+ * an array by their index, so adding, merging and getting a result does not
+ * compare identifiers and iterating is already in order. Any other identifier
+ * is kept after those, in natural order.
+ * </p>
+ */
+public class RequirementResults extends AbstractMap<String, ReporterDetails> {
+  /**
+   * The results by requirement index.
+   */
+  private final ReporterDetails[] values = new ReporterDetails[RequirementIds.size()];
+  /**
+   * The results of unknown requirements.
+   */
+  private final TreeMap<String, ReporterDetails> others = new TreeMap<>();
+  /**
+   * The number of results in {@link #values}.
+   */
+  private int indexed = 0;
+
+  /**
+   * Creates an empty {@link RequirementResults}.
+   */
+  public RequirementResults() {
+    // do nothing
+  }
+
+  /**
+   * Creates a {@link RequirementResults} with the results of a {@link Map}.
+   *
+   * @param results
+   *          the {@link Map} of results
+   */
+  public RequirementResults(final Map<String, ReporterDetails> results) {
+    putAll(results);
+  }
+
+  @Override
+  public ReporterDetails get(final Object key) {
+    final int index = RequirementIds.indexOf(key);
+    if (index >= 0) {
+      return values[index];
+    }
+    return key instanceof String ? others.get(key) : null;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    final int index = RequirementIds.indexOf(key);
+    if (index >= 0) {
+      return values[index] != null;
+    }
+    return key instanceof String && others.containsKey(key);
+  }
+
+  @Override
+  public ReporterDetails put(final String key, final ReporterDetails value) {
+    Objects.requireNonNull(value);
+    final int index = RequirementIds.indexOf(key);
+    if (index < 0) {
+      return others.put(key, value);
+    }
+    final ReporterDetails previous = values[index];
+    values[index] = value;
+    if (previous == null) {
+      indexed++;
+    }
+    return previous;
+  }
+
+  @Override
+  public ReporterDetails remove(final Object key) {
+    final int index = RequirementIds.indexOf(key);
+    if (index < 0) {
+      return key instanceof String ? others.remove(key) : null;
+    }
+    final ReporterDetails previous = values[index];
+    if (previous != null) {
+      values[index] = null;
+      indexed--;
+    }
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(values, null);
+    indexed = 0;
+    others.clear();
+  }
+
+  @Override
+  public int size() {
+    return indexed + others.size();
+  }
+
+  @Override
+  public Set<Map.Entry<String, ReporterDetails>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Map.Entry<String, ReporterDetails>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return RequirementResults.this.size();
+      }
+    };
+  }
+
+  /**
+   * Iterates over the indexed results and then over the other ones.
+   */
+  private final class EntryIterator implements Iterator<Map.Entry<String, ReporterDetails>> {
+    private final Iterator<Map.Entry<String, ReporterDetails>> othersIterator = others.entrySet().iterator();
+    private int next = advance(0);
+    private int last = -1;
+    private boolean lastFromOthers = false;
+
+    private int advance(final int from) {
+      int index = from;
+      while (index < values.length && values[index] == null) {
+        index++;
+      }
+      return index;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < values.length || othersIterator.hasNext();
+    }
+
+    @Override
+    public Map.Entry<String, ReporterDetails> next() {
+      if (next < values.length) {
+        last = next;
+        lastFromOthers = false;
+        next = advance(next + 1);
+        return new Entry(last);
+      }
+      if (!othersIterator.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      last = -1;
+      lastFromOthers = true;
+      return othersIterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (lastFromOthers) {
+        othersIterator.remove();
+        lastFromOthers = false;
+      } else if (last >= 0) {
+        values[last] = null;
+        indexed--;
+        last = -1;
+      } else {
+        throw new IllegalStateException();
+      }
+    }
+  }
+
+  /**
+   * Entry of an indexed result, writing through to {@link #values}.
+   */
+  private final class Entry implements Map.Entry<String, ReporterDetails> {
+    private final int index;
+
+    private Entry(final int index) {
+      this.index = index;
+    }
+
+    @Override
+    public String getKey() {
+      return RequirementIds.idOf(index);
+    }
+
+    @Override
+    public ReporterDetails getValue() {
+      return values[index];
+    }
+
+    @Override
+    public ReporterDetails setValue(final ReporterDetails value) {
+      Objects.requireNonNull(value);
+      final ReporterDetails previous = values[index];
+      values[index] = value;
+      return previous;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Map.Entry<?, ?> other)) {
+        return false;
+      }
+      return getKey().equals(other.getKey()) && Objects.equals(getValue(), other.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return getKey().hashCode() ^ Objects.hashCode(getValue());
+    }
+  }
+}
@@ -16,24 +16,8 @@ public class RequirementsComparator implements Comparator<String> {
   }
 
   private int calculateWeight(final String o) {
-    int c;
-
-    if (o.startsWith("CSIPSTR")) {
-      c = 1000;
-      c += Integer.parseInt(o.substring("CSIPSTR".length()));
-    } else if (o.startsWith("CSIP")) {
-      c = 2000;
-      c += Integer.parseInt(o.substring("CSIP".length()));
-    } else if (o.startsWith("SIP")) {
-      c = 4000;
-      c += Integer.parseInt(o.substring("SIP".length()));
-    } else if (o.startsWith("AIP")) {
-      c = 4000;
-      c += Integer.parseInt(o.substring("AIP".length()));
-    } else {
-      c = 9000;
-    }
-    return c;
+    final int index = RequirementIds.indexOf(o);
+    return index >= 0 ? index : RequirementIds.size();
   }
 
   @Override
@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
-import java.util.TreeMap;
 
 import org.roda_project.commons_ip2.validator.model.pyip.ChecksumAlg;
 import org.roda_project.commons_ip2.validator.model.pyip.MetadataStatus;
@@ -31,7 +30,7 @@ public class ValidationReportOutputJSONPyIP {
   /**
    * The {@link Map} of results.
    */
-  private final Map<String, ReporterDetails> results = new TreeMap<>(new RequirementsComparator());
+  private final Map<String, ReporterDetails> results = new RequirementResults();
   /**
    * The IP type.
    */
@@ -40,6 +39,11 @@ public class ValidationReportOutputJSONPyIP {
    * {@link ValidationReport}.
    */
   private ValidationReport validationReport = null;
+  /**
+   * Checksum of the IP calculated ahead, {@code null} to calculate it when
+   * writing the report.
+   */
+  private String packageChecksum = null;
 
   /**
    * Constructor of {@link ValidationReportOutputJSONPyIP}.
@@ -62,6 +66,18 @@ public class ValidationReportOutputJSONPyIP {
     return sipPath;
   }
 
+  /**
+   * Set the checksum of the IP, calculated ahead, so that writing the report
+   * does not read the whole IP again. An empty value is reported as such, as for
+   * IPs that are folders.
+   *
+   * @param packageChecksum
+   *          the {@link String} checksum
+   */
+  public void setPackageChecksum(final String packageChecksum) {
+    this.packageChecksum = packageChecksum;
+  }
+
   public Map<String, ReporterDetails> getResults() {
     return results;
   }
@@ -76,7 +92,7 @@ public class ValidationReportOutputJSONPyIP {
    */
   public void writeReport() throws IOException, NoSuchAlgorithmException {
     validationReport = PyIPUtils.createValidationReport(sipPath.getFileName().toString(), ipType,
-      ChecksumAlg.SHA1.toString(), sipPath.toString(), results);
+      ChecksumAlg.SHA1.toString(), sipPath.toString(), packageChecksum, results);
 
     final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -5,7 +5,6 @@ import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.constants.ConstantsAIPspec;
@@ -61,7 +60,7 @@ public class ValidationReportOutputJson {
   /**
    * {@link Map} with the results.
    */
-  private Map<String, ReporterDetails> results = new TreeMap<>(new RequirementsComparator());
+  private Map<String, ReporterDetails> results = new RequirementResults();
   /**
    * {@link String}.
    */
@@ -192,6 +191,27 @@ public class ValidationReportOutputJson {
    */
   public void componentValidationResult(final String specification, final String id, final String status,
     final List<String> issues, final String detail) {
+    componentValidationResult(specification, id, status, issues, detail, null);
+  }
+
+  /**
+   * Write the result json object in the json array of the report, with the
+   * counts of the issues that were not kept in memory, if any.
+   *
+   * @param id
+   *          the {@link String} id of the requirement.
+   * @param status
+   *          the {@link String} status of the requirement.
+   * @param details
+   *          the {@link ReporterDetails} of the requirement.
+   */
+  private void componentValidationResult(final String id, final String status, final ReporterDetails details) {
+    componentValidationResult(details.getSpecification(), id, status, details.getIssues(), details.getDetail(),
+      details);
+  }
+
+  private void componentValidationResult(final String specification, final String id, final String status,
+    final List<String> issues, final String detail, final ReporterDetails details) {
     try {
       String level = null;
       if (id.startsWith(Constants.ID_TYPE_CSIP)) {
@@ -216,6 +236,9 @@ public class ValidationReportOutputJson {
         jsonGenerator.writeObjectField(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_DETAIL, detail);
       }
       writeIssuesByLevel(level, issues);
+      if (details != null && details.getOmittedIssueCount() > 0) {
+        writeOmittedIssues(details);
+      }
       jsonGenerator.writeEndObject();
       jsonGenerator.writeEndObject();
     } catch (final IOException e) {
@@ -254,7 +277,6 @@ public class ValidationReportOutputJson {
     for (Map.Entry<String, ReporterDetails> entry : results.entrySet()) {
       final ReporterDetails details = entry.getValue();
       final List<String> issues = details.getIssues();
-      final String detail = details.getDetail();
       String level = null;
       if (details.getSpecification().startsWith(Constants.ID_TYPE_CSIP)) {
         level = ConstantsCSIPspec.getSpecificationLevel(entry.getKey());
@@ -269,8 +291,8 @@ public class ValidationReportOutputJson {
       }
 
       if (details.isSkipped()) {
-        componentValidationResult(details.getSpecification(), entry.getKey(),
-          Constants.VALIDATION_REPORT_SPECIFICATION_TESTING_OUTCOME_SKIPPED, issues, detail);
+        componentValidationResult(entry.getKey(), Constants.VALIDATION_REPORT_SPECIFICATION_TESTING_OUTCOME_SKIPPED,
+          details);
         skipped++;
       } else {
         if (details.isValid()) {
@@ -279,16 +301,16 @@ public class ValidationReportOutputJson {
           } else {
             notes++;
           }
-          componentValidationResult(details.getSpecification(), entry.getKey(),
-            Constants.VALIDATION_REPORT_SPECIFICATION_TESTING_OUTCOME_PASSED, issues, detail);
+          componentValidationResult(entry.getKey(), Constants.VALIDATION_REPORT_SPECIFICATION_TESTING_OUTCOME_PASSED,
+            details);
         } else {
           if (Constants.REQUIREMENT_LEVEL_MAY.equals(level)) {
-            componentValidationResult(details.getSpecification(), entry.getKey(),
-              Constants.VALIDATION_REPORT_SPECIFICATION_TESTING_OUTCOME_PASSED, issues, detail);
+            componentValidationResult(entry.getKey(), Constants.VALIDATION_REPORT_SPECIFICATION_TESTING_OUTCOME_PASSED,
+              details);
             notes++;
           } else {
-            componentValidationResult(details.getSpecification(), entry.getKey(),
-              Constants.VALIDATION_REPORT_SPECIFICATION_TESTING_OUTCOME_FAILED, issues, detail);
+            componentValidationResult(entry.getKey(), Constants.VALIDATION_REPORT_SPECIFICATION_TESTING_OUTCOME_FAILED,
+              details);
             if (Constants.REQUIREMENT_LEVEL_MUST.equals(level)) {
               errors++;
             } else {
@@ -382,6 +404,22 @@ public class ValidationReportOutputJson {
     jsonGenerator.writeStringField(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_LEVEL, level);
   }
 
+  private void writeOmittedIssues(final ReporterDetails details) throws IOException {
+    jsonGenerator.writeNumberField(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_ISSUE_COUNT,
+      details.getIssueCount());
+    jsonGenerator.writeFieldName(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_OMITTED_ISSUES);
+    jsonGenerator.writeStartObject();
+    for (Map.Entry<String, Long> entry : details.getOmittedIssueCounts().entrySet()) {
+      jsonGenerator.writeNumberField(entry.getKey(), entry.getValue());
+    }
+    jsonGenerator.writeEndObject();
+    if (details.getOmittedIssuesFile() != null) {
+      details.closeOmittedIssuesFile();
+      jsonGenerator.writeStringField(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_OMITTED_ISSUES_FILE,
+        details.getOmittedIssuesFile().toString());
+    }
+  }
+
   private void writeIssuesByLevel(final String level, final List<String> issues) throws IOException {
     switch (level) {
       case "MUST":
@@ -1,15 +1,13 @@
 package org.roda_project.commons_ip2.validator.reporter.pyipUtils;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 
-import jakarta.xml.bind.DatatypeConverter;
-
+import org.roda_project.commons_ip2.utils.DigestPipeline;
 import org.roda_project.commons_ip2.validator.model.pyip.Checksum;
 import org.roda_project.commons_ip2.validator.model.pyip.ChecksumAlg;
 import org.roda_project.commons_ip2.validator.model.pyip.IpType;
@@ -41,36 +39,64 @@ public final class InformationPackageUtils {
    */
   public static PackageDetails createPackageDetails(final String name, final String checksumAlg, final String ipPath)
     throws IOException, NoSuchAlgorithmException {
+    return createPackageDetails(name, checksumAlg, ipPath, null);
+  }
+
+  /**
+   * Creates the details of the IP, to the report.
+   *
+   * @param name
+   *          {@link String} name of the IP.
+   * @param checksumAlg
+   *          {@link String } algorithm to calculate the checksum of the IP.
+   * @param ipPath
+   *          {@link String} IP path.
+   * @param packageChecksum
+   *          {@link String} checksum of the IP already calculated (see
+   *          {@link #calculatePackageChecksum(Path, String)}), or {@code null}
+   *          to calculate it now.
+   * @return {@link PackageDetails}
+   * @throws IOException
+   *           if some I/O error occurs.
+   * @throws NoSuchAlgorithmException
+   *           if the Cryptographic algorithm is not available
+   */
+  public static PackageDetails createPackageDetails(final String name, final String checksumAlg, final String ipPath,
+    final String packageChecksum) throws IOException, NoSuchAlgorithmException {
     final PackageDetails packageDetails = new PackageDetails();
     packageDetails.setName(name);
-    final File file = Paths.get(ipPath).toFile();
-    if (file.exists() && !file.isDirectory()) {
-      final ChecksumAlg algorithim = ChecksumAlg.fromValue(checksumAlg);
-      final Checksum checksum = new Checksum();
-      checksum.setAlgorithm(algorithim);
-      checksum.setValue(calculateChecksumPackage(ipPath, algorithim.toString()));
-      packageDetails.addChecksumsItem(checksum);
+    final Path path = Paths.get(ipPath);
+    final ChecksumAlg algorithim = ChecksumAlg.fromValue(checksumAlg);
+    final Checksum checksum = new Checksum();
+    checksum.setAlgorithm(algorithim);
+    if (packageChecksum != null) {
+      checksum.setValue(packageChecksum);
+    } else if (Files.isRegularFile(path)) {
+      checksum.setValue(calculatePackageChecksum(path, algorithim.toString()));
     } else {
-      final ChecksumAlg algorithim = ChecksumAlg.fromValue(checksumAlg);
-      final Checksum checksum = new Checksum();
-      checksum.setAlgorithm(algorithim);
       checksum.setValue("");
-      packageDetails.addChecksumsItem(checksum);
     }
+    packageDetails.addChecksumsItem(checksum);
     return packageDetails;
   }
 
-  private static String calculateChecksumPackage(final String ipPath, final String alg)
+  /**
+   * Calculates the checksum of the IP file (hex encoded, upper case). Big files
+   * are memory mapped instead of read through a small buffer.
+   *
+   * @param ipPath
+   *          {@link Path} to the IP file.
+   * @param alg
+   *          {@link String} algorithm.
+   * @return the checksum.
+   * @throws IOException
+   *           if some I/O error occurs.
+   * @throws NoSuchAlgorithmException
+   *           if the Cryptographic algorithm is not available
+   */
+  public static String calculatePackageChecksum(final Path ipPath, final String alg)
     throws IOException, NoSuchAlgorithmException {
-    final InputStream stream = new FileInputStream(Paths.get(ipPath).toFile());
-    final MessageDigest messageDigest = MessageDigest.getInstance(alg);
-    final byte[] buffer = new byte[8192];
-    int numOfBytesRead;
-    while ((numOfBytesRead = stream.read(buffer)) > 0) {
-      messageDigest.update(buffer, 0, numOfBytesRead);
-    }
-    final byte[] hash = messageDigest.digest();
-    return DatatypeConverter.printHexBinary(hash);
+    return DigestPipeline.digestFile(ipPath, Collections.singleton(alg)).getChecksum(alg);
   }
 
   /**
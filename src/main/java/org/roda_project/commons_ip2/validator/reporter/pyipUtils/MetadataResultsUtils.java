@@ -3,7 +3,6 @@ package org.roda_project.commons_ip2.validator.reporter.pyipUtils;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import org.roda_project.commons_ip2.validator.constants.ConstantsAIPspec;
@@ -14,7 +13,7 @@ import org.roda_project.commons_ip2.validator.model.pyip.MetadataStatus;
 import org.roda_project.commons_ip2.validator.model.pyip.Severity;
 import org.roda_project.commons_ip2.validator.model.pyip.TestResult;
 import org.roda_project.commons_ip2.validator.reporter.ReporterDetails;
-import org.roda_project.commons_ip2.validator.reporter.RequirementsComparator;
+import org.roda_project.commons_ip2.validator.reporter.RequirementResults;
 
 /** {@author João Gomes <jgomes@keep.pt>}. */
 public final class MetadataResultsUtils {
@@ -58,8 +57,7 @@ public final class MetadataResultsUtils {
       .filter(result -> !result.getKey().startsWith("CSIPSTR") && !result.getKey().equals("CSIP0")
         && !result.getValue().isValid())
       .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-    final TreeMap<String, ReporterDetails> sortedSpecificationResults = new TreeMap<>(new RequirementsComparator());
-    sortedSpecificationResults.putAll(specificationResults);
+    final Map<String, ReporterDetails> sortedSpecificationResults = new RequirementResults(specificationResults);
     final List<TestResult> testResults = new ArrayList<>();
     for (Map.Entry<String, ReporterDetails> result : sortedSpecificationResults.entrySet()) {
       testResults.add(createTestResult(result.getKey(), result.getValue()));
@@ -86,6 +84,9 @@ public final class MetadataResultsUtils {
         message.append(issue);
         message.append(" ");
       }
+      if (reporterDetails.getOmittedIssueCount() > 0) {
+        message.append("(and ").append(reporterDetails.getOmittedIssueCount()).append(" more issues)");
+      }
     }
     testResult.message(message.toString());
     Severity severity = null;
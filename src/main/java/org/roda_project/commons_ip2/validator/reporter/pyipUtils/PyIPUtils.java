@@ -46,8 +46,36 @@ public final class PyIPUtils {
    */
   public static ValidationReport createValidationReport(final String name, final String ipType, final String checkumAlg,
     final String ipPath, final Map<String, ReporterDetails> results) throws IOException, NoSuchAlgorithmException {
+    return createValidationReport(name, ipType, checkumAlg, ipPath, null, results);
+  }
+
+  /**
+   * Initializes the PyIP report {@link ValidationReport}.
+   *
+   * @param name
+   *          the {@link String} name of the IP
+   * @param ipType
+   *          the {@link String} type of the IP
+   * @param checkumAlg
+   *          the {@link String} algorithm to calculate the checksum of the IP
+   * @param ipPath
+   *          the {@link String} IP path
+   * @param packageChecksum
+   *          the {@link String} checksum of the IP already calculated, or
+   *          {@code null} to calculate it now
+   * @param results
+   *          the {@link Map} with all validation results
+   * @return {@link ValidationReport}.
+   * @throws IOException
+   *           if some I/O error occurs.
+   * @throws NoSuchAlgorithmException
+   *           if the Cryptographic algorithm is not available
+   */
+  public static ValidationReport createValidationReport(final String name, final String ipType, final String checkumAlg,
+    final String ipPath, final String packageChecksum, final Map<String, ReporterDetails> results)
+    throws IOException, NoSuchAlgorithmException {
     final ValidationReport validationReport = new ValidationReport();
-    validationReport.setPackage(createInformationPackage(name, checkumAlg, ipPath, ipType));
+    validationReport.setPackage(createInformationPackage(name, checkumAlg, ipPath, packageChecksum, ipType));
     validationReport.setUid(UUID.randomUUID());
     validationReport.setStructure(createStructureResults(results));
     if (!validationReport.getStructure().getStatus().equals(StructStatus.NOTWELLFORMED)) {
@@ -77,8 +105,35 @@ public final class PyIPUtils {
    */
   public static InformationPackage createInformationPackage(final String name, final String checksumAlg,
     final String ipPath, final String ipType) throws IOException, NoSuchAlgorithmException {
+    return createInformationPackage(name, checksumAlg, ipPath, null, ipType);
+  }
+
+  /**
+   * Creates an {@link InformationPackage}.
+   *
+   * @param name
+   *          the {@link String} name of the IP
+   * @param checksumAlg
+   *          the {@link String} algorithm to calculate the checksum of the IP
+   * @param ipPath
+   *          the {@link String} IP path
+   * @param packageChecksum
+   *          the {@link String} checksum of the IP already calculated, or
+   *          {@code null} to calculate it now
+   * @param ipType
+   *          the {@link String} type of the IP
+   * @return an {@link InformationPackage}
+   * @throws IOException
+   *           if some I/O error occurs.
+   * @throws NoSuchAlgorithmException
+   *           if the Cryptographic algorithm is not available
+   */
+  public static InformationPackage createInformationPackage(final String name, final String checksumAlg,
+    final String ipPath, final String packageChecksum, final String ipType)
+    throws IOException, NoSuchAlgorithmException {
     final InformationPackage informationPackage = new InformationPackage();
-    informationPackage.setDetails(InformationPackageUtils.createPackageDetails(name, checksumAlg, ipPath));
+    informationPackage
+      .setDetails(InformationPackageUtils.createPackageDetails(name, checksumAlg, ipPath, packageChecksum));
     informationPackage.setProfile(
       InformationPackageUtils.createProfileDetails(name, ipType, Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION));
     informationPackage.setRepresentations(InformationPackageUtils.createRepresentation(name));
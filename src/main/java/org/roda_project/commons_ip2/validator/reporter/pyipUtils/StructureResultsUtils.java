@@ -3,7 +3,6 @@ package org.roda_project.commons_ip2.validator.reporter.pyipUtils;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import org.roda_project.commons_ip2.validator.constants.ConstantsCSIPspec;
@@ -11,7 +10,7 @@ import org.roda_project.commons_ip2.validator.model.pyip.Severity;
 import org.roda_project.commons_ip2.validator.model.pyip.StructStatus;
 import org.roda_project.commons_ip2.validator.model.pyip.TestResult;
 import org.roda_project.commons_ip2.validator.reporter.ReporterDetails;
-import org.roda_project.commons_ip2.validator.reporter.RequirementsComparator;
+import org.roda_project.commons_ip2.validator.reporter.RequirementResults;
 
 /** {@author João Gomes <jgomes@keep.pt>}. */
 public final class StructureResultsUtils {
@@ -48,8 +47,7 @@ public final class StructureResultsUtils {
     final Map<String, ReporterDetails> structureResults = results.entrySet().stream()
       .filter(result -> result.getKey().startsWith("CSIPSTR") && !result.getValue().isValid())
       .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-    final TreeMap<String, ReporterDetails> sortedStructureResults = new TreeMap<>(new RequirementsComparator());
-    sortedStructureResults.putAll(structureResults);
+    final Map<String, ReporterDetails> sortedStructureResults = new RequirementResults(structureResults);
     final List<TestResult> testResults = new ArrayList<>();
     for (Map.Entry<String, ReporterDetails> result : sortedStructureResults.entrySet()) {
       testResults.add(createTestResult(result.getKey(), result.getValue()));
@@ -66,6 +64,9 @@ public final class StructureResultsUtils {
       message.append(issue);
       message.append(" ");
     }
+    if (reporterDetails.getOmittedIssueCount() > 0) {
+      message.append("(and ").append(reporterDetails.getOmittedIssueCount()).append(" more issues)");
+    }
     testResult.message(message.toString());
     testResult.setSeverity(calculateSeverity(ConstantsCSIPspec.getSpecificationLevel(id), reporterDetails.isValid()));
     return testResult;
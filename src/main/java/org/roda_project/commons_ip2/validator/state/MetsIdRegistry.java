@@ -0,0 +1,279 @@
+package org.roda_project.commons_ip2.validator.state;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.roda_project.commons_ip2.mets_v1_12.beans.AmdSecType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.FileType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.MdSecType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
+import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
+
+/**
+ * Hash based registry of METS identifiers, with the element type of each one,
+ * including the elements of the identifiers registered more than once.
+ * <p>
+ * It is used both to check that the identifiers are unique (see
+ * {@link MetsValidatorState#addMetsInternalId(String, String)}) and, built
+ * from a whole METS with {@link #of(Mets)}, to resolve the ADMID, DMDID and
+ * FILEID references without going through the sections for each of them.
+ * </p>
+ */
+public final class MetsIdRegistry {
+  /**
+   * Element type mets/structMap.
+   */
+  public static final String STRUCT_MAP = "structMap";
+  /**
+   * Element type mets/structMap//div.
+   */
+  public static final String DIV = "div";
+  /**
+   * Element type mets/fileSec.
+   */
+  public static final String FILE_SEC = "fileSec";
+  /**
+   * Element type mets/fileSec/fileGrp.
+   */
+  public static final String FILE_GRP = "fileGrp";
+  /**
+   * Element type mets/fileSec/fileGrp/file.
+   */
+  public static final String FILE = "file";
+  /**
+   * Element type mets/dmdSec.
+   */
+  public static final String DMD_SEC = "dmdSec";
+  /**
+   * Element type mets/dmdSec/mdRef.
+   */
+  public static final String DMD_SEC_MD_REF = "dmdSec/mdRef";
+  /**
+   * Element type mets/amdSec.
+   */
+  public static final String AMD_SEC = "amdSec";
+  /**
+   * Element type mets/amdSec/digiprovMD.
+   */
+  public static final String DIGIPROV_MD = "digiprovMD";
+  /**
+   * Element type mets/amdSec/digiprovMD/mdRef.
+   */
+  public static final String DIGIPROV_MD_MD_REF = "digiprovMD/mdRef";
+  /**
+   * Element type mets/amdSec/rightsMD.
+   */
+  public static final String RIGHTS_MD = "rightsMD";
+  /**
+   * Element type mets/amdSec/techMD.
+   */
+  public static final String TECH_MD = "techMD";
+  /**
+   * Element type mets/amdSec/sourceMD.
+   */
+  public static final String SOURCE_MD = "sourceMD";
+
+  /**
+   * {@link Map} from identifier to the first element registered with it.
+   */
+  private final Map<String, Entry> entries = new HashMap<>();
+  /**
+   * {@link Map} from identifier to the other elements registered with it.
+   */
+  private final Map<String, List<Entry>> duplicates = new LinkedHashMap<>();
+
+  /**
+   * Registers an identifier.
+   *
+   * @param id
+   *          the identifier
+   * @param type
+   *          the element type
+   * @return {@code true} if the identifier was not registered yet
+   */
+  public boolean register(final String id, final String type) {
+    return register(id, type, null);
+  }
+
+  /**
+   * Registers an identifier and the element it identifies.
+   *
+   * @param id
+   *          the identifier
+   * @param type
+   *          the element type
+   * @param element
+   *          the element
+   * @return {@code true} if the identifier was not registered yet
+   */
+  public boolean register(final String id, final String type, final Object element) {
+    final Entry entry = new Entry(type, element);
+    if (entries.putIfAbsent(id, entry) == null) {
+      return true;
+    }
+    duplicates.computeIfAbsent(id, k -> new ArrayList<>()).add(entry);
+    return false;
+  }
+
+  /**
+   * Check if an identifier is registered.
+   *
+   * @param id
+   *          the identifier
+   * @return if it is registered
+   */
+  public boolean contains(final String id) {
+    return entries.containsKey(id);
+  }
+
+  /**
+   * Check if an identifier is registered for an element of one of the given
+   * types.
+   *
+   * @param id
+   *          the identifier
+   * @param types
+   *          the element types
+   * @return if it is registered for one of the types
+   */
+  public boolean contains(final String id, final String... types) {
+    final Entry entry = entries.get(id);
+    if (entry == null) {
+      return false;
+    }
+    if (entry.hasType(types)) {
+      return true;
+    }
+    for (Entry duplicate : duplicates.getOrDefault(id, Collections.emptyList())) {
+      if (duplicate.hasType(types)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the element type of the first element registered with an identifier.
+   *
+   * @param id
+   *          the identifier
+   * @return the type or {@code null} if not registered
+   */
+  public String getType(final String id) {
+    final Entry entry = entries.get(id);
+    return entry != null ? entry.type : null;
+  }
+
+  /**
+   * Get the elements of a type registered with an identifier.
+   *
+   * @param id
+   *          the identifier
+   * @param type
+   *          the element type
+   * @return the {@link List} of elements, empty if none
+   */
+  public List<Object> getElements(final String id, final String type) {
+    final Entry entry = entries.get(id);
+    if (entry == null) {
+      return Collections.emptyList();
+    }
+    final List<Object> elements = new ArrayList<>();
+    if (entry.hasType(type)) {
+      elements.add(entry.element);
+    }
+    for (Entry duplicate : duplicates.getOrDefault(id, Collections.emptyList())) {
+      if (duplicate.hasType(type)) {
+        elements.add(duplicate.element);
+      }
+    }
+    return elements;
+  }
+
+  /**
+   * Remove all the identifiers.
+   */
+  public void clear() {
+    entries.clear();
+    duplicates.clear();
+  }
+
+  /**
+   * Creates the registry of the identifiers declared in the sections of a METS
+   * that are referenced by ADMID, DMDID and FILEID.
+   *
+   * @param mets
+   *          the {@link Mets}
+   * @return the {@link MetsIdRegistry}
+   */
+  public static MetsIdRegistry of(final Mets mets) {
+    final MetsIdRegistry registry = new MetsIdRegistry();
+    for (MdSecType dmdSec : mets.getDmdSec()) {
+      registry.registerDeclared(dmdSec.getID(), DMD_SEC, dmdSec);
+      if (dmdSec.getMdRef() != null) {
+        registry.registerDeclared(dmdSec.getMdRef().getID(), DMD_SEC_MD_REF, dmdSec.getMdRef());
+      }
+    }
+    for (AmdSecType amdSec : mets.getAmdSec()) {
+      registry.registerDeclared(amdSec.getID(), AMD_SEC, amdSec);
+      registry.registerDeclared(amdSec.getDigiprovMD(), DIGIPROV_MD);
+      for (MdSecType digiprovMD : amdSec.getDigiprovMD()) {
+        if (digiprovMD.getMdRef() != null) {
+          registry.registerDeclared(digiprovMD.getMdRef().getID(), DIGIPROV_MD_MD_REF, digiprovMD.getMdRef());
+        }
+      }
+      registry.registerDeclared(amdSec.getRightsMD(), RIGHTS_MD);
+      registry.registerDeclared(amdSec.getTechMD(), TECH_MD);
+      registry.registerDeclared(amdSec.getSourceMD(), SOURCE_MD);
+    }
+    final MetsType.FileSec fileSec = mets.getFileSec();
+    if (fileSec != null) {
+      registry.registerDeclared(fileSec.getID(), FILE_SEC, fileSec);
+      for (MetsType.FileSec.FileGrp fileGrp : fileSec.getFileGrp()) {
+        registry.registerDeclared(fileGrp.getID(), FILE_GRP, fileGrp);
+        for (FileType file : fileGrp.getFile()) {
+          registry.registerDeclared(file.getID(), FILE, file);
+        }
+      }
+    }
+    return registry;
+  }
+
+  private void registerDeclared(final List<MdSecType> mdSecs, final String type) {
+    for (MdSecType mdSec : mdSecs) {
+      registerDeclared(mdSec.getID(), type, mdSec);
+    }
+  }
+
+  private void registerDeclared(final String id, final String type, final Object element) {
+    if (id != null) {
+      register(id, type, element);
+    }
+  }
+
+  /**
+   * An element registered with an identifier.
+   */
+  private static final class Entry {
+    private final String type;
+    private final Object element;
+
+    private Entry(final String type, final Object element) {
+      this.type = type;
+      this.element = element;
+    }
+
+    private boolean hasType(final String... types) {
+      for (String t : types) {
+        if (t.equals(type)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
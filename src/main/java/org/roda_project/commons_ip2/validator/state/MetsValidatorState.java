@@ -1,9 +1,10 @@
 package org.roda_project.commons_ip2.validator.state;
 
-import java.util.ArrayList;
 import java.util.Map;
 
 import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
+import org.roda_project.commons_ip2.validator.common.ChecksumVerificationStage;
+import org.roda_project.commons_ip2.validator.common.MetsXlinkIndex;
 
 /** {@author João Gomes <jgomes@keep.pt>}. */
 public class MetsValidatorState {
@@ -12,9 +13,14 @@ public class MetsValidatorState {
    */
   private Mets mets = null;
   /**
-   * {@link ArrayList} with the internal ids.
+   * {@link MetsIdRegistry} with the internal ids.
    */
-  private ArrayList<String> metsInternalIds = new ArrayList<>();
+  private final MetsIdRegistry metsInternalIds = new MetsIdRegistry();
+  /**
+   * {@link MetsIdRegistry} with the ids declared in the current METS, created on
+   * first use.
+   */
+  private MetsIdRegistry declaredIds = null;
   /**
    * Mets name.
    */
@@ -35,6 +41,15 @@ public class MetsValidatorState {
    * Type of the ip.
    */
   private String ipType = null;
+  /**
+   * Checksums of the files in the file section verified ahead of the rule
+   * evaluation.
+   */
+  private ChecksumVerificationStage.Results checksumResults = null;
+  /**
+   * The {@code xlink:type} attributes collected while parsing the current METS.
+   */
+  private MetsXlinkIndex xlinkIndex = null;
 
   /**
    * Get the {@link Mets} object.
@@ -53,6 +68,7 @@ public class MetsValidatorState {
    */
   public void setMets(final Mets mets) {
     this.mets = mets;
+    this.declaredIds = null;
   }
 
   /**
@@ -119,7 +135,20 @@ public class MetsValidatorState {
    *          the {@link String }
    */
   public void addMetsInternalId(final String id) {
-    metsInternalIds.add(id);
+    metsInternalIds.register(id, null);
+  }
+
+  /**
+   * Add id, and the type of the element it identifies, to list of all METS
+   * files id's in the IP.
+   *
+   * @param id
+   *          the {@link String }
+   * @param type
+   *          the element type, one of the {@link MetsIdRegistry} constants
+   */
+  public void addMetsInternalId(final String id, final String type) {
+    metsInternalIds.register(id, type);
   }
 
   /**
@@ -133,11 +162,25 @@ public class MetsValidatorState {
     return metsInternalIds.contains(id);
   }
 
+  /**
+   * Get the {@link MetsIdRegistry} with the id's declared in the sections of the
+   * current METS referenced by ADMID, DMDID and FILEID.
+   *
+   * @return {@link MetsIdRegistry}
+   */
+  public MetsIdRegistry getDeclaredIds() {
+    if (declaredIds == null) {
+      declaredIds = MetsIdRegistry.of(mets);
+    }
+    return declaredIds;
+  }
+
   /**
    * Delete all entries from metsInternalIds list
    */
   public void flushEntries() {
     metsInternalIds.clear();
+    declaredIds = null;
   }
 
   /**
@@ -177,4 +220,60 @@ public class MetsValidatorState {
   public void setIpType(final String ipType) {
     this.ipType = ipType;
   }
+
+  /**
+   * Get the outcome of the checksum verification stage for the current METS.
+   *
+   * @return {@link ChecksumVerificationStage.Results} or {@code null} if the
+   *         checksums were not verified ahead
+   */
+  public ChecksumVerificationStage.Results getChecksumResults() {
+    return checksumResults;
+  }
+
+  /**
+   * Set the outcome of the checksum verification stage for the current METS.
+   *
+   * @param checksumResults
+   *          the {@link ChecksumVerificationStage.Results}
+   */
+  public void setChecksumResults(final ChecksumVerificationStage.Results checksumResults) {
+    this.checksumResults = checksumResults;
+  }
+
+  /**
+   * Get the {@code xlink:type} attributes collected while parsing the current
+   * METS.
+   *
+   * @return {@link MetsXlinkIndex} or {@code null} if not collected
+   */
+  public MetsXlinkIndex getXlinkIndex() {
+    return xlinkIndex;
+  }
+
+  /**
+   * Set the {@code xlink:type} attributes collected while parsing the current
+   * METS.
+   *
+   * @param xlinkIndex
+   *          the {@link MetsXlinkIndex}
+   */
+  public void setXlinkIndex(final MetsXlinkIndex xlinkIndex) {
+    this.xlinkIndex = xlinkIndex;
+  }
+
+  /**
+   * Get the {@code xlink:type} of the given elements inside the given section of
+   * the current METS, if they were collected while parsing it.
+   *
+   * @param section
+   *          the {@link String} section
+   * @param element
+   *          the {@link String} element
+   * @return the {@link Map} from ID (or {@code xlink:href}) to
+   *         {@code xlink:type}, or {@code null} if not collected
+   */
+  public Map<String, String> getXlinkTypes(final String section, final String element) {
+    return xlinkIndex != null ? xlinkIndex.getTypes(section, element) : null;
+  }
 }
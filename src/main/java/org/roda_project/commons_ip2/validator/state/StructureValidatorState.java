@@ -1,8 +1,10 @@
 package org.roda_project.commons_ip2.validator.state;
 
+import java.io.IOException;
 import java.nio.file.Path;
 
 import org.roda_project.commons_ip2.validator.common.FolderManager;
+import org.roda_project.commons_ip2.validator.common.ZipIndex;
 import org.roda_project.commons_ip2.validator.common.ZipManager;
 
 /** {@author João Gomes <jgomes@keep.pt>}. */
@@ -46,6 +48,18 @@ public class StructureValidatorState {
     return zipManager;
   }
 
+  /**
+   * Get the {@link ZipIndex} of the IP, built once from the zip central
+   * directory and shared by every {@link ZipManager} query.
+   *
+   * @return the {@link ZipIndex}
+   * @throws IOException
+   *           if some I/O error occurs
+   */
+  public ZipIndex getZipIndex() throws IOException {
+    return zipManager.getZipIndex(ipPath);
+  }
+
   /**
    * Get the {@link FolderManager}.
    *
@@ -26,13 +26,20 @@ public final class ResultsUtils {
     if (results.containsKey(specification)) {
       final ReporterDetails currentResult = results.get(specification);
       // Merge current result with new test case validation outcome
-      if (!details.getIssues().isEmpty()) {
-        currentResult.addIssues(details.getIssues());
+      if (details.hasIssues()) {
+        currentResult.addIssues(details);
       }
       currentResult.setSkipped(currentResult.isSkipped() && details.isSkipped());
       currentResult.setValid(currentResult.isValid() && details.isValid());
     } else {
-      results.put(specification, details.clone());
+      // the issues are merged into a new result, instead of cloned, so that
+      // the file of the issues not kept in memory is moved instead of copied
+      final ReporterDetails result = new ReporterDetails();
+      result.setSpecification(details.getSpecification());
+      result.setValid(details.isValid());
+      result.setSkipped(details.isSkipped());
+      result.addIssues(details);
+      results.put(specification, result);
     }
   }
 
@@ -75,8 +82,10 @@ public final class ResultsUtils {
    */
   public static void addResults(final Map<String, ReporterDetails> results, final ReporterDetails details,
     final String... specifications) {
-    for (String specification : specifications) {
-      addResult(results, specification, details);
+    for (int i = 0; i < specifications.length; i++) {
+      // adding the details moves their file of issues not kept in memory, so
+      // every specification but the last gets a clone
+      addResult(results, specifications[i], i < specifications.length - 1 ? details.clone() : details);
     }
   }
 }
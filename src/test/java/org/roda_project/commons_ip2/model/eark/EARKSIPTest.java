@@ -10,20 +10,39 @@ package org.roda_project.commons_ip2.model.eark;
 import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
+import org.apache.commons.io.IOUtils;
 import org.hamcrest.core.Is;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -33,9 +52,16 @@ import org.roda_project.commons_ip.model.ParseException;
 import org.roda_project.commons_ip.utils.IPEnums;
 import org.roda_project.commons_ip.utils.IPException;
 import org.roda_project.commons_ip.utils.METSEnums.CreatorType;
+import org.roda_project.commons_ip.utils.FileZipEntryInfo;
+import org.roda_project.commons_ip.utils.ZipEntryInfo;
 import org.roda_project.commons_ip2.cli.model.enums.WriteStrategyEnum;
 import org.roda_project.commons_ip2.cli.utils.SIPBuilderUtils;
+import org.roda_project.commons_ip2.mets_v1_12.beans.DivType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.FileGrpType;
 import org.roda_project.commons_ip2.mets_v1_12.beans.FileType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
+import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.StructMapType;
 import org.roda_project.commons_ip2.model.IPAgent;
 import org.roda_project.commons_ip2.model.IPAgentNoteTypeEnum;
 import org.roda_project.commons_ip2.model.IPConstants;
@@ -51,10 +77,18 @@ import org.roda_project.commons_ip2.model.MetadataType;
 import org.roda_project.commons_ip2.model.MetadataType.MetadataTypeEnum;
 import org.roda_project.commons_ip2.model.RepresentationStatus;
 import org.roda_project.commons_ip2.model.SIP;
+import org.roda_project.commons_ip2.model.SIPObserver;
 import org.roda_project.commons_ip2.model.ValidationEntry.LEVEL;
 import org.roda_project.commons_ip2.model.impl.eark.EARKSIP;
 import org.roda_project.commons_ip2.model.impl.eark.out.writers.strategy.WriteStrategy;
+import org.roda_project.commons_ip2.utils.METSDataFileSpool;
+import org.roda_project.commons_ip2.utils.METSFileTypeZipEntryInfo;
+import org.roda_project.commons_ip2.utils.METSUtils;
+import org.roda_project.commons_ip2.utils.METSZipEntryInfo;
+import org.roda_project.commons_ip2.utils.ManifestCache;
+import org.roda_project.commons_ip2.utils.ParallelZIPUtils;
 import org.roda_project.commons_ip2.utils.Utils;
+import org.roda_project.commons_ip2.utils.ZIPUtils;
 import org.roda_project.commons_ip2.validator.EARKSIPValidator;
 import org.roda_project.commons_ip2.validator.constants.Constants;
 import org.roda_project.commons_ip2.validator.reporter.ValidationReportOutputJson;
@@ -62,6 +96,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
 
+import jakarta.xml.bind.JAXBException;
+
 /**
  * Unit tests for EARK Information Packages (SIP, AIP and DIP)
  */
@@ -146,6 +182,55 @@ public class EARKSIPTest {
     Assert.assertTrue(validate);
   }
 
+  @Test
+  public void buildParseAndValidateEARKSIPWithParallelZip() throws IPException, ParseException, InterruptedException,
+    IOException, ParserConfigurationException, SAXException, NoSuchAlgorithmException, JAXBException {
+    LOGGER.info("Creating full E-ARK SIP with zip and parallel zip write strategies");
+    Path sequentialZipSIP = Files.move(createFullEARKSIP_For_Test_Compliance(WriteStrategyEnum.ZIP),
+      Files.createTempDirectory(tempFolder, "zip").resolve("SIP_1.zip"));
+    Path zipSIP = createFullEARKSIP_For_Test_Compliance(WriteStrategyEnum.PARALLEL_ZIP);
+    LOGGER.info("Done creating full E-ARK SIP");
+
+    // METS files carry creation dates and generated identifiers, so only the
+    // other entries and the checksums recorded in the METS files are compared
+    Assert.assertEquals(zipEntryNames(sequentialZipSIP), zipEntryNames(zipSIP));
+    Assert.assertEquals(nonMETSEntries(sequentialZipSIP), nonMETSEntries(zipSIP));
+    Assert.assertEquals(recordedChecksums(sequentialZipSIP), recordedChecksums(zipSIP));
+
+    parseAndValidateFullEARKSIP(zipSIP);
+
+    Path reportPath = Files.createTempFile(Constants.VALIDATION_REPORT_PREFIX, ".json");
+    OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(reportPath.toFile()));
+    ValidationReportOutputJson reportOutputJson = new ValidationReportOutputJson(zipSIP, outputStream);
+    EARKSIPValidator earksipValidator = new EARKSIPValidator(reportOutputJson, "2.1.0");
+    Assert.assertTrue(earksipValidator.validate("2.1.0"));
+  }
+
+  @Test
+  public void parallelZipWithCallerExecutor() throws IPException, InterruptedException, IOException {
+    SIP sip = new EARKSIP("SIP_PARALLEL_ZIP", IPContentType.getMIXED(), IPContentInformationType.getMIXED(), "2.1.0");
+    Map<String, ZipEntryInfo> entries = new LinkedHashMap<>();
+    for (int i = 0; i < 3; i++) {
+      entries.put("data/file" + i + ".pdf",
+        new FileZipEntryInfo("data/file" + i + ".pdf", Paths.get("src/test/resources/eark/documentation.pdf")));
+    }
+
+    // the executor belongs to the caller, so it can be used for several zips
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      for (int i = 0; i < 2; i++) {
+        Path zipPath = tempFolder.resolve("caller-executor-" + i + ".zip");
+        try (OutputStream outputStream = Files.newOutputStream(zipPath)) {
+          ParallelZIPUtils.zip(entries, outputStream, sip, false, true, executor, 1);
+        }
+        Assert.assertFalse(executor.isShutdown());
+        Assert.assertEquals(new ArrayList<>(entries.keySet()), zipEntryNames(zipPath));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   public void buildAndParseEARKSIP() throws IPException, ParseException, InterruptedException {
     LOGGER.info("Creating full E-ARK SIP");
@@ -158,6 +243,456 @@ public class EARKSIPTest {
 
   }
 
+  @Test
+  public void buildAndParseEARKSIPWithStreamingParse() throws IPException, ParseException, InterruptedException,
+    IOException {
+    Path zipSIP = createFullEARKSIP();
+
+    SIP parsedSIP = new EARKSIP().parse(zipSIP, Files.createTempDirectory(tempFolder, "parse"));
+    EARKSIP streamingParser = new EARKSIP();
+    streamingParser.setStreamingParse(true);
+    SIP streamedSIP = streamingParser.parse(zipSIP, Files.createTempDirectory(tempFolder, "streaming-parse"));
+
+    Assert.assertTrue(streamedSIP.getValidationReport().isValid());
+    Assert.assertThat(streamedSIP.getRepresentations().size(), Is.is(parsedSIP.getRepresentations().size()));
+    for (int i = 0; i < parsedSIP.getRepresentations().size(); i++) {
+      List<String> expected = parsedSIP.getRepresentations().get(i).getData().stream()
+        .map(f -> String.join("/", f.getRelativeFolders()) + "/" + f.getFileName()).sorted().toList();
+      List<String> actual = streamedSIP.getRepresentations().get(i).getData().stream()
+        .map(f -> String.join("/", f.getRelativeFolders()) + "/" + f.getFileName()).sorted().toList();
+      Assert.assertFalse(actual.isEmpty());
+      Assert.assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void buildAndParseEARKSIPFromArchive() throws IPException, ParseException, InterruptedException,
+    IOException {
+    EARKSIP sip = new EARKSIP("SIP_ARCHIVE", IPContentType.getMIXED(), IPContentInformationType.getMIXED(), "2.1.0");
+    sip.addCreatorSoftwareAgent("RODA Commons IP", "2.0.0");
+    sip.addDescriptiveMetadata(
+      new IPDescriptiveMetadata(new IPFile(Paths.get("src/test/resources/eark/metadata_descriptive_dc.xml")),
+        new MetadataType(MetadataTypeEnum.DC), null));
+    IPRepresentation representation = new IPRepresentation("representation 1");
+    representation.addFile(new IPFile(Paths.get("src/test/resources/eark/documentation.pdf")));
+    IPFile folderFile = new IPFile(Paths.get("src/test/resources/eark/metadata_other.txt"));
+    folderFile.setRelativeFolders(Arrays.asList("abc", "def"));
+    representation.addFile(folderFile);
+    sip.addRepresentation(representation);
+    Path zipSIP = sip.build(SIPBuilderUtils.getWriteStrategy(WriteStrategyEnum.ZIP,
+      Files.createTempDirectory(tempFolder, "archive")));
+
+    SIP parsedSIP = new EARKSIP().parse(zipSIP, Files.createTempDirectory(tempFolder, "parse"));
+    EARKSIP archiveParser = new EARKSIP();
+    archiveParser.setParseFromArchive(true);
+    SIP archiveSIP = archiveParser.parse(zipSIP);
+    try {
+      Assert.assertTrue(archiveSIP.getValidationReport().isValid());
+      Assert.assertNotEquals(FileSystems.getDefault(), archiveSIP.getBasePath().getFileSystem());
+      Assert.assertThat(archiveSIP.getDescriptiveMetadata().size(), Is.is(1));
+      List<IPFileInterface> expected = parsedSIP.getRepresentations().get(0).getData();
+      List<IPFileInterface> actual = archiveSIP.getRepresentations().get(0).getData();
+      Assert.assertThat(actual.size(), Is.is(expected.size()));
+      for (int i = 0; i < expected.size(); i++) {
+        Assert.assertEquals(expected.get(i).getRelativeFolders(), actual.get(i).getRelativeFolders());
+        Assert.assertArrayEquals(Files.readAllBytes(((IPFile) expected.get(i)).getPath()),
+          Files.readAllBytes(((IPFile) actual.get(i)).getPath()));
+      }
+    } finally {
+      ZIPUtils.closeIPInZipFormat(archiveSIP.getBasePath());
+    }
+
+    // entry names with '\' cannot be read through the ZIP file system, so the
+    // SIP is extracted
+    archiveSIP = archiveParser.parse(createFullEARKSIP());
+    Assert.assertTrue(archiveSIP.getValidationReport().isValid());
+  }
+
+  @Test
+  public void buildAndParseEARKSIPWithParallelChecksums() throws IPException, ParseException, InterruptedException,
+    IOException {
+    Path zipSIP = createFullEARKSIP();
+
+    ExecutorService parallelExecutor = Executors.newFixedThreadPool(4);
+    try {
+      // without an executor the checksums are verified on the parsing thread
+      EARKSIP sequentialParser = new EARKSIP();
+      SIP sequentialSIP = sequentialParser.parse(zipSIP, Files.createTempDirectory(tempFolder, "sequential-parse"));
+      EARKSIP parallelParser = new EARKSIP();
+      parallelParser.setChecksumExecutor(parallelExecutor);
+      SIP parallelSIP = parallelParser.parse(zipSIP, Files.createTempDirectory(tempFolder, "parallel-parse"));
+
+      Assert.assertTrue(parallelSIP.getValidationReport().isValid());
+      Assert.assertEquals(reportEntries(sequentialSIP), reportEntries(parallelSIP));
+      Assert.assertThat(parallelSIP.getRepresentations().size(), Is.is(sequentialSIP.getRepresentations().size()));
+      for (int i = 0; i < sequentialSIP.getRepresentations().size(); i++) {
+        List<String> expected = sequentialSIP.getRepresentations().get(i).getData().stream()
+          .map(f -> String.join("/", f.getRelativeFolders()) + "/" + f.getFileName()).toList();
+        List<String> actual = parallelSIP.getRepresentations().get(i).getData().stream()
+          .map(f -> String.join("/", f.getRelativeFolders()) + "/" + f.getFileName()).toList();
+        Assert.assertEquals(expected, actual);
+      }
+    } finally {
+      parallelExecutor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void buildAndParseEARKSIPsConcurrently() throws InterruptedException, ExecutionException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<SIP>> parsedSIPs = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        final String sipId = "SIP_CONCURRENT_" + i;
+        parsedSIPs.add(executor.submit(() -> {
+          EARKSIP sip = new EARKSIP(sipId, IPContentType.getMIXED(), IPContentInformationType.getMIXED(), "2.1.0");
+          sip.addCreatorSoftwareAgent("RODA Commons IP", "2.0.0");
+          IPRepresentation representation = new IPRepresentation("representation 1");
+          IPFile file = new IPFile(Paths.get("src/test/resources/eark/documentation.pdf"));
+          file.setRenameTo(sipId + " #1.pdf");
+          file.setRelativeFolders(Arrays.asList("a b"));
+          representation.addFile(file);
+          sip.addRepresentation(representation);
+          Path zipSIP = sip.build(SIPBuilderUtils.getWriteStrategy(WriteStrategyEnum.ZIP,
+            Files.createTempDirectory(tempFolder, "concurrent")));
+          return new EARKSIP().parse(zipSIP, Files.createTempDirectory(tempFolder, "concurrent-parse"));
+        }));
+      }
+
+      for (int i = 0; i < parsedSIPs.size(); i++) {
+        SIP parsedSIP = parsedSIPs.get(i).get();
+        Assert.assertTrue(parsedSIP.getValidationReport().isValid());
+        IPFileInterface file = parsedSIP.getRepresentations().get(0).getData().get(0);
+        Assert.assertEquals("SIP_CONCURRENT_" + i + " #1.pdf", file.getFileName());
+        Assert.assertEquals(Arrays.asList("a b"), file.getRelativeFolders());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<String> reportEntries(SIP sip) {
+    return sip.getValidationReport().getValidationEntries().stream()
+      .map(entry -> entry.getLevel() + " " + entry.getRelatedItem().stream()
+        .map(item -> item.isAbsolute() ? sip.getBasePath().relativize(item).toString() : item.toString()).toList())
+      .toList();
+  }
+
+  @Test
+  public void buildEARKSIPWithParallelRepresentations()
+    throws IPException, InterruptedException, IOException, JAXBException, SAXException {
+    ExecutorService parallelExecutor = Executors.newFixedThreadPool(4);
+    try {
+      List<String> sequentialEvents = new ArrayList<>();
+      Path sequentialZipSIP = buildSIPWithRepresentations(null, false, sequentialEvents);
+      List<String> parallelEvents = new ArrayList<>();
+      Path parallelZipSIP = buildSIPWithRepresentations(parallelExecutor, false, parallelEvents);
+      List<String> ownPoolEvents = new ArrayList<>();
+      Path ownPoolZipSIP = buildSIPWithRepresentations(null, true, ownPoolEvents);
+
+      for (Path zipSIP : Arrays.asList(parallelZipSIP, ownPoolZipSIP)) {
+        Assert.assertEquals(zipEntryNames(sequentialZipSIP), zipEntryNames(zipSIP));
+        Assert.assertEquals(nonMETSEntries(sequentialZipSIP), nonMETSEntries(zipSIP));
+        Assert.assertEquals(metsStructures(sequentialZipSIP), metsStructures(zipSIP));
+      }
+      Assert.assertEquals(sequentialEvents, parallelEvents);
+      Assert.assertEquals(sequentialEvents, ownPoolEvents);
+      Assert.assertEquals(Arrays.asList("representations 3", "representation 20", "representation 20",
+        "representation 20", "representations ended"), parallelEvents);
+    } finally {
+      parallelExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Builds a SIP with 3 representations of 20 files, on the build executor if
+   * not {@code null}, on a pool of the SIP if parallel, otherwise one
+   * representation at a time on the calling thread.
+   */
+  private Path buildSIPWithRepresentations(ExecutorService buildExecutor, boolean parallelBuild, List<String> events)
+    throws IPException, InterruptedException, IOException {
+    EARKSIP sip = new EARKSIP("SIP_PARALLEL", IPContentType.getMIXED(), IPContentInformationType.getMIXED(), "2.1.0");
+    sip.setBuildExecutor(buildExecutor);
+    sip.setParallelBuild(parallelBuild);
+    sip.addCreatorSoftwareAgent("RODA Commons IP", "2.0.0");
+    for (int r = 1; r <= 3; r++) {
+      IPRepresentation representation = new IPRepresentation("rep" + r);
+      for (int f = 0; f < 20; f++) {
+        IPFile file = new IPFile(Paths.get("src/test/resources/eark/documentation.pdf"));
+        file.setRenameTo("file" + f + ".pdf");
+        file.setRelativeFolders(Arrays.asList("folder" + (f % 3)));
+        representation.addFile(file);
+      }
+      sip.addRepresentation(representation);
+    }
+    sip.addObserver(new SIPObserver() {
+      private int filesProcessed;
+
+      @Override
+      public void sipBuildRepresentationsProcessingStarted(int totalNumberOfRepresentations) {
+        events.add("representations " + totalNumberOfRepresentations);
+      }
+
+      @Override
+      public void sipBuildRepresentationProcessingStarted(int totalNumberOfFiles) {
+        filesProcessed = 0;
+      }
+
+      @Override
+      public void sipBuildRepresentationProcessingCurrentStatus(int numberOfFilesAlreadyProcessed) {
+        Assert.assertEquals(filesProcessed + 1, numberOfFilesAlreadyProcessed);
+        filesProcessed = numberOfFilesAlreadyProcessed;
+      }
+
+      @Override
+      public void sipBuildRepresentationProcessingEnded() {
+        events.add("representation " + filesProcessed);
+      }
+
+      @Override
+      public void sipBuildRepresentationsProcessingEnded() {
+        events.add("representations ended");
+      }
+
+      @Override
+      public void sipBuildPackagingStarted(int totalNumberOfFiles) {
+        // not relevant for this test
+      }
+
+      @Override
+      public void sipBuildPackagingCurrentStatus(int numberOfFilesAlreadyProcessed) {
+        // not relevant for this test
+      }
+
+      @Override
+      public void sipBuildPackagingEnded() {
+        // not relevant for this test
+      }
+    });
+    return sip.build(SIPBuilderUtils.getWriteStrategy(WriteStrategyEnum.ZIP,
+      Files.createTempDirectory(tempFolder, "parallel-representations")));
+  }
+
+  private static List<String> zipEntryNames(Path zip) throws IOException {
+    try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+      return zipFile.stream().map(ZipEntry::getName).toList();
+    }
+  }
+
+  private static List<String> nonMETSEntries(Path zip) throws IOException {
+    try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+      return zipFile.stream().filter(entry -> !entry.getName().endsWith(IPConstants.METS_FILE))
+        .map(entry -> entry.getName() + " " + entry.getCrc() + " " + entry.getSize()).toList();
+    }
+  }
+
+  /**
+   * The checksums recorded in each METS file for the files other than METS
+   * files.
+   */
+  private static List<String> recordedChecksums(Path zip) throws IOException, JAXBException, SAXException {
+    List<String> checksums = new ArrayList<>();
+    try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+      for (ZipEntry entry : Collections.list(zipFile.entries())) {
+        if (!entry.getName().endsWith(IPConstants.METS_FILE)) {
+          continue;
+        }
+        Path metsFile = Files.createTempFile(tempFolder, "mets", ".xml");
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+          Files.copy(inputStream, metsFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        for (MetsType.FileSec.FileGrp fileGrp : METSUtils.instantiateMETSFromFile(metsFile).getFileSec()
+          .getFileGrp()) {
+          for (FileType file : fileGrp.getFile()) {
+            String href = file.getFLocat().get(0).getHref();
+            if (!href.endsWith(IPConstants.METS_FILE)) {
+              checksums
+                .add(entry.getName() + " " + href + " " + file.getCHECKSUMTYPE() + " " + file.getCHECKSUM());
+            }
+          }
+        }
+      }
+    }
+    return checksums;
+  }
+
+  /**
+   * The file groups, files, divisions and pointers of each METS file, in
+   * document order and without the generated identifiers and dates.
+   */
+  private static List<String> metsStructures(Path zip) throws IOException, JAXBException, SAXException {
+    List<String> structures = new ArrayList<>();
+    try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+      for (ZipEntry entry : Collections.list(zipFile.entries())) {
+        if (!entry.getName().endsWith(IPConstants.METS_FILE)) {
+          continue;
+        }
+        Path metsFile = Files.createTempFile(tempFolder, "mets", ".xml");
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+          Files.copy(inputStream, metsFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Mets mets = METSUtils.instantiateMETSFromFile(metsFile);
+        structures.add(entry.getName());
+        for (MetsType.FileSec.FileGrp fileGrp : mets.getFileSec().getFileGrp()) {
+          addFileGrpStructure(structures, fileGrp);
+        }
+        for (StructMapType structMap : mets.getStructMap()) {
+          structures.add("structMap " + structMap.getLABEL());
+          addDivStructure(structures, structMap.getDiv());
+        }
+      }
+    }
+    return structures;
+  }
+
+  private static void addFileGrpStructure(List<String> structures, FileGrpType fileGrp) {
+    structures.add("fileGrp " + fileGrp.getUSE());
+    for (FileType file : fileGrp.getFile()) {
+      String href = file.getFLocat().get(0).getHref();
+      // the METS files have generated identifiers and dates, so their checksums
+      // differ between builds, their content is compared on its own entry
+      structures.add("file " + href + " " + file.getMIMETYPE() + " " + file.getSIZE()
+        + (href.endsWith(IPConstants.METS_FILE) ? "" : " " + file.getCHECKSUMTYPE() + " " + file.getCHECKSUM()));
+    }
+    for (FileGrpType child : fileGrp.getFileGrp()) {
+      addFileGrpStructure(structures, child);
+    }
+  }
+
+  private static void addDivStructure(List<String> structures, DivType div) {
+    structures.add("div " + div.getLABEL());
+    for (DivType.Fptr fptr : div.getFptr()) {
+      structures.add("fptr " + ((FileGrpType) fptr.getFILEID()).getUSE());
+    }
+    for (DivType.Mptr mptr : div.getMptr()) {
+      structures.add("mptr " + mptr.getHref());
+    }
+    for (DivType child : div.getDiv()) {
+      addDivStructure(structures, child);
+    }
+  }
+
+  @Test
+  public void stageMETSInMemoryAndOnDisk()
+    throws IPException, InterruptedException, IOException, JAXBException, SAXException {
+    Path metsFile = tempFolder.resolve("staged-" + IPConstants.METS_FILE);
+    try (ZipFile zipFile = new ZipFile(buildSIPWithRepresentations(null, false, new ArrayList<>()).toFile())) {
+      ZipEntry metsEntry = zipFile.getEntry("SIP_PARALLEL/" + IPConstants.METS_FILE);
+      Files.copy(zipFile.getInputStream(metsEntry), metsFile);
+    }
+    Mets mets = METSUtils.instantiateMETSFromFile(metsFile);
+
+    METSZipEntryInfo inMemory = new METSZipEntryInfo(IPConstants.METS_FILE,
+      METSUtils.createMETSStagingPath(tempFolder), mets, true, null);
+    inMemory.setChecksum(IPConstants.CHECKSUM_ALGORITHM);
+    inMemory.prepareEntryForZipping();
+    METSZipEntryInfo onDisk = new METSZipEntryInfo(IPConstants.METS_FILE, METSUtils.createMETSStagingPath(tempFolder),
+      mets, true, null);
+    onDisk.setMemoryLimit(0);
+    onDisk.setChecksum(IPConstants.CHECKSUM_ALGORITHM);
+    onDisk.prepareEntryForZipping();
+
+    Assert.assertFalse(Files.exists(inMemory.getFilePath()));
+    Assert.assertTrue(Files.exists(onDisk.getFilePath()));
+    byte[] staged = IOUtils.toByteArray(inMemory.openStagedStream());
+    Assert.assertArrayEquals(Files.readAllBytes(onDisk.getFilePath()), staged);
+    Assert.assertEquals(staged.length,
+      inMemory.getStagedDigest(Collections.singleton(IPConstants.CHECKSUM_ALGORITHM)).getSize());
+
+    // only a METS spilled to disk can be read once released
+    inMemory.releaseStaged();
+    Assert.assertThrows(IllegalStateException.class, inMemory::openStagedStream);
+    onDisk.releaseStaged();
+    try (InputStream inputStream = onDisk.openStagedStream()) {
+      Assert.assertArrayEquals(staged, IOUtils.toByteArray(inputStream));
+    }
+  }
+
+  @Test
+  public void buildAndParseEARKSIPWithStreamingBuild() throws IPException, ParseException, InterruptedException,
+    IOException {
+    Path zipSIP = createFullEARKSIP(true);
+
+    SIP parsedSIP = new EARKSIP().parse(zipSIP, Files.createTempDirectory(tempFolder, "parse"));
+
+    Assert.assertTrue(parsedSIP.getValidationReport().isValid());
+    Assert.assertThat(parsedSIP.getRepresentations().size(), Is.is(2));
+    for (IPRepresentation representation : parsedSIP.getRepresentations()) {
+      Assert.assertFalse(representation.getData().isEmpty());
+    }
+  }
+
+  @Test
+  public void spoolDataFileTypesWhenCreated() throws IPException, IOException, XMLStreamException {
+    METSDataFileSpool spool = new METSDataFileSpool(tempFolder.resolve("data-files.spool"));
+    Map<String, ZipEntryInfo> zipEntries = new LinkedHashMap<>();
+    List<FileType> fileTypes = addSpooledDataFiles(zipEntries, spool, 3);
+
+    // the entries only keep what is needed to set the checksum in the spool
+    Assert.assertEquals(3, spool.size());
+    for (ZipEntryInfo entry : zipEntries.values()) {
+      Assert.assertNull(((METSFileTypeZipEntryInfo) entry).getMetsFileType());
+    }
+    // the file types were written when spooled, later changes are not seen
+    fileTypes.forEach(fileType -> fileType.setMIMETYPE("text/plain"));
+
+    int i = 0;
+    for (ZipEntryInfo entry : zipEntries.values()) {
+      ((METSFileTypeZipEntryInfo) entry).setMetsFileTypeChecksum("checksum" + i++, IPConstants.CHECKSUM_ALGORITHM);
+    }
+    StringWriter xml = new StringWriter();
+    XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(xml);
+    writer.writeStartDocument();
+    writer.writeStartElement("spool");
+    spool.writeTo(writer);
+    writer.writeEndElement();
+    writer.close();
+    spool.delete();
+
+    Matcher matcher = Pattern.compile("(ID|MIMETYPE|CHECKSUM)=\"([^\"]+)\"").matcher(xml.toString());
+    List<String> attributes = new ArrayList<>();
+    while (matcher.find()) {
+      attributes.add(matcher.group());
+    }
+    Assert.assertEquals(Arrays.asList("ID=\"file0\"", "MIMETYPE=\"application/pdf\"", "CHECKSUM=\"checksum0\"",
+      "ID=\"file1\"", "MIMETYPE=\"application/pdf\"", "CHECKSUM=\"checksum1\"", "ID=\"file2\"",
+      "MIMETYPE=\"application/pdf\"", "CHECKSUM=\"checksum2\""), attributes);
+  }
+
+  private static List<FileType> addSpooledDataFiles(Map<String, ZipEntryInfo> zipEntries, METSDataFileSpool spool,
+    int numberOfFiles) throws IPException {
+    List<FileType> fileTypes = new ArrayList<>();
+    for (int i = 0; i < numberOfFiles; i++) {
+      FileType fileType = new FileType();
+      fileType.setID("file" + i);
+      fileType.setMIMETYPE("application/pdf");
+      ZIPUtils.addFileTypeFileToZip(zipEntries, Paths.get("src/test/resources/eark/documentation.pdf"),
+        "data/file" + i + ".pdf", fileType, spool);
+      fileTypes.add(fileType);
+    }
+    return fileTypes;
+  }
+
+  @Test
+  public void rebuildEARKSIPWithManifestCache() throws IPException, ParseException, InterruptedException,
+    IOException {
+    Path cacheFile = tempFolder.resolve("manifest-cache.tsv");
+
+    ManifestCache firstCache = ManifestCache.load(cacheFile);
+    createFullEARKSIP(false, firstCache);
+    Assert.assertEquals(0, firstCache.getHits());
+    Assert.assertTrue(Files.exists(cacheFile));
+
+    ManifestCache secondCache = ManifestCache.load(cacheFile);
+    Assert.assertEquals(firstCache.size(), secondCache.size());
+    Path zipSIP = createFullEARKSIP(false, secondCache);
+    Assert.assertEquals(firstCache.getMisses(), secondCache.getHits());
+    Assert.assertEquals(0, secondCache.getMisses());
+
+    SIP parsedSIP = new EARKSIP().parse(zipSIP, Files.createTempDirectory(tempFolder, "parse"));
+    Assert.assertTrue(parsedSIP.getValidationReport().isValid());
+  }
+
   @Test
   public void buildEARKSIPShallow()
     throws IPException, InterruptedException, DatatypeConfigurationException, ParseException, URISyntaxException {
@@ -398,9 +933,20 @@ public class EARKSIPTest {
 
 
   private Path createFullEARKSIP() throws IPException, InterruptedException {
+    return createFullEARKSIP(false);
+  }
+
+  private Path createFullEARKSIP(boolean streamingBuild) throws IPException, InterruptedException {
+    return createFullEARKSIP(streamingBuild, null);
+  }
+
+  private Path createFullEARKSIP(boolean streamingBuild, ManifestCache manifestCache)
+    throws IPException, InterruptedException {
 
     // 1) instantiate E-ARK SIP object
-    SIP sip = new EARKSIP("SIP_1", IPContentType.getMIXED(), IPContentInformationType.getMIXED(), "2.1.0");
+    EARKSIP sip = new EARKSIP("SIP_1", IPContentType.getMIXED(), IPContentInformationType.getMIXED(), "2.1.0");
+    sip.setStreamingBuild(streamingBuild);
+    sip.setManifestCache(manifestCache);
     sip.addCreatorSoftwareAgent("RODA Commons IP", "2.0.0");
 
     // 1.1) set optional human-readable description
@@ -655,6 +1201,11 @@ public class EARKSIPTest {
   }
 
   private Path createFullEARKSIP_For_Test_Compliance() throws IPException, InterruptedException {
+    return createFullEARKSIP_For_Test_Compliance(WriteStrategyEnum.ZIP);
+  }
+
+  private Path createFullEARKSIP_For_Test_Compliance(WriteStrategyEnum writeStrategyEnum)
+    throws IPException, InterruptedException {
 
     // 1) instantiate E-ARK SIP object
     SIP sip = new EARKSIP("SIP_1", IPContentType.getMIXED(), IPContentInformationType.getMIXED(), "2.1.0");
@@ -753,7 +1304,7 @@ public class EARKSIPTest {
     representation2.addFile(representationFile3);
 
     // 2) build SIP, providing an output directory
-    WriteStrategy writeStrategy = SIPBuilderUtils.getWriteStrategy(WriteStrategyEnum.ZIP, tempFolder);
+    WriteStrategy writeStrategy = SIPBuilderUtils.getWriteStrategy(writeStrategyEnum, tempFolder);
     Path zipSIP = sip.build(writeStrategy);
 
     return zipSIP;
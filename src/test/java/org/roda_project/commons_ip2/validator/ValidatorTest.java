@@ -10,6 +10,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 import javax.xml.parsers.ParserConfigurationException;
 
@@ -19,11 +21,17 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.roda_project.commons_ip2.utils.Utils;
 import org.roda_project.commons_ip2.validator.constants.Constants;
+import org.roda_project.commons_ip2.validator.observer.ValidationObserver;
+import org.roda_project.commons_ip2.validator.reporter.ReporterDetails;
 import org.roda_project.commons_ip2.validator.reporter.ValidationReportOutputJson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 /**
  * @author João Gomes <jgomes@keep.pt>
  */
@@ -128,6 +136,146 @@ public class ValidatorTest {
 
     Assert.assertFalse(validate);
   }
+  /* Full SIP, representation METS validated concurrently */
+  @Test
+  public void validateFullSipZIPWithConcurrentSubMets()
+    throws IOException, URISyntaxException, ParserConfigurationException, SAXException, NoSuchAlgorithmException {
+    URI resource = getClass().getResource("/").toURI();
+    Path earkSIPath = Paths.get(resource).resolve("validation").resolve("Full-EARK-SIP.zip");
+
+    ValidationReportOutputJson sequentialReport = validate(earkSIPath, 1);
+    ValidationReportOutputJson concurrentReport = validate(earkSIPath, 4);
+
+    Map<String, ReporterDetails> expected = sequentialReport.getResults();
+    Map<String, ReporterDetails> actual = concurrentReport.getResults();
+    Assert.assertEquals(expected.keySet(), actual.keySet());
+    for (Map.Entry<String, ReporterDetails> entry : expected.entrySet()) {
+      ReporterDetails details = actual.get(entry.getKey());
+      Assert.assertEquals(entry.getKey(), entry.getValue().isValid(), details.isValid());
+      Assert.assertEquals(entry.getKey(), entry.getValue().isSkipped(), details.isSkipped());
+      Assert.assertEquals(entry.getKey(), entry.getValue().getIssues(), details.getIssues());
+    }
+    Assert.assertEquals(sequentialReport.getErrors(), concurrentReport.getErrors());
+    Assert.assertEquals(sequentialReport.getSuccess(), concurrentReport.getSuccess());
+  }
+
+  /* Full SIP, validated twice in a batch with the same components */
+  @Test
+  public void validateFullSipZIPInBatch() throws Exception {
+    URI resource = getClass().getResource("/").toURI();
+    Path earkSIPath = Paths.get(resource).resolve("validation").resolve("Full-EARK-SIP.zip");
+
+    final BatchValidator.Outcome first;
+    final BatchValidator.Outcome second;
+    try (BatchValidator batchValidator = new BatchValidator("2.1.0", 1)) {
+      Future<BatchValidator.Outcome> firstFuture = batchValidator.submit(earkSIPath,
+        tempFolder.resolve("batch-1.json"));
+      Future<BatchValidator.Outcome> secondFuture = batchValidator.submit(earkSIPath,
+        tempFolder.resolve("batch-2.json"));
+      first = firstFuture.get();
+      second = secondFuture.get();
+    }
+
+    Assert.assertNull(first.getError());
+    Assert.assertNull(second.getError());
+    Assert.assertEquals(validate(earkSIPath, 1).getErrors() == 0, first.isValid());
+    Assert.assertEquals(first.isValid(), second.isValid());
+
+    Path singleReportPath = tempFolder.resolve("single.json");
+    try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(singleReportPath.toFile()))) {
+      ValidationReportOutputJson reportOutputJson = new ValidationReportOutputJson(earkSIPath, outputStream);
+      new EARKSIPValidator(reportOutputJson, "2.1.0").validate("2.1.0");
+    }
+    JsonNode expected = validationResults(singleReportPath);
+    Assert.assertTrue(expected.size() > 0);
+    Assert.assertEquals(expected, validationResults(first.getReportPath()));
+    Assert.assertEquals(expected, validationResults(second.getReportPath()));
+  }
+
+  /* Observers are not kept by the components of the pipeline */
+  @Test
+  public void validateWithObserversOnSharedPipeline() throws Exception {
+    URI resource = getClass().getResource("/").toURI();
+    Path earkSIPath = Paths.get(resource).resolve("validation").resolve("Full-EARK-SIP.zip");
+    ValidatorPipeline pipeline = new ValidatorPipeline("2.1.0");
+    CountingObserver observer = new CountingObserver();
+
+    EARKSIPValidator observed = new EARKSIPValidator(validationReport(earkSIPath), pipeline);
+    observed.addObserver(observer);
+    observed.validate("2.1.0");
+    int notifications = observer.notifications;
+    Assert.assertTrue(notifications > 0);
+
+    new EARKSIPValidator(validationReport(earkSIPath), pipeline).validate("2.1.0");
+    Assert.assertEquals(notifications, observer.notifications);
+  }
+
+  private ValidationReportOutputJson validationReport(Path earkSIPath) throws IOException {
+    Path reportPath = Files.createTempFile(tempFolder, Constants.VALIDATION_REPORT_PREFIX, ".json");
+    return new ValidationReportOutputJson(earkSIPath,
+      new BufferedOutputStream(new FileOutputStream(reportPath.toFile())));
+  }
+
+  private static JsonNode validationResults(Path reportPath) throws IOException {
+    JsonNode validation = new ObjectMapper().readTree(reportPath.toFile())
+      .get(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_VALIDATION);
+    for (JsonNode result : validation) {
+      // spilled issues are written to a different file on every validation
+      ((ObjectNode) result.get(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_TESTING))
+        .remove(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_OMITTED_ISSUES_FILE);
+    }
+    return validation;
+  }
+
+  private static final class CountingObserver implements ValidationObserver {
+    private int notifications = 0;
+
+    @Override
+    public void notifyValidationStart() {
+      notifications++;
+    }
+
+    @Override
+    public void notifyStartValidationModule(String moduleName, String id) {
+      notifications++;
+    }
+
+    @Override
+    public void notifyStartStep(String id) {
+      notifications++;
+    }
+
+    @Override
+    public void notifyFinishStep(String id) {
+      notifications++;
+    }
+
+    @Override
+    public void notifyFinishModule(String moduleName) {
+      notifications++;
+    }
+
+    @Override
+    public void notifyFinishValidation() {
+      notifications++;
+    }
+
+    @Override
+    public void notifyIndicators(int errors, int success, int warnings, int notes, int skipped) {
+      notifications++;
+    }
+  }
+
+  private ValidationReportOutputJson validate(Path earkSIPath, int threads)
+    throws IOException, ParserConfigurationException, SAXException {
+    Path reportPath = Files.createTempFile(tempFolder, Constants.VALIDATION_REPORT_PREFIX, ".json");
+    OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(reportPath.toFile()));
+    ValidationReportOutputJson reportOutputJson = new ValidationReportOutputJson(earkSIPath, outputStream);
+    EARKSIPValidator earksipValidator = new EARKSIPValidator(reportOutputJson, "2.1.0");
+    earksipValidator.setSubMetsThreads(threads);
+    earksipValidator.validate("2.1.0");
+    return reportOutputJson;
+  }
   //
   // /* Simple SIP */
   // @Test
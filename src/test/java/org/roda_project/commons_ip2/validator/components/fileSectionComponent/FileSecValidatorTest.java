@@ -0,0 +1,80 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.validator.components.fileSectionComponent;
+
+import javax.xml.namespace.QName;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.roda_project.commons_ip2.mets_v1_12.beans.FileType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
+import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
+import org.roda_project.commons_ip2.validator.constants.Constants;
+import org.roda_project.commons_ip2.validator.reporter.ReporterDetails;
+import org.roda_project.commons_ip2.validator.state.MetsIdRegistryTest;
+import org.roda_project.commons_ip2.validator.state.MetsValidatorState;
+
+public class FileSecValidatorTest {
+  private static final QName ADMID = new QName(Constants.HTTPS_DILCIS_EU_XML_METS_CSIPEXTENSION_METS, "ADMID",
+    "csip");
+
+  private final FileSecValidator validator = new FileSecValidator() {
+    @Override
+    protected String getCSIPVersion() {
+      return "CSIP-2.1.0";
+    }
+  };
+
+  private Mets mets;
+  private MetsValidatorState state;
+  private MetsType.FileSec.FileGrp documentation;
+  private FileType file;
+
+  @Before
+  public void setup() {
+    mets = MetsIdRegistryTest.createMets();
+    state = new MetsValidatorState();
+    state.setMets(mets);
+    state.setMetsName("METS.xml");
+    state.setIsRootMets(true);
+    documentation = MetsIdRegistryTest.fileGrp(mets, "Documentation");
+    file = documentation.getFile().get(0);
+  }
+
+  @Test
+  public void validateCSIP61() {
+    documentation.getOtherAttributes().put(ADMID, "digiprov1");
+    Assert.assertTrue(validator.validateCSIP61(state).isValid());
+
+    documentation.getOtherAttributes().put(ADMID, "rights1");
+    Assert.assertFalse(validator.validateCSIP61(state).isValid());
+  }
+
+  @Test
+  public void validateCSIP74() {
+    file.getADMID().add(MetsIdRegistryTest.mdSec("digiprov1", "digiprov1-ref"));
+    Assert.assertTrue(validator.validateCSIP74(state).isValid());
+
+    file.getADMID().add(MetsIdRegistryTest.mdSec("dmd1", "dmd1-ref"));
+    file.getADMID().add(MetsIdRegistryTest.mdSec("other", "undeclared-ref"));
+    final ReporterDetails details = validator.validateCSIP74(state);
+    Assert.assertFalse(details.isValid());
+    Assert.assertEquals(2, details.getIssueCount());
+  }
+
+  @Test
+  public void validateCSIP75() {
+    file.getDMDID().add(MetsIdRegistryTest.mdSec("dmd1", "dmd1-ref"));
+    Assert.assertTrue(validator.validateCSIP75(state).isValid());
+
+    file.getDMDID().clear();
+    file.getDMDID().add(MetsIdRegistryTest.mdSec("digiprov1", "digiprov1-ref"));
+    Assert.assertFalse(validator.validateCSIP75(state).isValid());
+  }
+}
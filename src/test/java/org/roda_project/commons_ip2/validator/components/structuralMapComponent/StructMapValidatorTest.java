@@ -0,0 +1,99 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.validator.components.structuralMapComponent;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.roda_project.commons_ip2.mets_v1_12.beans.DivType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
+import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
+import org.roda_project.commons_ip2.validator.state.MetsIdRegistryTest;
+import org.roda_project.commons_ip2.validator.state.MetsValidatorState;
+
+public class StructMapValidatorTest {
+  private final StructMapValidator validator = new StructMapValidator() {
+    @Override
+    protected String getCSIPVersion() {
+      return "CSIP-2.1.0";
+    }
+  };
+
+  private Mets mets;
+  private MetsValidatorState state;
+
+  @Before
+  public void setup() {
+    mets = MetsIdRegistryTest.createMets();
+    state = new MetsValidatorState();
+    state.setMets(mets);
+    state.setMetsName("METS.xml");
+    state.setIsRootMets(true);
+  }
+
+  @Test
+  public void validateCSIP91() {
+    final DivType metadata = MetsIdRegistryTest.div(mets, "Metadata");
+    metadata.getADMID().add(MetsIdRegistryTest.mdSec("digiprov1", null));
+    metadata.getADMID().add(MetsIdRegistryTest.mdSec("rights1", null));
+    Assert.assertTrue(validator.validateCSIP91(state).isValid());
+
+    metadata.getADMID().add(MetsIdRegistryTest.mdSec("dmd1", null));
+    Assert.assertFalse(validator.validateCSIP91(state).isValid());
+  }
+
+  @Test
+  public void validateCSIP92() {
+    final DivType metadata = MetsIdRegistryTest.div(mets, "Metadata");
+    metadata.getDMDID().add(MetsIdRegistryTest.mdSec("dmd1", null));
+    Assert.assertTrue(validator.validateCSIP92(state).isValid());
+
+    metadata.getDMDID().add(MetsIdRegistryTest.mdSec("digiprov1", null));
+    Assert.assertFalse(validator.validateCSIP92(state).isValid());
+  }
+
+  @Test
+  public void validateCSIP116() {
+    addFptr("Documentation", MetsIdRegistryTest.fileGrp(mets, "Documentation"));
+    Assert.assertTrue(validator.validateCSIP116(state).isValid());
+
+    setup();
+    addFptr("Documentation", MetsIdRegistryTest.fileGrp(mets, "Schemas"));
+    Assert.assertFalse(validator.validateCSIP116(state).isValid());
+  }
+
+  @Test
+  public void validateCSIP118() {
+    addFptr("Schemas", MetsIdRegistryTest.fileGrp(mets, "Schemas"));
+    Assert.assertTrue(validator.validateCSIP118(state).isValid());
+
+    setup();
+    final MetsType.FileSec.FileGrp undeclared = new MetsType.FileSec.FileGrp();
+    undeclared.setID("grp-undeclared");
+    undeclared.setUSE("Schemas");
+    addFptr("Schemas", undeclared);
+    Assert.assertFalse(validator.validateCSIP118(state).isValid());
+  }
+
+  @Test
+  public void validateCSIP119() {
+    // the file group id is also the id of the dmdSec
+    addFptr("Representations", MetsIdRegistryTest.fileGrp(mets, "Representations"));
+    Assert.assertTrue(validator.validateCSIP119(state).isValid());
+
+    setup();
+    addFptr("Representations", MetsIdRegistryTest.fileGrp(mets, "Documentation"));
+    Assert.assertFalse(validator.validateCSIP119(state).isValid());
+  }
+
+  private void addFptr(final String label, final MetsType.FileSec.FileGrp fileGrp) {
+    final DivType.Fptr fptr = new DivType.Fptr();
+    fptr.setFILEID(fileGrp);
+    MetsIdRegistryTest.div(mets, label).getFptr().add(fptr);
+  }
+}
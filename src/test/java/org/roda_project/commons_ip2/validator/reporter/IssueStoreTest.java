@@ -0,0 +1,215 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.validator.reporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.roda_project.commons_ip2.utils.Utils;
+import org.roda_project.commons_ip2.validator.constants.Constants;
+import org.roda_project.commons_ip2.validator.utils.ResultsUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class IssueStoreTest {
+  private Path spillDirectory;
+
+  @Before
+  public void setup() throws IOException {
+    spillDirectory = Files.createTempDirectory("issues");
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    System.clearProperty(IssueStore.SPILL_DIRECTORY_PROPERTY);
+    System.clearProperty(IssueStore.MAX_SAMPLES_PROPERTY);
+    Utils.deletePath(spillDirectory);
+  }
+
+  @Test
+  public void keepOnlyTheFirstIssues() {
+    final IssueStore store = new IssueStore(2);
+    store.addAll(Arrays.asList("File a.txt is missing", "File b.txt is missing", "File c.txt is missing",
+      "Checksum of d.txt does not match"));
+
+    Assert.assertEquals(Arrays.asList("File a.txt is missing", "File b.txt is missing"), store.getSamples());
+    Assert.assertEquals(4, store.getCount());
+    Assert.assertEquals(2, store.getOmittedCount());
+    final Map<String, Long> expected = new HashMap<>();
+    expected.put("File {} is missing", 1L);
+    expected.put("Checksum of {} does not match", 1L);
+    Assert.assertEquals(expected, store.getOmittedCounts());
+    Assert.assertNull(store.getSpillFile());
+  }
+
+  @Test
+  public void readTheCapFromTheSystemProperty() {
+    System.setProperty(IssueStore.MAX_SAMPLES_PROPERTY, "1");
+    final ReporterDetails details = new ReporterDetails(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION,
+      Arrays.asList("Issue 1", "Issue 2"), false, false);
+
+    Assert.assertEquals(1, details.getIssues().size());
+    Assert.assertEquals(2, details.getIssueCount());
+    Assert.assertEquals(1, details.getOmittedIssueCount());
+    Assert.assertTrue(details.hasIssues());
+  }
+
+  @Test
+  public void countTheTemplatesPastTheLimitAsOther() {
+    final IssueStore store = new IssueStore(0);
+    for (int i = 0; i < IssueStore.MAX_TEMPLATES + 10; i++) {
+      store.add("Issue " + "x".repeat(i + 1));
+    }
+    store.add("Issue x");
+
+    Assert.assertTrue(store.getSamples().isEmpty());
+    Assert.assertEquals(IssueStore.MAX_TEMPLATES + 1, store.getOmittedCounts().size());
+    Assert.assertEquals(Long.valueOf(10), store.getOmittedCounts().get(IssueStore.OTHER_TEMPLATE));
+    Assert.assertEquals(Long.valueOf(2), store.getOmittedCounts().get("Issue x"));
+    Assert.assertEquals(IssueStore.MAX_TEMPLATES + 11, store.getOmittedCount());
+  }
+
+  @Test
+  public void replaceTheVariableWordsOfTheTemplate() {
+    Assert.assertEquals("File {} not found in {}", IssueStore.templateOf("File data/a.txt not found in METS.xml"));
+    Assert.assertEquals("Found {} files", IssueStore.templateOf("Found 12 files"));
+    Assert.assertEquals("Missing file.", IssueStore.templateOf("Missing file."));
+
+    Assert.assertTrue(IssueStore.isVariable("file1"));
+    Assert.assertTrue(IssueStore.isVariable("a.txt"));
+    Assert.assertTrue(IssueStore.isVariable("representations/rep1/METS.xml"));
+    Assert.assertFalse(IssueStore.isVariable("file."));
+    Assert.assertFalse(IssueStore.isVariable(".hidden"));
+    Assert.assertFalse(IssueStore.isVariable("METS"));
+  }
+
+  @Test
+  public void spillTheOmittedIssues() throws IOException {
+    System.setProperty(IssueStore.SPILL_DIRECTORY_PROPERTY, spillDirectory.toString());
+    final IssueStore store = new IssueStore(1);
+    store.addAll(Arrays.asList("Issue 1", "Issue 2", "Issue\n3"));
+    store.closeSpillFile();
+
+    Assert.assertEquals(Arrays.asList("Issue 2", "Issue 3"), Files.readAllLines(store.getSpillFile()));
+
+    store.add("Issue 4");
+    store.closeSpillFile();
+    Assert.assertEquals(Arrays.asList("Issue 2", "Issue 3", "Issue 4"), Files.readAllLines(store.getSpillFile()));
+    Assert.assertEquals(1, spillFiles().size());
+  }
+
+  @Test
+  public void moveTheSpillFileWhenMerging() throws IOException {
+    System.setProperty(IssueStore.SPILL_DIRECTORY_PROPERTY, spillDirectory.toString());
+    final IssueStore store = new IssueStore(1);
+    store.addAll(Arrays.asList("Issue 1", "Issue 2"));
+    final IssueStore other = new IssueStore(1);
+    other.addAll(Arrays.asList("Issue 3", "Issue 4"));
+    final Path otherSpillFile = other.getSpillFile();
+
+    store.addAll(other);
+    store.closeSpillFile();
+
+    Assert.assertEquals(4, store.getCount());
+    Assert.assertEquals(3, store.getOmittedCount());
+    Assert.assertEquals(Long.valueOf(3), store.getOmittedCounts().get("Issue {}"));
+    Assert.assertEquals(Arrays.asList("Issue 2", "Issue 3", "Issue 4"), Files.readAllLines(store.getSpillFile()));
+    Assert.assertNull(other.getSpillFile());
+    Assert.assertFalse(Files.exists(otherSpillFile));
+    Assert.assertEquals(Arrays.asList(store.getSpillFile()), spillFiles());
+
+    final IssueStore empty = new IssueStore(0);
+    empty.addAll(store);
+    empty.closeSpillFile();
+    Assert.assertEquals(Arrays.asList(empty.getSpillFile()), spillFiles());
+    Assert.assertEquals(Arrays.asList("Issue 1", "Issue 2", "Issue 3", "Issue 4"),
+      Files.readAllLines(empty.getSpillFile()));
+  }
+
+  @Test
+  public void copyTheSpillFileWhenCopying() throws IOException {
+    System.setProperty(IssueStore.SPILL_DIRECTORY_PROPERTY, spillDirectory.toString());
+    final IssueStore store = new IssueStore(1);
+    store.addAll(Arrays.asList("Issue 1", "Issue 2"));
+
+    final IssueStore copy = new IssueStore(store);
+    store.add("Issue 3");
+    store.closeSpillFile();
+
+    Assert.assertEquals(store.getSamples(), copy.getSamples());
+    Assert.assertEquals(1, copy.getOmittedCount());
+    Assert.assertNotEquals(store.getSpillFile(), copy.getSpillFile());
+    Assert.assertEquals(Arrays.asList("Issue 2"), Files.readAllLines(copy.getSpillFile()));
+    Assert.assertEquals(Arrays.asList("Issue 2", "Issue 3"), Files.readAllLines(store.getSpillFile()));
+  }
+
+  @Test
+  public void keepTheSpillFileOfEverySpecification() throws IOException {
+    System.setProperty(IssueStore.SPILL_DIRECTORY_PROPERTY, spillDirectory.toString());
+    System.setProperty(IssueStore.MAX_SAMPLES_PROPERTY, "0");
+    final ReporterDetails details = new ReporterDetails(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION,
+      "Issue 1", false, false);
+    final Map<String, ReporterDetails> results = new HashMap<>();
+
+    ResultsUtils.addResults(results, details, "CSIP1", "CSIP2");
+
+    Assert.assertEquals(2, spillFiles().size());
+    for (String id : Arrays.asList("CSIP1", "CSIP2")) {
+      final ReporterDetails result = results.get(id);
+      result.closeOmittedIssuesFile();
+      Assert.assertEquals(Arrays.asList("Issue 1"), Files.readAllLines(result.getOmittedIssuesFile()));
+    }
+  }
+
+  @Test
+  public void writeTheOmittedIssuesToTheReport() throws IOException {
+    System.setProperty(IssueStore.SPILL_DIRECTORY_PROPERTY, spillDirectory.toString());
+    System.setProperty(IssueStore.MAX_SAMPLES_PROPERTY, "1");
+    final ReporterDetails details = new ReporterDetails(Constants.VALIDATION_REPORT_HEADER_CSIP_VERSION,
+      Arrays.asList("File a.txt is missing", "File b.txt is missing", "File c.txt is missing"), false, false);
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    final ValidationReportOutputJson report = new ValidationReportOutputJson(Paths.get("sip.zip"), outputStream);
+    report.init("2.1.0");
+    report.getResults().put("CSIP1", details);
+    report.validationResults();
+    report.writeFinalResult();
+    report.close();
+
+    final JsonNode testing = new ObjectMapper().readTree(outputStream.toString(StandardCharsets.UTF_8))
+      .get(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_VALIDATION).get(0)
+      .get(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_TESTING);
+    Assert.assertEquals(3, testing.get(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_ISSUE_COUNT).asInt());
+    Assert.assertEquals(2, testing.get(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_OMITTED_ISSUES)
+      .get("File {} is missing").asInt());
+    final Path omittedIssuesFile = Paths
+      .get(testing.get(Constants.VALIDATION_REPORT_SPECIFICATION_KEY_TESTING_OMITTED_ISSUES_FILE).asText());
+    Assert.assertEquals(Arrays.asList("File b.txt is missing", "File c.txt is missing"),
+      Files.readAllLines(omittedIssuesFile));
+  }
+
+  private List<Path> spillFiles() throws IOException {
+    try (Stream<Path> files = Files.list(spillDirectory)) {
+      return files.collect(Collectors.toList());
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.validator.reporter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.roda_project.commons_ip2.validator.constants.ConstantsAIPspec;
+import org.roda_project.commons_ip2.validator.constants.ConstantsCSIPspec;
+
+public class RequirementResultsTest {
+  private static final List<String> REPORT_ORDER = Arrays.asList("CSIPSTR1", "CSIPSTR16", "CSIP0", "CSIP2",
+    "CSIP10", "CSIP119", "SIP1", "SIP35", "AIP1", "AIP15", "OTHER1", "OTHER2");
+
+  @Test
+  public void indexTheRequirementsOfTheSpecifications() {
+    Assert.assertTrue(RequirementIds.indexOf(ConstantsCSIPspec.VALIDATION_REPORT_SPECIFICATION_CSIP119_ID) >= 0);
+    Assert.assertTrue(RequirementIds.indexOf(ConstantsAIPspec.VALIDATION_REPORT_SPECIFICATION_AIP15_ID) >= 0);
+    Assert.assertEquals(-1, RequirementIds.indexOf("CSIP1000"));
+    Assert.assertEquals(-1, RequirementIds.indexOf("OTHER1"));
+    for (int index = 0; index < RequirementIds.size(); index++) {
+      Assert.assertEquals(index, RequirementIds.indexOf(RequirementIds.idOf(index)));
+    }
+  }
+
+  @Test
+  public void iterateInReportOrder() {
+    final RequirementResults results = new RequirementResults();
+    final List<String> shuffled = new ArrayList<>(REPORT_ORDER);
+    Collections.shuffle(shuffled, new Random(42));
+    for (String id : shuffled) {
+      results.put(id, new ReporterDetails());
+    }
+
+    Assert.assertEquals(REPORT_ORDER, new ArrayList<>(results.keySet()));
+    shuffled.sort(new RequirementsComparator());
+    Assert.assertEquals(REPORT_ORDER.subList(0, REPORT_ORDER.size() - 2),
+      shuffled.subList(0, REPORT_ORDER.size() - 2));
+  }
+
+  @Test
+  public void keepUnknownRequirements() {
+    final RequirementResults results = new RequirementResults();
+    final ReporterDetails details = new ReporterDetails();
+    final ReporterDetails other = new ReporterDetails();
+
+    Assert.assertNull(results.put("OTHER1", details));
+    Assert.assertSame(details, results.put("OTHER1", other));
+    Assert.assertSame(other, results.get("OTHER1"));
+    Assert.assertTrue(results.containsKey("OTHER1"));
+    Assert.assertFalse(results.containsKey("OTHER2"));
+    Assert.assertNull(results.get(null));
+    Assert.assertNull(results.get(1));
+    Assert.assertFalse(results.containsKey(null));
+    Assert.assertNull(results.remove(1));
+    Assert.assertEquals(1, results.size());
+
+    Assert.assertSame(other, results.remove("OTHER1"));
+    Assert.assertTrue(results.isEmpty());
+  }
+
+  @Test
+  public void keepSizeAndKeysConsistent() {
+    final RequirementResults results = new RequirementResults();
+    final ReporterDetails details = new ReporterDetails();
+
+    Assert.assertNull(results.put("CSIP1", details));
+    Assert.assertSame(details, results.put("CSIP1", new ReporterDetails()));
+    Assert.assertEquals(1, results.size());
+    Assert.assertTrue(results.containsKey("CSIP1"));
+    Assert.assertFalse(results.containsKey("CSIP2"));
+    Assert.assertNull(results.get("CSIP2"));
+
+    Assert.assertNull(results.remove("CSIP2"));
+    Assert.assertNotNull(results.remove("CSIP1"));
+    Assert.assertNull(results.remove("CSIP1"));
+    Assert.assertEquals(0, results.size());
+    Assert.assertFalse(results.containsKey("CSIP1"));
+
+    results.put("CSIP1", details);
+    results.put("OTHER1", details);
+    results.clear();
+    Assert.assertTrue(results.isEmpty());
+    Assert.assertFalse(results.entrySet().iterator().hasNext());
+  }
+
+  @Test
+  public void removeThroughTheIterator() {
+    final RequirementResults results = new RequirementResults();
+    for (String id : REPORT_ORDER) {
+      results.put(id, new ReporterDetails());
+    }
+
+    final Iterator<Map.Entry<String, ReporterDetails>> iterator = results.entrySet().iterator();
+    final List<String> kept = new ArrayList<>();
+    int position = 0;
+    while (iterator.hasNext()) {
+      final String id = iterator.next().getKey();
+      if (position++ % 2 == 0) {
+        iterator.remove();
+        Assert.assertFalse(results.containsKey(id));
+      } else {
+        kept.add(id);
+      }
+    }
+
+    Assert.assertEquals(kept, new ArrayList<>(results.keySet()));
+    Assert.assertEquals(kept.size(), results.size());
+    Assert.assertEquals(kept.size(), results.entrySet().size());
+    for (String id : kept) {
+      Assert.assertTrue(results.containsKey(id));
+    }
+
+    final Iterator<Map.Entry<String, ReporterDetails>> removeTwice = results.entrySet().iterator();
+    removeTwice.next();
+    removeTwice.remove();
+    Assert.assertThrows(IllegalStateException.class, removeTwice::remove);
+  }
+
+  @Test
+  public void writeEntryValuesThrough() {
+    final RequirementResults results = new RequirementResults();
+    results.put("CSIP1", new ReporterDetails());
+    final ReporterDetails details = new ReporterDetails();
+
+    results.entrySet().iterator().next().setValue(details);
+
+    Assert.assertSame(details, results.get("CSIP1"));
+    Assert.assertEquals(Map.entry("CSIP1", details), results.entrySet().iterator().next());
+  }
+}
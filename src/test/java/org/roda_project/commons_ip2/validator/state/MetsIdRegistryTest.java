@@ -0,0 +1,205 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE file at the root of the source
+ * tree and available online at
+ *
+ * https://github.com/keeps/commons-ip
+ */
+package org.roda_project.commons_ip2.validator.state;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.roda_project.commons_ip2.mets_v1_12.beans.AmdSecType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.DivType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.FileType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.MdSecType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.Mets;
+import org.roda_project.commons_ip2.mets_v1_12.beans.MetsType;
+import org.roda_project.commons_ip2.mets_v1_12.beans.StructMapType;
+
+public class MetsIdRegistryTest {
+  @Test
+  public void registerDuplicatedIds() {
+    final MetsIdRegistry registry = new MetsIdRegistry();
+
+    Assert.assertTrue(registry.register("id1", MetsIdRegistry.DIV));
+    Assert.assertTrue(registry.register("id2", MetsIdRegistry.FILE));
+    Assert.assertFalse(registry.register("id1", MetsIdRegistry.FILE_GRP));
+    Assert.assertFalse(registry.register("id1", MetsIdRegistry.DIV));
+
+    Assert.assertTrue(registry.contains("id1"));
+    Assert.assertFalse(registry.contains("id3"));
+    Assert.assertEquals(MetsIdRegistry.DIV, registry.getType("id1"));
+    Assert.assertNull(registry.getType("id3"));
+
+    registry.clear();
+    Assert.assertFalse(registry.contains("id1"));
+    Assert.assertTrue(registry.register("id1", MetsIdRegistry.FILE));
+  }
+
+  @Test
+  public void lookUpByType() {
+    final MetsIdRegistry registry = new MetsIdRegistry();
+    final Object div = new Object();
+    final Object fileGrp = new Object();
+    final Object otherFileGrp = new Object();
+    registry.register("id1", MetsIdRegistry.DIV, div);
+    registry.register("id1", MetsIdRegistry.FILE_GRP, fileGrp);
+    registry.register("id1", MetsIdRegistry.FILE_GRP, otherFileGrp);
+    registry.register("id2", MetsIdRegistry.TECH_MD);
+
+    Assert.assertTrue(registry.contains("id1", MetsIdRegistry.DIV));
+    Assert.assertTrue(registry.contains("id1", MetsIdRegistry.FILE_GRP));
+    Assert.assertTrue(registry.contains("id2", MetsIdRegistry.DIGIPROV_MD, MetsIdRegistry.TECH_MD));
+    Assert.assertFalse(registry.contains("id1", MetsIdRegistry.FILE));
+    Assert.assertFalse(registry.contains("id3", MetsIdRegistry.DIV));
+
+    Assert.assertEquals(Arrays.asList(fileGrp, otherFileGrp), registry.getElements("id1", MetsIdRegistry.FILE_GRP));
+    Assert.assertEquals(Collections.singletonList(div), registry.getElements("id1", MetsIdRegistry.DIV));
+    Assert.assertTrue(registry.getElements("id1", MetsIdRegistry.FILE).isEmpty());
+    Assert.assertTrue(registry.getElements("id3", MetsIdRegistry.FILE_GRP).isEmpty());
+  }
+
+  @Test
+  public void registerTheDeclaredIdsOfTheMets() {
+    final Mets mets = createMets();
+    final MetsIdRegistry registry = MetsIdRegistry.of(mets);
+
+    Assert.assertTrue(registry.contains("dmd1", MetsIdRegistry.DMD_SEC));
+    Assert.assertTrue(registry.contains("dmd1-ref", MetsIdRegistry.DMD_SEC_MD_REF));
+    Assert.assertTrue(registry.contains("amd1", MetsIdRegistry.AMD_SEC));
+    Assert.assertTrue(registry.contains("digiprov1", MetsIdRegistry.DIGIPROV_MD));
+    Assert.assertTrue(registry.contains("digiprov1-ref", MetsIdRegistry.DIGIPROV_MD_MD_REF));
+    Assert.assertTrue(registry.contains("rights1", MetsIdRegistry.RIGHTS_MD));
+    Assert.assertTrue(registry.contains("file-sec", MetsIdRegistry.FILE_SEC));
+    Assert.assertTrue(registry.contains("file1", MetsIdRegistry.FILE));
+    Assert.assertFalse(registry.contains("struct-map"));
+
+    // the representations file group shares its id with the dmdSec
+    Assert.assertEquals(MetsIdRegistry.DMD_SEC, registry.getType("dmd1"));
+    Assert.assertEquals(Collections.singletonList(fileGrp(mets, "Representations")),
+      registry.getElements("dmd1", MetsIdRegistry.FILE_GRP));
+  }
+
+  @Test
+  public void createTheDeclaredIdsOnceForEachMets() {
+    final MetsValidatorState state = new MetsValidatorState();
+    state.setMets(createMets());
+    final MetsIdRegistry declaredIds = state.getDeclaredIds();
+
+    Assert.assertSame(declaredIds, state.getDeclaredIds());
+    state.setMets(createMets());
+    Assert.assertNotSame(declaredIds, state.getDeclaredIds());
+
+    state.addMetsInternalId("id1", MetsIdRegistry.DIV);
+    Assert.assertTrue(state.checkMetsInternalId("id1"));
+    state.flushEntries();
+    Assert.assertFalse(state.checkMetsInternalId("id1"));
+  }
+
+  /**
+   * Creates a METS with a dmdSec, an amdSec, Documentation, Schemas and
+   * Representations file groups and a CSIP structMap. The Representations file
+   * group has the same id as the dmdSec.
+   *
+   * @return the {@link Mets}
+   */
+  public static Mets createMets() {
+    final Mets mets = new Mets();
+
+    final MdSecType dmdSec = mdSec("dmd1", "dmd1-ref");
+    mets.getDmdSec().add(dmdSec);
+
+    final AmdSecType amdSec = new AmdSecType();
+    amdSec.setID("amd1");
+    amdSec.getDigiprovMD().add(mdSec("digiprov1", "digiprov1-ref"));
+    amdSec.getRightsMD().add(mdSec("rights1", null));
+    mets.getAmdSec().add(amdSec);
+
+    final MetsType.FileSec fileSec = new MetsType.FileSec();
+    fileSec.setID("file-sec");
+    final MetsType.FileSec.FileGrp documentation = fileGrp("grp-documentation", "Documentation");
+    final FileType file = new FileType();
+    file.setID("file1");
+    documentation.getFile().add(file);
+    fileSec.getFileGrp().add(documentation);
+    fileSec.getFileGrp().add(fileGrp("grp-schemas", "Schemas"));
+    fileSec.getFileGrp().add(fileGrp("dmd1", "Representations"));
+    mets.setFileSec(fileSec);
+
+    final StructMapType structMap = new StructMapType();
+    structMap.setID("struct-map");
+    structMap.setLABEL("CSIP");
+    final DivType root = new DivType();
+    root.getDiv().add(div("Metadata"));
+    root.getDiv().add(div("Documentation"));
+    root.getDiv().add(div("Schemas"));
+    root.getDiv().add(div("Representations"));
+    structMap.setDiv(root);
+    mets.getStructMap().add(structMap);
+    return mets;
+  }
+
+  /**
+   * Get the first division of the CSIP structMap with a label.
+   *
+   * @param mets
+   *          the {@link Mets} created by {@link #createMets()}
+   * @param label
+   *          the label
+   * @return the {@link DivType}
+   */
+  public static DivType div(final Mets mets, final String label) {
+    return mets.getStructMap().get(0).getDiv().getDiv().stream().filter(d -> label.equals(d.getLABEL())).findFirst()
+      .orElseThrow();
+  }
+
+  /**
+   * Get the file group with a USE.
+   *
+   * @param mets
+   *          the {@link Mets} created by {@link #createMets()}
+   * @param use
+   *          the USE
+   * @return the {@link MetsType.FileSec.FileGrp}
+   */
+  public static MetsType.FileSec.FileGrp fileGrp(final Mets mets, final String use) {
+    return mets.getFileSec().getFileGrp().stream().filter(g -> use.equals(g.getUSE())).findFirst().orElseThrow();
+  }
+
+  /**
+   * Creates a metadata section.
+   *
+   * @param id
+   *          the identifier
+   * @param mdRefId
+   *          the identifier of its mdRef, {@code null} for none
+   * @return the {@link MdSecType}
+   */
+  public static MdSecType mdSec(final String id, final String mdRefId) {
+    final MdSecType mdSec = new MdSecType();
+    mdSec.setID(id);
+    if (mdRefId != null) {
+      final MdSecType.MdRef mdRef = new MdSecType.MdRef();
+      mdRef.setID(mdRefId);
+      mdSec.setMdRef(mdRef);
+    }
+    return mdSec;
+  }
+
+  private static MetsType.FileSec.FileGrp fileGrp(final String id, final String use) {
+    final MetsType.FileSec.FileGrp fileGrp = new MetsType.FileSec.FileGrp();
+    fileGrp.setID(id);
+    fileGrp.setUSE(use);
+    return fileGrp;
+  }
+
+  private static DivType div(final String label) {
+    final DivType div = new DivType();
+    div.setLABEL(label);
+    return div;
+  }
+}